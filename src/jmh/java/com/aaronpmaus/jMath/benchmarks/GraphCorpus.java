@@ -0,0 +1,124 @@
+package com.aaronpmaus.jMath.benchmarks;
+
+import com.aaronpmaus.jMath.graph.Edge;
+import com.aaronpmaus.jMath.graph.UndirectedGraph;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+* The graphs the benchmarks are run on.
+* <p>
+* A graph is named either by a DIMACS file bundled as a resource in the graph package, for example
+* {@code brock200_2}, or as {@code gnp-n-p}, for example {@code gnp-200-0.5}, for a G(n,p) random
+* graph on n vertices where each edge is present with probability p. G(n,p) graphs are generated
+* with a seed derived from their name, so a name always gives the same graph and results can be
+* compared between releases.
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class GraphCorpus {
+  private static final String RESOURCE_DIR = "/com/aaronpmaus/jMath/graph/";
+  private static final String GNP_PREFIX = "gnp-";
+
+  private GraphCorpus() {
+  }
+
+  /**
+  * Builds the graph with the given name.
+  * @param name the name of a bundled DIMACS file without its extension, or gnp-n-p
+  * @return the graph with that name
+  * @throws IllegalArgumentException if a gnp name is malformed or no such DIMACS file is bundled
+  * @since 0.15.0
+  */
+  public static UndirectedGraph<Integer> load(String name) {
+    if(name.startsWith(GNP_PREFIX)) {
+      String[] tokens = name.substring(GNP_PREFIX.length()).split("-");
+      if(tokens.length != 2) {
+        throw new IllegalArgumentException("G(n,p) graphs are named gnp-n-p, not " + name);
+      }
+      int n = Integer.parseInt(tokens[0]);
+      double p = Double.parseDouble(tokens[1]);
+      return randomGraph(n, p, name.hashCode());
+    }
+    InputStream stream = GraphCorpus.class.getResourceAsStream(RESOURCE_DIR + name + ".dimacs");
+    if(stream == null) {
+      throw new IllegalArgumentException("No DIMACS file bundled for graph " + name);
+    }
+    return GraphIO.readFromDimacsFile(stream, name + ".dimacs");
+  }
+
+  /**
+  * Returns the graph with the given name as the bytes of a DIMACS file, so that parsing can be
+  * benchmarked without reading from disk.
+  * @param name the name of the graph
+  * @return the contents of a DIMACS file for that graph
+  * @since 0.15.0
+  */
+  public static byte[] loadDimacsBytes(String name) {
+    if(!name.startsWith(GNP_PREFIX)) {
+      try(InputStream stream = GraphCorpus.class.getResourceAsStream(RESOURCE_DIR + name + ".dimacs")) {
+        if(stream == null) {
+          throw new IllegalArgumentException("No DIMACS file bundled for graph " + name);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1 << 16];
+        int read;
+        while((read = stream.read(buffer)) != -1) {
+          bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    UndirectedGraph<Integer> graph = load(name);
+    StringBuilder dimacs = new StringBuilder();
+    dimacs.append(String.format("c %s\n", name));
+    dimacs.append(String.format("p col %d %d\n", graph.size(), graph.numEdges()));
+    for(Edge<Integer> e : graph.getEdges()) {
+      dimacs.append(String.format("e %d %d\n", e.getStart().get(), e.getEnd().get()));
+    }
+    return dimacs.toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+  * Wraps the bytes of a DIMACS file in a stream for GraphIO.
+  * @param dimacs the contents of a DIMACS file
+  * @return an InputStream over those contents
+  * @since 0.15.0
+  */
+  public static InputStream asStream(byte[] dimacs) {
+    return new ByteArrayInputStream(dimacs);
+  }
+
+  /**
+  * Builds a G(n,p) random graph with vertices 1 through n.
+  * @param n the number of vertices
+  * @param p the probability each edge is present
+  * @param seed the seed for the random number generator
+  * @return the random graph
+  * @since 0.15.0
+  */
+  public static UndirectedGraph<Integer> randomGraph(int n, double p, long seed) {
+    Random random = new Random(seed);
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>(n);
+    for(int i = 1; i <= n; i++) {
+      graph.addVertex(i);
+    }
+    for(int i = 1; i <= n; i++) {
+      for(int j = i + 1; j <= n; j++) {
+        if(random.nextDouble() < p) {
+          graph.addEdge(i, j);
+        }
+      }
+    }
+    return graph;
+  }
+}
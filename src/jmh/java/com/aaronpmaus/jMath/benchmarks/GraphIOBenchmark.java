@@ -0,0 +1,47 @@
+package com.aaronpmaus.jMath.benchmarks;
+
+import com.aaronpmaus.jMath.graph.UndirectedGraph;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks reading graphs from DIMACS files. The files are held in memory so that only parsing
+* and building the graph is timed, not the disk.
+* @version 0.15.0
+* @since 0.15.0
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphIOBenchmark {
+  @Param({"brock200_2", "p_hat300_1", "c250.9", "gnp-1000-0.1"})
+  public String graphName;
+
+  private byte[] dimacs;
+
+  @Setup
+  public void setUp() {
+    dimacs = GraphCorpus.loadDimacsBytes(graphName);
+  }
+
+  @Benchmark
+  public UndirectedGraph<Integer> readFromDimacsFile() {
+    return GraphIO.readFromDimacsFile(GraphCorpus.asStream(dimacs), graphName);
+  }
+}
@@ -0,0 +1,86 @@
+package com.aaronpmaus.jMath.benchmarks;
+
+import com.aaronpmaus.jMath.linearAlgebra.Matrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks multiplying two random size by size matrices: the tiled kernel on one thread, split
+* across the common ForkJoinPool, and the textbook triple loop over Double[][] that Matrix used to
+* run, as a baseline.
+* <p>
+* The scores are operations per second. A product does 2 * size^3 floating point operations, so
+* GFLOP/s is 2 * size^3 * score / 10^9.
+* @version 0.15.0
+* @since 0.15.0
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatrixBenchmark {
+  @Param({"64", "256", "1024"})
+  public int size;
+
+  private Matrix a;
+  private Matrix b;
+  private Double[][] aValues;
+  private Double[][] bValues;
+
+  @Setup
+  public void setUp() {
+    a = randomMatrix(size, 1);
+    b = randomMatrix(size, 2);
+    aValues = a.toArray();
+    bValues = b.toArray();
+  }
+
+  @Benchmark
+  public Matrix multiplySingleThreaded() {
+    return a.multiply(b, 1);
+  }
+
+  @Benchmark
+  public Matrix multiplyParallel() {
+    return a.multiply(b);
+  }
+
+  @Benchmark
+  public Double[][] multiplyTextbook() {
+    Double[][] product = new Double[size][size];
+    for(int i = 0; i < size; i++) {
+      for(int j = 0; j < size; j++) {
+        double dotProduct = 0.0;
+        for(int k = 0; k < size; k++) {
+          dotProduct += aValues[i][k] * bValues[k][j];
+        }
+        product[i][j] = dotProduct;
+      }
+    }
+    return product;
+  }
+
+  private static Matrix randomMatrix(int size, long seed) {
+    Random random = new Random(seed);
+    double[] values = new double[size * size];
+    for(int i = 0; i < values.length; i++) {
+      values[i] = random.nextDouble();
+    }
+    return new Matrix(size, size, values);
+  }
+}
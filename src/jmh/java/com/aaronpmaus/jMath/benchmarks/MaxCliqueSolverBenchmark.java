@@ -0,0 +1,69 @@
+package com.aaronpmaus.jMath.benchmarks;
+
+import com.aaronpmaus.jMath.graph.BitSetMaxCliqueSolver;
+import com.aaronpmaus.jMath.graph.IncMaxCliqueAdapter;
+import com.aaronpmaus.jMath.graph.IncMaxCliqueSolver;
+import com.aaronpmaus.jMath.graph.MausMaxCliqueSolver;
+import com.aaronpmaus.jMath.graph.MaxCliqueSolver;
+import com.aaronpmaus.jMath.graph.UndirectedGraph;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks findMaxClique for each MaxCliqueSolver over the corpus. The graphs are small enough
+* that the slowest solver, IncMaxCliqueSolver, finishes each in a few seconds. The IncMaxClique
+* native executable is not benchmarked since it has to be on the PATH.
+* @version 0.15.0
+* @since 0.15.0
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MaxCliqueSolverBenchmark {
+  @Param({"inc-adapter", "inc-solver", "maus", "bitset", "bitset-parallel"})
+  public String solverName;
+
+  @Param({"gnp-100-0.5", "gnp-200-0.3", "brock200_2", "p_hat300_1"})
+  public String graphName;
+
+  private MaxCliqueSolver<Integer> solver;
+  private UndirectedGraph<Integer> graph;
+
+  @Setup
+  public void setUp() {
+    graph = GraphCorpus.load(graphName);
+    if(solverName.equals("inc-adapter")) {
+      solver = new IncMaxCliqueAdapter();
+    } else if(solverName.equals("inc-solver")) {
+      solver = new IncMaxCliqueSolver();
+    } else if(solverName.equals("maus")) {
+      solver = new MausMaxCliqueSolver();
+    } else if(solverName.equals("bitset")) {
+      solver = new BitSetMaxCliqueSolver();
+    } else if(solverName.equals("bitset-parallel")) {
+      solver = new BitSetMaxCliqueSolver(Runtime.getRuntime().availableProcessors());
+    } else {
+      throw new IllegalArgumentException("Unknown solver " + solverName);
+    }
+  }
+
+  @Benchmark
+  public UndirectedGraph<Integer> findMaxClique() {
+    return solver.findMaxClique(graph);
+  }
+}
@@ -0,0 +1,73 @@
+package com.aaronpmaus.jMath.benchmarks;
+
+import com.aaronpmaus.jMath.graph.MaxSatUB;
+import com.aaronpmaus.jMath.graph.Node;
+import com.aaronpmaus.jMath.graph.UndirectedGraph;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks the MaxSatUB upper bound: building the encoding of a graph, bounding the whole graph
+* from scratch, and bounding the neighborhood of a vertex with an encoding that is reused, as the
+* clique solvers do inside their search.
+* @version 0.15.0
+* @since 0.15.0
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaxSatUBBenchmark {
+  @Param({"brock200_2", "p_hat300_1", "c125.9", "gnp-200-0.5"})
+  public String graphName;
+
+  private UndirectedGraph<Integer> graph;
+  private MaxSatUB maxSatUB;
+  // the vertex with the most neighbors
+  private Integer hub;
+
+  @Setup
+  public void setUp() {
+    graph = GraphCorpus.load(graphName);
+    maxSatUB = new MaxSatUB(graph);
+    int maxDegree = -1;
+    for(Node<Integer> node : graph) {
+      if(node.numNeighbors() > maxDegree) {
+        maxDegree = node.numNeighbors();
+        hub = node.get();
+      }
+    }
+  }
+
+  @Benchmark
+  public MaxSatUB encode() {
+    return new MaxSatUB(graph);
+  }
+
+  @Benchmark
+  public int estimateCardinality() {
+    return new MaxSatUB(graph).estimateCardinality(graph);
+  }
+
+  @Benchmark
+  public int estimateNeighborhoodCardinality() {
+    maxSatUB.retainNeighbors(hub);
+    int bound = maxSatUB.estimateCardinality();
+    maxSatUB.restoreActive();
+    return bound;
+  }
+}
@@ -0,0 +1,86 @@
+package com.aaronpmaus.jMath.benchmarks;
+
+import com.aaronpmaus.jMath.linearAlgebra.PointCloud3D;
+import com.aaronpmaus.jMath.linearAlgebra.Vector3D;
+import com.aaronpmaus.jMath.transformations.Transformation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks applying a rotation and translation to size random points: a Vector3D at a time, and
+* to a PointCloud3D on one thread and split across the common ForkJoinPool. The transformation
+* and its inverse are applied in turn so the points stay in place.
+* <p>
+* The scores are microseconds for one transformation of every point.
+* @version 0.15.0
+* @since 0.15.0
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointCloudBenchmark {
+  @Param({"1000", "100000", "1000000"})
+  public int size;
+
+  private Vector3D[] points;
+  private PointCloud3D cloud;
+  private Transformation[] transformations;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(1);
+    points = new Vector3D[size];
+    cloud = new PointCloud3D(size);
+    for(int i = 0; i < size; i++) {
+      points[i] = new Vector3D(random.nextDouble(), random.nextDouble(), random.nextDouble());
+      cloud.setPoint(i, points[i]);
+    }
+    Transformation t = new Transformation();
+    t.addRotationAboutAxis(new Vector3D(1.0, 2.0, 3.0), 30.0);
+    t.addTranslation(new Vector3D(1.0, -1.0, 0.5));
+    transformations = new Transformation[]{t, t.inverse()};
+  }
+
+  private Transformation nextTransformation() {
+    next ^= 1;
+    return transformations[next];
+  }
+
+  @Benchmark
+  public Vector3D[] transformVector3Ds() {
+    Transformation t = nextTransformation();
+    for(Vector3D point : points) {
+      point.applyTransformation(t);
+    }
+    return points;
+  }
+
+  @Benchmark
+  public PointCloud3D transformCloudSingleThreaded() {
+    cloud.applyTransformation(nextTransformation(), 1);
+    return cloud;
+  }
+
+  @Benchmark
+  public PointCloud3D transformCloudParallel() {
+    cloud.applyTransformation(nextTransformation());
+    return cloud;
+  }
+}
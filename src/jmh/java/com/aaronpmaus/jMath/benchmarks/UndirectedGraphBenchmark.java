@@ -0,0 +1,86 @@
+package com.aaronpmaus.jMath.benchmarks;
+
+import com.aaronpmaus.jMath.graph.Node;
+import com.aaronpmaus.jMath.graph.UndirectedGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks the UndirectedGraph operations the clique solvers lean on: copying, taking induced
+* subgraphs, complementing, taking neighborhoods and ordering by degeneracy.
+* @version 0.15.0
+* @since 0.15.0
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UndirectedGraphBenchmark {
+  @Param({"brock200_2", "p_hat300_1", "c250.9", "gnp-1000-0.1"})
+  public String graphName;
+
+  private UndirectedGraph<Integer> graph;
+  // every other vertex of the graph
+  private List<Integer> half;
+  // the vertex with the most neighbors
+  private Integer hub;
+
+  @Setup
+  public void setUp() {
+    graph = GraphCorpus.load(graphName);
+    half = new ArrayList<Integer>();
+    hub = null;
+    int maxDegree = -1;
+    int i = 0;
+    for(Node<Integer> node : graph) {
+      if(i++ % 2 == 0) {
+        half.add(node.get());
+      }
+      if(node.numNeighbors() > maxDegree) {
+        maxDegree = node.numNeighbors();
+        hub = node.get();
+      }
+    }
+  }
+
+  @Benchmark
+  public UndirectedGraph<Integer> copy() {
+    return new UndirectedGraph<Integer>(graph);
+  }
+
+  @Benchmark
+  public UndirectedGraph<Integer> subset() {
+    return graph.subset(half);
+  }
+
+  @Benchmark
+  public UndirectedGraph<Integer> getComplement() {
+    return graph.getComplement();
+  }
+
+  @Benchmark
+  public UndirectedGraph<Integer> getNeighborhood() {
+    return graph.getNeighborhood(hub);
+  }
+
+  @Benchmark
+  public List<Integer> degeneracyOrdering() {
+    return graph.degeneracyOrdering();
+  }
+}
@@ -0,0 +1,332 @@
+package com.aaronpmaus.jMath.executables;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.CommandLineParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.Supplier;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+
+/**
+* <pre>
+* <code>
+* {@literal Usage: BatchFindMaxClique [<options>] --output FILE (--dir DIR | --manifest FILE)}
+*
+*   BatchFindMaxClique finds the MAX CLIQUE of many graphs in a single run.
+*   The graphs are DIMACS files or binary graph files, and they are solved
+*   several at a time on a shared pool of threads. The result of each graph
+*   is written to the output file as soon as it is solved, so the results of
+*   a batch that is interrupted are kept, and the batch can be resumed.
+*
+*   options :
+*       -h
+*           Display the usage file.
+*       --dir DIR
+*           Solve every file in DIR, in order of their names.
+*       --manifest FILE
+*           Solve the graph files named in FILE, one per line. Blank lines
+*           and lines starting with # are skipped.
+*       --output FILE
+*           The file the results are written to. If FILE ends in .csv, each
+*           result is a line of CSV with the columns graph, size,
+*           upper_bound, optimal, milliseconds, clique and error.
+*           Otherwise each result is a JSON object on its own line.
+*       --resume
+*           Keep the results already in the output file, skip their graphs
+*           and add the results of the rest. Graphs whose result is a
+*           failure are dropped from the file and solved again. Without
+*           --resume the output file is replaced.
+*       --threads N
+*           The number of graphs solved at once. Defaults to the number of
+*           processors.
+*       --time-limit SECONDS
+*           Stop the search of each graph after SECONDS seconds, which may
+*           be fractional, and write the largest clique found so far along
+*           with an upper bound on the size of the max clique. Defaults to
+*           no limit.
+*       --inc-adapter
+*           Use the in process IncMaxCliqueAdapter to find the max cliques.
+*       --inc-solver
+*           Use the IncMaxCliqueSolver to find the max cliques.
+*       --maus
+*           Use the MausMaxCliqueSolver to find the max cliques.
+*       --bitset
+*           Use the BitSetMaxCliqueSolver to find the max cliques. This is
+*           the default.
+*       --reduce
+*           Reduce each graph before searching it, as FindMaxClique does.
+*       --heuristic-time MS
+*           Before searching each graph, spend up to MS milliseconds
+*           improving the greedy starting clique with a local search.
+*           Defaults to 0, the greedy clique only.
+*       --order ORDER
+*           The order the vertices are renumbered in before searching:
+*           degeneracy, degree or rcm (reverse Cuthill-McKee). Defaults to
+*           degeneracy.
+*       --stats
+*           Collect statistics of each search and add them to its JSON
+*           result. They are not written to CSV.
+*
+* </code>
+* </pre>
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class BatchFindMaxClique {
+  private static String algorithm = "bitset";
+  private static boolean reduceGraph = false;
+  private static boolean resume = false;
+  private static boolean collectStats = false;
+  private static int numThreads = Runtime.getRuntime().availableProcessors();
+  private static long heuristicTimeLimit = 0;
+  private static long timeLimit = 0;
+  private static VertexRenumbering.Order vertexOrder = VertexRenumbering.Order.DEGENERACY;
+  private static String outputFileName;
+
+  public static void main(String[] arguments) {
+    CommandLineParser args = new CommandLineParser(arguments);
+    if(arguments.length == 0 || args.contains("-h")) {
+      printUsage();
+      System.exit(1);
+    }
+    List<String> graphFileNames = null;
+    try {
+      if(args.contains("--dir")) {
+        graphFileNames = listDirectory(args.getValue("--dir"));
+      } else if(args.contains("--manifest")) {
+        graphFileNames = readManifest(args.getValue("--manifest"));
+      }
+    } catch (IOException e) {
+      System.out.println("Could not list the graphs: " + e.getMessage());
+      System.exit(1);
+    }
+    if(graphFileNames == null || !args.contains("--output")) {
+      System.out.println("You must provide --output and one of --dir or --manifest.");
+      System.out.println();
+      printUsage();
+      System.exit(1);
+    }
+    outputFileName = args.getValue("--output");
+    for(String flag : Arrays.asList("--inc-adapter", "--inc-solver", "--maus", "--bitset")) {
+      if(args.contains(flag)) {
+        algorithm = flag.substring(2);
+      }
+    }
+    reduceGraph = args.contains("--reduce");
+    resume = args.contains("--resume");
+    collectStats = args.contains("--stats");
+    if(args.contains("--threads")) {
+      try {
+        numThreads = Integer.parseInt(args.getValue("--threads"));
+      } catch (NumberFormatException e) {
+        numThreads = 0;
+      }
+      if(numThreads < 1) {
+        usageError("--threads must be followed by a positive number of threads.");
+      }
+    }
+    if(args.contains("--heuristic-time")) {
+      try {
+        heuristicTimeLimit = Long.parseLong(args.getValue("--heuristic-time"));
+      } catch (NumberFormatException e) {
+        heuristicTimeLimit = -1;
+      }
+      if(heuristicTimeLimit < 0) {
+        usageError("--heuristic-time must be followed by a number of milliseconds.");
+      }
+    }
+    if(args.contains("--time-limit")) {
+      double seconds;
+      try {
+        seconds = Double.parseDouble(args.getValue("--time-limit"));
+      } catch (NumberFormatException e) {
+        seconds = -1;
+      }
+      if(!(seconds > 0)) {
+        usageError("--time-limit must be followed by a positive number of seconds.");
+      }
+      timeLimit = Math.max(1, Math.round(seconds * 1000));
+    }
+    if(args.contains("--order")) {
+      String order = args.getValue("--order");
+      if("degeneracy".equals(order)) {
+        vertexOrder = VertexRenumbering.Order.DEGENERACY;
+      } else if("degree".equals(order)) {
+        vertexOrder = VertexRenumbering.Order.DEGREE;
+      } else if("rcm".equals(order)) {
+        vertexOrder = VertexRenumbering.Order.REVERSE_CUTHILL_MCKEE;
+      } else {
+        usageError("--order must be followed by degeneracy, degree or rcm.");
+      }
+    }
+
+    final boolean csv = outputFileName.toLowerCase().endsWith(".csv");
+    final PrintWriter output;
+    try {
+      List<String> done = resume ? keepCompleteResults(outputFileName, csv)
+          : new ArrayList<String>();
+      graphFileNames = new ArrayList<String>(graphFileNames);
+      graphFileNames.removeAll(new HashSet<String>(done));
+      if(!done.isEmpty()) {
+        System.out.println("Resuming: " + done.size() + " graphs already solved.");
+      }
+      boolean append = resume && new File(outputFileName).length() > 0;
+      output = new PrintWriter(new FileWriter(outputFileName, append));
+      if(csv && !append) {
+        output.println(BatchResult.csvHeader());
+        output.flush();
+      }
+    } catch (IOException e) {
+      System.out.println("Could not open " + outputFileName + ": " + e.getMessage());
+      System.exit(1);
+      return;
+    }
+
+    System.out.println("Solving " + graphFileNames.size() + " graphs with the " + algorithm
+        + " algorithm on " + numThreads + " threads.");
+    MaxCliqueBatch batch = new MaxCliqueBatch(new Supplier<MaxCliqueSolver<Integer>>() {
+      @Override
+      public MaxCliqueSolver<Integer> get() {
+        return newSolver();
+      }
+    }, numThreads);
+    batch.setTimeLimit(timeLimit);
+    batch.setCollectStats(collectStats);
+    try {
+      batch.run(graphFileNames, new BatchListener() {
+        @Override
+        public void graphSolved(BatchResult result) {
+          System.out.println(result);
+          output.println(csv ? result.toCsv() : result.toJson());
+          output.flush();
+        }
+      });
+    } catch (InterruptedException e) {
+      System.out.println("Batch interrupted. Run again with --resume to finish it.");
+    } finally {
+      output.close();
+    }
+    System.out.println("Results written to " + outputFileName);
+  }
+
+  /*
+  * Builds the solver for a graph from the algorithm chosen, with the heuristic time limit and vertex
+  * order, and wraps it in a ReducingMaxCliqueSolver if --reduce was given.
+  */
+  private static MaxCliqueSolver<Integer> newSolver() {
+    MaxCliqueSolver<Integer> solver;
+    if(algorithm.equals("inc-adapter")) {
+      solver = new IncMaxCliqueAdapter();
+    } else if(algorithm.equals("inc-solver")) {
+      solver = new IncMaxCliqueSolver();
+    } else if(algorithm.equals("maus")) {
+      solver = new MausMaxCliqueSolver();
+    } else {
+      // the batch already runs a graph on each thread
+      solver = new BitSetMaxCliqueSolver(1);
+    }
+    solver.setHeuristicTimeLimit(heuristicTimeLimit);
+    solver.setVertexOrder(vertexOrder);
+    if(reduceGraph) {
+      solver.setHeuristicTimeLimit(0);
+      MaxCliqueSolver<Integer> reducing = new ReducingMaxCliqueSolver<Integer>(solver);
+      reducing.setHeuristicTimeLimit(heuristicTimeLimit);
+      return reducing;
+    }
+    return solver;
+  }
+
+  /*
+  * Returns the graphs that were solved in the output file, and rewrites it with only their results,
+  * so that a line cut off when the batch was interrupted is dropped before new results are added.
+  * The results of graphs that failed, such as by running out of memory, are dropped too so that
+  * their graphs are solved again.
+  */
+  private static List<String> keepCompleteResults(String fileName, boolean csv) throws IOException {
+    ArrayList<String> done = new ArrayList<String>();
+    File file = new File(fileName);
+    if(!file.exists()) {
+      return done;
+    }
+    ArrayList<String> lines = new ArrayList<String>();
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      String line;
+      while((line = reader.readLine()) != null) {
+        String graph = BatchResult.graphFileNameOf(line);
+        if(graph != null && !BatchResult.isFailure(line)) {
+          done.add(graph);
+          lines.add(line);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    PrintWriter writer = new PrintWriter(new FileWriter(file));
+    if(csv) {
+      writer.println(BatchResult.csvHeader());
+    }
+    for(String line : lines) {
+      writer.println(line);
+    }
+    writer.close();
+    return done;
+  }
+
+  private static List<String> listDirectory(String directoryName) throws IOException {
+    File[] files = new File(directoryName).listFiles();
+    if(files == null) {
+      throw new IOException(directoryName + " is not a directory.");
+    }
+    Arrays.sort(files);
+    ArrayList<String> fileNames = new ArrayList<String>(files.length);
+    for(File file : files) {
+      if(file.isFile()) {
+        fileNames.add(file.getPath());
+      }
+    }
+    return fileNames;
+  }
+
+  private static List<String> readManifest(String manifestName) throws IOException {
+    ArrayList<String> fileNames = new ArrayList<String>();
+    BufferedReader reader = new BufferedReader(new FileReader(manifestName));
+    try {
+      String line;
+      while((line = reader.readLine()) != null) {
+        line = line.trim();
+        if(!line.isEmpty() && !line.startsWith("#")) {
+          fileNames.add(line);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return fileNames;
+  }
+
+  private static void usageError(String message) {
+    System.out.println(message);
+    System.out.println();
+    printUsage();
+    System.exit(1);
+  }
+
+  private static void printUsage() {
+    InputStream stream = BatchFindMaxClique.class.getResourceAsStream("BatchFindMaxCliqueUsage.txt");
+    Scanner in = new Scanner(stream);
+    while(in.hasNextLine()) {
+      System.out.println(in.nextLine());
+    }
+  }
+}
@@ -10,6 +10,8 @@ import java.util.Date;
 import java.util.Collections;
 import java.util.Scanner;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -17,8 +19,9 @@ import java.io.InputStream;
 * <code>
 * {@literal Usage: FindMaxClique [<options>] <graph fname>}
 *
-*   FindMaxClique takes the file name of a DIMACS file specifying a graph
-*   and solves and prints the MAX CLIQUE in that graph. The user can
+*   FindMaxClique takes the file name of a DIMACS file or a binary graph
+*   file specifying a graph and solves and prints the MAX CLIQUE in that
+*   graph. The format of the file is detected automatically. The user can
 *   specify which algorithm to use.
 *
 *   The inc-adapter algorithm is an adapter to Li, Fang, and Xu's
@@ -28,32 +31,81 @@ import java.io.InputStream;
 *   inc-solver algorithm is this library's implementation of that
 *   algorithm. This implementation is in progress. The maus algorithm is
 *   an original algorithm for this library. It is not as efficient the
-*   Incremental Max Clique algorithms.
+*   Incremental Max Clique algorithms. The bitset algorithm is a
+*   bit-parallel branch and bound algorithm (BBMC, San Segundo et al.
+*   2011) that works on a bitset representation of the graph.
 *
 *   options :
 *       -h
 *           Display the usage file.
 *       --graph
-*           The file name of a DIMACS file containing the graph to find
-*           a MAX CLIQUE in.
+*           The file name of a DIMACS file or binary graph file containing
+*           the graph to find a MAX CLIQUE in.
+*       --save-binary FILE
+*           Write the graph to FILE as a binary graph file, which loads much
+*           faster than a DIMACS file. FILE can be given to --graph in later
+*           runs.
 *       --inc-adapter
 *           Use the IncMaxCliqueAdapter to find the max clique
+*       --native
+*           Run the inc-adapter algorithm with the IncMaxClique
+*           executable instead of in process. IncMaxCliqueLinux or
+*           IncMaxCliqueMac must be on the PATH.
 *       --inc-solver
 *           Use the IncMaxCliqueSolver to find the max clique
 *       --maus
 *           Use the MausMaxCliqueSolver to find the max clique
+*       --bitset
+*           Use the BitSetMaxCliqueSolver to find the max clique
+*       --reduce
+*           Before searching, find a clique with a greedy heuristic and
+*           reduce the graph to the connected components of its core that
+*           could hold a larger clique. Each component is searched with the
+*           chosen algorithm. This makes large sparse graphs much smaller.
+*       --heuristic-time MS
+*           Before searching, spend up to MS milliseconds improving the
+*           greedy starting clique with a local search. Defaults to 0, the
+*           greedy clique only.
+*       --order ORDER
+*           The order the vertices are renumbered in before searching:
+*           degeneracy, degree or rcm (reverse Cuthill-McKee). It changes
+*           how fast a search is, not the clique it finds. Defaults to
+*           degeneracy. The inc-solver algorithm uses its own order.
+*       --threads N
+*           The number of threads the bitset algorithm searches with.
+*           Defaults to 1.
+*       --time-limit SECONDS
+*           Stop searching after SECONDS seconds, which may be fractional,
+*           and print the largest clique found so far along with an upper
+*           bound on the size of the max clique. Defaults to no limit.
+*       --stats FILE
+*           Collect statistics of each search: the nodes explored, the
+*           branches pruned by each kind of bound, the time spent coloring
+*           and on MaxSAT reasoning, and when each larger clique was found.
+*           They are printed and written to FILE as a JSON object with a
+*           key for each algorithm run.
 *
 * </code>
 * </pre>
-* @version 0.13.1
+* @version 0.15.0
 * @since 0.4.0
 */
 public class FindMaxClique{
   private static boolean graphFileProvided = false;
   private static boolean runIncAdapter = false;
+  private static boolean useNativeBinary = false;
   private static boolean runIncSolver = false;
   private static boolean runMaus = false;
+  private static boolean runBitSet = false;
+  private static boolean reduceGraph = false;
+  private static int numThreads = 1;
+  private static VertexRenumbering.Order vertexOrder = VertexRenumbering.Order.DEGENERACY;
+  private static long heuristicTimeLimit = 0;
+  private static long timeLimit = 0;
   private static String graphFileName;
+  private static String binaryFileName;
+  private static String statsFileName;
+  private static StringBuilder statsJson = new StringBuilder();
   private static UndirectedGraph<Integer> graph;
 
   public static void main(String[] arguments) {
@@ -69,12 +121,83 @@ public class FindMaxClique{
       if(args.contains("--inc-adapter")) {
         runIncAdapter = true;
       }
+      if(args.contains("--native")) {
+        useNativeBinary = true;
+      }
       if(args.contains("--inc-solver")) {
         runIncSolver = true;
       }
       if(args.contains("--maus")) {
         runMaus = true;
       }
+      if(args.contains("--bitset")) {
+        runBitSet = true;
+      }
+      if(args.contains("--reduce")) {
+        reduceGraph = true;
+      }
+      if(args.contains("--stats")) {
+        statsFileName = args.getValue("--stats");
+      }
+      if(args.contains("--save-binary")) {
+        binaryFileName = args.getValue("--save-binary");
+      }
+      if(args.contains("--threads")) {
+        try {
+          numThreads = Integer.parseInt(args.getValue("--threads"));
+        } catch (NumberFormatException e) {
+          numThreads = 0;
+        }
+        if(numThreads < 1) {
+          System.out.println("--threads must be followed by a positive number of threads.");
+          System.out.println();
+          printUsage();
+          System.exit(1);
+        }
+      }
+      if(args.contains("--order")) {
+        String order = args.getValue("--order");
+        if("degeneracy".equals(order)) {
+          vertexOrder = VertexRenumbering.Order.DEGENERACY;
+        } else if("degree".equals(order)) {
+          vertexOrder = VertexRenumbering.Order.DEGREE;
+        } else if("rcm".equals(order)) {
+          vertexOrder = VertexRenumbering.Order.REVERSE_CUTHILL_MCKEE;
+        } else {
+          System.out.println("--order must be followed by degeneracy, degree or rcm.");
+          System.out.println();
+          printUsage();
+          System.exit(1);
+        }
+      }
+      if(args.contains("--heuristic-time")) {
+        try {
+          heuristicTimeLimit = Long.parseLong(args.getValue("--heuristic-time"));
+        } catch (NumberFormatException e) {
+          heuristicTimeLimit = -1;
+        }
+        if(heuristicTimeLimit < 0) {
+          System.out.println("--heuristic-time must be followed by a number of milliseconds.");
+          System.out.println();
+          printUsage();
+          System.exit(1);
+        }
+      }
+      if(args.contains("--time-limit")) {
+        double seconds;
+        try {
+          seconds = Double.parseDouble(args.getValue("--time-limit"));
+        } catch (NumberFormatException e) {
+          seconds = -1;
+        }
+        if(!(seconds > 0)) {
+          System.out.println("--time-limit must be followed by a positive number of seconds.");
+          System.out.println();
+          printUsage();
+          System.exit(1);
+        }
+        timeLimit = Math.max(1, Math.round(seconds * 1000));
+      }
       if(!graphFileProvided) {
         System.out.println("You must provide a graph DIMACS file.");
         System.out.println();
@@ -85,54 +208,138 @@ public class FindMaxClique{
         try {
 
           long graphBuildStart = new Date().getTime();
-          graph = GraphIO.readFromDimacsFile(graphFileName);
+          graph = GraphIO.readGraphFile(graphFileName);
           graph.setGraphFileName("g.dimacs");
           long graphBuildEnd = new Date().getTime();
-          System.out.println("Graph built from dimacs file " + graphFileName + " in "
+          System.out.println("Graph built from file " + graphFileName + " in "
               + (graphBuildEnd-graphBuildStart) + " milliseconds.");
           System.out.println("Graph Density: " + graph.density());
         } catch (FileNotFoundException e) {
           System.out.println(graphFileName + " not found. input proper filename or check file");
           System.exit(1);
+        } catch (IOException e) {
+          System.out.println("Could not read " + graphFileName + ": " + e.getMessage());
+          System.exit(1);
+        }
+      }
+
+      if(binaryFileName != null) {
+        try {
+          GraphIO.writeBinary(graph, binaryFileName);
+          System.out.println("Graph written to binary graph file " + binaryFileName);
+        } catch (IOException e) {
+          System.out.println("Could not write " + binaryFileName + ": " + e.getMessage());
+          System.exit(1);
         }
       }
 
       if(runIncAdapter) {
         System.out.println("########################### IncMaxCliqueAdapter ###########################");
-        MaxCliqueSolver<Integer> maxCliqueTool = new IncMaxCliqueAdapter();
+        MaxCliqueSolver<Integer> maxCliqueTool = withReduction(new IncMaxCliqueAdapter(useNativeBinary));
         long cliqueStart = new Date().getTime();
-        UndirectedGraph<Integer> maxClique = maxCliqueTool.findMaxClique(graph);
+        SolverResult<Integer> result = solve(maxCliqueTool, cliqueStart);
         long cliqueEnd = new Date().getTime();
-        printCliqueResults(maxClique, (cliqueEnd - cliqueStart));
+        printCliqueResults(result, (cliqueEnd - cliqueStart));
+        addStats("inc-adapter", result.getStats());
       }
 
       if(runIncSolver) {
         System.out.println("########################### IncMaxCliqueSolver ############################");
-        MaxCliqueSolver<Integer> maxCliqueTool = new IncMaxCliqueSolver();
+        MaxCliqueSolver<Integer> maxCliqueTool = withReduction(new IncMaxCliqueSolver());
         long cliqueStart = new Date().getTime();
-        UndirectedGraph<Integer> maxClique = maxCliqueTool.findMaxClique(graph);
+        SolverResult<Integer> result = solve(maxCliqueTool, cliqueStart);
         long cliqueEnd = new Date().getTime();
-        printCliqueResults(maxClique, (cliqueEnd - cliqueStart));
-        System.out.printf("Total Time Running MaxSatUB: %d\n", MaxSatUB.totalTimeRunning);
-        System.out.printf("Total Time constructing Encodings: %d\n", MaxSatUB.timeConstructingEncodings);
-        System.out.printf("Max Individual Runtime for MaxSatUB: %d\n", MaxSatUB.maxRuntime);
+        printCliqueResults(result, (cliqueEnd - cliqueStart));
+        addStats("inc-solver", result.getStats());
       }
 
       if(runMaus) {
         System.out.println("############################## Maus Solver ################################");
-        MaxCliqueSolver<Integer> maxCliqueTool = new MausMaxCliqueSolver();
+        MaxCliqueSolver<Integer> maxCliqueTool = withReduction(new MausMaxCliqueSolver());
+        long cliqueStart = new Date().getTime();
+        SolverResult<Integer> result = solve(maxCliqueTool, cliqueStart);
+        long cliqueEnd = new Date().getTime();
+        printCliqueResults(result, (cliqueEnd - cliqueStart));
+        addStats("maus", result.getStats());
+      }
+
+      if(runBitSet) {
+        System.out.println("########################## BitSetMaxCliqueSolver ##########################");
+        MaxCliqueSolver<Integer> maxCliqueTool = withReduction(new BitSetMaxCliqueSolver(numThreads));
         long cliqueStart = new Date().getTime();
-        UndirectedGraph<Integer> maxClique = maxCliqueTool.findMaxClique(graph);
+        SolverResult<Integer> result = solve(maxCliqueTool, cliqueStart);
         long cliqueEnd = new Date().getTime();
-        printCliqueResults(maxClique, (cliqueEnd - cliqueStart));
-        System.out.printf("Total Time Running MaxSatUB: %d\n", MaxSatUB.totalTimeRunning);
-        System.out.printf("Total Time constructing Encodings: %d\n", MaxSatUB.timeConstructingEncodings);
-        System.out.printf("Max Individual Runtime for MaxSatUB: %d\n", MaxSatUB.maxRuntime);
+        printCliqueResults(result, (cliqueEnd - cliqueStart));
+        addStats("bitset", result.getStats());
+      }
+
+      if(statsFileName != null) {
+        try {
+          FileWriter writer = new FileWriter(statsFileName);
+          writer.write("{" + statsJson + "\n}\n");
+          writer.close();
+          System.out.println("Stats written to " + statsFileName);
+        } catch (IOException e) {
+          System.out.println("Could not write " + statsFileName + ": " + e.getMessage());
+          System.exit(1);
+        }
       }
     }
   }
 
-  private static void printCliqueResults(UndirectedGraph<Integer> clique, long runTime) {
+  /*
+  * Prints the stats of the search of an algorithm and adds them to the JSON written to the --stats
+  * file.
+  */
+  private static void addStats(String algorithm, SolverStats stats) {
+    if(statsFileName == null) {
+      return;
+    }
+    System.out.println("Stats: " + stats);
+    statsJson.append(statsJson.length() == 0 ? "\n" : ",\n");
+    statsJson.append("\"" + algorithm + "\": ");
+    statsJson.append(stats.toJson().trim());
+  }
+
+  /*
+  * Sets the heuristic time limit and vertex order of solver, and wraps it in a
+  * ReducingMaxCliqueSolver if --reduce was given.
+  */
+  private static MaxCliqueSolver<Integer> withReduction(MaxCliqueSolver<Integer> solver) {
+    solver.setHeuristicTimeLimit(heuristicTimeLimit);
+    solver.setVertexOrder(vertexOrder);
+    if(reduceGraph) {
+      // the components are searched from the reduction's clique, so the solver only needs a
+      // greedy one
+      solver.setHeuristicTimeLimit(0);
+      MaxCliqueSolver<Integer> reducing = new ReducingMaxCliqueSolver<Integer>(solver);
+      reducing.setHeuristicTimeLimit(heuristicTimeLimit);
+      return reducing;
+    }
+    return solver;
+  }
+
+  /*
+  * Runs solver on the graph with the time limit from --time-limit, printing each larger clique it
+  * finds as it searches.
+  */
+  private static SolverResult<Integer> solve(MaxCliqueSolver<Integer> solver,
+      final long cliqueStart) {
+    SolverOptions<Integer> options = new SolverOptions<Integer>();
+    options.setListener(new CliqueListener<Integer>() {
+      @Override
+      public void cliqueFound(List<Integer> clique) {
+        System.out.println("Found a clique of size " + clique.size() + " after "
+            + (new Date().getTime() - cliqueStart) + " milliseconds.");
+      }
+    });
+    options.setCollectStats(statsFileName != null);
+    options.setTimeLimit(timeLimit);
+    return solver.findMaxClique(graph, options);
+  }
+
+  private static void printCliqueResults(SolverResult<Integer> result, long runTime) {
+    UndirectedGraph<Integer> clique = result.getClique();
     if(clique != null) {
       String cliqueStr = "";
       List<Integer> nodeNums = clique.getElements();
@@ -146,6 +353,12 @@ public class FindMaxClique{
       System.out.println("Clique Found in "
       + runTime + " milliseconds.");
       System.out.println(clique.size() + " nodes in clique");
+      if(result.isOptimal()) {
+        System.out.println("The clique is a maximum clique.");
+      } else {
+        System.out.println("Search stopped early. The max clique has at most "
+            + result.getUpperBound() + " nodes, a gap of " + result.getGap() + ".");
+      }
     } else {
       System.out.println("Max clique not found. Umm.. somethings wrong");
     }
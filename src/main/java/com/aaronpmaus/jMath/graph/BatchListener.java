@@ -0,0 +1,21 @@
+package com.aaronpmaus.jMath.graph;
+
+/**
+* A BatchListener is told about the result of each graph of a MaxCliqueBatch as soon as it is
+* solved.
+* <p>
+* It is called on the thread that runs the batch, one result at a time, in the order the graphs
+* finish, so it does not need to be thread safe. The graphs still being solved do not wait for it.
+* @see MaxCliqueBatch#run(java.util.List, BatchListener)
+* @version 0.15.0
+* @since 0.15.0
+*/
+public interface BatchListener {
+
+  /**
+  * Called each time a graph of the batch is solved, or fails to be read or solved.
+  * @param result the result of the graph
+  * @since 0.15.0
+  */
+  public void graphSolved(BatchResult result);
+}
@@ -0,0 +1,338 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+* The result of solving one graph of a MaxCliqueBatch: the largest clique found, an upper bound on
+* the size of the max clique, the milliseconds the search took and its stats. A graph that could
+* not be read or solved has an error instead of a clique.
+* <p>
+* A result can be written as a line of CSV, under the header from csvHeader(), or as a single line
+* JSON object, so that the results of a batch can be streamed to a file as they finish.
+* graphFileNameOf reads back the graph of a line in either format, and isFailure whether it failed,
+* which lets an interrupted batch skip the graphs it already has results for and retry the rest.
+* @see MaxCliqueBatch
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class BatchResult {
+  private static final int NUM_CSV_FIELDS = 7;
+  private final String graphFileName;
+  private final List<Integer> clique;
+  private final int upperBound;
+  private final long milliseconds;
+  private final SolverStats stats;
+  private final String error;
+
+  /**
+  * @param graphFileName the file the graph was read from
+  * @param result the result of the search of the graph
+  * @param milliseconds the milliseconds the search took
+  * @since 0.15.0
+  */
+  public BatchResult(String graphFileName, SolverResult<Integer> result, long milliseconds) {
+    this.graphFileName = graphFileName;
+    ArrayList<Integer> elements = new ArrayList<Integer>(result.getClique().getElements());
+    Collections.sort(elements);
+    this.clique = Collections.unmodifiableList(elements);
+    this.upperBound = result.getUpperBound();
+    this.milliseconds = milliseconds;
+    this.stats = result.getStats();
+    this.error = null;
+  }
+
+  /**
+  * Build the result of a graph that could not be read or solved.
+  * @param graphFileName the file the graph was to be read from
+  * @param error why the graph could not be solved
+  * @param milliseconds the milliseconds spent on the graph before it failed
+  * @since 0.15.0
+  */
+  public BatchResult(String graphFileName, String error, long milliseconds) {
+    this.graphFileName = graphFileName;
+    this.clique = Collections.emptyList();
+    this.upperBound = 0;
+    this.milliseconds = milliseconds;
+    this.stats = new SolverStats(false);
+    this.error = error == null ? "unknown error" : error;
+  }
+
+  /**
+  * @return the file the graph was read from
+  * @since 0.15.0
+  */
+  public String getGraphFileName() {
+    return this.graphFileName;
+  }
+
+  /**
+  * @return the elements of the largest clique found, in increasing order. Empty if the graph
+  * failed.
+  * @since 0.15.0
+  */
+  public List<Integer> getClique() {
+    return this.clique;
+  }
+
+  /**
+  * @return the size of the largest clique found
+  * @since 0.15.0
+  */
+  public int size() {
+    return this.clique.size();
+  }
+
+  /**
+  * @return an upper bound on the size of the max clique, 0 if the graph failed
+  * @since 0.15.0
+  */
+  public int getUpperBound() {
+    return this.upperBound;
+  }
+
+  /**
+  * @return true if the clique found is a max clique
+  * @since 0.15.0
+  */
+  public boolean isOptimal() {
+    return !failed() && size() >= this.upperBound;
+  }
+
+  /**
+  * @return the milliseconds the search of the graph took
+  * @since 0.15.0
+  */
+  public long getMilliseconds() {
+    return this.milliseconds;
+  }
+
+  /**
+  * @return the stats of the search. They are disabled if the batch did not collect stats.
+  * @since 0.15.0
+  */
+  public SolverStats getStats() {
+    return this.stats;
+  }
+
+  /**
+  * @return true if the graph could not be read or solved
+  * @since 0.15.0
+  */
+  public boolean failed() {
+    return this.error != null;
+  }
+
+  /**
+  * @return why the graph could not be read or solved, or null if it was solved
+  * @since 0.15.0
+  */
+  public String getError() {
+    return this.error;
+  }
+
+  /**
+  * @return the header line of the CSV written by toCsv
+  * @since 0.15.0
+  */
+  public static String csvHeader() {
+    return "graph,size,upper_bound,optimal,milliseconds,clique,error";
+  }
+
+  /**
+  * Writes this result as a line of CSV, without the line separator. The elements of the clique
+  * are separated by spaces. Stats are not written.
+  * @return the result as a line of CSV
+  * @since 0.15.0
+  */
+  public String toCsv() {
+    StringBuilder csv = new StringBuilder();
+    csv.append(csvField(this.graphFileName)).append(',');
+    csv.append(size()).append(',');
+    csv.append(failed() ? "" : String.valueOf(this.upperBound)).append(',');
+    csv.append(isOptimal()).append(',');
+    csv.append(this.milliseconds).append(',');
+    for(int i = 0; i < this.clique.size(); i++) {
+      csv.append(i == 0 ? "" : " ").append(this.clique.get(i));
+    }
+    csv.append(',');
+    csv.append(failed() ? csvField(this.error) : "");
+    return csv.toString();
+  }
+
+  /**
+  * Writes this result as a JSON object on a single line, without the line separator. The stats are
+  * included if they were collected.
+  * @return the result as a JSON object
+  * @since 0.15.0
+  */
+  public String toJson() {
+    StringBuilder json = new StringBuilder();
+    json.append("{\"graph\": ").append(jsonString(this.graphFileName));
+    json.append(", \"size\": ").append(size());
+    if(failed()) {
+      json.append(", \"error\": ").append(jsonString(this.error));
+    } else {
+      json.append(", \"upperBound\": ").append(this.upperBound);
+      json.append(", \"optimal\": ").append(isOptimal());
+    }
+    json.append(", \"milliseconds\": ").append(this.milliseconds);
+    json.append(", \"clique\": [");
+    for(int i = 0; i < this.clique.size(); i++) {
+      json.append(i == 0 ? "" : ", ").append(this.clique.get(i));
+    }
+    json.append("]");
+    if(this.stats.isEnabled()) {
+      json.append(", \"stats\": ").append(this.stats.toJson().trim().replaceAll("\n\\s*", " "));
+    }
+    json.append("}");
+    return json.toString();
+  }
+
+  /**
+  * Reads the graph file name back from a line written by toCsv or toJson.
+  * @param line a line of CSV or JSON
+  * @return the graph file name of the result on the line, or null if the line is not a complete
+  * result, such as the CSV header or a line that was cut off when a batch was interrupted
+  * @since 0.15.0
+  */
+  public static String graphFileNameOf(String line) {
+    line = line.trim();
+    if(line.startsWith("{")) {
+      String key = "{\"graph\": \"";
+      if(!line.startsWith(key) || !line.endsWith("}")) {
+        return null;
+      }
+      StringBuilder name = new StringBuilder();
+      return jsonStringEnd(line, key.length(), name) < 0 ? null : name.toString();
+    }
+    List<String> fields = csvFields(line);
+    if(fields == null || fields.size() != NUM_CSV_FIELDS || line.equals(csvHeader())) {
+      return null;
+    }
+    return fields.get(0);
+  }
+
+  /**
+  * Reads back from a line written by toCsv or toJson whether its graph failed.
+  * @param line a line of CSV or JSON
+  * @return true if the line is a complete result of a graph that could not be read or solved
+  * @since 0.15.0
+  */
+  public static boolean isFailure(String line) {
+    if(graphFileNameOf(line) == null) {
+      return false;
+    }
+    line = line.trim();
+    if(line.startsWith("{")) {
+      // the size follows the graph, and the error follows the size
+      int end = jsonStringEnd(line, "{\"graph\": \"".length(), new StringBuilder());
+      return line.substring(end + 1).matches(", \"size\": \\d+, \"error\": .*");
+    }
+    return !csvFields(line).get(NUM_CSV_FIELDS - 1).isEmpty();
+  }
+
+  /*
+  * Unescape the JSON string in line that starts at start, just after its opening quote, into
+  * value. Returns the index of its closing quote, or -1 if it is not closed.
+  */
+  private static int jsonStringEnd(String line, int start, StringBuilder value) {
+    for(int i = start; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if(c == '"') {
+        return i;
+      }
+      if(c == '\\' && i + 1 < line.length()) {
+        i++;
+        c = line.charAt(i);
+        if(c == 'u' && i + 4 < line.length()) {
+          c = (char)Integer.parseInt(line.substring(i + 1, i + 5), 16);
+          i += 4;
+        } else if(c == 'n') {
+          c = '\n';
+        } else if(c == 'r') {
+          c = '\r';
+        } else if(c == 't') {
+          c = '\t';
+        }
+      }
+      value.append(c);
+    }
+    return -1;
+  }
+
+  /**
+  * {@inheritDoc}
+  */
+  @Override
+  public String toString() {
+    if(failed()) {
+      return this.graphFileName + ": failed, " + this.error;
+    }
+    return String.format("%s: clique of size %d, upper bound %d, %d milliseconds",
+        this.graphFileName, size(), this.upperBound, this.milliseconds);
+  }
+
+  private static String csvField(String value) {
+    if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return "\"" + value.replace("\"", "\"\"") + "\"";
+  }
+
+  /*
+  * Splits a line of CSV into its fields. Returns null if a quoted field is not closed.
+  */
+  private static List<String> csvFields(String line) {
+    ArrayList<String> fields = new ArrayList<String>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for(int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if(quoted) {
+        if(c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if(c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if(c == '"') {
+        quoted = true;
+      } else if(c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if(quoted) {
+      return null;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private static String jsonString(String value) {
+    StringBuilder json = new StringBuilder("\"");
+    for(int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if(c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if(c == '\n') {
+        json.append("\\n");
+      } else if(c == '\r') {
+        json.append("\\r");
+      } else if(c == '\t') {
+        json.append("\\t");
+      } else if(c < 0x20) {
+        json.append(String.format("\\u%04x", (int)c));
+      } else {
+        json.append(c);
+      }
+    }
+    return json.append('"').toString();
+  }
+}
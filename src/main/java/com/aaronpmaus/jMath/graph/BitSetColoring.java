@@ -0,0 +1,203 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.Arrays;
+
+/**
+* A greedy coloring of a set of vertices given as bits, used by branch and bound max clique
+* solvers to bound the size of a clique among them. Every vertex of a clique needs its own color,
+* so the number of colors bounds the clique.
+* <p>
+* The vertices are colored one color class at a time as in BBMC (San Segundo, Rodriguez-Losada and
+* Jimenez 2011). A class is built by taking the first uncolored vertex and repeatedly ANDing out the
+* neighbors of the vertex just added. A search only needs to branch on the vertices whose color is
+* at least kMin, the smallest color that could lead to a clique larger than the best one found, so
+* those are recorded in non-decreasing order of their colors along with their colors. This is the
+* pruned branching set, and the color of each vertex bounds its branch.
+* <p>
+* Once the classes below kMin are built, each vertex left is recolored with Re-NUMBER as in MCS
+* (Tomita et al. 2010) and BBMCR (San Segundo et al. 2013). If the vertex has exactly one neighbor
+* w in some class k1 below kMin, and w has no neighbors in a later class k2 below kMin, then w is
+* moved to k2 and the vertex takes its place in k1. Every vertex recolored is one less branch.
+* <p>
+* The color classes and scratch space are allocated once and grow as needed, so coloring does not
+* allocate. A BitSetColoring belongs to a single thread.
+* @version 0.15.0
+* @since 0.15.0
+*/
+class BitSetColoring {
+  private final long[][] adjacency;
+  private final int numWords;
+  private final boolean recolor;
+  // the color classes of the last coloring, the vertices of color c+1 are in classes[c]
+  private long[][] classes;
+  private int numColors;
+  private final long[] uncolored;
+  private final long[] colorClass;
+
+  /**
+  * @param adjacency the rows of bits of the adjacency matrix of the graph. They are only read.
+  * @param numWords the number of longs in each row that are used
+  * @param recolor true to recolor vertices with Re-NUMBER, false for plain greedy coloring
+  * @since 0.15.0
+  */
+  BitSetColoring(long[][] adjacency, int numWords, boolean recolor) {
+    this.adjacency = adjacency;
+    this.numWords = numWords;
+    this.recolor = recolor;
+    this.classes = new long[0][];
+    this.numColors = 0;
+    this.uncolored = new long[numWords];
+    this.colorClass = new long[numWords];
+  }
+
+  /**
+  * Colors candidates and records the vertices with a color of at least kMin.
+  * @param candidates the vertices to color. They are not modified.
+  * @param kMin the smallest color to record. 1 or less to record every vertex.
+  * @param vertices where the recorded vertices are stored, in non-decreasing order of color. It
+  * must have room for every candidate.
+  * @param colors where the color of each recorded vertex is stored, starting from 1
+  * @return the number of vertices recorded
+  * @since 0.15.0
+  */
+  int color(long[] candidates, int kMin, int[] vertices, int[] colors) {
+    long[] u = uncolored;
+    long[] q = colorClass;
+    System.arraycopy(candidates, 0, u, 0, numWords);
+    if(kMin < 1) {
+      kMin = 1;
+    }
+    int count = 0;
+    int k = 0;
+    int firstWord = 0;
+    while(true) {
+      if(recolor && k == kMin - 1 && k > 0) {
+        recolorRemaining(k);
+        firstWord = 0;
+      }
+      while(firstWord < numWords && u[firstWord] == 0) {
+        firstWord++;
+      }
+      if(firstWord == numWords) {
+        break;
+      }
+      ensureClasses(k + 1);
+      long[] colored = classes[k];
+      Arrays.fill(colored, 0L);
+      System.arraycopy(u, firstWord, q, firstWord, numWords - firstWord);
+      for(int w = firstWord; w < numWords; w++) {
+        long word = q[w];
+        while(word != 0) {
+          int v = (w << 6) + Long.numberOfTrailingZeros(word);
+          // v joins color class k. remove it and its neighbors from the class under construction
+          u[w] &= ~(1L << v);
+          colored[w] |= (1L << v);
+          long[] row = adjacency[v];
+          for(int x = w; x < numWords; x++) {
+            q[x] &= ~row[x];
+          }
+          q[w] &= ~(1L << v);
+          word = q[w];
+          if(k + 1 >= kMin) {
+            vertices[count] = v;
+            colors[count] = k + 1;
+            count++;
+          }
+        }
+      }
+      k++;
+    }
+    this.numColors = k;
+    return count;
+  }
+
+  /**
+  * @return the number of colors used by the last coloring
+  * @since 0.15.0
+  */
+  int numColors() {
+    return this.numColors;
+  }
+
+  /**
+  * @param c a color class of the last coloring, from 0 to numColors()-1
+  * @return the bits of the vertices given color c+1. They must not be modified.
+  * @since 0.15.0
+  */
+  long[] colorClass(int c) {
+    return classes[c];
+  }
+
+  /*
+  * Moves each uncolored vertex into one of the first numLow classes if Re-NUMBER finds room for it.
+  */
+  private void recolorRemaining(int numLow) {
+    for(int w = 0; w < numWords; w++) {
+      long word = uncolored[w];
+      while(word != 0) {
+        int v = (w << 6) + Long.numberOfTrailingZeros(word);
+        word &= word - 1;
+        if(renumber(v, numLow)) {
+          uncolored[w] &= ~(1L << v);
+        }
+      }
+    }
+  }
+
+  /*
+  * Tries to fit v into one of the first numLow classes, moving one of its neighbors to a later class
+  * if needed. Returns true if it was.
+  */
+  private boolean renumber(int v, int numLow) {
+    long[] row = adjacency[v];
+    for(int k1 = 0; k1 < numLow; k1++) {
+      long[] low = classes[k1];
+      // the number of neighbors of v in k1, and the last one found
+      int numNeighbors = 0;
+      int neighbor = -1;
+      for(int x = 0; x < numWords && numNeighbors < 2; x++) {
+        long common = low[x] & row[x];
+        if(common != 0) {
+          numNeighbors += Long.bitCount(common);
+          neighbor = (x << 6) + Long.numberOfTrailingZeros(common);
+        }
+      }
+      if(numNeighbors == 0) {
+        // an earlier move made room for v
+        BitSetUndirectedGraph.setBit(low, v);
+        return true;
+      }
+      if(numNeighbors == 1) {
+        long[] neighborRow = adjacency[neighbor];
+        for(int k2 = k1 + 1; k2 < numLow; k2++) {
+          if(disjoint(classes[k2], neighborRow)) {
+            BitSetUndirectedGraph.clearBit(low, neighbor);
+            BitSetUndirectedGraph.setBit(low, v);
+            BitSetUndirectedGraph.setBit(classes[k2], neighbor);
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean disjoint(long[] a, long[] b) {
+    for(int x = 0; x < numWords; x++) {
+      if((a[x] & b[x]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void ensureClasses(int count) {
+    if(classes.length < count) {
+      int capacity = Math.max(count, 2*classes.length);
+      long[][] grown = Arrays.copyOf(classes, capacity);
+      for(int c = classes.length; c < capacity; c++) {
+        grown[c] = new long[numWords];
+      }
+      this.classes = grown;
+    }
+  }
+}
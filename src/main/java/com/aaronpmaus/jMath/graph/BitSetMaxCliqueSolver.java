@@ -0,0 +1,505 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+* A bit-parallel branch and bound max clique solver.
+* <p>
+* This is an implementation of BBMC from San Segundo, Rodriguez-Losada and Jimenez 2011, An exact
+* bit-parallel algorithm for the maximum clique problem. The graph is renumbered by a
+* VertexRenumbering, by default so that vertices are visited in reverse degeneracy order, and stored
+* as a BitSetUndirectedGraph. The search works
+* entirely on bitsets of candidate vertices. At each node of the search tree, the candidate set is
+* greedily colored by a BitSetColoring one color class at a time, and only the vertices whose color
+* could lead to a larger clique than the best found so far are branched on. Vertices that would not
+* be branched on are first recolored into the lower classes where possible (BBMCR, San Segundo et
+* al. 2013), which leaves fewer branches.
+* <p>
+* The candidate sets and coloring buffers for each depth of the search are allocated once and
+* reused, so no objects are created inside the search loop.
+* <p>
+* When constructed with more than one thread, the top levels of the search tree are split into
+* tasks that are run on a ForkJoinPool with work stealing. The size of the best clique found so far
+* is shared between all the tasks so that every task prunes against the global best. The size of
+* the clique found is always the maximum, but which maximum clique is returned may vary from run to
+* run.
+* <p>
+* A search given SolverOptions checks every few thousand nodes of the search tree whether it should
+* stop. The vertices at the root of the tree are branched on from the highest color down, so when
+* it stops, the color of the root branch it was in bounds the size of any clique it did not rule
+* out.
+* <p>
+* The stats of a search count the nodes of the search tree, the branches pruned by the coloring
+* bound and the time spent coloring. Each thread records its own and they are added together when
+* the search is done.
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class BitSetMaxCliqueSolver extends MaxCliqueSolver<Integer> {
+  // the number of levels at the top of the search tree that are split into parallel tasks
+  private static final int SPLIT_DEPTH = 2;
+  // the search checks whether it should stop each time it expands this many nodes. A power of 2.
+  private static final int STOP_CHECK_INTERVAL = 4096;
+  private final int numThreads;
+
+  /**
+  * Construct a BitSetMaxCliqueSolver that searches with a single thread.
+  * @since 0.15.0
+  */
+  public BitSetMaxCliqueSolver() {
+    this(1);
+  }
+
+  /**
+  * Construct a BitSetMaxCliqueSolver that splits the search across numThreads threads.
+  * @param numThreads the number of threads to search with. Must be at least 1.
+  * @throws IllegalArgumentException if numThreads is less than 1
+  * @since 0.15.0
+  */
+  public BitSetMaxCliqueSolver(int numThreads) {
+    if(numThreads < 1) {
+      throw new IllegalArgumentException("BitSetMaxCliqueSolver requires at least one thread.");
+    }
+    this.numThreads = numThreads;
+  }
+
+  /**
+  * @return the number of threads this solver searches with
+  * @since 0.15.0
+  */
+  public int getNumThreads() {
+    return this.numThreads;
+  }
+
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public UndirectedGraph<Integer> findMaxClique(UndirectedGraph<Integer> graph) {
+    return findMaxClique(graph, new SolverOptions<Integer>()).getClique();
+  }
+
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public UndirectedGraph<Integer> findMaxClique(BitSetUndirectedGraph<Integer> graph) {
+    return findMaxClique(graph, new SolverOptions<Integer>()).getClique();
+  }
+
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public SolverResult<Integer> findMaxClique(UndirectedGraph<Integer> graph,
+      SolverOptions<Integer> options) {
+    if(graph.size() == 0) {
+      return new SolverResult<Integer>(new UndirectedGraph<Integer>(), 0, options.getStats());
+    }
+    BitSetUndirectedGraph<Integer> bits = new BitSetUndirectedGraph<Integer>(graph);
+    Incumbent incumbent = search(bits, options);
+    return new SolverResult<Integer>(graph.subset(incumbent.getElements()),
+        upperBound(bits, incumbent), options.getStats());
+  }
+
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public SolverResult<Integer> findMaxClique(BitSetUndirectedGraph<Integer> graph,
+      SolverOptions<Integer> options) {
+    if(graph.size() == 0) {
+      return new SolverResult<Integer>(new UndirectedGraph<Integer>(), 0, options.getStats());
+    }
+    Incumbent incumbent = search(graph, options);
+    return new SolverResult<Integer>(graph.subset(incumbent.getElements()).toUndirectedGraph(),
+        upperBound(graph, incumbent), options.getStats());
+  }
+
+  /**
+  * Find the elements of a maximum clique in graph.
+  * @param graph the graph to search for a max clique in
+  * @return a list of the elements in a maximum clique of graph
+  * @since 0.15.0
+  */
+  public List<Integer> findMaxCliqueElements(BitSetUndirectedGraph<Integer> graph) {
+    if(graph.size() == 0) {
+      return new ArrayList<Integer>();
+    }
+    return search(graph, new SolverOptions<Integer>()).getElements();
+  }
+
+  /*
+  * Search graph, which must not be empty, for a max clique and return the incumbent the search
+  * ended with.
+  */
+  private Incumbent search(BitSetUndirectedGraph<Integer> graph, SolverOptions<Integer> options) {
+    // In reverse degeneracy order, vertices in the densest core of the graph get the smallest ids,
+    // are colored first, and end up in the smallest color classes.
+    BitSetUndirectedGraph<Integer> ordered =
+        new VertexRenumbering<Integer>(graph, getVertexOrder()).renumber(graph);
+
+    long[][] adjacency = new long[ordered.size()][];
+    for(int i = 0; i < ordered.size(); i++) {
+      adjacency[i] = ordered.getRow(i);
+    }
+    long[] all = new long[ordered.numWords()];
+    for(int i = 0; i < ordered.size(); i++) {
+      BitSetUndirectedGraph.setBit(all, i);
+    }
+    // start from a heuristic clique so that the search prunes from the start
+    List<Integer> initialClique = findInitialClique(graph);
+    int[] initialIds = new int[initialClique.size()];
+    for(int i = 0; i < initialIds.length; i++) {
+      initialIds[i] = ordered.indexOf(initialClique.get(i));
+    }
+    options.getStats().start();
+    Incumbent incumbent = new Incumbent(ordered, options, initialIds);
+    options.reportClique(initialClique);
+    if(incumbent.checkStop()) {
+      return incumbent;
+    }
+    if(numThreads == 1) {
+      new BranchAndBound(adjacency, ordered.numWords(), incumbent).search(new int[0], 0, all);
+    } else {
+      ForkJoinPool pool = new ForkJoinPool(numThreads);
+      try {
+        ThreadLocal<BranchAndBound> searches = new ThreadLocal<BranchAndBound>();
+        pool.invoke(new SearchTask(adjacency, ordered.numWords(), incumbent, searches,
+            new int[0], all));
+      } finally {
+        pool.shutdown();
+      }
+    }
+    incumbent.addThreadStats();
+    return incumbent;
+  }
+
+  /*
+  * An upper bound on the size of the max clique of graph, given the incumbent a search of it ended
+  * with. If the search was stopped, the bound of its root branch is tightened by the coloring bound
+  * of a MaxCliqueHeuristic, which is only computed then.
+  */
+  private int upperBound(BitSetUndirectedGraph<Integer> graph, Incumbent incumbent) {
+    if(!incumbent.isStopped()) {
+      return incumbent.size();
+    }
+    int bound = Math.min(incumbent.getRootBound(),
+        new MaxCliqueHeuristic<Integer>(graph).getUpperBound());
+    return Math.max(bound, incumbent.size());
+  }
+
+  /*
+  * The best clique found so far. Its size is read without locking by every search so that they
+  * all prune against it. Updates are synchronized, and each one is reported to the options of the
+  * search.
+  * <p>
+  * Once any search sees that the options say to stop, the incumbent is marked stopped and every
+  * search returns. rootBound is the color of the root branch being searched, which bounds every
+  * clique not yet ruled out.
+  */
+  private static class Incumbent {
+    private final BitSetUndirectedGraph<Integer> graph;
+    private final SolverOptions<Integer> options;
+    private final AtomicInteger size;
+    private int[] clique;
+    private volatile boolean stopped;
+    private volatile int rootBound;
+    private final ArrayList<SolverStats> threadStats;
+
+    Incumbent(BitSetUndirectedGraph<Integer> graph, SolverOptions<Integer> options, int[] clique) {
+      this.graph = graph;
+      this.options = options;
+      this.size = new AtomicInteger(clique.length);
+      this.clique = clique;
+      this.stopped = false;
+      this.rootBound = graph.size();
+      this.threadStats = new ArrayList<SolverStats>();
+    }
+
+    int size() {
+      return size.get();
+    }
+
+    synchronized void update(int[] candidate, int candidateSize) {
+      if(candidateSize > size.get()) {
+        clique = Arrays.copyOf(candidate, candidateSize);
+        size.set(candidateSize);
+        options.reportClique(getElements());
+      }
+    }
+
+    synchronized List<Integer> getElements() {
+      ArrayList<Integer> elements = new ArrayList<Integer>(clique.length);
+      for(int i = 0; i < clique.length; i++) {
+        elements.add(graph.get(clique[i]));
+      }
+      return elements;
+    }
+
+    /*
+    * Returns true if the search should stop, checking the options and marking the incumbent stopped
+    * if they say to.
+    */
+    boolean checkStop() {
+      if(!stopped && options.shouldStop()) {
+        stopped = true;
+      }
+      return stopped;
+    }
+
+    boolean isStopped() {
+      return stopped;
+    }
+
+    /*
+    * Returns new stats for a search to record into. They are added to the stats of the options by
+    * addThreadStats once every search is done.
+    */
+    synchronized SolverStats newThreadStats() {
+      SolverStats stats = new SolverStats(options.getStats().isEnabled());
+      threadStats.add(stats);
+      return stats;
+    }
+
+    synchronized void addThreadStats() {
+      for(SolverStats stats : threadStats) {
+        options.getStats().add(stats);
+      }
+      threadStats.clear();
+    }
+
+    void setRootBound(int bound) {
+      rootBound = bound;
+    }
+
+    int getRootBound() {
+      return rootBound;
+    }
+  }
+
+  /*
+  * A task in the top levels of the search tree. It colors its candidate set and forks a subtask
+  * for every vertex that could lead to a larger clique. Below SPLIT_DEPTH the remaining search is
+  * done sequentially by the BranchAndBound belonging to the worker thread.
+  */
+  @SuppressWarnings("serial")
+  private static class SearchTask extends RecursiveAction {
+    private final long[][] adjacency;
+    private final int numWords;
+    private final Incumbent incumbent;
+    private final ThreadLocal<BranchAndBound> searches;
+    private final int[] clique;
+    private final long[] candidates;
+
+    SearchTask(long[][] adjacency, int numWords, Incumbent incumbent,
+        ThreadLocal<BranchAndBound> searches, int[] clique, long[] candidates) {
+      this.adjacency = adjacency;
+      this.numWords = numWords;
+      this.incumbent = incumbent;
+      this.searches = searches;
+      this.clique = clique;
+      this.candidates = candidates;
+    }
+
+    @Override
+    protected void compute() {
+      BranchAndBound search = searches.get();
+      if(search == null) {
+        search = new BranchAndBound(adjacency, numWords, incumbent);
+        searches.set(search);
+      }
+      if(incumbent.checkStop()) {
+        return;
+      }
+      int depth = clique.length;
+      if(depth >= SPLIT_DEPTH || BitSetUndirectedGraph.cardinality(candidates) == 0) {
+        search.search(clique, depth, candidates);
+        return;
+      }
+      int[] branches = search.branches(candidates, depth);
+      int[] branchColors = search.branchColors(depth, branches.length);
+      if(depth == 0) {
+        // the branches run in parallel, so only the highest color bounds them all
+        int numBranches = branches.length;
+        incumbent.setRootBound(numBranches == 0 ? incumbent.size() : branchColors[numBranches - 1]);
+      }
+      // Build the subtasks in the same order the sequential search would visit them. Each branch
+      // excludes the vertices branched on before it.
+      long[] remaining = candidates.clone();
+      ArrayList<SearchTask> tasks = new ArrayList<SearchTask>(branches.length);
+      for(int i = branches.length - 1; i >= 0; i--) {
+        if(depth + branchColors[i] <= incumbent.size()) {
+          search.stats.prune(SolverStats.Bound.COLORING);
+          break;
+        }
+        int v = branches[i];
+        int[] nextClique = Arrays.copyOf(clique, depth + 1);
+        nextClique[depth] = v;
+        long[] next = new long[numWords];
+        long[] row = adjacency[v];
+        for(int w = 0; w < numWords; w++) {
+          next[w] = remaining[w] & row[w];
+        }
+        BitSetUndirectedGraph.clearBit(remaining, v);
+        tasks.add(new SearchTask(adjacency, numWords, incumbent, searches, nextClique, next));
+      }
+      invokeAll(tasks);
+    }
+  }
+
+  /*
+  * The state of a single branch and bound search. The adjacency matrix is shared with the graph it
+  * was built from and is only read, and the incumbent may be shared with other searches.
+  * Everything else belongs to this search.
+  */
+  private static class BranchAndBound {
+    private final long[][] adjacency;
+    private final Incumbent incumbent;
+    private final int numVertices;
+    private final int numWords;
+    // scratch space for each depth of the search, allocated the first time a depth is reached.
+    // candidates[d] is the candidate set at depth d, and order/colors hold the vertices to branch
+    // on and their colors. A candidate set is colored before any deeper one, so the coloring's
+    // own scratch space is shared by every depth.
+    private long[][] candidates;
+    private final BitSetColoring coloring;
+    private int[][] order;
+    private int[][] colors;
+    private int[] clique;
+    private long numExpanded;
+    private final SolverStats stats;
+
+    BranchAndBound(long[][] adjacency, int numWords, Incumbent incumbent) {
+      this.adjacency = adjacency;
+      this.incumbent = incumbent;
+      this.numVertices = adjacency.length;
+      this.numWords = numWords;
+      int maxDepth = numVertices + 1;
+      this.candidates = new long[maxDepth][];
+      this.coloring = new BitSetColoring(adjacency, numWords, true);
+      this.order = new int[maxDepth][];
+      this.colors = new int[maxDepth][];
+      this.clique = new int[numVertices];
+      this.numExpanded = 0;
+      this.stats = incumbent.newThreadStats();
+    }
+
+    /*
+    * Search for cliques larger than the incumbent that extend the vertices in prefix with vertices
+    * from p. Every vertex in p must be adjacent to every vertex in prefix.
+    */
+    void search(int[] prefix, int depth, long[] p) {
+      System.arraycopy(prefix, 0, clique, 0, depth);
+      ensureDepth(depth);
+      System.arraycopy(p, 0, candidates[depth], 0, numWords);
+      if(BitSetUndirectedGraph.cardinality(p) == 0) {
+        stats.node(depth);
+        incumbent.update(clique, depth);
+      } else {
+        expand(depth);
+      }
+    }
+
+    /*
+    * Color p as the candidate set at depth and return a copy of the vertices that should be
+    * branched on. Their colors are left in colors[depth].
+    */
+    int[] branches(long[] p, int depth) {
+      ensureDepth(depth);
+      System.arraycopy(p, 0, candidates[depth], 0, numWords);
+      stats.node(depth);
+      long start = stats.startTimer();
+      int numToBranch = color(depth);
+      stats.addColoringTime(start);
+      return Arrays.copyOf(order[depth], numToBranch);
+    }
+
+    int[] branchColors(int depth, int numToBranch) {
+      return Arrays.copyOf(colors[depth], numToBranch);
+    }
+
+    /*
+    * Search for cliques larger than the best found so far that extend the first depth vertices of
+    * clique with vertices from candidates[depth].
+    */
+    private void expand(int depth) {
+      if((++numExpanded & (STOP_CHECK_INTERVAL - 1)) == 0) {
+        incumbent.checkStop();
+      }
+      stats.node(depth);
+      long[] p = candidates[depth];
+      long start = stats.startTimer();
+      int numToBranch = color(depth);
+      stats.addColoringTime(start);
+      if(numToBranch == 0) {
+        // no vertex has a color that could improve the clique
+        stats.prune(SolverStats.Bound.COLORING);
+      }
+      int[] vertices = order[depth];
+      int[] vertexColors = colors[depth];
+      for(int i = numToBranch - 1; i >= 0; i--) {
+        if(depth + vertexColors[i] <= incumbent.size()) {
+          // the colors are non-decreasing, none of the remaining vertices can improve the clique
+          stats.prune(SolverStats.Bound.COLORING);
+          return;
+        }
+        if(incumbent.isStopped()) {
+          return;
+        }
+        if(depth == 0) {
+          incumbent.setRootBound(vertexColors[i]);
+        }
+        int v = vertices[i];
+        clique[depth] = v;
+        ensureDepth(depth + 1);
+        long[] next = candidates[depth + 1];
+        long[] row = adjacency[v];
+        boolean empty = true;
+        for(int w = 0; w < numWords; w++) {
+          next[w] = p[w] & row[w];
+          if(next[w] != 0) {
+            empty = false;
+          }
+        }
+        if(empty) {
+          stats.node(depth + 1);
+          if(depth + 1 > incumbent.size()) {
+            incumbent.update(clique, depth + 1);
+          }
+        } else {
+          expand(depth + 1);
+        }
+        BitSetUndirectedGraph.clearBit(p, v);
+      }
+    }
+
+    /*
+    * Color candidates[depth]. Vertices whose color is not large enough to improve on the best
+    * clique are not recorded, since they never need to be branched on. The recorded vertices are
+    * stored in order[depth] in non-decreasing order of their colors in colors[depth].
+    * Returns the number of vertices recorded.
+    */
+    private int color(int depth) {
+      // only vertices with a color of at least kMin can lead to a clique larger than the best
+      int kMin = incumbent.size() - depth + 1;
+      return coloring.color(candidates[depth], kMin, order[depth], colors[depth]);
+    }
+
+    private void ensureDepth(int depth) {
+      if(candidates[depth] == null) {
+        candidates[depth] = new long[numWords];
+        order[depth] = new int[numVertices];
+        colors[depth] = new int[numVertices];
+      }
+    }
+  }
+}
@@ -0,0 +1,732 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+* A BitSetUndirectedGraph is an UndirectedGraph stored as a dense adjacency matrix of bits.
+* <p>
+* Every element added to the graph is given a contiguous integer id, starting at 0, and the
+* neighbors of each vertex are stored as a row of longs where bit j of row i is set if there is an
+* edge between the vertices with ids i and j. A graph of n vertices takes roughly n*n/8 bytes
+* regardless of the number of edges, which makes it a very compact representation for the dense
+* graphs that max clique problems are typically run on, and lets the neighborhood of a set of
+* vertices be computed with a word-wise AND of their rows.
+* <p>
+* The edges of a BitSetUndirectedGraph are unweighted. Like an UndirectedGraph, the elements in the
+* graph must be unique.
+* @see com.aaronpmaus.jMath.graph.UndirectedGraph
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class BitSetUndirectedGraph<T extends Comparable<? super T>> implements Iterable<T> {
+  private ArrayList<T> elements;
+  private HashMap<T, Integer> ids;
+  // adjacency[i] is the row of bits for the vertex with id i. Only the first size() rows are in use.
+  private long[][] adjacency;
+  private int[] degrees;
+  private int numWords;
+  private int numEdges;
+  private String graphFileName;
+
+  /**
+  * The default constructor for a BitSetUndirectedGraph, builds a graph with no vertices. Vertices
+  * and edges can be added via addVertex() and addEdge().
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph() {
+    this(64);
+  }
+
+  /**
+  * Constructs an empty graph, prepared to hold the specified number of vertices.
+  * @param numVertices the number of vertices the graph will hold.
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph(int numVertices) {
+    int capacity = Math.max(numVertices, 1);
+    this.numWords = wordsFor(capacity);
+    this.elements = new ArrayList<T>(capacity);
+    this.ids = new HashMap<T, Integer>((int)(capacity/0.75)+1);
+    this.adjacency = new long[capacity][numWords];
+    this.degrees = new int[capacity];
+    this.numEdges = 0;
+    this.graphFileName = "g.dimacs";
+  }
+
+  /**
+  * Constructs a BitSetUndirectedGraph containing all the vertices and edges of an UndirectedGraph.
+  * <p>
+  * The ids of the vertices follow the order of {@code graph.getElements()}. Edge weights are not
+  * copied.
+  * @param graph the UndirectedGraph to build this graph from
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph(UndirectedGraph<T> graph) {
+    this(graph.size());
+    for(T element : graph.getElements()) {
+      addVertex(element);
+    }
+    for(Node<T> node : graph) {
+      int id = indexOf(node.get());
+      for(Node<T> neighbor : node.getNeighbors()) {
+        int neighborId = indexOf(neighbor.get());
+        if(id < neighborId) {
+          connect(id, neighborId);
+        }
+      }
+    }
+    this.graphFileName = graph.getGraphFileName();
+  }
+
+  /**
+  * A copy constructor.
+  * <p>
+  * Returns a copy of the BitSetUndirectedGraph passed in. Vertices keep the same ids they have in
+  * the original graph. The elements themselves are not copied.
+  * @param graph the BitSetUndirectedGraph to copy
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph(BitSetUndirectedGraph<T> graph) {
+    this(graph.size());
+    for(T element : graph) {
+      addVertex(element);
+    }
+    for(int i = 0; i < graph.size(); i++) {
+      System.arraycopy(graph.adjacency[i], 0, this.adjacency[i], 0, graph.numWords);
+      this.degrees[i] = graph.degrees[i];
+    }
+    this.numEdges = graph.numEdges;
+    this.graphFileName = graph.getGraphFileName();
+  }
+
+  /**
+  * Build an UndirectedGraph containing the same vertices and edges as this graph.
+  * @return an UndirectedGraph equivalent to this graph
+  * @since 0.15.0
+  */
+  public UndirectedGraph<T> toUndirectedGraph() {
+    UndirectedGraph<T> graph = new UndirectedGraph<T>(size());
+    for(int i = 0; i < size(); i++) {
+      graph.addVertex(get(i));
+    }
+    for(int i = 0; i < size(); i++) {
+      long[] row = adjacency[i];
+      for(int j = nextSetBit(row, i+1); j >= 0; j = nextSetBit(row, j+1)) {
+        graph.addEdge(get(i), get(j));
+      }
+    }
+    graph.setGraphFileName(getGraphFileName());
+    return graph;
+  }
+
+  /**
+  * Sets the filename for the graph. This is the name to be used when writing out to file.
+  * @param name the name to set it to.
+  * @since 0.15.0
+  */
+  public void setGraphFileName(String name) {
+    this.graphFileName = name;
+  }
+
+  /**
+  * The filename to be used when writing the graph out to file.
+  * @return the name of the file associated with this graph
+  * @since 0.15.0
+  */
+  public String getGraphFileName() {
+    return this.graphFileName;
+  }
+
+  /**
+  * Return the number of vertices in this graph
+  * @return the number of vertices in this graph
+  * @since 0.15.0
+  */
+  public int size() {
+    return this.elements.size();
+  }
+
+  /**
+  * Returns the number of edges in this graph. A constant time operation.
+  * @return the number of edges in this graph
+  * @since 0.15.0
+  */
+  public int numEdges() {
+    return this.numEdges;
+  }
+
+  /**
+  * Returns the density of the graph
+  * @return the density of the graph
+  * @since 0.15.0
+  */
+  public double density() {
+    return (2.0*numEdges())/(size()*(size()-1));
+  }
+
+  /**
+  * Check if there is a vertex containing element in this graph.
+  * @param element the element to check for.
+  * @return true if one of the vertices in the graph contains element, false otherwise.
+  * @since 0.15.0
+  */
+  public boolean contains(T element) {
+    return ids.containsKey(element);
+  }
+
+  /**
+  * @return all the elements in this graph, in order of their ids.
+  * @since 0.15.0
+  */
+  public List<T> getElements() {
+    return new ArrayList<T>(this.elements);
+  }
+
+  /**
+  * Add an element to the graph. Only adds the element if it is not already in the graph.
+  * @param element the element to add to the graph.
+  * @since 0.15.0
+  */
+  public void addVertex(T element) {
+    if(!contains(element)) {
+      int id = size();
+      if(id == adjacency.length) {
+        grow(2*adjacency.length);
+      }
+      elements.add(element);
+      ids.put(element, id);
+    }
+  }
+
+  /**
+  * If a vertex containing element is in the graph, remove it and all edges leading to or from it
+  * from the graph. If the element is not in the graph, do nothing.
+  * <p>
+  * To keep the ids contiguous, the vertex with the largest id takes over the id of the removed
+  * vertex.
+  * @param element the element to remove
+  * @since 0.15.0
+  */
+  public void removeVertex(T element) {
+    if(!contains(element)) {
+      return;
+    }
+    int id = indexOf(element);
+    int last = size() - 1;
+    long[] row = adjacency[id];
+    for(int j = nextSetBit(row, 0); j >= 0; j = nextSetBit(row, j+1)) {
+      clearBit(adjacency[j], id);
+      degrees[j]--;
+    }
+    numEdges -= degrees[id];
+    if(id != last) {
+      // move the last vertex into the vacated id
+      long[] lastRow = adjacency[last];
+      for(int j = nextSetBit(lastRow, 0); j >= 0; j = nextSetBit(lastRow, j+1)) {
+        clearBit(adjacency[j], last);
+        setBit(adjacency[j], id);
+      }
+      adjacency[id] = lastRow;
+      adjacency[last] = row;
+      degrees[id] = degrees[last];
+      T lastElement = elements.get(last);
+      elements.set(id, lastElement);
+      ids.put(lastElement, id);
+    }
+    Arrays.fill(adjacency[last], 0L);
+    degrees[last] = 0;
+    elements.remove(last);
+    ids.remove(element);
+  }
+
+  /**
+  * Add an edge to the graph. Adds vertices containing these two elements to the graph if they are
+  * not already in the graph. Then adds an edge between them.
+  * @param start the start element of the edge
+  * @param end the end element of the edge
+  * @since 0.15.0
+  */
+  public void addEdge(T start, T end) {
+    addVertex(start);
+    addVertex(end);
+    connect(indexOf(start), indexOf(end));
+  }
+
+  /**
+  * Remove an edge from the graph.
+  * @param start the element at the start of the edge
+  * @param end the element at the end of the edge
+  * @since 0.15.0
+  */
+  public void removeEdge(T start, T end) {
+    if(hasEdge(start, end)) {
+      int a = indexOf(start);
+      int b = indexOf(end);
+      clearBit(adjacency[a], b);
+      clearBit(adjacency[b], a);
+      degrees[a]--;
+      degrees[b]--;
+      numEdges--;
+    }
+  }
+
+  /**
+  * @param start the vertex at the start of the edge
+  * @param end the vertex at the end of the edge
+  * @return true if there is an edge between start and end, false otherwise
+  * @since 0.15.0
+  */
+  public boolean hasEdge(T start, T end) {
+    Integer a = ids.get(start);
+    Integer b = ids.get(end);
+    if(a == null || b == null) {
+      return false;
+    }
+    return isAdjacent(a, b);
+  }
+
+  /**
+  * Return the number of neighbors of the vertex containing element.
+  * @param element the element to get the degree of
+  * @return the number of neighbors of element
+  * @throws NoSuchElementException if element is not in the graph
+  * @since 0.15.0
+  */
+  public int numNeighbors(T element) {
+    return degrees[indexOf(element)];
+  }
+
+  /**
+  * Return the subset of the graph containing the vertices with the elements provided.
+  * @param elements a List of the elements specifying the subset. Elements not in this graph are
+  * ignored.
+  * @return a BitSetUndirectedGraph containing every vertex containing one of the elements and all
+  * the edges between these vertices. The ids of the vertices follow the order of elements.
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph<T> subset(List<T> elements) {
+    int[] subsetIds = new int[elements.size()];
+    long[] added = new long[numWords];
+    int count = 0;
+    for(T element : elements) {
+      Integer id = ids.get(element);
+      if(id != null && !getBit(added, id)) {
+        setBit(added, id);
+        subsetIds[count] = id;
+        count++;
+      }
+    }
+    return subset(subsetIds, count);
+  }
+
+  /**
+  * Return a graph of the neighbors of the element passed in.
+  * <p>
+  * The Neighbors Graph consists of the adjacent vertices and all the edges between these vertices.
+  * @param element the element to get the neighbors of.
+  * @return a graph of the neighbors. This is a copy of this subset of the total graph.
+  * @throws NoSuchElementException if element is not in the graph
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph<T> getNeighbors(T element) {
+    int id = indexOf(element);
+    return subset(toIds(adjacency[id], -1), degrees[id]);
+  }
+
+  /**
+  * Return a graph of the neighborhood of the element passed in.
+  * <p>
+  * The Neighborhood consists of the vertex, all of its neighbors, and the set of edges that are
+  * between all of these vertices.
+  * @param element The element to get the neighborhood around.
+  * @return a graph of the neighborhood. This is a copy of this subset of the total graph.
+  * @throws NoSuchElementException if element is not in the graph
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph<T> getNeighborhood(T element) {
+    int id = indexOf(element);
+    return subset(toIds(adjacency[id], id), degrees[id]+1);
+  }
+
+  /**
+  * Return the neighborhood from this graph of the collection of elements passed in.
+  * <p>
+  * The Neighborhood consists of those vertices, all their neighbors, and all the edges between
+  * these vertices.
+  * @param elements the elements of the graph to get the neighborhood around.
+  * @return a graph of the neighborhood. This is a copy of this subset of the total graph.
+  * @throws NoSuchElementException if one of the elements is not in the graph
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph<T> getNeighborhood(Collection<T> elements) {
+    long[] union = new long[numWords];
+    for(T element : elements) {
+      int id = indexOf(element);
+      long[] row = adjacency[id];
+      for(int w = 0; w < numWords; w++) {
+        union[w] |= row[w];
+      }
+      setBit(union, id);
+    }
+    int count = cardinality(union);
+    return subset(toIds(union, -1), count);
+  }
+
+  /**
+  * Return the complement of this graph.
+  * <p>
+  * The complement is the graph containing all the vertices in the original graph, none of the
+  * edges in the original graph, and all of the edges NOT in the original graph. Vertices keep the
+  * same ids they have in this graph.
+  * @return the complement of the graph
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph<T> getComplement() {
+    BitSetUndirectedGraph<T> complement = new BitSetUndirectedGraph<T>(size());
+    for(T element : this) {
+      complement.addVertex(element);
+    }
+    int n = size();
+    for(int i = 0; i < n; i++) {
+      long[] row = adjacency[i];
+      long[] complementRow = complement.adjacency[i];
+      for(int w = 0; w < complement.numWords; w++) {
+        complementRow[w] = ~row[w];
+      }
+      clearBit(complementRow, i);
+      clearBitsFrom(complementRow, n);
+      complement.degrees[i] = n - 1 - degrees[i];
+    }
+    complement.numEdges = (n*(n-1))/2 - numEdges;
+    return complement;
+  }
+
+  /**
+  * Given a list of elements, check if the vertices containing those elements form a clique in the
+  * graph.
+  * @param elements the elements to check
+  * @return true if the vertices containing these elements are a clique. false otherwise
+  * @throws NoSuchElementException if one of the elements is not in the graph
+  * @since 0.15.0
+  */
+  public boolean checkIfClique(List<T> elements) {
+    int[] cliqueIds = new int[elements.size()];
+    for(int i = 0; i < cliqueIds.length; i++) {
+      cliqueIds[i] = indexOf(elements.get(i));
+    }
+    for(int i = 0; i < cliqueIds.length; i++) {
+      for(int j = i+1; j < cliqueIds.length; j++) {
+        if(cliqueIds[i] != cliqueIds[j] && !isAdjacent(cliqueIds[i], cliqueIds[j])) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+  * Checks if a graph is a clique. A graph is a clique if there are N*(N-1)/2 edges in it.
+  * @return true if the graph is a clique, false otherwise
+  * @since 0.15.0
+  */
+  public boolean isClique() {
+    return numEdges() == (size() * (size() - 1))/2;
+  }
+
+  /**
+  * A method to return the degeneracy ordering of a graph.
+  * <p>
+  * The degeneracy ordering is determined as follows: <br>
+  * Until the graph is empty: <br>
+  * add the vertex with the smallest degree to the ordering <br>
+  * remove that vertex from the graph<br>
+  * The vertices are kept in buckets by their degree, so the ordering takes O(n + m) time. The
+  * graph itself is not modified.
+  * @return an ArrayList of elements representing the degeneracy ordering. The smallest vertex is at
+  * the 0th index
+  * @since 0.15.0
+  */
+  public ArrayList<T> degeneracyOrdering() {
+    return coreDecomposition().getOrdering();
+  }
+
+  /**
+  * Computes the core number of every vertex of this graph along with its degeneracy ordering.
+  * @return the CoreDecomposition of this graph
+  * @since 0.15.0
+  */
+  public CoreDecomposition<T> coreDecomposition() {
+    return new CoreDecomposition<T>(this);
+  }
+
+  /**
+  * {@inheritDoc}
+  * The elements are returned in order of their ids.
+  */
+  @Override
+  public Iterator<T> iterator() {
+    return this.elements.iterator();
+  }
+
+  /**
+  * @return a string representation of this graph in the form of an adjacency list.
+  * @since 0.15.0
+  */
+  @Override
+  public String toString() {
+    StringBuilder str = new StringBuilder();
+    for(int i = 0; i < size(); i++) {
+      str.append(get(i)).append(": ");
+      long[] row = adjacency[i];
+      for(int j = nextSetBit(row, 0); j >= 0; j = nextSetBit(row, j+1)) {
+        str.append(get(j)).append(" ");
+      }
+      str.append("\n");
+    }
+    return str.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for(int i = 0; i < size(); i++) {
+      hash += get(i).hashCode() * (31 + degrees[i]);
+    }
+    return hash + numEdges;
+  }
+
+  /**
+  * Two BitSetUndirectedGraphs are equal if they both contain the same set of elements and edges,
+  * regardless of the ids the elements have been given.
+  * @param obj the other graph
+  * @return true if both this and other are graphs which contain the same sets of elements and
+  *   edges, false otherwise.
+  */
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean equals(Object obj) {
+    if(!(obj instanceof BitSetUndirectedGraph)) {
+      return false;
+    }
+    BitSetUndirectedGraph<T> other = (BitSetUndirectedGraph<T>) obj;
+    if(other.size() != size() || other.numEdges() != numEdges()) {
+      return false;
+    }
+    for(int i = 0; i < size(); i++) {
+      T element = get(i);
+      if(!other.contains(element) || other.numNeighbors(element) != degrees[i]) {
+        return false;
+      }
+      long[] row = adjacency[i];
+      for(int j = nextSetBit(row, i+1); j >= 0; j = nextSetBit(row, j+1)) {
+        if(!other.hasEdge(element, get(j))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /*
+  * Integer id level access. These are used by the solvers in this package that work directly on
+  * the bits of the adjacency matrix.
+  */
+
+  /**
+  * Return the id of the vertex containing element.
+  * @param element the element to look up
+  * @return the id of element, between 0 and size()-1
+  * @throws NoSuchElementException if element is not in the graph
+  * @since 0.15.0
+  */
+  int indexOf(T element) {
+    Integer id = ids.get(element);
+    if(id == null) {
+      throw new NoSuchElementException(String.format("Node %s not in graph.", element));
+    }
+    return id;
+  }
+
+  /**
+  * @param id the id of a vertex
+  * @return the element contained in the vertex with that id
+  * @since 0.15.0
+  */
+  T get(int id) {
+    return elements.get(id);
+  }
+
+  /**
+  * Return the row of the adjacency matrix for a vertex. The row is the graph's own storage and
+  * must not be modified.
+  * @param id the id of the vertex
+  * @return the bits of the neighbors of the vertex with that id
+  * @since 0.15.0
+  */
+  long[] getRow(int id) {
+    return adjacency[id];
+  }
+
+  /**
+  * @return the number of longs in each row of the adjacency matrix
+  * @since 0.15.0
+  */
+  int numWords() {
+    return this.numWords;
+  }
+
+  /**
+  * @param id the id of a vertex
+  * @return the number of neighbors of the vertex with that id
+  * @since 0.15.0
+  */
+  int degree(int id) {
+    return degrees[id];
+  }
+
+  /**
+  * @param a the id of a vertex
+  * @param b the id of another vertex
+  * @return true if there is an edge between a and b
+  * @since 0.15.0
+  */
+  boolean isAdjacent(int a, int b) {
+    return (adjacency[a][b >>> 6] & (1L << b)) != 0;
+  }
+
+  /**
+  * Add an edge between the vertices with ids a and b if there is not already one.
+  * @param a the id of a vertex
+  * @param b the id of another vertex
+  * @since 0.15.0
+  */
+  void connect(int a, int b) {
+    if(a != b && !isAdjacent(a, b)) {
+      setBit(adjacency[a], b);
+      setBit(adjacency[b], a);
+      degrees[a]++;
+      degrees[b]++;
+      numEdges++;
+    }
+  }
+
+  /**
+  * Build the induced subgraph of the first count ids in subsetIds.
+  */
+  private BitSetUndirectedGraph<T> subset(int[] subsetIds, int count) {
+    BitSetUndirectedGraph<T> graph = new BitSetUndirectedGraph<T>(count);
+    for(int i = 0; i < count; i++) {
+      graph.addVertex(get(subsetIds[i]));
+    }
+    for(int i = 0; i < count; i++) {
+      long[] row = adjacency[subsetIds[i]];
+      for(int j = i+1; j < count; j++) {
+        int b = subsetIds[j];
+        if((row[b >>> 6] & (1L << b)) != 0) {
+          graph.connect(i, j);
+        }
+      }
+    }
+    graph.setGraphFileName(getGraphFileName());
+    return graph;
+  }
+
+  /*
+  * Return the ids of the set bits in row. If first is not negative, it is placed at the front of
+  * the returned array ahead of the bits in row.
+  */
+  private int[] toIds(long[] row, int first) {
+    int[] result = new int[cardinality(row) + (first >= 0 ? 1 : 0)];
+    int count = 0;
+    if(first >= 0) {
+      result[count++] = first;
+    }
+    for(int j = nextSetBit(row, 0); j >= 0; j = nextSetBit(row, j+1)) {
+      result[count++] = j;
+    }
+    return result;
+  }
+
+  private void grow(int capacity) {
+    int newNumWords = wordsFor(capacity);
+    long[][] newAdjacency = new long[capacity][];
+    for(int i = 0; i < capacity; i++) {
+      if(i < adjacency.length) {
+        newAdjacency[i] = newNumWords == numWords ? adjacency[i] : Arrays.copyOf(adjacency[i], newNumWords);
+      } else {
+        newAdjacency[i] = new long[newNumWords];
+      }
+    }
+    this.adjacency = newAdjacency;
+    this.degrees = Arrays.copyOf(degrees, capacity);
+    this.numWords = newNumWords;
+  }
+
+  private static int wordsFor(int numBits) {
+    return (numBits + 63) >>> 6;
+  }
+
+  /*
+  * Static helpers for treating a long[] as a set of bits. Shared by the classes in this package
+  * that work on adjacency rows.
+  */
+
+  static void setBit(long[] bits, int i) {
+    bits[i >>> 6] |= (1L << i);
+  }
+
+  static void clearBit(long[] bits, int i) {
+    bits[i >>> 6] &= ~(1L << i);
+  }
+
+  static boolean getBit(long[] bits, int i) {
+    return (bits[i >>> 6] & (1L << i)) != 0;
+  }
+
+  /*
+  * Clear every bit with an index of from or greater.
+  */
+  static void clearBitsFrom(long[] bits, int from) {
+    int word = from >>> 6;
+    if(word < bits.length) {
+      bits[word] &= (1L << from) - 1;
+      for(int w = word+1; w < bits.length; w++) {
+        bits[w] = 0L;
+      }
+    }
+  }
+
+  static int cardinality(long[] bits) {
+    int count = 0;
+    for(long word : bits) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /*
+  * Return the index of the first set bit at or after from, or -1 if there is none.
+  */
+  static int nextSetBit(long[] bits, int from) {
+    int word = from >>> 6;
+    if(word >= bits.length) {
+      return -1;
+    }
+    long current = bits[word] & (-1L << from);
+    while(true) {
+      if(current != 0) {
+        return (word << 6) + Long.numberOfTrailingZeros(current);
+      }
+      word++;
+      if(word == bits.length) {
+        return -1;
+      }
+      current = bits[word];
+    }
+  }
+}
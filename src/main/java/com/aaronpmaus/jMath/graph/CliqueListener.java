@@ -0,0 +1,21 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.List;
+
+/**
+* A CliqueListener is told about each larger clique a MaxCliqueSolver finds while it searches.
+* <p>
+* It is called on the thread that found the clique, which may be a worker thread of a parallel
+* search, and the search waits for it to return, so it should return quickly.
+* @see SolverOptions#setListener(CliqueListener)
+* @version 0.15.0
+* @since 0.15.0
+*/
+public interface CliqueListener<T extends Comparable<? super T>> {
+
+  /**
+  * Called each time the search finds a clique larger than any it has found before.
+  * @param clique the elements of the clique
+  * @since 0.15.0
+  */
+  public void cliqueFound(List<T> clique);
+}
@@ -0,0 +1,205 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+* Reduces a graph to the parts of it that can hold a clique larger than a known one.
+* <p>
+* A clique of size k is in the (k-1)-core of a graph, and it is in a single connected component. So
+* given a clique of size lb, any larger clique is in a connected component of the lb-core that has
+* more than lb vertices. These components are usually far smaller than a sparse graph, and each
+* can be searched on its own.
+* <p>
+* If no clique is given, one is found with a MaxCliqueHeuristic.
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class CliqueReduction<T extends Comparable<? super T>> {
+  private final UndirectedGraph<T> graph;
+  private final CoreDecomposition<T> cores;
+  private final ArrayList<T> lowerBoundClique;
+
+  /**
+  * Finds a clique in graph with the greedy step of a MaxCliqueHeuristic to reduce graph by.
+  * @param graph the graph to reduce. It is not modified.
+  * @since 0.15.0
+  */
+  public CliqueReduction(UndirectedGraph<T> graph) {
+    this(graph, 0);
+  }
+
+  /**
+  * Finds a clique in graph with a MaxCliqueHeuristic to reduce graph by.
+  * @param graph the graph to reduce. It is not modified.
+  * @param heuristicTimeLimit the most milliseconds the heuristic may spend on its local search
+  * @throws IllegalArgumentException if heuristicTimeLimit is negative
+  * @since 0.15.0
+  */
+  public CliqueReduction(UndirectedGraph<T> graph, long heuristicTimeLimit) {
+    this.graph = graph;
+    this.cores = graph.coreDecomposition();
+    this.lowerBoundClique =
+        new ArrayList<T>(new MaxCliqueHeuristic<T>(graph).findClique(heuristicTimeLimit));
+  }
+
+  /**
+  * Reduces graph by a known clique.
+  * @param graph the graph to reduce. It is not modified.
+  * @param clique the elements of a clique in graph
+  * @throws IllegalArgumentException if clique is not a clique in graph
+  * @since 0.15.0
+  */
+  public CliqueReduction(UndirectedGraph<T> graph, Collection<T> clique) {
+    this.graph = graph;
+    this.cores = graph.coreDecomposition();
+    this.lowerBoundClique = new ArrayList<T>(clique);
+    for(T element : this.lowerBoundClique) {
+      if(!graph.contains(element)) {
+        throw new IllegalArgumentException(String.format("Node %s not in graph.", element));
+      }
+    }
+    if(!graph.checkIfClique(this.lowerBoundClique)) {
+      throw new IllegalArgumentException("The elements given are not a clique in the graph.");
+    }
+  }
+
+  /**
+  * @return the elements of the clique the graph is reduced by
+  * @since 0.15.0
+  */
+  public ArrayList<T> getLowerBoundClique() {
+    return new ArrayList<T>(this.lowerBoundClique);
+  }
+
+  /**
+  * @return the size of the clique the graph is reduced by
+  * @since 0.15.0
+  */
+  public int getLowerBound() {
+    return this.lowerBoundClique.size();
+  }
+
+  /**
+  * @return the CoreDecomposition of the graph
+  * @since 0.15.0
+  */
+  public CoreDecomposition<T> getCoreDecomposition() {
+    return this.cores;
+  }
+
+  /**
+  * Returns the connected components of the lb-core of the graph that have more than lb vertices,
+  * where lb is the size of the lower bound clique. Any clique larger than the lower bound clique is
+  * in one of them.
+  * @return an ArrayList of the components, largest first. Each is a new UndirectedGraph.
+  * @since 0.15.0
+  */
+  public ArrayList<UndirectedGraph<T>> getComponents() {
+    int lowerBound = getLowerBound();
+    ArrayList<T> core = this.cores.getCore(lowerBound);
+    HashSet<T> unvisited = new HashSet<T>(core);
+    ArrayList<UndirectedGraph<T>> components = new ArrayList<UndirectedGraph<T>>();
+    ArrayDeque<Node<T>> queue = new ArrayDeque<Node<T>>();
+    for(T element : core) {
+      if(!unvisited.remove(element)) {
+        continue;
+      }
+      ArrayList<T> component = new ArrayList<T>();
+      queue.add(this.graph.getNode(element));
+      while(!queue.isEmpty()) {
+        Node<T> node = queue.poll();
+        component.add(node.get());
+        for(Node<T> neighbor : node.getNeighbors()) {
+          if(unvisited.remove(neighbor.get())) {
+            queue.add(neighbor);
+          }
+        }
+      }
+      if(component.size() > lowerBound) {
+        components.add(this.graph.subset(component));
+      }
+    }
+    Collections.sort(components, new Comparator<UndirectedGraph<T>>() {
+      @Override
+      public int compare(UndirectedGraph<T> a, UndirectedGraph<T> b) {
+        return b.size() - a.size();
+      }
+    });
+    return components;
+  }
+
+  /**
+  * Repeatedly removes the vertices with fewer than minDegree neighbors from graph until every
+  * vertex left has at least minDegree neighbors, leaving the minDegree-core of graph. The vertices
+  * are removed from a queue, so this takes O(n + m) time.
+  * @param <T> the type of the elements in graph
+  * @param graph the graph to remove vertices from. It is modified.
+  * @param minDegree the fewest neighbors a vertex may be left with
+  * @return the number of vertices removed
+  * @since 0.15.0
+  */
+  public static <T extends Comparable<? super T>> int removeVerticesBelowDegree(
+      UndirectedGraph<T> graph, int minDegree) {
+    ArrayDeque<Node<T>> queue = new ArrayDeque<Node<T>>();
+    for(Node<T> node : graph) {
+      if(node.numNeighbors() < minDegree) {
+        queue.add(node);
+      }
+    }
+    int numRemoved = 0;
+    while(!queue.isEmpty()) {
+      Node<T> node = queue.poll();
+      ArrayList<Node<T>> neighbors = new ArrayList<Node<T>>(node.getNeighbors());
+      graph.removeVertex(node.get());
+      numRemoved++;
+      for(Node<T> neighbor : neighbors) {
+        // a vertex is queued once, when it first falls below minDegree
+        if(neighbor.numNeighbors() == minDegree - 1) {
+          queue.add(neighbor);
+        }
+      }
+    }
+    return numRemoved;
+  }
+
+  /**
+  * Repeatedly removes the vertices with fewer than minDegree neighbors from view until every
+  * vertex left has at least minDegree neighbors, leaving the minDegree-core of view. Only the view
+  * is changed, not the graph it is a view of. This takes O(n + m) time in the size of the view.
+  * @param <T> the type of the elements in view
+  * @param view the view to remove vertices from. It is modified.
+  * @param minDegree the fewest neighbors a vertex may be left with
+  * @return the number of vertices removed
+  * @since 0.15.0
+  */
+  public static <T extends Comparable<? super T>> int removeVerticesBelowDegree(
+      SubgraphView<T> view, int minDegree) {
+    int[] degrees = new int[view.getGraph().size()];
+    int[] queue = new int[view.size()];
+    int tail = 0;
+    for(int v = view.nextId(0); v >= 0; v = view.nextId(v+1)) {
+      degrees[v] = view.degree(v);
+      if(degrees[v] < minDegree) {
+        queue[tail++] = v;
+      }
+    }
+    for(int head = 0; head < tail; head++) {
+      int v = queue[head];
+      view.removeId(v);
+      CsrGraph<T> graph = view.getGraph();
+      for(int i = 0; i < graph.degree(v); i++) {
+        int u = graph.neighbor(v, i);
+        // a vertex is queued once, when it first falls below minDegree
+        if(view.hasId(u) && --degrees[u] == minDegree - 1) {
+          queue[tail++] = u;
+        }
+      }
+    }
+    return tail;
+  }
+}
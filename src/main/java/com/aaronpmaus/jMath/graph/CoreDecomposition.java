@@ -0,0 +1,209 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+* The degeneracy ordering and core decomposition of an undirected graph.
+* <p>
+* The degeneracy ordering is determined as follows: <br>
+* Until the graph is empty: <br>
+* add the vertex with the smallest degree to the ordering <br>
+* remove that vertex from the graph<br>
+* The core number of a vertex is the largest k such that the vertex is in the k-core of the graph,
+* the largest subgraph in which every vertex has at least k neighbors. It is the largest degree any
+* vertex had when it was removed, up to and including the vertex itself. The degeneracy of the
+* graph is its largest core number. A clique of size k is in the (k-1)-core, so no vertex with a
+* core number below k-1 is in a clique of size k.
+* <p>
+* The vertices are kept in buckets by their remaining degree (Matula and Beck 1983, Batagelj and
+* Zaversnik 2003), so the decomposition takes O(n + m) time. The graph is neither copied nor
+* modified: the neighbors of each vertex are read once into int arrays.
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class CoreDecomposition<T extends Comparable<? super T>> {
+  private final ArrayList<T> ordering;
+  private final HashMap<T, Integer> coreNumbers;
+  private final int degeneracy;
+
+  /**
+  * Computes the core decomposition of an UndirectedGraph.
+  * @param graph the graph to decompose
+  * @since 0.15.0
+  */
+  public CoreDecomposition(UndirectedGraph<T> graph) {
+    List<T> elements = graph.getElements();
+    int n = elements.size();
+    HashMap<T, Integer> ids = new HashMap<T, Integer>((int)(n/0.75)+1);
+    for(int i = 0; i < n; i++) {
+      ids.put(elements.get(i), i);
+    }
+    int[] offsets = new int[n + 1];
+    for(int i = 0; i < n; i++) {
+      offsets[i + 1] = offsets[i] + graph.getNode(elements.get(i)).numNeighbors();
+    }
+    int[] targets = new int[offsets[n]];
+    for(int i = 0; i < n; i++) {
+      int next = offsets[i];
+      for(Node<T> neighbor : graph.getNode(elements.get(i)).getNeighbors()) {
+        targets[next++] = ids.get(neighbor.get());
+      }
+    }
+    int[] cores = new int[n];
+    int[] order = degeneracyOrder(offsets, targets, cores);
+    this.ordering = new ArrayList<T>(n);
+    this.coreNumbers = new HashMap<T, Integer>((int)(n/0.75)+1);
+    this.degeneracy = collect(elements, order, cores);
+  }
+
+  /**
+  * Computes the core decomposition of a BitSetUndirectedGraph.
+  * @param graph the graph to decompose
+  * @since 0.15.0
+  */
+  public CoreDecomposition(BitSetUndirectedGraph<T> graph) {
+    this(new CsrGraph<T>(graph));
+  }
+
+  /**
+  * Computes the core decomposition of an undirected CsrGraph.
+  * @param graph the graph to decompose
+  * @throws UnsupportedOperationException if graph is directed
+  * @since 0.15.0
+  */
+  public CoreDecomposition(CsrGraph<T> graph) {
+    int n = graph.size();
+    int[] cores = new int[n];
+    int[] order = graph.degeneracyOrder(cores);
+    this.ordering = new ArrayList<T>(n);
+    this.coreNumbers = new HashMap<T, Integer>((int)(n/0.75)+1);
+    this.degeneracy = collect(graph.getElements(), order, cores);
+  }
+
+  /**
+  * @return an ArrayList of elements representing the degeneracy ordering. The smallest vertex is at
+  * the 0th index
+  * @since 0.15.0
+  */
+  public ArrayList<T> getOrdering() {
+    return new ArrayList<T>(this.ordering);
+  }
+
+  /**
+  * @param element an element in the graph
+  * @return the core number of the vertex holding element
+  * @throws NoSuchElementException if element was not in the graph
+  * @since 0.15.0
+  */
+  public int getCoreNumber(T element) {
+    Integer core = this.coreNumbers.get(element);
+    if(core == null) {
+      throw new NoSuchElementException(String.format("Node %s not in graph.", element));
+    }
+    return core;
+  }
+
+  /**
+  * @return the degeneracy of the graph, its largest core number, or 0 if it has no vertices
+  * @since 0.15.0
+  */
+  public int getDegeneracy() {
+    return this.degeneracy;
+  }
+
+  /**
+  * Returns the elements of the k-core of the graph, the vertices with a core number of at least k.
+  * @param k the core to return
+  * @return the elements in the k-core, in degeneracy order
+  * @since 0.15.0
+  */
+  public ArrayList<T> getCore(int k) {
+    ArrayList<T> core = new ArrayList<T>();
+    for(T element : this.ordering) {
+      if(this.coreNumbers.get(element) >= k) {
+        core.add(element);
+      }
+    }
+    return core;
+  }
+
+  /*
+  * Fills ordering and coreNumbers from the ids in order and their cores. Returns the degeneracy.
+  */
+  private int collect(List<T> elements, int[] order, int[] cores) {
+    int max = 0;
+    for(int v : order) {
+      T element = elements.get(v);
+      this.ordering.add(element);
+      this.coreNumbers.put(element, cores[v]);
+      max = Math.max(max, cores[v]);
+    }
+    return max;
+  }
+
+  /**
+  * Computes the degeneracy order of a graph given as CSR arrays, where the neighbors of vertex i are
+  * targets[offsets[i]] through targets[offsets[i+1]-1]. Every edge must be stored in both
+  * directions.
+  * @param offsets the start of each vertex's neighbors in targets, with one extra entry at the end
+  * @param targets the neighbors of every vertex
+  * @param coreNumbers if not null, filled with the core number of each vertex
+  * @return the ids of the vertices in degeneracy order, the vertex removed first is at index 0
+  */
+  static int[] degeneracyOrder(int[] offsets, int[] targets, int[] coreNumbers) {
+    int n = offsets.length - 1;
+    int[] degrees = new int[n];
+    int maxDegree = 0;
+    for(int v = 0; v < n; v++) {
+      degrees[v] = offsets[v + 1] - offsets[v];
+      maxDegree = Math.max(maxDegree, degrees[v]);
+    }
+    // The vertices are kept sorted by their remaining degree in order, and bucketStart[d] is the
+    // index in order of the first vertex whose remaining degree is d. Each removed vertex lowers the
+    // degree of all its remaining neighbors by one.
+    int[] bucketStart = new int[maxDegree + 2];
+    for(int v = 0; v < n; v++) {
+      bucketStart[degrees[v] + 1]++;
+    }
+    for(int d = 1; d <= maxDegree + 1; d++) {
+      bucketStart[d] += bucketStart[d - 1];
+    }
+    int[] order = new int[n];
+    int[] position = new int[n];
+    int[] next = Arrays.copyOf(bucketStart, maxDegree + 1);
+    for(int v = 0; v < n; v++) {
+      position[v] = next[degrees[v]]++;
+      order[position[v]] = v;
+    }
+    int core = 0;
+    for(int i = 0; i < n; i++) {
+      int v = order[i];
+      core = Math.max(core, degrees[v]);
+      if(coreNumbers != null) {
+        coreNumbers[v] = core;
+      }
+      for(int k = offsets[v]; k < offsets[v + 1]; k++) {
+        int u = targets[k];
+        if(position[u] > i) {
+          // move u to the front of its bucket and shrink the bucket by one, which puts u at the
+          // end of the bucket below. Buckets below the smallest remaining degree start at i+1.
+          int d = degrees[u];
+          int first = Math.max(bucketStart[d], i + 1);
+          int w = order[first];
+          if(u != w) {
+            order[position[u]] = w;
+            position[w] = position[u];
+            order[first] = u;
+            position[u] = first;
+          }
+          bucketStart[d] = first + 1;
+          degrees[u]--;
+        }
+      }
+    }
+    return order;
+  }
+}
@@ -0,0 +1,582 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+* An immutable graph stored in compressed sparse row (CSR) form.
+* <p>
+* Every vertex is given a contiguous integer id, starting at 0. The arcs leaving vertex i are
+* stored at indices offsets[i] through offsets[i+1]-1 of a single targets array, which holds the ids
+* of the vertices at their ends, and of an optional weights array. A graph with n vertices and m arcs
+* takes 4(n+1) + 4m bytes, plus 8m for weights, and no objects are created per vertex or per edge.
+* This makes a CsrGraph usable for sparse graphs with millions of vertices, where the Node and Edge
+* objects of a Graph take too much memory. Traversals such as shortestPath, depthFirstSearch and
+* degeneracyOrdering, and iteration over the neighbors of a vertex, work on the ids directly
+* without boxing.
+* <p>
+* A CsrGraph built from an UndirectedGraph is undirected: each edge is stored as an arc in both
+* directions. A CsrGraph built from a Graph is directed. A CsrGraph can not be modified once built.
+* <p>
+* Edges that were added without a weight have a weight of 1.0. If every edge has a weight of 1.0,
+* no weights are stored and shortestPath runs as a breadth first search.
+* @see com.aaronpmaus.jMath.graph.Graph
+* @version 0.15.0
+* @since 0.15.0
+*/
+public final class CsrGraph<T extends Comparable<? super T>> implements Iterable<T> {
+  private final List<T> elements;
+  private final HashMap<T, Integer> ids;
+  private final int[] offsets;
+  private final int[] targets;
+  // null if every arc has a weight of 1.0
+  private final double[] weights;
+  private final boolean directed;
+
+  /**
+  * Constructs a CsrGraph containing all the vertices and edges of a Graph.
+  * <p>
+  * The ids of the vertices follow the order of {@code graph.getElements()}. The graph is undirected
+  * if graph is an UndirectedGraph, and directed otherwise.
+  * @param graph the Graph to build this graph from
+  * @since 0.15.0
+  */
+  public CsrGraph(Graph<T> graph) {
+    this.elements = Collections.unmodifiableList(new ArrayList<T>(graph.getElements()));
+    this.ids = indexElements(this.elements);
+    int n = this.elements.size();
+    this.offsets = new int[n + 1];
+    for(int i = 0; i < n; i++) {
+      this.offsets[i + 1] = this.offsets[i] + graph.getNode(this.elements.get(i)).numNeighbors();
+    }
+    this.targets = new int[this.offsets[n]];
+    double[] arcWeights = new double[this.offsets[n]];
+    boolean weighted = false;
+    for(int i = 0; i < n; i++) {
+      int next = this.offsets[i];
+      for(Edge<T> edge : graph.getNode(this.elements.get(i)).getEdges()) {
+        this.targets[next] = this.ids.get(edge.getEnd().get());
+        arcWeights[next] = edge.getWeight();
+        weighted |= arcWeights[next] != 1.0;
+        next++;
+      }
+    }
+    this.weights = weighted ? arcWeights : null;
+    this.directed = !(graph instanceof UndirectedGraph);
+  }
+
+  /**
+  * Constructs an undirected CsrGraph containing all the vertices and edges of a
+  * BitSetUndirectedGraph. The ids of the vertices are the same in both graphs.
+  * @param graph the BitSetUndirectedGraph to build this graph from
+  * @since 0.15.0
+  */
+  public CsrGraph(BitSetUndirectedGraph<T> graph) {
+    this.elements = Collections.unmodifiableList(new ArrayList<T>(graph.getElements()));
+    this.ids = indexElements(this.elements);
+    int n = this.elements.size();
+    this.offsets = new int[n + 1];
+    for(int i = 0; i < n; i++) {
+      this.offsets[i + 1] = this.offsets[i] + graph.degree(i);
+    }
+    this.targets = new int[this.offsets[n]];
+    for(int i = 0; i < n; i++) {
+      long[] row = graph.getRow(i);
+      int next = this.offsets[i];
+      for(int j = BitSetUndirectedGraph.nextSetBit(row, 0); j >= 0;
+          j = BitSetUndirectedGraph.nextSetBit(row, j+1)) {
+        this.targets[next++] = j;
+      }
+    }
+    this.weights = null;
+    this.directed = false;
+  }
+
+  /**
+  * Constructs a CsrGraph directly from its arrays.
+  * <p>
+  * The arrays are not copied, so that graphs that are read from a file are not held in memory twice.
+  * Modification of the arrays after the CsrGraph is built is UNSAFE. For an undirected graph every
+  * edge must be given as an arc in both directions.
+  * @param elements the element of each vertex, in order of their ids
+  * @param offsets the arcs leaving vertex i are at offsets[i] through offsets[i+1]-1 of targets
+  * @param targets the id of the vertex at the end of each arc
+  * @param weights the weight of each arc, or null if every arc has a weight of 1.0
+  * @param directed true if the graph is directed, false if it is undirected
+  * @throws IllegalArgumentException if the arrays are not a valid CSR graph or an element repeats
+  * @since 0.15.0
+  */
+  public CsrGraph(List<T> elements, int[] offsets, int[] targets, double[] weights,
+      boolean directed) {
+    int n = elements.size();
+    if(offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != targets.length) {
+      throw new IllegalArgumentException(
+          "offsets must have one more entry than there are elements, from 0 to targets.length.");
+    }
+    for(int i = 0; i < n; i++) {
+      if(offsets[i + 1] < offsets[i]) {
+        throw new IllegalArgumentException("offsets must not decrease.");
+      }
+    }
+    for(int target : targets) {
+      if(target < 0 || target >= n) {
+        throw new IllegalArgumentException(String.format("target %d is not a vertex id.", target));
+      }
+    }
+    if(weights != null && weights.length != targets.length) {
+      throw new IllegalArgumentException("weights must be null or the same length as targets.");
+    }
+    this.elements = Collections.unmodifiableList(new ArrayList<T>(elements));
+    this.ids = indexElements(this.elements);
+    if(this.ids.size() != n) {
+      throw new IllegalArgumentException("The elements in a graph must be unique.");
+    }
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+    this.directed = directed;
+  }
+
+  /**
+  * @return the number of vertices in this graph
+  * @since 0.15.0
+  */
+  public int size() {
+    return this.elements.size();
+  }
+
+  /**
+  * @return the number of arcs stored in this graph. Each edge of an undirected graph is two arcs.
+  * @since 0.15.0
+  */
+  public int numArcs() {
+    return this.targets.length;
+  }
+
+  /**
+  * Returns the number of edges in this graph. For an undirected graph this is half the number of
+  * arcs.
+  * @return the number of edges in this graph
+  * @since 0.15.0
+  */
+  public int numEdges() {
+    return this.directed ? numArcs() : numArcs() / 2;
+  }
+
+  /**
+  * @return true if this graph is directed, false if every edge is stored in both directions
+  * @since 0.15.0
+  */
+  public boolean isDirected() {
+    return this.directed;
+  }
+
+  /**
+  * @return true if the arcs of this graph have weights other than 1.0
+  * @since 0.15.0
+  */
+  public boolean isWeighted() {
+    return this.weights != null;
+  }
+
+  /**
+  * @param element the element to look for
+  * @return true if there is a vertex holding element in this graph
+  * @since 0.15.0
+  */
+  public boolean contains(T element) {
+    return this.ids.containsKey(element);
+  }
+
+  /**
+  * @param element an element in this graph
+  * @return the id of the vertex holding element
+  * @throws NoSuchElementException if element is not in this graph
+  * @since 0.15.0
+  */
+  public int indexOf(T element) {
+    Integer id = this.ids.get(element);
+    if(id == null) {
+      throw new NoSuchElementException(String.format("Node %s not in graph.", element));
+    }
+    return id;
+  }
+
+  /**
+  * @param id the id of a vertex
+  * @return the element held by the vertex with that id
+  * @since 0.15.0
+  */
+  public T get(int id) {
+    return this.elements.get(id);
+  }
+
+  /**
+  * @return an unmodifiable list of the elements in this graph, in order of their ids
+  * @since 0.15.0
+  */
+  public List<T> getElements() {
+    return this.elements;
+  }
+
+  /**
+  * @param id the id of a vertex
+  * @return the number of arcs leaving the vertex
+  * @since 0.15.0
+  */
+  public int degree(int id) {
+    return this.offsets[id + 1] - this.offsets[id];
+  }
+
+  /**
+  * @param id the id of a vertex
+  * @param i the index of one of its arcs, from 0 to degree(id)-1
+  * @return the id of the vertex at the end of the arc
+  * @since 0.15.0
+  */
+  public int neighbor(int id, int i) {
+    return this.targets[this.offsets[id] + i];
+  }
+
+  /**
+  * @param id the id of a vertex
+  * @param i the index of one of its arcs, from 0 to degree(id)-1
+  * @return the weight of the arc
+  * @since 0.15.0
+  */
+  public double weight(int id, int i) {
+    return this.weights == null ? 1.0 : this.weights[this.offsets[id] + i];
+  }
+
+  /**
+  * Calls action with the id of each vertex at the end of an arc leaving the vertex id.
+  * @param id the id of a vertex
+  * @param action the action to perform on the id of each neighbor
+  * @since 0.15.0
+  */
+  public void forEachNeighbor(int id, IntConsumer action) {
+    for(int k = this.offsets[id]; k < this.offsets[id + 1]; k++) {
+      action.accept(this.targets[k]);
+    }
+  }
+
+  /**
+  * Return the shortest path from source to target.
+  * <p>
+  * Like Graph.shortestPath, this uses Dijkstra's algorithm. When the graph is unweighted a
+  * breadth first search is used instead.
+  * @param source the source to calculate the path from
+  * @param target the target to calculate the path to
+  * @return a List containing the path from source to target, or an empty list if no path exists.
+  * @throws NoSuchElementException if source or target is not in the graph
+  * @since 0.15.0
+  */
+  public List<T> shortestPath(T source, T target) {
+    return toElements(shortestPathById(indexOf(source), indexOf(target)));
+  }
+
+  /**
+  * Return the ids of the vertices on the shortest path from source to target.
+  * @param source the id of the vertex to calculate the path from
+  * @param target the id of the vertex to calculate the path to
+  * @return the ids of the path from source to target, or an empty array if no path exists.
+  * @since 0.15.0
+  */
+  public int[] shortestPathById(int source, int target) {
+    int n = size();
+    int[] previous = new int[n];
+    Arrays.fill(previous, -1);
+    if(this.weights == null) {
+      breadthFirstSearch(source, target, previous);
+    } else {
+      dijkstra(source, target, previous);
+    }
+    if(previous[target] < 0) {
+      return new int[0];
+    }
+    int length = 1;
+    for(int v = target; v != source; v = previous[v]) {
+      length++;
+    }
+    int[] path = new int[length];
+    for(int v = target, i = length - 1; i >= 0; v = previous[v], i--) {
+      path[i] = v;
+    }
+    return path;
+  }
+
+  /**
+  * Return a list a list of the elements in this graph as traversed by a Depth First Search. The
+  * neighbors of a vertex are visited in the reverse of the order of their arcs, as in
+  * Graph.depthFirstSearch.
+  * @param source the starting point for the Depth First Search
+  * @return a list containing the elements as traversed by DFS
+  * @throws NoSuchElementException if source is not in the graph
+  * @since 0.15.0
+  */
+  public List<T> depthFirstSearch(T source) {
+    return toElements(depthFirstSearchById(indexOf(source)));
+  }
+
+  /**
+  * Return the ids of the vertices in this graph as traversed by a Depth First Search.
+  * @param source the id of the vertex to start from
+  * @return the ids of the vertices reachable from source in the order they were visited
+  * @since 0.15.0
+  */
+  public int[] depthFirstSearchById(int source) {
+    boolean[] visited = new boolean[size()];
+    int[] order = new int[size()];
+    int numVisited = 0;
+    // a vertex is pushed once for each arc into it, like the Stack in Graph.depthFirstSearch
+    int[] stack = new int[numArcs() + 1];
+    int top = 0;
+    stack[top++] = source;
+    while(top > 0) {
+      int v = stack[--top];
+      if(!visited[v]) {
+        visited[v] = true;
+        order[numVisited++] = v;
+        for(int k = this.offsets[v]; k < this.offsets[v + 1]; k++) {
+          if(!visited[this.targets[k]]) {
+            stack[top++] = this.targets[k];
+          }
+        }
+      }
+    }
+    return Arrays.copyOf(order, numVisited);
+  }
+
+  /**
+  * A method to return the degeneracy ordering of an undirected graph.
+  * <p>
+  * The degeneracy ordering is determined as follows: <br>
+  * Until the graph is empty: <br>
+  * add the vertex with the smallest degree to the ordering <br>
+  * remove that vertex from the graph<br>
+  * The vertices are kept in buckets by their degree, so the ordering takes O(n + m) time. The
+  * graph itself is not modified.
+  * @return an ArrayList of elements representing the degeneracy ordering. The smallest vertex is at
+  * the 0th index
+  * @throws UnsupportedOperationException if this graph is directed
+  * @since 0.15.0
+  */
+  public ArrayList<T> degeneracyOrdering() {
+    ArrayList<T> vertexOrdering = new ArrayList<T>(size());
+    for(int id : degeneracyOrder()) {
+      vertexOrdering.add(get(id));
+    }
+    return vertexOrdering;
+  }
+
+  /**
+  * Returns the ids of the vertices of this undirected graph in degeneracy order.
+  * @return the ids in degeneracy order, the vertex removed first is at index 0
+  * @throws UnsupportedOperationException if this graph is directed
+  * @see #degeneracyOrdering()
+  * @since 0.15.0
+  */
+  public int[] degeneracyOrder() {
+    return degeneracyOrder(null);
+  }
+
+  /*
+  * Returns the degeneracy order and fills coreNumbers, if it is not null, with the core number of
+  * each vertex.
+  */
+  int[] degeneracyOrder(int[] coreNumbers) {
+    if(this.directed) {
+      throw new UnsupportedOperationException("The degeneracy ordering needs an undirected graph.");
+    }
+    return CoreDecomposition.degeneracyOrder(this.offsets, this.targets, coreNumbers);
+  }
+
+  /**
+  * Computes the core number of every vertex of this undirected graph along with its degeneracy
+  * ordering.
+  * @return the CoreDecomposition of this graph
+  * @throws UnsupportedOperationException if this graph is directed
+  * @since 0.15.0
+  */
+  public CoreDecomposition<T> coreDecomposition() {
+    return new CoreDecomposition<T>(this);
+  }
+
+  /**
+  * Returns a view of every vertex of this graph. Views of its neighborhoods and subsets can then
+  * be taken without copying this graph.
+  * @return a SubgraphView of this whole graph
+  * @see SubgraphView
+  * @since 0.15.0
+  */
+  public SubgraphView<T> view() {
+    return new SubgraphView<T>(this);
+  }
+
+  /**
+  * Builds an UndirectedGraph, or a Graph if this graph is directed, with the same vertices and
+  * edges as this graph.
+  * @return a Graph equivalent to this graph
+  * @since 0.15.0
+  */
+  public Graph<T> toGraph() {
+    Graph<T> graph = this.directed ? new Graph<T>(size()) : new UndirectedGraph<T>(size());
+    for(int v = 0; v < size(); v++) {
+      graph.addVertex(get(v), degree(v));
+    }
+    for(int v = 0; v < size(); v++) {
+      for(int k = this.offsets[v]; k < this.offsets[v + 1]; k++) {
+        int u = this.targets[k];
+        if(this.directed) {
+          graph.addEdge(get(v), get(u), this.weights == null ? 1.0 : this.weights[k]);
+        } else if(v <= u) {
+          graph.addEdge(get(v), get(u), this.weights == null ? 1.0 : this.weights[k]);
+        }
+      }
+    }
+    return graph;
+  }
+
+  /**
+  * {@inheritDoc}
+  * The elements are returned in order of their ids.
+  */
+  @Override
+  public Iterator<T> iterator() {
+    return this.elements.iterator();
+  }
+
+  /**
+  * Returns the element of each vertex followed by the elements of its neighbors, one vertex per
+  * line.
+  * @return the string representing this graph
+  * @since 0.15.0
+  */
+  @Override
+  public String toString() {
+    StringBuilder str = new StringBuilder();
+    for(int v = 0; v < size(); v++) {
+      str.append(get(v)).append(": ");
+      for(int k = this.offsets[v]; k < this.offsets[v + 1]; k++) {
+        str.append(get(this.targets[k])).append(" ");
+      }
+      str.append("\n");
+    }
+    return str.toString();
+  }
+
+  private void breadthFirstSearch(int source, int target, int[] previous) {
+    boolean[] visited = new boolean[size()];
+    int[] queue = new int[size()];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = source;
+    visited[source] = true;
+    while(head < tail) {
+      int v = queue[head++];
+      if(v == target) {
+        return;
+      }
+      for(int k = this.offsets[v]; k < this.offsets[v + 1]; k++) {
+        int u = this.targets[k];
+        if(!visited[u]) {
+          visited[u] = true;
+          previous[u] = v;
+          queue[tail++] = u;
+        }
+      }
+    }
+  }
+
+  /*
+  * Dijkstra's algorithm with a binary heap of vertex ids keyed on their distances. A vertex is
+  * pushed again when its distance decreases and stale entries are skipped when popped, so the heap
+  * holds at most one entry per arc.
+  */
+  private void dijkstra(int source, int target, int[] previous) {
+    double[] distances = new double[size()];
+    Arrays.fill(distances, Double.MAX_VALUE);
+    boolean[] settled = new boolean[size()];
+    double[] heapKeys = new double[numArcs() + 1];
+    int[] heapIds = new int[numArcs() + 1];
+    int heapSize = 0;
+    distances[source] = 0.0;
+    heapSize = heapPush(heapKeys, heapIds, heapSize, 0.0, source);
+    while(heapSize > 0) {
+      int v = heapIds[0];
+      heapSize = heapPop(heapKeys, heapIds, heapSize);
+      if(settled[v]) {
+        continue;
+      }
+      settled[v] = true;
+      if(v == target) {
+        return;
+      }
+      for(int k = this.offsets[v]; k < this.offsets[v + 1]; k++) {
+        int u = this.targets[k];
+        double distance = distances[v] + this.weights[k];
+        if(!settled[u] && distance < distances[u]) {
+          distances[u] = distance;
+          previous[u] = v;
+          heapSize = heapPush(heapKeys, heapIds, heapSize, distance, u);
+        }
+      }
+    }
+  }
+
+  private static int heapPush(double[] keys, int[] ids, int size, double key, int id) {
+    int i = size;
+    while(i > 0 && keys[(i - 1) / 2] > key) {
+      keys[i] = keys[(i - 1) / 2];
+      ids[i] = ids[(i - 1) / 2];
+      i = (i - 1) / 2;
+    }
+    keys[i] = key;
+    ids[i] = id;
+    return size + 1;
+  }
+
+  private static int heapPop(double[] keys, int[] ids, int size) {
+    size--;
+    double key = keys[size];
+    int id = ids[size];
+    int i = 0;
+    while(2 * i + 1 < size) {
+      int child = 2 * i + 1;
+      if(child + 1 < size && keys[child + 1] < keys[child]) {
+        child++;
+      }
+      if(keys[child] >= key) {
+        break;
+      }
+      keys[i] = keys[child];
+      ids[i] = ids[child];
+      i = child;
+    }
+    keys[i] = key;
+    ids[i] = id;
+    return size;
+  }
+
+  private List<T> toElements(int[] ids) {
+    LinkedList<T> list = new LinkedList<T>();
+    for(int id : ids) {
+      list.add(get(id));
+    }
+    return list;
+  }
+
+  private static <T> HashMap<T, Integer> indexElements(List<T> elements) {
+    HashMap<T, Integer> ids = new HashMap<T, Integer>((int)(elements.size()/0.75)+1);
+    for(int i = 0; i < elements.size(); i++) {
+      ids.put(elements.get(i), i);
+    }
+    return ids;
+  }
+}
@@ -17,7 +17,7 @@ import java.util.Stack;
 * <p>
 * A Graph is composed of elements which are the vertices and the edges between them. The elements in
 * the graph must be unique.
-* @version 0.14.0
+* @version 0.15.0
 * @since 0.1.0
 */
 public class Graph<T extends Comparable<? super T>> implements Iterable<Node<T>>{
@@ -161,6 +161,20 @@ public class Graph<T extends Comparable<? super T>> implements Iterable<Node<T>>
     return new Graph<T>(neighborhoodElements);
   }
 
+  /**
+  * Return a view of every vertex of this Graph. The subsets, neighbors and neighborhoods of a view
+  * are views as well, so they are taken without creating any Nodes or Edges.
+  * <p>
+  * The view is backed by a CsrGraph built from this Graph, which takes O(n + m) time once. Later
+  * changes to this Graph are not seen by the view.
+  * @return a SubgraphView of this whole Graph
+  * @see SubgraphView
+  * @since 0.15.0
+  */
+  public SubgraphView<T> view() {
+    return new CsrGraph<T>(this).view();
+  }
+
   /**
   * Sets the filename for the graph. This is the name
   * to be used when writing out to file. When a graph
@@ -346,6 +360,18 @@ public class Graph<T extends Comparable<? super T>> implements Iterable<Node<T>>
     this.addVertex(new Node<T>(e));
   }
 
+  /**
+  * Add an element to the graph, prepared to hold the given number of neighbors. Only adds the
+  * element if it is not already in the graph. Use this when the degree of each vertex is known
+  * before its edges are added, such as when reading a graph from a file.
+  * @param e the element to add to the graph.
+  * @param numNeighbors the number of neighbors the element is expected to have
+  * @since 0.15.0
+  */
+  public void addVertex(T e, int numNeighbors) {
+    this.addVertex(new Node<T>(e, numNeighbors));
+  }
+
   /**
   * Returns the Node from the graph that holds the given object.
   * @param element the object of the node to be retrieved
@@ -480,20 +506,32 @@ public class Graph<T extends Comparable<? super T>> implements Iterable<Node<T>>
   public void removeVertex(T element) {
     if(contains(element)) {
       Node<T> node = this.getNode(element);
-      // check all nodes in this graph to see if there is an edge from it to
-      // this node
-      for(Node<T> n : this) {
-        if(n.hasNeighbor(node)) {
-          // if there is an edge from a node to nodeToBeRemoved,
-          // remove that edge from this graph.
-          this.removeEdge(n.get(), node.get());
-        }
+      // if there is an edge from a node to nodeToBeRemoved,
+      // remove that edge from this graph.
+      for(Node<T> n : getNodesWithEdgesTo(node)) {
+        this.removeEdge(n.get(), node.get());
       }
       decrementNumEdges(node.numNeighbors());
       this.adjacencyList.remove(node.get());
     }
   }
 
+  /**
+  * Returns the nodes in this graph that have an edge to node. Every node in the graph is checked.
+  * @param node the node the edges lead to
+  * @return a Collection of the nodes with an edge to node
+  * @since 0.15.0
+  */
+  protected Collection<Node<T>> getNodesWithEdgesTo(Node<T> node) {
+    ArrayList<Node<T>> nodes = new ArrayList<Node<T>>();
+    for(Node<T> n : this) {
+      if(n.hasNeighbor(node)) {
+        nodes.add(n);
+      }
+    }
+    return nodes;
+  }
+
   /**
   * Return the shortest path from source to target.
   * <p>
@@ -7,9 +7,9 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.List;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.Date;
 
 import com.aaronpmaus.jMath.io.GraphIO;
@@ -18,31 +18,63 @@ import com.aaronpmaus.jMath.io.GraphIO;
 * A class that uses IncMaxCliqueSolver from Combining MaxSAT Reasoning and Incremental Upper Bound
 * for the Maximum Clique Problem Li, Fang, Xu 2013 to find the maximum clique in UndirectedGraphs.
 * Credit to the authors for the c source used by this program.
-* @version 0.7.0
+* <p>
+* By default the search is run in process by a pure Java implementation of the algorithm. No files
+* are written and no process is started. The original IncMaxClique executable can still be used by
+* constructing the adapter with useNativeBinary set to true, in which case the graph is written out
+* as a DIMACS file named for the graph and IncMaxCliqueLinux or IncMaxCliqueMac must be on the PATH.
+* Only the in process search can be stopped early through SolverOptions.
+* @version 0.15.0
 * @since 0.7.0
 */
 public class IncMaxCliqueAdapter extends MaxCliqueSolver<Integer>{
+  private final boolean useNativeBinary;
+
+  /**
+  * Build an IncMaxCliqueAdapter that runs the search in process.
+  * @since 0.15.0
+  */
+  public IncMaxCliqueAdapter() {
+    this(false);
+  }
+
+  /**
+  * Build an IncMaxCliqueAdapter.
+  * @param useNativeBinary true to run the IncMaxClique executable in a separate process, false to
+  * run the search in process
+  * @since 0.15.0
+  */
+  public IncMaxCliqueAdapter(boolean useNativeBinary) {
+    this.useNativeBinary = useNativeBinary;
+  }
+
+  /**
+  * Whether this adapter runs the IncMaxClique executable in a separate process.
+  * @return true if the native executable is used, false if the search runs in process
+  * @since 0.15.0
+  */
+  public boolean usesNativeBinary() {
+    return this.useNativeBinary;
+  }
 
   /**
   * {@inheritDoc}
   * @since 0.7.0
   */
   public UndirectedGraph<Integer> findMaxClique(UndirectedGraph<Integer> graph) {
-    // create a deep copy of the graph so that the client's Object is not
-    // modified
-    graph = new UndirectedGraph<Integer>(graph);
-    if(graph.size() <= 1) {
-      return graph;
+    if(!useNativeBinary) {
+      if(graph.size() <= 1) {
+        return new UndirectedGraph<Integer>(graph);
+      }
+      return findMaxClique(graph, new SolverOptions<Integer>()).getClique();
     }
-    HashMap<Integer, Integer> nodeIDMapping = new HashMap<Integer, Integer>();
-    int nodeID = 1;
-    for(Node<Integer> n : graph) {
-      nodeIDMapping.put(nodeID, n.get());
-      n.set(nodeID);
-      nodeID++;
+    if(graph.size() <= 1) {
+      return new UndirectedGraph<Integer>(graph);
     }
-    // need to rebuild the graph for consistency now that the nodes have changed
-    UndirectedGraph<Integer> g = new UndirectedGraph<Integer>(graph);
+    // the executable reads vertices numbered from 1. The client's graph is not modified.
+    VertexRenumbering<Integer> renumbering =
+        new VertexRenumbering<Integer>(graph, getVertexOrder());
+    UndirectedGraph<Integer> g = renumbering.relabel(graph);
     //long time = new Date().getTime();
     //String fname = "" + time + "_" + ProcessHandle.current().getPID() + ".dimacs";
     //g.setGraphFileName(fname);
@@ -53,13 +85,7 @@ public class IncMaxCliqueAdapter extends MaxCliqueSolver<Integer>{
       e.printStackTrace();
     }
     UndirectedGraph<Integer> clique = findMaxClique(g.getGraphFileName(), g);
-    for(int seqID = 1; seqID < nodeID; seqID++) {
-      if(clique.contains(seqID)) {
-        clique.getNode(seqID).set(nodeIDMapping.get(seqID));
-      }
-    }
-    // need to rebuild the graph for consistency now that the nodes have changed
-    clique = new UndirectedGraph<Integer>(clique);
+    clique = graph.subset(renumbering.toOriginal(clique.getElements()));
     try {
       Files.deleteIfExists(Paths.get(g.getGraphFileName()));
     } catch(IOException e) {
@@ -68,6 +94,56 @@ public class IncMaxCliqueAdapter extends MaxCliqueSolver<Integer>{
     return clique;
   }
 
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public UndirectedGraph<Integer> findMaxClique(BitSetUndirectedGraph<Integer> graph) {
+    if(useNativeBinary) {
+      return findMaxClique(graph.toUndirectedGraph());
+    }
+    if(graph.size() == 0) {
+      return new UndirectedGraph<Integer>();
+    }
+    return findMaxClique(graph, new SolverOptions<Integer>()).getClique();
+  }
+
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public SolverResult<Integer> findMaxClique(UndirectedGraph<Integer> graph,
+      SolverOptions<Integer> options) {
+    if(useNativeBinary) {
+      return super.findMaxClique(graph, options);
+    }
+    SolverResult<Integer> result = findMaxClique(new BitSetUndirectedGraph<Integer>(graph), options);
+    return new SolverResult<Integer>(graph.subset(result.getClique().getElements()),
+        result.getUpperBound(), result.getStats());
+  }
+
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public SolverResult<Integer> findMaxClique(BitSetUndirectedGraph<Integer> graph,
+      SolverOptions<Integer> options) {
+    if(useNativeBinary) {
+      return super.findMaxClique(graph, options);
+    }
+    if(graph.size() == 0) {
+      return new SolverResult<Integer>(new UndirectedGraph<Integer>(), 0, options.getStats());
+    }
+    IncMaxCliqueEngine engine =
+        new IncMaxCliqueEngine(graph, findInitialClique(graph), options, getVertexOrder());
+    List<Integer> clique = engine.findMaxClique();
+    return new SolverResult<Integer>(graph.subset(clique).toUndirectedGraph(),
+        engine.getUpperBound(), options.getStats());
+  }
+
   /*
   * Find a MAX CLIQUE in g from the dimacs file filename.
   * @param filename the name of the DIMACS file for this graph.
@@ -0,0 +1,421 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+* An in-process implementation of IncMaxClique from Combining MaxSAT Reasoning and Incremental Upper
+* Bound for the Maximum Clique Problem, Li, Fang, Xu 2013. This is the engine used by the
+* IncMaxCliqueAdapter in place of the external IncMaxClique executable.
+* <p>
+* The vertices are renumbered by a VertexRenumbering, by default in reverse degeneracy order, and
+* stored as rows of bits. Following the
+* paper, the graphs G_i = {v_i, ..., v_n} are solved for i = n down to 1, and the size of the max
+* clique of each G_i is kept as the incremental upper bound of v_i. When searching from v_i, any
+* branch that can only use vertices from G_j is pruned when its clique plus the bound of v_j can not
+* beat the best clique found so far. Each candidate set is also bounded by a greedy coloring with
+* Re-NUMBER, and when the coloring is not enough to prune, by MaxSAT reasoning: the color classes
+* are treated as soft clauses and failed literal detection with unit propagation is used to find
+* disjoint inconsistent sets of color classes, each of which lowers the bound by one. Within a candidate set
+* the vertices are branched on from the highest color down, so the color of each vertex also bounds
+* its branch.
+* <p>
+* The search can be stopped early through SolverOptions. The roots solved before it stopped bound
+* the clique of G_i for the root i it stopped at, and a coloring of the whole graph bounds it too.
+* The nodes of the search, the branches pruned by each bound and the time spent coloring and on
+* MaxSAT reasoning are recorded in the stats of the options.
+* @version 0.15.0
+* @since 0.15.0
+*/
+class IncMaxCliqueEngine {
+  // MaxSAT reasoning is only tried when the coloring bound is at most this much too large to prune.
+  // Finding more inconsistent sets than this rarely succeeds and costs more than it saves.
+  private static final int MAX_SAT_EXCESS = 2;
+  // the search checks whether it should stop each time it expands this many nodes. A power of 2.
+  private static final int STOP_CHECK_INTERVAL = 1024;
+  private final BitSetUndirectedGraph<Integer> graph;
+  private final long[][] adjacency;
+  private final int numVertices;
+  private final int numWords;
+  // cliqueBounds[i] is the size of the max clique in the graph induced by the vertices i..n-1
+  private final int[] cliqueBounds;
+  private final int[] clique;
+  private int[] maxClique;
+  private int maxCliqueSize;
+  // set when the search from the current root has found a clique as large as it can possibly be
+  private boolean rootSolved;
+  private final SolverOptions<Integer> options;
+  private final SolverStats stats;
+  private long numExpanded;
+  private boolean stopped;
+  // the root the search stopped at, or -1 if it was not stopped
+  private int stoppedRoot;
+  // the candidate set at each depth of the search, and its vertices sorted by color
+  private final long[][] candidates;
+  private final int[][] order;
+  private final int[][] colors;
+  // coloring and scratch for MaxSAT reasoning. These are only used while computing the bound of a
+  // single candidate set, so they are shared between all depths of the search.
+  private final BitSetColoring coloring;
+  private long[][] remaining;
+  private int[] remainingSizes;
+  private boolean[] removedClass;
+  private boolean[] involvedClass;
+  private boolean[] propagatedClass;
+
+  /**
+  * Build an engine to find the max clique of graph. The graph is not modified.
+  * @param graph the graph to search for a max clique in
+  * @since 0.15.0
+  */
+  IncMaxCliqueEngine(BitSetUndirectedGraph<Integer> graph) {
+    this(graph, new ArrayList<Integer>(), new SolverOptions<Integer>());
+  }
+
+  /**
+  * Build an engine to find the max clique of graph, starting from a known clique. Only cliques
+  * larger than it are searched for. The graph is not modified.
+  * @param graph the graph to search for a max clique in
+  * @param initialClique the elements of a clique in graph
+  * @since 0.15.0
+  */
+  IncMaxCliqueEngine(BitSetUndirectedGraph<Integer> graph, List<Integer> initialClique) {
+    this(graph, initialClique, new SolverOptions<Integer>());
+  }
+
+  /**
+  * Build an engine to find the max clique of graph, starting from a known clique, that stops early
+  * if options says to. Each larger clique found is reported to options. The graph is not modified.
+  * @param graph the graph to search for a max clique in
+  * @param initialClique the elements of a clique in graph
+  * @param options the time limit, cancellation and listener of the search
+  * @since 0.15.0
+  */
+  IncMaxCliqueEngine(BitSetUndirectedGraph<Integer> graph, List<Integer> initialClique,
+      SolverOptions<Integer> options) {
+    this(graph, initialClique, options, VertexRenumbering.Order.DEGENERACY);
+  }
+
+  /**
+  * Build an engine to find the max clique of graph, starting from a known clique, that stops early
+  * if options says to. The vertices of graph are renumbered in order before they are searched.
+  * @param graph the graph to search for a max clique in
+  * @param initialClique the elements of a clique in graph
+  * @param options the time limit, cancellation and listener of the search
+  * @param order the order to renumber the vertices of graph in
+  * @since 0.15.0
+  */
+  IncMaxCliqueEngine(BitSetUndirectedGraph<Integer> graph, List<Integer> initialClique,
+      SolverOptions<Integer> options, VertexRenumbering.Order order) {
+    this.options = options;
+    this.stats = options.getStats();
+    this.numExpanded = 0;
+    this.stopped = false;
+    this.stoppedRoot = -1;
+    this.graph = new VertexRenumbering<Integer>(graph, order).renumber(graph);
+    this.numVertices = this.graph.size();
+    this.numWords = this.graph.numWords();
+    this.adjacency = new long[numVertices][];
+    for(int i = 0; i < numVertices; i++) {
+      adjacency[i] = this.graph.getRow(i);
+    }
+    this.cliqueBounds = new int[numVertices + 1];
+    this.clique = new int[numVertices + 1];
+    this.maxClique = new int[initialClique.size()];
+    for(int i = 0; i < maxClique.length; i++) {
+      maxClique[i] = this.graph.indexOf(initialClique.get(i));
+    }
+    this.maxCliqueSize = maxClique.length;
+    this.candidates = new long[numVertices + 1][];
+    this.order = new int[numVertices + 1][];
+    this.colors = new int[numVertices + 1][];
+    this.coloring = new BitSetColoring(adjacency, numWords, true);
+    this.remaining = new long[0][];
+    this.remainingSizes = new int[0];
+    this.removedClass = new boolean[0];
+    this.involvedClass = new boolean[0];
+    this.propagatedClass = new boolean[0];
+  }
+
+  /**
+  * Find a max clique.
+  * @return a list of the elements of a max clique in the graph
+  * @since 0.15.0
+  */
+  List<Integer> findMaxClique() {
+    stats.start();
+    options.reportClique(maxCliqueElements());
+    for(int i = numVertices - 1; i >= 0; i--) {
+      if(stopped || options.shouldStop()) {
+        stopped = true;
+        stoppedRoot = i;
+        break;
+      }
+      rootSolved = false;
+      clique[0] = i;
+      long[] p = candidates(1);
+      long[] row = adjacency[i];
+      // only the vertices after i, the rest of G_i
+      System.arraycopy(row, 0, p, 0, numWords);
+      Arrays.fill(p, 0, i >>> 6, 0L);
+      p[i >>> 6] &= (-1L << i) << 1;
+      int first = BitSetUndirectedGraph.nextSetBit(p, 0);
+      if(first < 0) {
+        if(maxCliqueSize < 1) {
+          updateMaxClique(1);
+        }
+      } else if(1 + cliqueBounds[first] > maxCliqueSize) {
+        expand(1);
+      } else {
+        stats.prune(SolverStats.Bound.INCREMENTAL);
+      }
+      if(stopped) {
+        // the search from i did not finish
+        stoppedRoot = i;
+        break;
+      }
+      cliqueBounds[i] = maxCliqueSize;
+    }
+    return maxCliqueElements();
+  }
+
+  /**
+  * An upper bound on the size of the max clique, once findMaxClique has returned. It is the size of
+  * the clique found unless the search was stopped early.
+  * @return an upper bound on the size of the max clique of the graph
+  * @since 0.15.0
+  */
+  int getUpperBound() {
+    if(!stopped) {
+      return maxCliqueSize;
+    }
+    // each of the roots left can make the max clique at most one larger than that of G_(i+1)
+    int bound = cliqueBounds[stoppedRoot + 1] + stoppedRoot + 1;
+    long[] all = new long[numWords];
+    for(int v = 0; v < numVertices; v++) {
+      BitSetUndirectedGraph.setBit(all, v);
+    }
+    coloring.color(all, 1, order(0), colors(0));
+    bound = Math.min(bound, coloring.numColors());
+    return Math.max(bound, maxCliqueSize);
+  }
+
+  private List<Integer> maxCliqueElements() {
+    ArrayList<Integer> elements = new ArrayList<Integer>(maxCliqueSize);
+    for(int i = 0; i < maxCliqueSize; i++) {
+      elements.add(graph.get(maxClique[i]));
+    }
+    return elements;
+  }
+
+  /*
+  * Extend the clique of size depth with vertices from candidates[depth]. The candidates are colored
+  * and branched on from the highest color down, as in MaxCLQ. Before branching on a vertex, the
+  * candidates of the branch all come from G_j where j is the first of them, so the branch is pruned
+  * if the clique plus the incremental bound of j can not beat the best clique found so far.
+  */
+  private void expand(int depth) {
+    if((++numExpanded & (STOP_CHECK_INTERVAL - 1)) == 0 && options.shouldStop()) {
+      stopped = true;
+    }
+    if(stopped) {
+      return;
+    }
+    stats.node(depth);
+    long[] p = candidates[depth];
+    int[] vertices = order(depth);
+    int[] vertexColors = colors(depth);
+    long start = stats.startTimer();
+    // only the vertices with a color of at least kMin are branched on
+    int numCandidates = coloring.color(p, maxCliqueSize - depth + 1, vertices, vertexColors);
+    int numColors = coloring.numColors();
+    stats.addColoringTime(start);
+    ensureClasses(numColors);
+    int excess = depth + numColors - maxCliqueSize;
+    if(excess <= 0) {
+      stats.prune(SolverStats.Bound.COLORING);
+      return;
+    }
+    if(excess <= MAX_SAT_EXCESS) {
+      start = stats.startTimer();
+      boolean pruned = inconsistentSubsets(numColors, excess) == excess;
+      stats.addMaxSatTime(start);
+      if(pruned) {
+        stats.prune(SolverStats.Bound.MAX_SAT);
+        return;
+      }
+    }
+    long[] next = candidates(depth + 1);
+    for(int i = numCandidates - 1; i >= 0; i--) {
+      if(stopped || rootSolved) {
+        return;
+      }
+      if(depth + vertexColors[i] <= maxCliqueSize) {
+        stats.prune(SolverStats.Bound.COLORING);
+        return;
+      }
+      int v = vertices[i];
+      clique[depth] = v;
+      long[] row = adjacency[v];
+      int first = -1;
+      for(int w = 0; w < numWords; w++) {
+        next[w] = p[w] & row[w];
+        if(first < 0 && next[w] != 0) {
+          first = (w << 6) + Long.numberOfTrailingZeros(next[w]);
+        }
+      }
+      if(first < 0) {
+        stats.node(depth + 1);
+        if(depth + 1 > maxCliqueSize) {
+          updateMaxClique(depth + 1);
+        }
+      } else if(depth + 1 + cliqueBounds[first] > maxCliqueSize) {
+        expand(depth + 1);
+      } else {
+        stats.prune(SolverStats.Bound.INCREMENTAL);
+      }
+      BitSetUndirectedGraph.clearBit(p, v);
+    }
+  }
+
+  private void updateMaxClique(int size) {
+    maxCliqueSize = size;
+    maxClique = Arrays.copyOf(clique, size);
+    options.reportClique(maxCliqueElements());
+    // the clique of the current root can be at most one larger than that of the next root
+    if(maxCliqueSize == cliqueBounds[clique[0] + 1] + 1) {
+      rootSolved = true;
+    }
+  }
+
+  /*
+  * Count disjoint inconsistent sets of color classes, stopping once needed have been found.
+  * <p>
+  * Each color class is a soft clause, the disjunction of its vertices, and every pair of
+  * non-adjacent vertices is a hard clause that says they can not both be in the clique. A color
+  * class is failed if setting each of its vertices in turn leads to an empty clause through unit
+  * propagation. The failed class and every class involved in those propagations can not all be
+  * satisfied together, so at most numColors - (number of disjoint inconsistent sets) of the
+  * classes can contribute a vertex to a clique.
+  */
+  private int inconsistentSubsets(int numColors, int needed) {
+    Arrays.fill(removedClass, 0, numColors, false);
+    int found = 0;
+    for(int s = numColors - 1; s >= 0 && found < needed; s--) {
+      if(removedClass[s]) {
+        continue;
+      }
+      Arrays.fill(involvedClass, 0, numColors, false);
+      boolean failed = true;
+      long[] tested = coloring.colorClass(s);
+      for(int u = BitSetUndirectedGraph.nextSetBit(tested, 0); u >= 0 && failed;
+          u = BitSetUndirectedGraph.nextSetBit(tested, u+1)) {
+        failed = propagate(u, s, numColors);
+      }
+      if(failed) {
+        found++;
+        removedClass[s] = true;
+        for(int c = 0; c < numColors; c++) {
+          if(involvedClass[c]) {
+            removedClass[c] = true;
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  /*
+  * Set vertex u of color class s and unit propagate through the other classes that have not been
+  * removed. Returns true if an empty class is reached. Every class that becomes unit or empty is
+  * marked in involvedClass.
+  */
+  private boolean propagate(int u, int s, int numColors) {
+    long[] row = adjacency[u];
+    for(int c = 0; c < numColors; c++) {
+      propagatedClass[c] = false;
+      if(c == s || removedClass[c]) {
+        continue;
+      }
+      long[] left = remaining[c];
+      long[] colored = coloring.colorClass(c);
+      int size = 0;
+      for(int w = 0; w < numWords; w++) {
+        left[w] = colored[w] & row[w];
+        size += Long.bitCount(left[w]);
+      }
+      remainingSizes[c] = size;
+      if(size == 0) {
+        involvedClass[c] = true;
+        return true;
+      }
+    }
+    boolean propagated = true;
+    while(propagated) {
+      propagated = false;
+      for(int c = 0; c < numColors; c++) {
+        if(c == s || removedClass[c] || propagatedClass[c] || remainingSizes[c] != 1) {
+          continue;
+        }
+        // c is a unit clause, its last vertex must be in the clique
+        propagatedClass[c] = true;
+        involvedClass[c] = true;
+        propagated = true;
+        long[] unitRow = adjacency[BitSetUndirectedGraph.nextSetBit(remaining[c], 0)];
+        for(int d = 0; d < numColors; d++) {
+          if(d == s || d == c || removedClass[d] || propagatedClass[d]) {
+            continue;
+          }
+          long[] left = remaining[d];
+          int size = 0;
+          for(int w = 0; w < numWords; w++) {
+            left[w] &= unitRow[w];
+            size += Long.bitCount(left[w]);
+          }
+          remainingSizes[d] = size;
+          if(size == 0) {
+            involvedClass[d] = true;
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private long[] candidates(int depth) {
+    if(candidates[depth] == null) {
+      candidates[depth] = new long[numWords];
+    }
+    return candidates[depth];
+  }
+
+  private int[] order(int depth) {
+    if(order[depth] == null) {
+      order[depth] = new int[numVertices];
+    }
+    return order[depth];
+  }
+
+  private int[] colors(int depth) {
+    if(colors[depth] == null) {
+      colors[depth] = new int[numVertices];
+    }
+    return colors[depth];
+  }
+
+  private void ensureClasses(int numColors) {
+    if(remaining.length < numColors) {
+      int capacity = Math.max(numColors, 2*remaining.length);
+      long[][] left = Arrays.copyOf(remaining, capacity);
+      for(int c = remaining.length; c < capacity; c++) {
+        left[c] = new long[numWords];
+      }
+      this.remaining = left;
+      this.remainingSizes = new int[capacity];
+      this.removedClass = new boolean[capacity];
+      this.involvedClass = new boolean[capacity];
+      this.propagatedClass = new boolean[capacity];
+    }
+  }
+}
@@ -14,28 +14,59 @@ import java.util.Comparator;
 * A class that implements IncMaxCliqueSolver from
 * Combining MaxSAT Reasoning and Incremental Upper Bound for the Maximum Clique Problem
 * Li, Fang, Xu 2013
-* INCOMPLETE - does not include UB max sat
+* <p>
+* The search keeps an upper bound for each vertex on the largest clique made of it and vertices
+* after it in the vertex ordering. The incremental bound of a vertex is one more than the largest
+* bound of its neighbors after it. It is tightened by the number of colors of an independent set
+* partition of the subgraph being searched, and by the MaxSAT bound of MaxSatUB, which lowers that
+* number by one for each disjoint set of color classes it proves can not all be in a clique. A
+* vertex whose bound can not improve on the largest clique found so far is not branched on.
+* <p>
+* Each call of the recursive search is a node in its stats. A branch pruned by the vertex upper
+* bound is counted against the cheapest of the incremental, independent set and MaxSAT bounds that
+* was low enough to prune it.
+* <p>
+* The vertices are renumbered in the vertex ordering of the algorithm before the search, so the id
+* of each vertex is its position in the ordering. The vertex order of the solver is not used.
+* @version 0.15.0
 * @since 0.7.0
 */
 public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
   private ArrayList<Integer> vertexOrdering;
   //private ArrayList<Integer> vertexUB;
   private HashMap<Integer, Integer> vertexUB;
-  public static long numCalls = 0;
-  public static long numVOCalls = 0;
-  private ArrayList<ArrayList<Node<Integer>>> colorSets;
   private MaxSatUB satSolver;
+  private SolverOptions<Integer> options;
+  private boolean stopped;
 
   /**
   * {@inheritDoc}
   * @since 0.7.0
   */
   public UndirectedGraph<Integer> findMaxClique(UndirectedGraph<Integer> graph) {
-    ArrayList<Integer> vertexOrdering = vertexOrdering(graph);
+    ArrayList<Integer> vertexOrdering = vertexOrdering(graph, new SolverOptions<Integer>());
     // initialize vertexUB
     return findMaxClique(graph, vertexOrdering);
   }
 
+  /**
+  * {@inheritDoc}
+  * If the search is stopped early, the upper bound is that of a MaxCliqueHeuristic. The time limit
+  * also bounds the independent set partition a dense graph is ordered by. If it runs out before the
+  * partition is found, the vertices are searched in degeneracy order.
+  * @since 0.15.0
+  */
+  @Override
+  public SolverResult<Integer> findMaxClique(UndirectedGraph<Integer> graph,
+      SolverOptions<Integer> options) {
+    UndirectedGraph<Integer> clique = search(graph, vertexOrdering(graph, options), options);
+    int upperBound = clique.size();
+    if(this.stopped) {
+      upperBound = new MaxCliqueHeuristic<Integer>(graph).getUpperBound();
+    }
+    return new SolverResult<Integer>(clique, upperBound, options.getStats());
+  }
+
   /**
   * Finds the maximum clique in g
   * @param graph the graph to search for a max clique in
@@ -44,16 +75,38 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
   * @since 0.7.0
   */
   public UndirectedGraph<Integer> findMaxClique(UndirectedGraph<Integer> graph, ArrayList<Integer> vertexOrdering) {
+    return search(graph, vertexOrdering, new SolverOptions<Integer>());
+  }
+
+  private UndirectedGraph<Integer> search(UndirectedGraph<Integer> graph,
+      ArrayList<Integer> vertexOrdering, SolverOptions<Integer> options) {
+    this.options = options;
+    this.stopped = false;
     this.vertexOrdering = vertexOrdering;
+    // the search narrows views of a copy of graph renumbered so that the id of each vertex is its
+    // index in vertexOrdering
+    CsrGraph<Integer> csr = new VertexRenumbering<Integer>(vertexOrdering)
+        .renumber(new CsrGraph<Integer>(graph));
+    SubgraphView<Integer> g = csr.view();
     vertexUB = new HashMap<Integer, Integer>((int)(graph.size()/0.75)+1);
     for(int i = vertexOrdering.size()-1; i >= 0; i--) {
-      int ubValue = incUB(i, graph);
+      int ubValue = incUB(i, g);
       vertexUB.put(vertexOrdering.get(i), ubValue);
     }
-    satSolver = new MaxSatUB(graph);
+    satSolver = new MaxSatUB(csr);
+    satSolver.setStats(options.getStats());
+    options.getStats().start();
     //printUB();
-    List<Integer> elements = incMaxClique(graph, new LinkedList<Integer>(), new LinkedList<Integer>());
+    // start from a heuristic clique so that the search prunes from the start
+    List<Integer> initialClique = findInitialClique(graph);
+    options.reportClique(initialClique);
+    List<Integer> elements =
+        incMaxClique(g, new LinkedList<Integer>(), new LinkedList<Integer>(initialClique));
+    if(elements.size() < initialClique.size()) {
+      elements = initialClique;
+    }
     UndirectedGraph<Integer> clique = graph.subset(elements);
+    options.reportClique(elements);
     //System.out.println("is clique? " + g.isClique(clique));
     //System.out.println("is clique? " + g.checkIfClique(objs));
     return clique;
@@ -77,102 +130,34 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
   // when calculating UB values
   // @param index is the index of the vertex in the vertexOrdering
   // @param g is the graph to use to establish neighbors
-  private int incUB(int index, UndirectedGraph<Integer> g) {
-    Node<Integer> vertex = g.getNode(vertexOrdering.get(index));
-    //System.out.println("Calculating inc UB of " + vertex.get());
-    if(vertex == null) {
-      throw new NullPointerException("IncMaxCliqueSolver::incUB() vertex at index in vertexOrdering not in g");
-    }
-
-    for(int i = index+1; i < vertexOrdering.size(); i++) {
-      // if v_i and v_j are neighbors
-      if(g.contains(vertexOrdering.get(i))) {
-        Node<Integer> neighbor = g.getNode(vertexOrdering.get(i));
-        //if(neighbor != null) System.out.println("looking at " + neighbor.get());
-        if(vertex.hasNeighbor(neighbor)) {
-          //System.out.println(neighbor.get() + " is a neighbor with UB of " + vertexUB.get(vertexOrdering.get(i)));
-          // set vertexUB[i] = vertexUB[j] + 1
-          return vertexUB.get(vertexOrdering.get(i))+1;
-        }
+  private int incUB(int index, SubgraphView<Integer> g) {
+    // a clique of v_i is v_i and a clique of its neighbors after it in vertexOrdering, whose first
+    // vertex may be any of them. The neighbors of v_i are stored in order of their ids, which are
+    // their indices in vertexOrdering.
+    int largest = 0;
+    CsrGraph<Integer> graph = g.getGraph();
+    for(int k = 0; k < graph.degree(index); k++) {
+      int neighbor = graph.neighbor(index, k);
+      if(neighbor > index && g.hasId(neighbor)) {
+        largest = Math.max(largest, vertexUB.get(vertexOrdering.get(neighbor)));
       }
     }
-    // if v_i has no neighbors after it in vertexOrdering, set vertexUB[i] = 1
-    return 1;
+    // if v_i has no neighbors after it in vertexOrdering, vertexUB[i] = 1
+    return largest + 1;
   }
 
   /**
   * This method is a heuristic to estimate the number of independent sets in a graph via a greedy
-  * graph coloring algorithm. The algorithm comes from Tomita et al. 2003 and 2010.
-  * @param g the graph a clique is being sought in
+  * graph coloring algorithm. The algorithm comes from Tomita et al. 2003 and 2010. The vertices of
+  * g are the active vertices of the satSolver, which colors them on the bits of its adjacency and
+  * keeps the color classes for its MaxSAT bound.
   * @param cMaxSize the size of the largest clique found so far
   * @param cSize the size of the clique under construction
-  * @return the partition of the graph into independent sets (color sets)
+  * @return the number of colors used
   */
-  private int indSetUB(UndirectedGraph<Integer> g, int cMaxSize, int cSize) {
-    //System.out.println("## Calculating indSetUB");
-    // get a list of nodes and sort them in descending order by degree
-    List<Node<Integer>> descendingDegreeNodes = new ArrayList<Node<Integer>>(g.getNodes());
-    Collections.sort(descendingDegreeNodes, Collections.reverseOrder());
-    int maxColorNumber = 0;
-    // initialize color sets
-    // The index of the outer ArrayList is k and the inner arraylists hold all the nodes that belong
-    // to that color k.
-    colorSets = new ArrayList<ArrayList<Node<Integer>>>();
-    // initialize the first two color sets (k = 0,1)
-    colorSets.add(new ArrayList<Node<Integer>>());
-    colorSets.add(new ArrayList<Node<Integer>>());
-    for(Node<Integer> node : descendingDegreeNodes) {
-      int k = 0;
-      // find the lowest k where neighbors and the set of nodes in colorSets[k] share no nodes
-      // in common
-      while(!Collections.disjoint(node.getNeighbors(), colorSets.get(k))) {
-        k++;
-      }
-      if(k > maxColorNumber) {
-        maxColorNumber = k;
-        // initialize and add the next color set
-        colorSets.add(new ArrayList<Node<Integer>>());
-      }
-      colorSets.get(k).add(node);
-
-      //System.out.printf("before re-number: %d\n", maxColorNumber);
-      // - Re-NUMBER starts -
-      int colorNumberThreshold = cMaxSize - cSize;
-      if(k > colorNumberThreshold && k == maxColorNumber) {
-        // re-number the vertices
-        reNumber(node, k, colorNumberThreshold, colorSets);
-        // if the highest number color set is empty after the re-numbering
-        if(colorSets.get(colorSets.size()-1).isEmpty()) {
-          // decrement the max color number
-          maxColorNumber--;
-          //colorSets.remove(colorSets.size()-1);
-        }
-      }
-      //System.out.printf("after re-number: %d\n", maxColorNumber);
-    }
-    // return the number of colors assigned
-    return maxColorNumber + 1;
-    //return colorSets;
-  }
-
-  private void reNumber(Node<Integer> node, int nodeColor, int colorThreshold,
-                        ArrayList<ArrayList<Node<Integer>>> colorSets) {
-
-    for(int k1 = 0; k1 < colorThreshold - 1; k1++) {
-      LinkedList<Node<Integer>> intersection = intersection(colorSets.get(k1), node.getNeighbors());
-      if(intersection.size() == 1) {
-        Node<Integer> intersectedNode = intersection.get(0);
-        for(int k2 = k1 + 1; k2 < colorThreshold; k2++) {
-          if(Collections.disjoint(colorSets.get(k2), intersectedNode.getNeighbors())) {
-            colorSets.get(nodeColor).remove(node);
-            colorSets.get(k1).remove(intersectedNode);
-            colorSets.get(k1).add(node);
-            colorSets.get(k2).add(intersectedNode);
-            return;
-          }
-        }
-      }
-    }
+  private int indSetUB(int cMaxSize, int cSize) {
+    // vertices that would get a color above cMaxSize - cSize are recolored with Re-NUMBER
+    return satSolver.colorActive(cMaxSize - cSize + 1);
   }
 
   /**
@@ -181,80 +166,86 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
   * @param gMax the max clique found so far
   * @return a list containing the elements of the maximum clique found in g
   */
-  private List<Integer> incMaxClique(UndirectedGraph<Integer> g, List<Integer> c, List<Integer> cMax) {
-    if(numCalls == 100) { // for testing purposes to stop infinite recursion
-      //return c;
+  private List<Integer> incMaxClique(SubgraphView<Integer> g, List<Integer> c, List<Integer> cMax) {
+    if(stopped || options.shouldStop()) {
+      // c and cMax are both cliques, return the larger
+      stopped = true;
+      return c.size() > cMax.size() ? c : cMax;
     }
-    numCalls++;
-    long callNumber = numCalls;
-    //System.out.println("Call #: " + callNumber);
+    options.getStats().node(c.size());
     if(g.size() == 0) {
       //System.out.println("Size of graph is 0, returning c");
       //System.out.println("c:\n"+c);
       return c;
     }
-    Integer smallestVertex = getSmallestVertex(g);
-    if(numCalls < 100) {
-      //System.out.println("The whole graph");
-      //System.out.println(g);
-      //System.out.println("smallest vertex");
-      //System.out.println(smallestVertex);
-    }
-    int smallestVertexIndex = vertexOrdering.indexOf(smallestVertex);
+    int smallestVertexIndex = getSmallestVertexIndex(g);
+    Integer smallestVertex = vertexOrdering.get(smallestVertexIndex);
     //UndirectedGraph<Integer> gWithoutSmallestVertex = new UndirectedGraph<Integer>(g);
     //gWithoutSmallestVertex.removeVertex(smallestVertex);
-    if(numCalls < 100) {
-      //System.out.println("graph without smallest vertex");
-      //System.out.println(gWithoutSmallestVertex);
-    }
     //System.out.println("making recursive call of incMaxClique");
     //UndirectedGraph<Integer> c1 = incMaxClique(gWithoutSmallestVertex, c, cMax);
 
     // CRAZY Idea, instead of creating a copy of g for every recursive call, remove the smallest
     // vertex from g before the call, and add it back in after the call.
-    Node<Integer> small = g.getNode(smallestVertex);
+    // The satSolver's active vertices follow g in the same way.
     g.removeVertex(smallestVertex);
+    satSolver.deactivate(smallestVertex);
     List<Integer> c1 = incMaxClique(g, c, cMax);
-    g.addNode(small);
+    g.addVertex(smallestVertex);
+    satSolver.activate(smallestVertex);
 
-    //System.out.println("In Call #: " + callNumber);
     //System.out.println("first recursive call complete");
     if(c1.size() > cMax.size()) {
       cMax = c1;
+      options.reportClique(cMax);
     }
-    // update vertexUB, includes incUB and indSetUB. TODO include MaxSatUB
+    if(stopped) {
+      return cMax;
+    }
+    // update vertexUB, includes incUB, indSetUB and MaxSatUB
     //System.out.println("smallest vertex: " + smallestVertex.get() );
     //System.out.println("Size of vertexUB: " + vertexUB.size());
     //for(Node<Integer> node : vertexUB.keySet()) {
     //System.out.println(node.get());
     //}
     //printUB();
-    //ArrayList<ArrayList<Node<Integer>>> partition = indSetUB(g, cMax.size(), c.size());
-    int indSetUpperBound = indSetUB(g, cMax.size(), c.size());
-    int maxSatUB = satSolver.estimateCardinality(g, colorSets);
+    SolverStats stats = options.getStats();
+    int incUpperBound = Math.min(vertexUB.get(smallestVertex), incUB(smallestVertexIndex, g));
+    long start = stats.startTimer();
+    int indSetUpperBound = indSetUB(cMax.size(), c.size());
+    stats.addColoringTime(start);
+    int maxSatUB = satSolver.estimateColoredCardinality();
     //System.out.println("Calling MaxSatUB, Graph:\n" + g);
-    vertexUB.put(smallestVertex, min(vertexUB.get(smallestVertex),
-                                     incUB(smallestVertexIndex, g),
-                                     indSetUpperBound));
-                                     //maxSatUB));
+    vertexUB.put(smallestVertex, min(incUpperBound,
+                                     indSetUpperBound,
+                                     maxSatUB));
     //System.out.println("Updating UB for " + smallestVertex);
     //printUB();
 
     if(cMax.size() >= (vertexUB.get(smallestVertex) + c.size())) {
+      // credit the prune to the cheapest bound that was low enough
+      int bound = vertexUB.get(smallestVertex);
+      if(incUpperBound == bound) {
+        stats.prune(SolverStats.Bound.INCREMENTAL);
+      } else if(indSetUpperBound == bound) {
+        stats.prune(SolverStats.Bound.COLORING);
+      } else {
+        stats.prune(SolverStats.Bound.MAX_SAT);
+      }
       return cMax;
     }
     // save the vertexUB values of the neighbors of smallestVertex
     // first, get the set of neighbors
-    UndirectedGraph<Integer> neighbors = g.getNeighbors(smallestVertex);
+    SubgraphView<Integer> neighbors = g.getNeighbors(smallestVertex);
     //Collection<Node<Integer>> neighbors = g.getNode(smallestVertex).getNeighbors();
     // copy all the vertexUB values for the neighbors of smallestVertex
     ArrayList<Integer> vertexUB_bkup_elements = new ArrayList<Integer>(neighbors.size());
     int[] vertexUB_bkup_values = new int[neighbors.size()];
     //HashMap<Integer, Integer> vertexUB_bkup = new HashMap<Integer, Integer>();
     int i = 0;
-    for(Node<Integer> neighbor : neighbors) {
-      vertexUB_bkup_elements.add(neighbor.get());
-      vertexUB_bkup_values[i] = vertexUB.get(neighbor.get());
+    for(Integer neighbor : neighbors) {
+      vertexUB_bkup_elements.add(neighbor);
+      vertexUB_bkup_values[i] = vertexUB.get(neighbor);
       i++;
       //vertexUB_bkup.put(neighbor.get(), vertexUB.get(neighbor.get()));
     }
@@ -275,13 +266,14 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
     for(Node<Integer> node : nonNeighbors) {
       g.removeVertex(node.get());
     }*/
+    satSolver.retainNeighbors(smallestVertex);
     List<Integer> c2 = incMaxClique(neighbors, cUnionSmallestVertex, cMax);
+    satSolver.restoreActive();
     //List<Integer> c2 = incMaxClique(g, cUnionSmallestVertex, cMax);
     /*for(Node<Integer> node : nonNeighbors) {
       g.addNode(node);
     }*/
     //List<Integer> c2 = incMaxClique(neighborsGraph, c, cMax);
-    //System.out.println("In Call #: " + callNumber);
     //System.out.println("second recursive call complete");
 
     // restore the saved vertexUB values
@@ -291,7 +283,12 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
       //vertexUB.put(neighbor.get(), vertexUB_bkup.get(neighbor.get()));
     }
 
-    vertexUB.put(smallestVertex, Math.min(vertexUB.get(smallestVertex), (c2.size() - c.size())));
+    // a c2 no larger than cMax may be a clique of another branch returned by a prune, so only a
+    // larger one is known to extend c and smallestVertex
+    if(c2.size() > cMax.size()) {
+      vertexUB.put(smallestVertex, Math.min(vertexUB.get(smallestVertex), c2.size() - c.size()));
+      options.reportClique(c2);
+    }
 
     if(c1.size() >= c2.size()) {
       return c1;
@@ -300,13 +297,12 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
     }
   }
 
-  private Integer getSmallestVertex(UndirectedGraph<Integer> g) {
-    for(int i = 0; i < vertexOrdering.size(); i++) {
-      if(g.contains(vertexOrdering.get(i))) {
-        return vertexOrdering.get(i);
-      }
+  private int getSmallestVertexIndex(SubgraphView<Integer> g) {
+    int index = g.nextId(0);
+    if(index < 0) {
+      throw new NoSuchElementException("Smallest Vertex Not found!");
     }
-    throw new NoSuchElementException("Smallest Vertex Not found!");
+    return index;
   }
 
   /**
@@ -318,22 +314,32 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
   public ArrayList<UndirectedGraph<Integer>> getIndependentSetPartition(UndirectedGraph<Integer> g) {
     ArrayList<Integer> indSetVertexOrder = g.degeneracyOrdering( );
     Collections.reverse(indSetVertexOrder);
-    return getIndependentSetPartition(g, indSetVertexOrder);
+    return getIndependentSetPartition(g, indSetVertexOrder, new SolverOptions<Integer>());
   }
 
-  private ArrayList<UndirectedGraph<Integer>> getIndependentSetPartition(UndirectedGraph<Integer> g, ArrayList<Integer> indSetVertexOrder) {
+  // returns null if options says to stop before the partition is complete. Each independent set is
+  // found with a search that stops when options does.
+  private ArrayList<UndirectedGraph<Integer>> getIndependentSetPartition(UndirectedGraph<Integer> g,
+      ArrayList<Integer> indSetVertexOrder, SolverOptions<Integer> options) {
+    if(options.shouldStop()) {
+      return null;
+    }
     ArrayList<UndirectedGraph<Integer>> indSets = new ArrayList<UndirectedGraph<Integer>>();
     UndirectedGraph<Integer> gComplement = g.getComplement();
     IncMaxCliqueSolver indSetSolver = new IncMaxCliqueSolver();
     while(gComplement.size() > 1) {
+      if(options.shouldStop()) {
+        return null;
+      }
       //System.out.println("gComplement.size(): " +gComplement.size());
       //System.out.println("gComplement.density(): " +gComplement.density());
       //System.out.println("RUNNING MAX CLIQUE ON COMPLEMENT GRAPH");
       //System.out.println("VERTEX ORDER: " + indSetVertexOrder);
       //System.out.println("GRAPH: \n" + gComplement);
-      UndirectedGraph<Integer> indSetComplementNodes = indSetSolver.findMaxClique(gComplement, indSetVertexOrder);
-      if(numVOCalls == 100) {
-        //throw new RuntimeException("VO debugging, QUIT VO Calls");
+      UndirectedGraph<Integer> indSetComplementNodes = indSetSolver.search(gComplement,
+          indSetVertexOrder, new SolverOptions<Integer>(options));
+      if(indSetSolver.stopped) {
+        return null;
       }
       for(Node<Integer> n : indSetComplementNodes) {
         gComplement.removeVertex(n.get());
@@ -349,9 +355,10 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
 
   // Combining MaxSAT Reasoning and Incremental Upper Bound for the Maximum Clique Problem
   // Li, Fang, Xu 2013
-  private ArrayList<Integer> vertexOrdering(UndirectedGraph<Integer> g) {
-    numVOCalls++;
-    // System.out.println("#####\nvertexOrdering call # " + numVOCalls + ", g.density(): " + g.density());
+  // If options says to stop before the independent set partition of a dense graph is found, the
+  // degeneracy ordering is returned.
+  private ArrayList<Integer> vertexOrdering(UndirectedGraph<Integer> g,
+      SolverOptions<Integer> options) {
     // Build the Degeneracy Vertex Ordering
     ArrayList<Integer> vertexOrdering = g.degeneracyOrdering();
     // System.out.println("after building degeneracy ordering, g.density(): " + g.density());
@@ -366,7 +373,10 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
       Collections.reverse(indSetVertexOrder);
       // System.out.println("graph dense, finding ind set partition");
       //System.out.println("IND SET VERTEX ORDER: " + indSetVertexOrder);
-      indSets = getIndependentSetPartition(g,indSetVertexOrder);
+      indSets = getIndependentSetPartition(g, indSetVertexOrder, options);
+      if(indSets == null) {
+        return vertexOrdering;
+      }
 
       boolean isIrregular = false; //partition is irregular if there are >=2 indSets of size 1
       int numSingleElementSets = 0;
@@ -452,14 +462,4 @@ public class IncMaxCliqueSolver extends MaxCliqueSolver<Integer> {
     }
     return min;
   }
-
-  private LinkedList<Node<Integer>> intersection(Collection<Node<Integer>> a, Collection<Node<Integer>> b) {
-    LinkedList<Node<Integer>> intersection = new LinkedList<Node<Integer>>();
-    for(Node<Integer> node : a) {
-      if(b.contains(node)) {
-        intersection.add(node);
-      }
-    }
-    return intersection;
-  }
 }
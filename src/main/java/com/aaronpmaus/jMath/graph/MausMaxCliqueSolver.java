@@ -12,16 +12,20 @@ import java.util.Date;
 * IncMaxCliqueAdapter is a much faster implementation.
 * <p>
 * This implementation is my own for the Max Clique Problem
+* <p>
+* The binary search can be stopped early through SolverOptions. The largest clique found so far
+* is returned, and the smallest size no clique was found of, minus one, bounds the max clique.
+* Each call of findClique is a node of the search in its stats, and the branches pruned by the
+* MaxSAT and coloring bounds are counted.
 * @author Aaron Maus aaron@aaronpmaus.com
-* @version 0.14.0
+* @version 0.15.0
 * @since 0.7.0
 */
 public class MausMaxCliqueSolver extends MaxCliqueSolver<Integer> {
-  public static long numRecursiveCalls = -1;
   private static int maxPrintLevel = -1;
   private boolean verbose = false;
-  private int maxSatQuit;
   private MaxSatUB satSolver;
+  private SolverOptions<Integer> options = new SolverOptions<Integer>();
 
   /**
   * Find and return a Maximum Clique of an UndirectedGraph.
@@ -39,7 +43,19 @@ public class MausMaxCliqueSolver extends MaxCliqueSolver<Integer> {
   * @since 0.7.0
   */
   public UndirectedGraph<Integer> findMaxClique(UndirectedGraph<Integer> graph) {
-    maxSatQuit = 0;
+    return findMaxClique(graph, new SolverOptions<Integer>()).getClique();
+  }
+
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public SolverResult<Integer> findMaxClique(UndirectedGraph<Integer> graph,
+      SolverOptions<Integer> options) {
+    this.options = options;
+    SolverStats stats = options.getStats();
+    stats.start();
     long fullStartTime = new Date().getTime();
     // the plus 1 is necessary. Imagine a trivial example where
     // the max possible clique number is 5, and the actualy clique
@@ -57,28 +73,36 @@ public class MausMaxCliqueSolver extends MaxCliqueSolver<Integer> {
 
     //ArrayList<ArrayList<Node<Integer>>> indSets = indSetUB(graph.getNodes());
     //int indSetUB = indSetUB(graph.getNodes());
-    satSolver = new MaxSatUB(graph);
-    int maxSatUB = satSolver.estimateCardinality(graph);
-    System.out.printf("Time for first MaxSatUB run: %d\n", MaxSatUB.maxRuntime);
+    // search a copy of graph renumbered so that the vertices searched together are stored together
+    CsrGraph<Integer> csr = new CsrGraph<Integer>(graph);
+    csr = new VertexRenumbering<Integer>(csr, getVertexOrder()).renumber(csr);
+    satSolver = new MaxSatUB(csr);
+    satSolver.setStats(stats);
+    // each search for a clique of size k narrows its own copy of this view
+    SubgraphView<Integer> all = csr.view();
+    int maxSatUB = satSolver.estimateCardinality(all);
     int high = maxSatUB + 1;
     //int high = indSetUB + 1;
     //int high = maxPossibleCliqueNum(graph) + 1;
-    int low = 0;
+    // start from a heuristic clique. Only larger cliques are searched for.
+    UndirectedGraph<Integer> maxClique = graph.subset(findInitialClique(graph));
+    options.reportClique(maxClique.getElements());
+    int low = maxClique.size();
     UndirectedGraph<Integer> clique = null;
-    UndirectedGraph<Integer> maxClique = null;
     while(high - low > 1) {
       int k = (high + low) / 2;
       long startTime = new Date().getTime();
       if(verbose) System.out.println("******Searching for a clique of size: " + k + "******");
-      if(numRecursiveCalls == -1) {
-        numRecursiveCalls = 0;
-      }
-      // last parameter is a copy of the vertex ordering so that we don't have to
-      // recalculate it every time we want to call findClique. the copy passed in
-      // will be modified by findClique
-      clique = findClique(new UndirectedGraph<Integer>(graph), k, 1);
+      SubgraphView<Integer> found = findClique(new SubgraphView<Integer>(all), k, 1);
+      clique = found == null ? null : found.toUndirectedGraph();
       long endTime = new Date().getTime();
+      if(clique == null && options.shouldStop()) {
+        // the search for k did not finish, so it says nothing about k
+        if(verbose) System.out.println("##### Stopped searching for a clique of size " + k);
+        break;
+      }
       if(clique != null) { // clique found
+        options.reportClique(clique.getElements());
         if(verbose) System.out.println("##### Found a clique of size " + clique.size() +" #####");
         if(verbose) System.out.print(clique);
         if(verbose) {
@@ -105,14 +129,15 @@ public class MausMaxCliqueSolver extends MaxCliqueSolver<Integer> {
       if(verbose)
       System.out.println("Took " + (endTime - startTime) + " milliseconds to run findClique for k: " + k);
       if(verbose)
-      System.out.println("using " + numRecursiveCalls + " recursive calls.");
+      System.out.println("using " + stats.getNumNodes() + " recursive calls in all.");
     }
     long fullEndTime = new Date().getTime();
     //System.out.print("Maximum Clique\n"+maxClique);
     //System.out.println("size: " + maxClique.size());
     if(verbose) System.out.println("Total Time: " + (fullEndTime - fullStartTime) + " milliseconds");
-    System.out.println("Num Times Max Sat Bounded a branch: " + maxSatQuit);
-    return maxClique;
+    this.options = new SolverOptions<Integer>();
+    // no clique of size high was found
+    return new SolverResult<Integer>(maxClique, high - 1, options.getStats());
   }
 
   /**
@@ -129,73 +154,71 @@ public class MausMaxCliqueSolver extends MaxCliqueSolver<Integer> {
   * @since 0.7.0
   */
   public UndirectedGraph<Integer> findClique(UndirectedGraph<Integer> graph, int k, int level) {
+    SubgraphView<Integer> clique = findClique(graph.view(), k, level);
+    return clique == null ? null : clique.toUndirectedGraph();
+  }
+
+  /*
+  * findClique on a view. Vertices are removed from graph as they are ruled out, and each
+  * neighborhood searched is a view of graph, so the search never copies the graph.
+  */
+  private SubgraphView<Integer> findClique(SubgraphView<Integer> graph, int k, int level) {
+    if(options.shouldStop()) {
+      return null;
+    }
+    options.getStats().node(level);
     int maxSatUB = satSolver.estimateCardinality(graph);
     if(maxSatUB < k) {
       //System.out.printf("QUITING BECAUSE MAXSATUB is less than k, %d < %d\n", maxSatUB, k);
-      maxSatQuit++;
+      options.getStats().prune(SolverStats.Bound.MAX_SAT);
       return null;
     }
-    while(graph.size() >= k) {
-      if(graph.isClique()) {
-        return new UndirectedGraph<Integer>(graph);
-      }
-      //if(maxPossibleCliqueNum(graph) < k) {
-      //return null;
-      //}
+    while(graph.size() >= k && !options.shouldStop()) {
       if(level <= maxPrintLevel) {
         levelPrint(level, "------------------");
         levelPrint(level, "graph of size "+graph.size() + " - level " + level + " ");
         levelPrint(level, "density: " + graph.density());
       }
-      ArrayList<Node<Integer>> nodes = new ArrayList<Node<Integer>>(graph.getNodes());
-      //ArrayList<Node<Integer>> nodes = degeneracyOrdering(graph);
-      Collections.sort(nodes); // O(N*log(N)) operation. faster if I let each
-      // for loop go through every node? Then the
-      // whole while loop is O(3N) looks at nodes.
-      ArrayList<Node<Integer>> removedNodes = new ArrayList<Node<Integer>>();
-      boolean nodesRemoved = false;
-      for(Node<Integer> node : nodes) {
-        if(node.numNeighbors() >= k-1) {
-          break;
+      // remove the nodes with too few neighbors to be in a clique of size k, along with the nodes
+      // left with too few neighbors once they are gone. Each node is looked at once.
+      int numRemoved = CliqueReduction.removeVerticesBelowDegree(graph, k-1);
+      if(numRemoved > 0 && level <= maxPrintLevel) {
+        levelPrint(level, "case1 removed " + numRemoved + " nodes with too few neighbors");
+      }
+      if(graph.size() < k) {
+        if(level <= maxPrintLevel) {
+          levelPrint(level, "Too few nodes left in graph (" + graph.size()
+          + ") for a clique of size " + k+".");
+          levelPrint(level, "RETURNING null");
         }
-        if(node.numNeighbors() < k-1) {
-          if(level <= maxPrintLevel) {
-            levelPrint(level, "case1 too few neighbors ("+node.numNeighbors()+") removing node: "+node.get());
-          }
-          graph.removeVertex(node.get());
-          removedNodes.add(node);
-          if(graph.size() < k) {
-            if(level <= maxPrintLevel) {
-              levelPrint(level, "Too few nodes left in graph (" + graph.size()
-              + ") for a clique of size " + k+".");
-              levelPrint(level, "RETURNING null");
-            }
-            return null;
-          }
-          nodesRemoved = true;
+        return null;
+      }
+
+      // the node with the lowest # neighbors
+      int node = -1;
+      int numNeighbors = Integer.MAX_VALUE;
+      for(int v = graph.nextId(0); v >= 0; v = graph.nextId(v+1)) {
+        int degree = graph.degree(v);
+        if(degree < numNeighbors) {
+          node = v;
+          numNeighbors = degree;
         }
-      } // end of for loop for node with too few neighbors to be in clique
-      for(Node<Integer> node : removedNodes) {
-        nodes.remove(node);
       }
-      if(nodesRemoved) {
-        continue;
+      if(numNeighbors == graph.size() - 1) {
+        // every node is a neighbor of every other
+        return graph;
       }
-
-      Node<Integer> node = nodes.get(0); // the node with the lowest # neighbors
-      //System.out.println("Looking at neighbohood of Node: " + node.get());
-      if(node.numNeighbors() == k-1) {
-        //UndirectedGraph<Integer> neighborhood = null;
-        //neighborhood = graph.getNeighborhood(node.get());
-        if(isClique(node.getNodeAndNeighbors())) {
-          return graph.getNeighborhood(node.get());
-          //return neighborhood;
+      Integer element = graph.get(node);
+      //System.out.println("Looking at neighbohood of Node: " + element);
+      SubgraphView<Integer> neighborhood = graph.getNeighborhood(element);
+      if(numNeighbors == k-1) {
+        if(neighborhood.isClique()) {
+          return neighborhood;
         } else {
           if(level <= maxPrintLevel) {
-            levelPrint(level, "case2 isClique test failed removing node: "+node.get());
+            levelPrint(level, "case2 isClique test failed removing node: "+element);
           }
-          graph.removeVertex(node.get());
-          nodes.remove(node);
+          graph.removeVertex(element);
           continue;
         }
       }
@@ -203,68 +226,49 @@ public class MausMaxCliqueSolver extends MaxCliqueSolver<Integer> {
       // At this point, all nodes that are left have > k-1 neighbors.
       // Their neighborhood can not be a clique. Need to do a recursive
       // call to keep searching.
-      node = nodes.get(0); // the first node in the list is the node with the lowest # neighbors.
-      if(node.numNeighbors() > k-1) {
-        //UndirectedGraph<Integer> neighbors = graph.getNeighborhood(node.get());
-        List<Node<Integer>> neighbors = node.getNodeAndNeighbors();
-        if(level <= maxPrintLevel) {
-          levelPrint(level, "# looking for clique of size " + k);
-          levelPrint(level, "# in node: "+node.get() +" 's neighborhood.");
-          levelPrint(level, "# num neighbors: " + node.numNeighbors());
-          //levelPrint(level, "# density of its neighborhood: " + neighborhood.density());
-        }
+      if(level <= maxPrintLevel) {
+        levelPrint(level, "# looking for clique of size " + k);
+        levelPrint(level, "# in node: "+element +" 's neighborhood.");
+        levelPrint(level, "# num neighbors: " + numNeighbors);
+      }
 
-        UndirectedGraph<Integer> clique = null;
+      SubgraphView<Integer> clique = null;
 
-        //int maxPosCliqueNum = indSetUB(neighborhood);
-        //ArrayList<ArrayList<Node<Integer>>> indSets = indSetUB(neighbors.getNodes());
-        //int maxSatUB = new MaxSatUB(neighbors, indSets).estimateCardinality();
-        //int maxPosCliqueNum = Math.min(indSets.size()-1, maxSatUB);
-        int maxPosCliqueNum = indSetUB(neighbors);
-        //System.out.println("MAX POS CLIQUE NUM: " + maxPosCliqueNum);
-        //neighbors = null;
-        if(maxPosCliqueNum < k) {
-          clique = null;
-          if(level <= maxPrintLevel) {
-            String message = "Max possible clique number of neighborhood : " + maxPosCliqueNum
-            + " is less than " + k;
-            levelPrint(level, message);
-          }
-        } else {
-          numRecursiveCalls++;
-          long start = 0;
-          if(level <= maxPrintLevel) {
-            start = new Date().getTime();
-          }
+      long coloringStart = options.getStats().startTimer();
+      int maxPosCliqueNum = indSetUB(neighborhood);
+      options.getStats().addColoringTime(coloringStart);
+      //System.out.println("MAX POS CLIQUE NUM: " + maxPosCliqueNum);
+      if(maxPosCliqueNum < k) {
+        options.getStats().prune(SolverStats.Bound.COLORING);
+        clique = null;
+        if(level <= maxPrintLevel) {
+          String message = "Max possible clique number of neighborhood : " + maxPosCliqueNum
+          + " is less than " + k;
+          levelPrint(level, message);
+        }
+      } else {
+        long start = 0;
+        if(level <= maxPrintLevel) {
+          start = new Date().getTime();
+        }
 
-          //System.out.println("before recursive call\n"+graph);
-          clique = findClique(graph.getNeighborhood(node.get()), k, level+1);
-          //clique = findClique(neighbors, k, level+1);
+        clique = findClique(neighborhood, k, level+1);
 
-          if(level <= maxPrintLevel) {
-            long end = new Date().getTime();
-            String message = (end-start)/1000.0 + " seconds to evaluate node";
-            levelPrint(level, message);
-          }
+        if(level <= maxPrintLevel) {
+          long end = new Date().getTime();
+          String message = (end-start)/1000.0 + " seconds to evaluate node";
+          levelPrint(level, message);
         }
-        if(clique == null) {
-          if(level <= maxPrintLevel) {
-            levelPrint(level,"case3 recursive call evaluated to null");
-            levelPrint(level,"removing node: "+node.get() + " @ " +new Date());
-          }
-          graph.removeVertex(node.get());
-          nodes.remove(node);
-          continue;
-        } else {
-          return clique;
+      }
+      if(clique == null) {
+        if(level <= maxPrintLevel) {
+          levelPrint(level,"case3 recursive call evaluated to null");
+          levelPrint(level,"removing node: "+element + " @ " +new Date());
         }
+        graph.removeVertex(element);
+        continue;
       } else {
-        // shouldn't be here. all nodes at this point should have greater than k-1 neighbors
-        System.out.println("WHOA Buddy! Shouldn't be here");
-        System.out.println("Node\n"+node+"has too few neighbors");
-        System.out.println(node.numNeighbors());
-        continue; // so that cases 1 or 2 can handle these nodes and the system won't break
-        //System.exit(1);
+        return clique;
       }
     }
     return null;
@@ -352,41 +356,12 @@ public class MausMaxCliqueSolver extends MaxCliqueSolver<Integer> {
     return k;
   }
 
-  private int indSetUB(UndirectedGraph<Integer> graph) {
-    return indSetUB(graph.getNodes());
-  }
-
-  private int indSetUB(Collection<Node<Integer>> nodes) {
-    //System.out.println("## Calculating indSetUB");
-    // get a list of nodes and sort them in descending order by degree
-    List<Node<Integer>> descendingDegreeNodes = new ArrayList<Node<Integer>>(nodes);
-    Collections.sort(descendingDegreeNodes, Collections.reverseOrder());
-    int maxColorNumber = 0;
-    // initialize color sets
-    // The index of the outer ArrayList is k and the inner arraylists hold all the nodes that belong
-    // to that color k.
-    ArrayList<ArrayList<Node<Integer>>> colorSets = new ArrayList<ArrayList<Node<Integer>>>();
-    // initialize the first two color sets (k = 0,1)
-    colorSets.add(new ArrayList<Node<Integer>>());
-    colorSets.add(new ArrayList<Node<Integer>>());
-    for(Node<Integer> node : descendingDegreeNodes) {
-      int k = 0;
-      // find the lowest k where neighbors and the set of nodes in colorSets[k] share no nodes
-      // in common
-      while(!Collections.disjoint(node.getNeighbors(), colorSets.get(k))) {
-        k++;
-      }
-      if(k > maxColorNumber) {
-        maxColorNumber = k;
-        // initialize and add the next color set
-        colorSets.add(new ArrayList<Node<Integer>>());
-      }
-      colorSets.get(k).add(node);
-
-    }
-    //System.out.println(colorSets.size()-1 + ", " + (maxColorNumber+1));
-    return maxColorNumber + 1;
-    //return colorSets;
+  /*
+  * A greedy coloring bound (Tomita et al. 2003) on the clique of graph. The satSolver colors it
+  * on the bits of its adjacency, so no neighbor sets are compared.
+  */
+  private int indSetUB(SubgraphView<Integer> graph) {
+    return satSolver.colorVertices(graph);
   }
 
   /**
@@ -431,15 +406,8 @@ public class MausMaxCliqueSolver extends MaxCliqueSolver<Integer> {
 
   private ArrayList<Node<Integer>> degeneracyOrdering(UndirectedGraph<Integer> graph) {
     ArrayList<Node<Integer>> vertexOrdering = new ArrayList<Node<Integer>>(graph.size());
-    // Build the Degeneracy Vertex Ordering
-    UndirectedGraph<Integer> temp = new UndirectedGraph<Integer>(graph);
-    while(temp.size() > 0) {
-      // get the node with the smallest degree in temp
-      Node<Integer> theSmallestVertex = Collections.min(temp.getNodes());
-      // add the original node reference to vertexOrdering
-      vertexOrdering.add(theSmallestVertex);
-      // remove the node from temp
-      temp.removeVertex(theSmallestVertex.get());
+    for(Integer element : graph.degeneracyOrdering()) {
+      vertexOrdering.add(graph.getNode(element));
     }
     return vertexOrdering;
   }
@@ -454,18 +422,4 @@ public class MausMaxCliqueSolver extends MaxCliqueSolver<Integer> {
     return intersection;
   }
 
-  private boolean isClique(List<Node<Integer>> nodes) {
-    for(Node<Integer> a : nodes) {
-      for(Node<Integer> b : nodes) {
-        if(a.equals(b)) {
-          continue;
-        }
-        if(!a.hasNeighbor(b)) {
-          return false;
-        }
-      }
-    }
-    return true;
-  }
-
 }
@@ -0,0 +1,180 @@
+package com.aaronpmaus.jMath.graph;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import com.aaronpmaus.jMath.io.GraphIO;
+
+/**
+* Finds the max clique of each graph in a list of graph files, solving several graphs at once on a
+* bounded pool of threads.
+* <p>
+* Running a solver once per graph from a shell loop starts a new JVM for each graph, so every graph
+* pays for startup and for the JIT to warm up again. A batch runs in a single JVM and shares one pool
+* of threads between all its graphs. Each graph is read with GraphIO.readGraphFile, so DIMACS and
+* binary graph files can be mixed, and searched by a solver of its own, built by the supplier given
+* to the batch, with its own time limit. Solvers keep state between the calls of a search, so a
+* solver is never shared between threads.
+* <p>
+* The BatchListener given to run is told about each result as soon as its graph finishes, which is
+* how results are streamed to a file. A graph that can not be read or solved gives a failed result
+* instead of stopping the batch.
+* @see BatchResult
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class MaxCliqueBatch {
+  private final Supplier<? extends MaxCliqueSolver<Integer>> solvers;
+  private final int numThreads;
+  private long timeLimit;
+  private boolean collectStats;
+
+  /**
+  * Build a batch that solves up to numThreads graphs at once.
+  * @param solvers builds the solver for each graph
+  * @param numThreads the number of graphs solved at once
+  * @throws IllegalArgumentException if numThreads is less than 1
+  * @since 0.15.0
+  */
+  public MaxCliqueBatch(Supplier<? extends MaxCliqueSolver<Integer>> solvers, int numThreads) {
+    if(numThreads < 1) {
+      throw new IllegalArgumentException("A batch needs at least one thread.");
+    }
+    this.solvers = solvers;
+    this.numThreads = numThreads;
+    this.timeLimit = 0;
+    this.collectStats = false;
+  }
+
+  /**
+  * Sets the time limit of the search of each graph. A search that runs out of time gives the
+  * largest clique it found and an upper bound on the max clique.
+  * @param milliseconds the most milliseconds the search of a graph may run for. 0 for no limit.
+  * @throws IllegalArgumentException if milliseconds is negative
+  * @since 0.15.0
+  */
+  public void setTimeLimit(long milliseconds) {
+    if(milliseconds < 0) {
+      throw new IllegalArgumentException("The time limit can not be negative.");
+    }
+    this.timeLimit = milliseconds;
+  }
+
+  /**
+  * @return the time limit of the search of each graph in milliseconds, or 0 if there is none
+  * @since 0.15.0
+  */
+  public long getTimeLimit() {
+    return this.timeLimit;
+  }
+
+  /**
+  * Sets whether the search of each graph collects SolverStats.
+  * @param collectStats true to collect stats
+  * @since 0.15.0
+  */
+  public void setCollectStats(boolean collectStats) {
+    this.collectStats = collectStats;
+  }
+
+  /**
+  * @return the number of graphs solved at once
+  * @since 0.15.0
+  */
+  public int getNumThreads() {
+    return this.numThreads;
+  }
+
+  /**
+  * Solve every graph in graphFileNames and wait for them all to finish.
+  * @param graphFileNames the names of the DIMACS or binary graph files to solve
+  * @param listener told about each result as soon as its graph finishes, on the calling thread.
+  * May be null.
+  * @return the results, in the order the graphs finished
+  * @throws InterruptedException if the calling thread is interrupted. The searches of the graphs
+  * still being solved are cancelled, and the graphs that have not been started are not solved.
+  * @since 0.15.0
+  */
+  public List<BatchResult> run(List<String> graphFileNames, BatchListener listener)
+      throws InterruptedException {
+    ArrayList<BatchResult> results = new ArrayList<BatchResult>(graphFileNames.size());
+    ExecutorService pool = Executors.newFixedThreadPool(this.numThreads);
+    // the options of the searches running on the pool, so they can be cancelled if run stops early
+    final Set<SolverOptions<Integer>> running =
+        Collections.newSetFromMap(new ConcurrentHashMap<SolverOptions<Integer>, Boolean>());
+    try {
+      CompletionService<BatchResult> completion = new ExecutorCompletionService<BatchResult>(pool);
+      HashMap<Future<BatchResult>, String> names = new HashMap<Future<BatchResult>, String>();
+      for(final String fileName : graphFileNames) {
+        names.put(completion.submit(new Callable<BatchResult>() {
+          @Override
+          public BatchResult call() {
+            return solve(fileName, running);
+          }
+        }), fileName);
+      }
+      for(int i = 0; i < graphFileNames.size(); i++) {
+        Future<BatchResult> future = completion.take();
+        BatchResult result;
+        try {
+          result = future.get();
+        } catch (ExecutionException e) {
+          // an Error such as running out of memory fails only its own graph
+          result = new BatchResult(names.get(future), String.valueOf(e.getCause()), 0);
+        }
+        results.add(result);
+        if(listener != null) {
+          listener.graphSolved(result);
+        }
+      }
+    } finally {
+      // interrupting the threads of the pool does not stop a search, it has to be cancelled. A
+      // search that starts after this sees its thread has been interrupted and cancels itself.
+      pool.shutdownNow();
+      for(SolverOptions<Integer> options : running) {
+        options.cancel();
+      }
+    }
+    return results;
+  }
+
+  /*
+  * Read and solve a single graph. The time limit starts once the graph has been read. The options
+  * of the search are in running while it runs.
+  */
+  private BatchResult solve(String fileName, Set<SolverOptions<Integer>> running) {
+    long start = System.nanoTime();
+    try {
+      UndirectedGraph<Integer> graph = GraphIO.readGraphFile(fileName);
+      MaxCliqueSolver<Integer> solver = this.solvers.get();
+      SolverOptions<Integer> options = new SolverOptions<Integer>();
+      options.setCollectStats(this.collectStats);
+      start = System.nanoTime();
+      options.setTimeLimit(this.timeLimit);
+      running.add(options);
+      if(Thread.currentThread().isInterrupted()) {
+        options.cancel();
+      }
+      try {
+        SolverResult<Integer> result = solver.findMaxClique(graph, options);
+        return new BatchResult(fileName, result, (System.nanoTime() - start) / 1000000L);
+      } finally {
+        running.remove(options);
+      }
+    } catch (IOException | RuntimeException e) {
+      return new BatchResult(fileName, String.valueOf(e), (System.nanoTime() - start) / 1000000L);
+    }
+  }
+}
@@ -0,0 +1,342 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+* Finds a large clique in a graph quickly, without proving that it is a maximum clique.
+* <p>
+* The clique found is a lower bound for the clique number of the graph, so a MaxCliqueSolver that
+* starts with it only needs to search for larger cliques. It is found in two steps:
+* <p>
+* A greedy step visits each vertex from last to first in the degeneracy ordering and grows it into
+* a clique of the neighbors that come after it in the ordering, latest first, that are adjacent to
+* everything added so far. Vertices whose core number shows they can not be in a larger clique than
+* the best so far are skipped. This takes a few passes over the edges.
+* <p>
+* An optional local search then improves that clique until a time limit runs out. At each step it
+* adds a vertex that is adjacent to the whole clique if there is one, and otherwise swaps a vertex
+* adjacent to all but one member of the clique for that member. A member swapped out can not return
+* for a few steps, so the search does not cycle. When no move is left, or the clique has not grown
+* for a while, it restarts from a random vertex. The search stops early if the clique reaches the
+* upper bound below, since no clique can be larger.
+* <p>
+* The local search is seeded, so a given graph and number of steps always give the same clique.
+* <p>
+* An upper bound on the size of any clique comes from coloring the vertices greedily from last to
+* first in the degeneracy ordering, so that no two neighbors share a color. Every vertex of a clique
+* needs its own color, and this coloring uses at most the degeneracy plus one colors.
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class MaxCliqueHeuristic<T extends Comparable<? super T>> {
+  // the number of steps a vertex swapped out of the clique can not be added back
+  private static final int TABU_TENURE = 7;
+  // the number of steps without a larger clique before the local search restarts
+  private static final int RESTART_INTERVAL = 1000;
+  private final CsrGraph<T> graph;
+  private final int numVertices;
+  private final int[] order;
+  private final int[] position;
+  private final int[] coreNumbers;
+  private final int degeneracy;
+  private final int numColors;
+
+  /**
+  * @param graph the graph to find a clique in. It is not modified.
+  * @since 0.15.0
+  */
+  public MaxCliqueHeuristic(UndirectedGraph<T> graph) {
+    this(new CsrGraph<T>(graph));
+  }
+
+  /**
+  * @param graph the graph to find a clique in. It is not modified.
+  * @since 0.15.0
+  */
+  public MaxCliqueHeuristic(BitSetUndirectedGraph<T> graph) {
+    this(new CsrGraph<T>(graph));
+  }
+
+  /**
+  * @param graph the undirected graph to find a clique in
+  * @throws UnsupportedOperationException if graph is directed
+  * @since 0.15.0
+  */
+  public MaxCliqueHeuristic(CsrGraph<T> graph) {
+    this.graph = graph;
+    this.numVertices = graph.size();
+    this.coreNumbers = new int[numVertices];
+    this.order = graph.degeneracyOrder(coreNumbers);
+    this.position = new int[numVertices];
+    int max = 0;
+    for(int i = 0; i < numVertices; i++) {
+      position[order[i]] = i;
+      max = Math.max(max, coreNumbers[i]);
+    }
+    this.degeneracy = max;
+    this.numColors = colorBound();
+  }
+
+  /**
+  * Finds a clique with the greedy step, then improves it with the local search for up to timeLimit
+  * milliseconds.
+  * @param timeLimit the most milliseconds to spend on the local search. 0 to only run the greedy
+  * step.
+  * @return the elements of a clique in the graph. It is empty only if the graph is.
+  * @throws IllegalArgumentException if timeLimit is negative
+  * @since 0.15.0
+  */
+  public List<T> findClique(long timeLimit) {
+    if(timeLimit < 0) {
+      throw new IllegalArgumentException("The time limit can not be negative.");
+    }
+    int[] clique = greedyClique();
+    if(timeLimit > 0) {
+      clique = localSearch(clique, System.nanoTime() + timeLimit * 1000000L);
+    }
+    ArrayList<T> elements = new ArrayList<T>(clique.length);
+    for(int v : clique) {
+      elements.add(graph.get(v));
+    }
+    return elements;
+  }
+
+  /**
+  * @return the largest size a clique in the graph can have, the number of colors of a greedy
+  * coloring in reverse degeneracy order. It is 0 if the graph has no vertices.
+  * @since 0.15.0
+  */
+  public int getUpperBound() {
+    return numColors;
+  }
+
+  /*
+  * Colors the vertices from last to first in the degeneracy ordering, each with the smallest color
+  * none of its colored neighbors have, and returns the number of colors used. A vertex has at most
+  * degeneracy colored neighbors when it is colored.
+  */
+  private int colorBound() {
+    int[] colors = new int[numVertices];
+    // usedBy[c] is the last vertex that found color c on one of its neighbors
+    int[] usedBy = new int[degeneracy + 2];
+    Arrays.fill(usedBy, -1);
+    int count = 0;
+    for(int i = numVertices - 1; i >= 0; i--) {
+      int v = order[i];
+      for(int k = 0; k < graph.degree(v); k++) {
+        int u = graph.neighbor(v, k);
+        if(position[u] > i) {
+          usedBy[colors[u]] = v;
+        }
+      }
+      int c = 1;
+      while(usedBy[c] == v) {
+        c++;
+      }
+      colors[v] = c;
+      count = Math.max(count, c);
+    }
+    return count;
+  }
+
+  /*
+  * The greedy step. adjacent[w] counts the members of the clique, other than the vertex it was
+  * grown from, that w is adjacent to.
+  */
+  private int[] greedyClique() {
+    int[] best = new int[0];
+    int[] clique = new int[degeneracy + 1];
+    int[] candidates = new int[degeneracy + 1];
+    int[] adjacent = new int[numVertices];
+    for(int i = numVertices - 1; i >= 0; i--) {
+      int v = order[i];
+      if(coreNumbers[v] + 1 <= best.length) {
+        continue;
+      }
+      // only the neighbors after v, of which there are at most degeneracy
+      int numCandidates = 0;
+      for(int k = 0; k < graph.degree(v); k++) {
+        int u = graph.neighbor(v, k);
+        if(position[u] > i && coreNumbers[u] >= best.length) {
+          candidates[numCandidates++] = position[u];
+        }
+      }
+      if(numCandidates + 1 <= best.length) {
+        continue;
+      }
+      Arrays.sort(candidates, 0, numCandidates);
+      int size = 0;
+      clique[size++] = v;
+      for(int j = numCandidates - 1; j >= 0; j--) {
+        int c = order[candidates[j]];
+        if(adjacent[c] == size - 1) {
+          clique[size++] = c;
+          for(int k = 0; k < graph.degree(c); k++) {
+            adjacent[graph.neighbor(c, k)]++;
+          }
+        }
+      }
+      for(int j = 1; j < size; j++) {
+        for(int k = 0; k < graph.degree(clique[j]); k++) {
+          adjacent[graph.neighbor(clique[j], k)]--;
+        }
+      }
+      if(size > best.length) {
+        best = Arrays.copyOf(clique, size);
+      }
+    }
+    return best;
+  }
+
+  /*
+  * The local search, starting from the clique start and running until the deadline, a System.nanoTime
+  * value.
+  */
+  private int[] localSearch(int[] start, long deadline) {
+    int[] best = start;
+    if(best.length >= getUpperBound()) {
+      return best;
+    }
+    Random random = new Random(numVertices);
+    int[] pool = pool(best.length);
+    LocalSearch search = new LocalSearch();
+    for(int v : start) {
+      search.add(v);
+    }
+    long lastImprovement = 0;
+    for(long step = 1; System.nanoTime() < deadline; step++) {
+      if(search.size == 0 || step - lastImprovement > RESTART_INTERVAL || !search.move(step,
+          best.length, random)) {
+        if(pool.length == 0) {
+          break;
+        }
+        search.clear();
+        search.add(pool[random.nextInt(pool.length)]);
+        lastImprovement = step;
+      }
+      if(search.size > best.length) {
+        best = Arrays.copyOf(search.members, search.size);
+        lastImprovement = step;
+        if(best.length >= getUpperBound()) {
+          break;
+        }
+        pool = pool(best.length);
+      }
+    }
+    return best;
+  }
+
+  /*
+  * Returns the vertices with a core number of at least bestSize, the only vertices that can be in a
+  * clique larger than bestSize.
+  */
+  private int[] pool(int bestSize) {
+    int count = 0;
+    for(int v = 0; v < numVertices; v++) {
+      if(coreNumbers[v] >= bestSize) {
+        count++;
+      }
+    }
+    int[] pool = new int[count];
+    count = 0;
+    for(int v = 0; v < numVertices; v++) {
+      if(coreNumbers[v] >= bestSize) {
+        pool[count++] = v;
+      }
+    }
+    return pool;
+  }
+
+  /*
+  * The clique of the local search. adjacent[w] counts the members of the clique w is adjacent to,
+  * so w can be added if it is adjacent to all of them, or swapped in if it is adjacent to all but
+  * one.
+  */
+  private class LocalSearch {
+    private final int[] members = new int[degeneracy + 1];
+    private int size = 0;
+    private final int[] adjacent = new int[numVertices];
+    private final boolean[] inClique = new boolean[numVertices];
+    private final long[] tabuUntil = new long[numVertices];
+    private final long[] seen = new long[numVertices];
+    private final int[] moves = new int[numVertices];
+
+    void add(int v) {
+      members[size++] = v;
+      inClique[v] = true;
+      for(int k = 0; k < graph.degree(v); k++) {
+        adjacent[graph.neighbor(v, k)]++;
+      }
+    }
+
+    void remove(int v) {
+      for(int i = 0; i < size; i++) {
+        if(members[i] == v) {
+          members[i] = members[--size];
+          break;
+        }
+      }
+      inClique[v] = false;
+      for(int k = 0; k < graph.degree(v); k++) {
+        adjacent[graph.neighbor(v, k)]--;
+      }
+    }
+
+    void clear() {
+      while(size > 0) {
+        remove(members[size - 1]);
+      }
+    }
+
+    /*
+    * Makes an add move if there is one, and otherwise a swap move. Returns false if there is
+    * neither. Every vertex adjacent to all but one member is adjacent to the first or the second
+    * member, so only their neighbors are looked at. Vertices with a core number below bestSize are
+    * in no clique larger than the best one and are never added.
+    */
+    boolean move(long step, int bestSize, Random random) {
+      int numAdds = 0;
+      int numSwaps = 0;
+      for(int m = 0; m < Math.min(size, 2); m++) {
+        int member = members[m];
+        for(int k = 0; k < graph.degree(member); k++) {
+          int w = graph.neighbor(member, k);
+          if(seen[w] == step || inClique[w] || tabuUntil[w] > step || coreNumbers[w] < bestSize) {
+            continue;
+          }
+          seen[w] = step;
+          if(adjacent[w] == size) {
+            // adds are kept at the front of moves and swaps at the back
+            moves[numAdds++] = w;
+          } else if(adjacent[w] == size - 1) {
+            moves[numVertices - 1 - numSwaps++] = w;
+          }
+        }
+      }
+      if(numAdds > 0) {
+        add(moves[random.nextInt(numAdds)]);
+        return true;
+      }
+      if(numSwaps == 0) {
+        return false;
+      }
+      int w = moves[numVertices - 1 - random.nextInt(numSwaps)];
+      // the member not adjacent to w is the one w is not marked as a neighbor of
+      for(int k = 0; k < graph.degree(w); k++) {
+        seen[graph.neighbor(w, k)] = -step;
+      }
+      for(int i = 0; i < size; i++) {
+        if(seen[members[i]] != -step) {
+          int out = members[i];
+          remove(out);
+          tabuUntil[out] = step + TABU_TENURE;
+          break;
+        }
+      }
+      add(w);
+      return true;
+    }
+  }
+}
@@ -13,10 +13,89 @@ import java.util.Collection;
 * Subclasses include MausMaxCliqueSolver which uses Aaron Maus' algorithm, IncMaxCliqueSolver - an
 * implementation of Li et al. 2013 algorithm, and IncMaxCliqueAdapter - a wrapper for Li et al. c
 * source code.
-* @version 0.7.0
+* <p>
+* Before searching, a solver can find a clique with findInitialClique. The search then only needs to
+* look for cliques larger than it, so it can prune from the start. findInitialClique runs the greedy
+* step of a MaxCliqueHeuristic, and its local search for up to the heuristic time limit.
+* <p>
+* findMaxClique(graph, options) runs an anytime search. It can be given a time limit or cancelled
+* through its SolverOptions, in which case it returns the largest clique found so far along with an
+* upper bound on the size of the max clique, and it tells the listener of the options about each
+* larger clique as it is found.
+* <p>
+* Solvers renumber the vertices of a graph before searching it, by default in reverse degeneracy
+* order, so that the vertices searched together are stored together. The order can be changed with
+* setVertexOrder. It changes how fast a solver is, never the size of the clique it finds.
+* @version 0.15.0
 * @since 0.7.0
 */
 public abstract class MaxCliqueSolver<T extends Comparable<? super T>>{
+  private long heuristicTimeLimit = 0;
+  private VertexRenumbering.Order vertexOrder = VertexRenumbering.Order.DEGENERACY;
+
+  /**
+  * Sets the time findInitialClique may spend improving its clique with a local search.
+  * @param milliseconds the time limit in milliseconds. 0, the default, to only find a greedy
+  * clique.
+  * @throws IllegalArgumentException if milliseconds is negative
+  * @since 0.15.0
+  */
+  public void setHeuristicTimeLimit(long milliseconds) {
+    if(milliseconds < 0) {
+      throw new IllegalArgumentException("The heuristic time limit can not be negative.");
+    }
+    this.heuristicTimeLimit = milliseconds;
+  }
+
+  /**
+  * @return the time in milliseconds findInitialClique may spend on a local search
+  * @since 0.15.0
+  */
+  public long getHeuristicTimeLimit() {
+    return this.heuristicTimeLimit;
+  }
+
+  /**
+  * Sets the order the vertices of a graph are renumbered in before it is searched.
+  * @param order the order to renumber vertices in. DEGENERACY is the default.
+  * @since 0.15.0
+  */
+  public void setVertexOrder(VertexRenumbering.Order order) {
+    if(order == null) {
+      throw new NullPointerException("The vertex order can not be null.");
+    }
+    this.vertexOrder = order;
+  }
+
+  /**
+  * @return the order the vertices of a graph are renumbered in before it is searched
+  * @since 0.15.0
+  */
+  public VertexRenumbering.Order getVertexOrder() {
+    return this.vertexOrder;
+  }
+
+  /**
+  * Finds a clique in graph with a MaxCliqueHeuristic, to be used as a lower bound by a search for
+  * the max clique.
+  * @param graph the graph to find a clique in. It is not modified.
+  * @return the elements of a clique in graph. It is empty only if graph is.
+  * @since 0.15.0
+  */
+  public List<T> findInitialClique(UndirectedGraph<T> graph) {
+    return new MaxCliqueHeuristic<T>(graph).findClique(this.heuristicTimeLimit);
+  }
+
+  /**
+  * Finds a clique in graph with a MaxCliqueHeuristic, to be used as a lower bound by a search for
+  * the max clique.
+  * @param graph the graph to find a clique in. It is not modified.
+  * @return the elements of a clique in graph. It is empty only if graph is.
+  * @since 0.15.0
+  */
+  public List<T> findInitialClique(BitSetUndirectedGraph<T> graph) {
+    return new MaxCliqueHeuristic<T>(graph).findClique(this.heuristicTimeLimit);
+  }
 
   /**
   * Finds the maximum clique in g
@@ -26,6 +105,50 @@ public abstract class MaxCliqueSolver<T extends Comparable<? super T>>{
   */
   public abstract UndirectedGraph<T> findMaxClique(UndirectedGraph<T> graph);
 
+  /**
+  * Finds the maximum clique in a BitSetUndirectedGraph.
+  * <p>
+  * By default the graph is converted to an UndirectedGraph and passed to
+  * findMaxClique(UndirectedGraph). Subclasses that can work on the bits of the adjacency matrix
+  * directly should override this method.
+  * @param graph the graph to search for a max clique in
+  * @return An {@code UndirectedGraph<T>} that is a max clique in graph
+  * @since 0.15.0
+  */
+  public UndirectedGraph<T> findMaxClique(BitSetUndirectedGraph<T> graph) {
+    return findMaxClique(graph.toUndirectedGraph());
+  }
+
+  /**
+  * Finds the maximum clique in graph, stopping early if options says to.
+  * <p>
+  * By default the search can not be stopped early. It runs findMaxClique(UndirectedGraph) to the
+  * end and reports the clique it returns. Subclasses that can stop early override this method.
+  * @param graph the graph to search for a max clique in
+  * @param options the time limit, cancellation and listener of the search
+  * @return the largest clique found and an upper bound on the size of the max clique
+  * @since 0.15.0
+  */
+  public SolverResult<T> findMaxClique(UndirectedGraph<T> graph, SolverOptions<T> options) {
+    UndirectedGraph<T> clique = findMaxClique(graph);
+    options.reportClique(clique.getElements());
+    return new SolverResult<T>(clique, clique.size(), options.getStats());
+  }
+
+  /**
+  * Finds the maximum clique in a BitSetUndirectedGraph, stopping early if options says to.
+  * <p>
+  * By default the graph is converted to an UndirectedGraph and passed to
+  * findMaxClique(UndirectedGraph, SolverOptions).
+  * @param graph the graph to search for a max clique in
+  * @param options the time limit, cancellation and listener of the search
+  * @return the largest clique found and an upper bound on the size of the max clique
+  * @since 0.15.0
+  */
+  public SolverResult<T> findMaxClique(BitSetUndirectedGraph<T> graph, SolverOptions<T> options) {
+    return findMaxClique(graph.toUndirectedGraph(), options);
+  }
+
   /**
   * Returns a clique covering (or partition) of a Graph.
   * A clique covering is a set of cliques that are disjoint and
@@ -1,1177 +1,938 @@
 package com.aaronpmaus.jMath.graph;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.LinkedList;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Date;
 
+/**
+* An upper bound on the size of the max clique in a graph from MaxSAT reasoning, as used by
+* IncMaxClique (Combining MaxSAT Reasoning and Incremental Upper Bound for the Maximum Clique
+* Problem, Li, Fang, Xu 2013).
+* <p>
+* The graph is partitioned into independent sets. Each set becomes a soft clause, the disjunction
+* of its vertices, and every pair of non-adjacent vertices becomes a hard clause saying that they
+* can not both be in a clique. A clique can take at most one vertex from each soft clause, so the
+* number of soft clauses bounds the size of a clique. Failed clause detection finds sets of soft
+* clauses that can not all be satisfied together. Each one lowers the bound by one, and is relaxed
+* with new variables and an exactly one constraint so that it can be reused by later tests.
+* <p>
+* The adjacency of the graph is encoded once, when the MaxSatUB is built. A branch and bound search
+* can then keep the set of active vertices in step with its candidate set through activate,
+* deactivate, retainNeighbors and restoreActive, and bound the active vertices with
+* estimateCardinality() or estimateCardinality(partition). Each bound only encodes the active
+* vertices, so nothing is rebuilt for the whole graph at each node of the search.
+* <p>
+* Clauses are stored as literals in a flat int array, where the literal of variable v is 2v and
+* its negation is 2v+1. The hard clauses between vertices are never stored, they are read from
+* the rows of bits of the adjacency matrix when a vertex is set. Unit propagation uses two watched
+* literals per clause and records each assignment on a trail, along with the clause it was implied
+* by. Undoing a test only unassigns the variables on the trail, and the soft clauses that led to a
+* conflict are found by following the implications back from it.
+* <p>
+* Solvers that work on Nodes can also color vertices on the bits of the encoded adjacency with
+* colorActive and colorVertices, which use a BitSetColoring instead of comparing neighbor sets, and
+* bound the active vertices from the color classes found with estimateColoredCardinality().
+* <p>
+* The time spent encoding and finding inconsistent sets is added to the MaxSAT time of the
+* SolverStats given to setStats, if any.
+* @version 0.15.0
+* @since 0.7.0
+*/
 public class MaxSatUB {
-  private boolean verbose = false;
-  private int partitionSize;
-  private int maxLiteral = 0;
-  private int firstRelaxationLit;
-  public static long totalTimeRunning = 0;
-  public static long maxRuntime = 0;
-  public static long timeConstructingEncodings = 0;
-  private UndirectedGraph<Integer> originalGraph;
-  // the hard clauses are represent the edges in the complement of the graph. Once at the beginning,
-  // build all possible hard clauses. Then when the encoding is constructed, pull from this list.
-  // This will avoid MANY clause instantiations (and hopefully garbage collections) as well.
-  public ArrayList<Clause> allHardClauses;
+  private static final int UNASSIGNED = 0;
+  private static final int TRUE = 1;
+  private static final int FALSE = -1;
+  // reasons >= 0 are clause indices. A variable set false because a vertex v was set true has the
+  // reason IMPLIED_BY_VERTEX - v.
+  private static final int DECISION = -1;
+  private static final int IMPLIED_BY_VERTEX = -2;
+  private static final int NO_CONFLICT = -1;
+  private static final int VERTEX_CONFLICT = -2;
+
+  // the vertices of the graph are the variables 0 to numVertices-1, relaxation variables follow
+  private final int numVertices;
+  private final int numWords;
+  private final HashMap<Integer, Integer> ids;
+  // the graph this was built for, whose ids are the variables of its vertices
+  private final CsrGraph<Integer> graph;
+  private final long[][] adjacency;
+  private final long[] active;
+  private long[][] activeStack;
+  private int activeDepth;
+  // the vertices in the soft clauses of the current encoding
+  private final long[] vertexSet;
+  private int numVariables;
+  private int[] values;
+  private int[] reasons;
+  private int[] trail;
+  private int trailSize;
+  private int propagated;
+
+  // clause c is literals[clauseStart[c]] to literals[clauseStart[c] + clauseSize[c] - 1]. The
+  // first two literals of a clause are the ones it is watched on.
+  private int[] literals;
+  private int numLiterals;
+  private int[] clauseStart;
+  private int[] clauseSize;
+  private boolean[] clauseSoft;
+  private int numClauses;
+  private int[][] watches;
+  private int[] numWatches;
+  private int[] unitClauses;
+  private int numUnitClauses;
+
+  private int[] softClauses;
+  private int numSoftClauses;
+  private boolean[] tested;
+  private boolean[] inconsistent;
+  private int[] inconsistentClauses;
+  private int numInconsistentClauses;
+
+  // scratch for building encodings, conflict analysis and testing clauses
+  private final long[] vertices;
+  private long[][] colorSets;
+  private final BitSetColoring coloring;
+  private final int[] coloredVertices;
+  private final int[] vertexColors;
+  private final int[] order;
+  private final int[] degrees;
+  private final int[] bucketStart;
+  private boolean[] seen;
+  private int[] stack;
+  private int[] testedLiterals;
+  private int[] relaxationLiterals;
+  private int conflictVertex;
+  private int otherConflictVertex;
+  private SolverStats stats;
 
+  /**
+  * Build a MaxSatUB for graph. The adjacency of graph is encoded once here, and every vertex of
+  * graph starts out active.
+  * @param graph the graph cliques will be bounded in
+  * @since 0.7.0
+  */
   public MaxSatUB(UndirectedGraph<Integer> graph) {
-    totalTimeRunning = 0;
-    maxRuntime = 0;
-    timeConstructingEncodings = 0;
-    this.originalGraph = graph;
-    /*int numComplementEdges = (graph.size() * (graph.size() - 1))/2; // max num edges
-    numComplementEdges = numComplementEdges - graph.numEdges();
-    allHardClauses = new ArrayList<Clause>(numComplementEdges);
-    List<Integer> elements = graph.getElements();
-    for(int i = 0; i < graph.size(); i++) {
-      Integer vertex = elements.get(i);
-      for(int j = i+1; j < graph.size(); j++) {
-        Integer neighbor = elements.get(j);
-        if(vertex != neighbor && !graph.hasEdge(vertex, neighbor)) {
-          Clause clause = new Clause(vertex, neighbor, allHardClauses.size());
-          clause.setAsHard();
-          allHardClauses.add(clause);
-        }
-      }
-    }
-    System.out.println("Size of All Hard Clauses: " + allHardClauses.size());
-    */
+    this(new CsrGraph<Integer>(graph));
   }
 
-  /*public int estimateCardinality() {
-    ArrayList<ArrayList<Node<Integer>>> partition = partitionGraph(this.originalGraph);
-    this.partitionSize = partition.size();
-    MaxSatEncoding encoding = new MaxSatEncoding(partition);
-
-    return estimateCardinality(encoding);
-  }*/
-
-  public int estimateCardinality(UndirectedGraph<Integer> graph) {
-    ArrayList<ArrayList<Node<Integer>>> partition = partitionGraph(graph);
-    this.partitionSize = partition.size();
-    MaxSatEncoding encoding = new MaxSatEncoding(graph, partition);
-
-    return estimateCardinality(encoding);
+  /**
+  * Build a MaxSatUB for an undirected CsrGraph. The vertices are encoded in order of their ids in
+  * graph, so a graph renumbered by a VertexRenumbering keeps its order here.
+  * @param graph the graph cliques will be bounded in
+  * @since 0.15.0
+  */
+  public MaxSatUB(CsrGraph<Integer> graph) {
+    this.stats = new SolverStats(false);
+    this.graph = graph;
+    this.numVertices = graph.size();
+    this.numWords = (numVertices + 63) >>> 6;
+    this.ids = new HashMap<Integer, Integer>((int)(numVertices/0.75)+1);
+    for(int v = 0; v < numVertices; v++) {
+      ids.put(graph.get(v), v);
+    }
+    this.adjacency = new long[numVertices][numWords];
+    for(int v = 0; v < numVertices; v++) {
+      for(int k = 0; k < graph.degree(v); k++) {
+        BitSetUndirectedGraph.setBit(adjacency[v], graph.neighbor(v, k));
+      }
+    }
+    this.active = new long[numWords];
+    activateAll();
+    this.activeStack = new long[0][];
+    this.vertexSet = new long[numWords];
+    this.vertices = new long[numWords];
+    this.colorSets = new long[0][];
+    this.coloring = new BitSetColoring(adjacency, numWords, true);
+    this.coloredVertices = new int[numVertices];
+    this.vertexColors = new int[numVertices];
+    this.order = new int[numVertices];
+    this.degrees = new int[numVertices];
+    this.bucketStart = new int[numVertices + 1];
+    this.values = new int[0];
+    this.reasons = new int[0];
+    this.trail = new int[0];
+    this.literals = new int[16];
+    this.clauseStart = new int[0];
+    this.clauseSize = new int[0];
+    this.clauseSoft = new boolean[0];
+    this.watches = new int[0][];
+    this.numWatches = new int[0];
+    this.unitClauses = new int[0];
+    this.softClauses = new int[0];
+    this.tested = new boolean[0];
+    this.inconsistent = new boolean[0];
+    this.inconsistentClauses = new int[0];
+    this.seen = new boolean[0];
+    this.stack = new int[0];
+    this.testedLiterals = new int[0];
+    this.relaxationLiterals = new int[0];
+    ensureVariables(numVertices);
   }
 
-  public int estimateCardinality(UndirectedGraph<Integer> graph, ArrayList<ArrayList<Node<Integer>>> partition) {
-    this.partitionSize = partition.size();
-    MaxSatEncoding encoding = new MaxSatEncoding(graph, partition);
-
-    return estimateCardinality(encoding);
+  /**
+  * Sets the stats the time spent by each bound is added to.
+  * @param stats the stats of the search this bounds cliques for
+  * @since 0.15.0
+  */
+  public void setStats(SolverStats stats) {
+    this.stats = stats;
   }
 
-  public int estimateCardinality(MaxSatEncoding encoding) {
-    long start = new Date().getTime();
-    this.firstRelaxationLit = maxLiteral + 1;
+  /**
+  * Add vertex back to the active vertices.
+  * @param vertex the vertex to activate
+  * @throws NoSuchElementException if vertex is not in the graph this was built for
+  * @since 0.15.0
+  */
+  public void activate(Integer vertex) {
+    BitSetUndirectedGraph.setBit(active, idOf(vertex));
+  }
 
-    if(verbose) System.out.println("Starting MaxSatUB");
-    // perform cardinality test on encoding
-    int s = 0;
-    ArrayList<Integer> newLiterals = new ArrayList<Integer>();
-    while(encoding.hasSoftClauses()) {
-      if(verbose) System.out.printf("Working on encoding\n%s\n", encoding);
-      encoding.initializeInconsistentClauses();
-      //inconsistentClauses.clear();
-      Clause min = encoding.getMinUntestedSoftClause();
-      // if min is null, there are no untested Soft Clauses
-      if(min == null) {
-        if(verbose) System.out.println("No More Untested Soft Clauses");
-        break;
-      }
-      min.setAsTested();
-      if(verbose) System.out.printf("Starting round of Failed Clause Detection\n");
-      if(verbose) System.out.println("Testing min untested Clause " + min);
-      if(topLevelFailedClauseDetection(encoding, min)) {
-        if(verbose) System.out.printf("Failed Clause Detected: %s\n", min);
-        if(verbose) System.out.printf("Adding Relaxation Variables to Inconsistent Set Clauses:\n");
-        //encoding.removeClause(min);
-        //encoding.removeInconsistentClauses();
-        List<Clause> inconsistentClauses = encoding.getInconsistentClauses();
-        newLiterals.clear();
-        inconsistentClauses.add(encoding.getSoftClause(min));
-        for(Clause clause : inconsistentClauses) {
-          Integer newLit = maxLiteral + 1;
-          maxLiteral++;
-          newLiterals.add(newLit);
-          if(verbose) System.out.printf("Adding %s to Clause %s.\n", newLit, clause);
-          clause.addLiteral(newLit, false);
-        }
-        if(verbose) System.out.printf("Adding One Hot Constraint:\n");
-        encoding.addAtMostOneConstraint(newLiterals);
-        s++;
-      } else {
-        if(verbose) System.out.printf("Clause %s NOT Failed, try next untested soft clause.\n", min);
-      }
-    }
-    int cardinality = this.partitionSize - s;
-    if(verbose) System.out.printf("CARDINALITY ESTIMATE %d - %d: %d\n", partitionSize, s, cardinality);
-    if(verbose) System.out.println("#########################");
-    //System.exit(0);
-    long end = new Date().getTime();
-    long time = end - start;
-    if(time > maxRuntime) {
-      maxRuntime = time;
-    }
-    totalTimeRunning += time;
-    return cardinality;
+  /**
+  * Remove vertex from the active vertices. Bounds computed by estimateCardinality() and
+  * estimateCardinality(partition) ignore it until it is activated again.
+  * @param vertex the vertex to deactivate
+  * @throws NoSuchElementException if vertex is not in the graph this was built for
+  * @since 0.15.0
+  */
+  public void deactivate(Integer vertex) {
+    BitSetUndirectedGraph.clearBit(active, idOf(vertex));
   }
 
-  // How we handle state depends on the level we are operating at. If we are checking clauses
-  // in the original state of the encoding, after each literal is checked, return to the initial
-  // state, everything enabled.
-  // The other case is if we are recursively calling failedClauseDetection. That happens when
-  // we are testing new binary clauses. After each literal is tested, we don't want to return
-  // to the fully enabled state, but to what ever state the encoding was in before that test.
-  private boolean topLevelFailedClauseDetection(MaxSatEncoding encoding, Clause clause) {
-    if(verbose) System.out.printf("*In Failed Clause Detection, testing Clause %s\n", clause);
-    for(Integer literal : clause) {
-      if(verbose) System.out.printf("-Testing literal %s in %s\n", literal, clause);
-      if(verbose) System.out.println("-Encoding Before Failed Lit Detection:\n" + encoding);
-      boolean literalFailed = failedLiteralDetection(encoding, literal);
-      encoding.enableAll();
-      if(verbose) System.out.println("-Encoding After Restore: " + encoding);
-      if(!literalFailed) {
-        if(verbose) System.out.printf("-Literal %s not failed, Clause %s not failed, return\n", literal, clause);
-        return false;
-      }
-      if(verbose) System.out.printf("-Literal %s Failed\n", literal);
-    }
-    if(verbose) System.out.printf("-All Literals Failed, Clause %s Failed, return\n", clause);
-    return true;
+  /**
+  * Check whether vertex is active.
+  * @param vertex the vertex to check
+  * @return true if vertex is in the graph this was built for and is active
+  * @since 0.15.0
+  */
+  public boolean isActive(Integer vertex) {
+    Integer id = ids.get(vertex);
+    return id != null && BitSetUndirectedGraph.getBit(active, id);
   }
 
-  private boolean failedClauseDetection(MaxSatEncoding encoding, Clause clause) {
-    if(verbose) System.out.printf("*In Failed Clause Detection, testing Clause %s\n", clause);
-    for(Integer literal : clause) {
-      if(verbose) System.out.printf("-Testing literal %s in %s\n", literal, clause);
-      // Save the state of the encoding
-      // instead of instantiating a new encoding every time failedLiteralDetection is run,
-      // save the current state before and restore it after
-      encoding.saveState();
-      if(verbose) System.out.println("-Encoding Before Failed Lit Detection:\n" + encoding);
-      boolean literalFailed = failedLiteralDetection(encoding, literal);
-      encoding.restoreState();
-      if(verbose) System.out.println("-Encoding After Restore: " + encoding);
-      if(!literalFailed) {
-        if(verbose) System.out.printf("-Literal %s not failed, Clause %s not failed, return\n", literal, clause);
-        return false;
-      }
-      if(verbose) System.out.printf("-Literal %s Failed\n", literal);
+  /**
+  * Activate every vertex of the graph this was built for.
+  * @since 0.15.0
+  */
+  public void activateAll() {
+    Arrays.fill(active, 0L);
+    for(int v = 0; v < numVertices; v++) {
+      BitSetUndirectedGraph.setBit(active, v);
     }
-    if(verbose) System.out.printf("-All Literals Failed, Clause %s Failed, return\n", clause);
-    return true;
   }
 
-  private boolean failedLiteralDetection(MaxSatEncoding encoding, Integer literal) {
-    if(verbose) System.out.printf("**In Failed Literal Detection, for literal %s\n", literal);
-    boolean negated;
-    // remove all soft clauses containing literal
-    for(Clause c : encoding.getSoftClauses()) {
-      if(!encoding.contains(c)) {
-        continue;
-      }
-      // if the clause contains the nonnegated form of the literal, remove the clause
-      if(c.contains(literal)) {
-        if(verbose) System.out.printf("--Removing Clause %s from encoding\n", c);
-        encoding.removeClause(c);
-        if(verbose) System.out.println("Soft Mask: " + encoding.getSoftMask());
-        if(verbose) System.out.println("--Encoding\n"+ encoding);
-      }
+  /**
+  * Deactivate every active vertex that is not a neighbor of vertex, including vertex itself. This
+  * is the step a branch and bound search takes when it adds vertex to its clique. The active
+  * vertices from before the call are saved, and restoreActive() brings them back.
+  * @param vertex the vertex whose neighbors stay active
+  * @throws NoSuchElementException if vertex is not in the graph this was built for
+  * @since 0.15.0
+  */
+  public void retainNeighbors(Integer vertex) {
+    long[] row = adjacency[idOf(vertex)];
+    if(activeDepth == activeStack.length) {
+      activeStack = Arrays.copyOf(activeStack, Math.max(4, 2*activeDepth));
     }
-    for(Clause c : encoding.getHardClauses()) {
-      if(!encoding.contains(c)) {
-        continue;
-      }
-      // if the clause contains the negated form of the literal, remove the literal
-      if(c.contains(literal)) {
-        if(verbose) System.out.printf("--Removing %s from Clause %s\n", literal, c);
-        c.remove(literal);
-        if(c.isEmpty()) {
-          if(verbose) System.out.println("--Reached Empty Clause before Unit Prop. Return.");
-          encoding.setContainsEmptyClause();
-          return true;
-        }
-      }
+    if(activeStack[activeDepth] == null) {
+      activeStack[activeDepth] = new long[numWords];
     }
-    // perform unit propogation
-    if(verbose) System.out.println("--Perform Unit Propogation on encoding:\n" + encoding);
-    unitPropogation(encoding);
-    if(encoding.containsEmptyClause()) {
-      return true;
-    } /*else {
-      for(Clause clause : encoding.getNewBinaryClauses()) {
-        if(verbose) System.out.printf("--Calling Failed Clause Detection on new Binary Clause %s\n", clause);
-        if(verbose) System.out.printf("--encoding:\n %s\n", encoding);
-        if(failedClauseDetection(encoding, clause)) {
-          if(verbose) System.out.printf("--Clause %s failed, return\n", clause);
-          return true;
-        }
-      }
-      if(verbose) System.out.printf("--No new Binary Clauses Failed, return\n");
-      return false;
-    }*/
-    return false;
-  }
-
-  private void unitPropogation( MaxSatEncoding encoding) {
-
-    if(verbose) System.out.printf("***In unitPropogation\n");
-    // the set of soft clauses that give rise to a contradiction, any soft clause that is modified
-    // on the path to deriving an empty clause
-    ArrayList<Clause> inconsistentClauses = new ArrayList<Clause>();
-    LinkedList<Clause> queue = encoding.getUnitClauses();
-    ArrayList<Clause> softClauses = encoding.getSoftClauses();
-    ArrayList<Clause> hardClauses = encoding.getHardClauses();
-    //ArrayList<Clause> relaxationClauses = encoding.getRelaxationClauses();
-    Collection<Clause> clauses = null;
-    Clause c;
-    Integer l;
-    boolean litIsNegated;
-    if(verbose) System.out.printf("---queue.size(): %d, %s\n", queue.size(), queue);
-    while(!queue.isEmpty()) {
-      c = queue.poll();
-      l = c.getLiteral();
-      litIsNegated = c.isNegated(l);
-      //l = lit.get();
-      if(verbose) System.out.printf("---Processing %s\n", c);
-      //if(verbose) System.out.printf("---Is Negated %b\n", litIsNegated);
-      if(c.isHard() || c.isRelaxation()) { // c is hard
-        clauses = softClauses;
-        if(litIsNegated) {
-          for(Clause constraint : encoding.getAtMostOneConstraints()) {
-            if(!encoding.contains(constraint)) {
-              continue;
-            }
-            if(constraint.contains(l)) {
-              if(verbose) System.out.printf("---Removing %s from Constraint Clause %s\n", l, constraint);
-              constraint.remove(l);
-              if(constraint.isUnitClause()) {
-                if(!queue.contains(constraint)) {
-                  if(verbose) System.out.printf("---Constraint Is Unit Clause, adding %s to queue\n", constraint);
-                  queue.add(constraint);
-                }
-              }
-              if(constraint.isEmpty()) {
-                if(verbose) System.out.println("---Constraint Reaching Empty Clause. Return.");
-                encoding.setContainsEmptyClause();
-                encoding.addInconsistentClauses(inconsistentClauses);
-                return;
-              }
-            }
-          }
-        }
-      } else { // c is soft or the
-        // if l is a relaxation variable, we want to loop through the relaxation hard clauses
-        /*if(l >= firstRelaxationLit) {
-          clauses = relaxationClauses;
-        } else { // otherwise we want to loop through the regular hard clauses
-          clauses = hardClauses;
-        }*/
-        clauses = hardClauses;
-      }
-      for(Clause clause : clauses) {
-        if(!encoding.contains(clause)) {
-          continue;
-        }
-        // if lit is a non negated literal, then the following condition checks for negated versions
-        // of this literal and removes them from their clauses.
-        // if lit is negated, the this condition checks for non negated literals and removes them
-        if(clause.contains(l, !litIsNegated)) {
-          // if the clause is soft, add it to inconsistent subsets
-          // we only want to save it once, before it has been modified. If the original encoding
-          // contains a soft clause with the same literals as this one, then get than clause and
-          // add it to the list of inconsistent subsets.
-          if(clause.isSoft()
-              && encoding.contains(clause)
-              && !inconsistentClauses.contains(clause)) {
-            if(verbose) System.out.printf("---Adding %s to set of inconsistent clauses.\n", clause);
-            inconsistentClauses.add(clause);
-            //inconsistentClauses.add(encoding.getSoftClause(clause));
-          }
-          if(verbose) System.out.printf("---Removing %s from Clause %s\n", l, clause);
-          clause.remove(l);
-          if(clause.isUnitClause()) {
-            if(verbose) System.out.printf("---Is Unit Clause, adding %s to queue\n", clause);
-            if(!queue.contains(clause)) {
-              queue.add(clause);
-            }
-          }
-          if(clause.isEmpty()) {
-            if(verbose) System.out.println("---Reaching Empty Clause. Return.");
-            encoding.setContainsEmptyClause();
-            encoding.addInconsistentClauses(inconsistentClauses);
-            return;
-          }
-        }
-      }
+    System.arraycopy(active, 0, activeStack[activeDepth], 0, numWords);
+    activeDepth++;
+    for(int w = 0; w < numWords; w++) {
+      active[w] &= row[w];
     }
-    return;
   }
 
   /**
-  * This method is a heuristic to estimate the number of independent sets in a graph via a greedy
-  * graph coloring algorithm. The algorithm comes from Tomita et al. 2003 and 2010.
-  * @param g the graph a clique is being sought in
-  * @return the partition of the graph into independent sets (color sets)
+  * Restore the active vertices saved by the last call to retainNeighbors(vertex).
+  * @throws IllegalStateException if there is no call to retainNeighbors left to undo
+  * @since 0.15.0
   */
-  private ArrayList<ArrayList<Node<Integer>>> partitionGraph(UndirectedGraph<Integer> g) {
-    //System.out.println("## Calculating indSetUB");
-    // get a list of nodes and sort them in descending order by degree
-    List<Node<Integer>> descendingDegreeNodes = new ArrayList<Node<Integer>>(g.getNodes());
-    Collections.sort(descendingDegreeNodes, Collections.reverseOrder());
-    int maxColorNumber = 0;
-    // initialize color sets
-    // The index of the outer ArrayList is k and the inner arraylists hold all the nodes that belong
-    // to that color k.
-    ArrayList<ArrayList<Node<Integer>>> colorSets = new ArrayList<ArrayList<Node<Integer>>>();
-    // initialize the first two color sets (k = 0,1)
-    colorSets.add(new ArrayList<Node<Integer>>());
-    colorSets.add(new ArrayList<Node<Integer>>());
-    for(Node<Integer> node : descendingDegreeNodes) {
-      int k = 0;
-      // find the lowest k where neighbors and the set of nodes in colorSets[k] share no nodes
-      // in common
-      while(!Collections.disjoint(node.getNeighbors(), colorSets.get(k))) {
-        k++;
-      }
-      if(k > maxColorNumber) {
-        maxColorNumber = k;
-        // initialize and add the next color set
-        colorSets.add(new ArrayList<Node<Integer>>());
-      }
-      colorSets.get(k).add(node);
+  public void restoreActive() {
+    if(activeDepth == 0) {
+      throw new IllegalStateException("restoreActive called without a matching retainNeighbors");
     }
-    // return the number of colors assigned
-    //return maxColorNumber + 1;
-    return colorSets;
+    activeDepth--;
+    System.arraycopy(activeStack[activeDepth], 0, active, 0, numWords);
   }
 
-  private class MaxSatEncoding {
-    private ArrayList<Clause> softClauses;
-    private ArrayList<Clause> hardClauses;
-    private ArrayList<Clause> atMostOneConstraints;
-    private ArrayList<Boolean> softMask;
-    private ArrayList<Boolean> hardMask;
-    private ArrayList<Boolean> constraintsMask;
-    private ArrayList<int[]> softMaskStack;
-    private ArrayList<int[]> hardMaskStack;
-    private ArrayList<int[]> constraintsMaskStack;
-    private boolean containsEmptyClause = false;
-    private ArrayList<Clause> inconsistentClauses;
-    private int numSoftClauses = 0;
-    private int numHardClauses = 0;
-    private int numConstraints = 0;
-
-    public MaxSatEncoding(UndirectedGraph<Integer> graph, ArrayList<ArrayList<Node<Integer>>> partition) {
-      softClauses = new ArrayList<Clause>();
-      hardClauses = new ArrayList<Clause>();
-      atMostOneConstraints = new ArrayList<Clause>();
-
-      softMask = new ArrayList<Boolean>();
-      hardMask = new ArrayList<Boolean>();
-      constraintsMask = new ArrayList<Boolean>();
-
-      softMaskStack = new ArrayList<int[]>();
-      hardMaskStack = new ArrayList<int[]>();
-      constraintsMaskStack = new ArrayList<int[]>();
-
-      for(ArrayList<Node<Integer>> set : partition) {
-        if(set.size() > 0) {
-          Clause clause = new Clause(set, softClauses.size());
-          clause.setAsSoft();
-          addClause(clause);
-        }
-      }
-      inconsistentClauses = new ArrayList<Clause>(getNumSoftClauses());
-
-      /*
-      Clause clause;
-      for(int i = 0; i < allHardClauses.size(); i++) {
-        clause = allHardClauses.get(i);
-        Integer v1 = clause.getLiteral(0);
-        Integer v2 = clause.getLiteral(1);
-        if(graph.contains(v1) && graph.contains(v2) && !graph.hasEdge(v1, v2)) {
-          clause.setIndex(hardClauses.size());
-          addClause(clause);
-        }
-      }*/
-      long start = new Date().getTime();
-      List<Integer> elements = graph.getElements();
-      for(int i = 0; i < graph.size(); i++) {
-        Integer vertex = elements.get(i);
-        for(int j = i+1; j < graph.size(); j++) {
-          Integer neighbor = elements.get(j);
-          if(!graph.hasEdge(vertex, neighbor)) {
-            Clause clause = new Clause(vertex, neighbor, hardClauses.size());
-            clause.setAsHard();
-            addClause(clause);
-          }
-        }
-      }
-      long end = new Date().getTime();
-      timeConstructingEncodings += (end - start);
-    }
-
-    public MaxSatEncoding(ArrayList<ArrayList<Node<Integer>>> partition) {
-      long start = new Date().getTime();
-      softClauses = new ArrayList<Clause>();
-      hardClauses = new ArrayList<Clause>();
-      atMostOneConstraints = new ArrayList<Clause>();
-
-      softMask = new ArrayList<Boolean>();
-      hardMask = new ArrayList<Boolean>();
-      constraintsMask = new ArrayList<Boolean>();
-
-      softMaskStack = new ArrayList<int[]>();
-      hardMaskStack = new ArrayList<int[]>();
-      constraintsMaskStack = new ArrayList<int[]>();
-
-      for(ArrayList<Node<Integer>> set : partition) {
-        if(set.size() > 0) {
-          Clause clause = new Clause(set, softClauses.size());
-          clause.setAsSoft();
-          addClause(clause);
-        }
-      }
-      inconsistentClauses = new ArrayList<Clause>(getNumSoftClauses());
-      Clause clause;
-      for(int i = 0; i < allHardClauses.size(); i++) {
-        clause = allHardClauses.get(i);
-        // don't need to set its index because they are all going into the list one by one, indices
-        // won't change.
-        addClause(clause);
-      }
-
-      long end = new Date().getTime();
-      timeConstructingEncodings += (end - start);
-    }
-
-    public void saveState() {
-      // Use stacks to save the states of the masks
-      // for each mask, make a copy and push it onto its stack. When the state is restored,
-      // that copy is popped off the stack and set as the mask.
-      // Also, tell each clause to save its state.
-      int[] deactivated = new int[softMask.size() - getNumSoftClauses()];
-      int index = 0;
-      for(int i = 0; i < softMask.size(); i++) {
-        softClauses.get(i).saveState();
-        if(softMask.get(i) == false) {
-          deactivated[index] = i;
-          index++;
-        }
-        //copy.add(softMask.get(i).booleanValue());
-      }
-      // push the copy onto the softMaskStack
-      softMaskStack.add(deactivated);
-      //System.out.println("State Saved, depth of stack: " + softMaskStack.size());
-
-      deactivated = new int[hardMask.size() - getNumHardClauses()];
-      index = 0;
-      for(int i = 0; i < hardMask.size(); i++) {
-        hardClauses.get(i).saveState();
-        if(hardMask.get(i) == false) {
-          deactivated[index] = i;
-          index++;
-        }
-      }
-      // push the copy onto the hardMaskStack
-      hardMaskStack.add(deactivated);
+  /**
+  * Estimate the size of the max clique among the active vertices. They are partitioned into
+  * independent sets by greedy coloring, visiting the vertices in descending order of degree.
+  * @return an upper bound on the size of the max clique among the active vertices
+  * @since 0.15.0
+  */
+  public int estimateCardinality() {
+    long start = stats.startTimer();
+    encodeColoring(active);
+    return failedClauseBound(start);
+  }
 
-      deactivated = new int[constraintsMask.size() - getNumConstraints()];
-      index = 0;
-      for(int i = 0; i < constraintsMask.size(); i++) {
-        atMostOneConstraints.get(i).saveState();
-        if(constraintsMask.get(i) == false) {
-          deactivated[index] = i;
-          index++;
-        }
-      }
-      // push the copy onto the constraintsMaskStack
-      constraintsMaskStack.add(deactivated);
-    }
+  /**
+  * Estimate the size of the max clique among the active vertices given a partition of them into
+  * independent sets. Vertices of the partition that are not active are left out of it. Only the
+  * vertices of the partition are encoded, so the cost does not depend on the size of the whole
+  * graph.
+  * @param partition a partition of the active vertices into independent sets, such as color
+  * classes. Empty sets are ignored.
+  * @return an upper bound on the size of the max clique among the active vertices
+  * @throws NoSuchElementException if a vertex of the partition is not in the graph this was built
+  * for
+  * @since 0.15.0
+  */
+  public int estimateCardinality(ArrayList<ArrayList<Node<Integer>>> partition) {
+    long start = stats.startTimer();
+    encodePartition(partition, active);
+    return failedClauseBound(start);
+  }
 
-    private boolean contains(int[] deactivatedList, int value) {
-      for(int val : deactivatedList) {
-        if(val == value) {
-          return true;
-        }
-        // the values in the list are in increasing order. if val in the list is > value, then
-        // value is not in the list, return false
-        if(val > value) {
-          return false;
-        }
-      }
-      return false;
+  /**
+  * Estimate the size of the max clique in graph. The graph is partitioned into independent sets
+  * by greedy coloring, visiting the vertices in descending order of degree.
+  * <p>
+  * graph should be a subgraph of the graph this was built for, whose edges are used. If graph has
+  * vertices that graph does not, it is encoded from scratch. The active vertices are not used or
+  * changed.
+  * @param graph the graph to bound the max clique of
+  * @return an upper bound on the size of the max clique in graph
+  * @since 0.7.0
+  */
+  public int estimateCardinality(UndirectedGraph<Integer> graph) {
+    if(!toVertexSet(graph.getElements())) {
+      return subgraphBound(graph).estimateCardinality();
     }
+    long start = stats.startTimer();
+    encodeColoring(vertices);
+    return failedClauseBound(start);
+  }
 
-    public void restoreState() {
-      // pop the latest deactivated list off of the Stack
-      int lastIndex = softMaskStack.size()-1;
-      int[] deactivated = softMaskStack.get(lastIndex);
-      softMaskStack.remove(lastIndex);
-      // restore all clauses and set the mask values
-      int count = 0;
-      for(int i = 0; i < softClauses.size(); i++) {
-        softClauses.get(i).restore();
-        // for every index for mask, if that index is in deactivated, set mask to false,
-        // true otherwise
-        if(contains(deactivated, i)) {
-          softMask.set(i, false);
-        } else {
-          softMask.set(i, true);
-          count++;
-        }
-      }
-      this.numSoftClauses = count;
-
-      // pop the latest deactivated list off of the Stack
-      lastIndex = hardMaskStack.size()-1;
-      deactivated = hardMaskStack.get(lastIndex);
-      hardMaskStack.remove(lastIndex);
-      // restore all clauses and set the mask values
-      count = 0;
-      for(int i = 0; i < hardClauses.size(); i++) {
-        hardClauses.get(i).restore();
-        // for every index for mask, if that index is in deactivated, set mask to false,
-        // true otherwise
-        if(contains(deactivated, i)) {
-          hardMask.set(i, false);
-        } else {
-          hardMask.set(i, true);
-          count++;
-        }
-      }
-      this.numHardClauses = count;
+  /**
+  * Estimate the size of the max clique in graph given a partition of its vertices into independent
+  * sets.
+  * <p>
+  * graph should be a subgraph of the graph this was built for, whose edges are used. If graph has
+  * vertices that graph does not, it is encoded from scratch. The active vertices are not used or
+  * changed.
+  * @param graph the graph to bound the max clique of
+  * @param partition a partition of the vertices of graph into independent sets, such as color
+  * classes. Empty sets are ignored.
+  * @return an upper bound on the size of the max clique in graph
+  * @since 0.7.0
+  */
+  public int estimateCardinality(UndirectedGraph<Integer> graph,
+                                 ArrayList<ArrayList<Node<Integer>>> partition) {
+    if(!toVertexSet(graph.getElements())) {
+      return subgraphBound(graph).estimateCardinality(partition);
+    }
+    long start = stats.startTimer();
+    encodePartition(partition, vertices);
+    return failedClauseBound(start);
+  }
 
-      // pop the latest deactivated list off of the Stack
-      lastIndex = constraintsMaskStack.size()-1;
-      deactivated = constraintsMaskStack.get(lastIndex);
-      constraintsMaskStack.remove(lastIndex);
-      // restore all clauses and set the mask values
-      count = 0;
-      for(int i = 0; i < atMostOneConstraints.size(); i++) {
-        atMostOneConstraints.get(i).restore();
-        // for every index for mask, if that index is in deactivated, set mask to false,
-        // true otherwise
-        if(contains(deactivated, i)) {
-          constraintsMask.set(i, false);
-        } else {
-          constraintsMask.set(i, true);
-          count++;
-        }
-      }
-      this.numConstraints = count;
+  /**
+  * Greedily color the active vertices, recoloring with Re-NUMBER (Tomita et al. 2010) the vertices
+  * that would get a color of kMin or more. The color classes are kept for
+  * estimateColoredCardinality().
+  * @param kMin the smallest color that could lead to a clique larger than the best one found. 1
+  * or less to color without recoloring.
+  * @return the number of colors used, an upper bound on the size of the max clique among the
+  * active vertices
+  * @since 0.15.0
+  */
+  int colorActive(int kMin) {
+    coloring.color(active, kMin, coloredVertices, vertexColors);
+    return coloring.numColors();
+  }
 
-      containsEmptyClause = false;
-    }
+  /**
+  * Greedily color the vertices of view. The color classes are kept for
+  * estimateColoredCardinality().
+  * @param view a view whose elements are vertices of the graph this was built for
+  * @return the number of colors used, an upper bound on the size of the max clique in view
+  * @throws NoSuchElementException if an element of view is not in the graph this was built for
+  * @since 0.15.0
+  */
+  int colorVertices(SubgraphView<Integer> view) {
+    toVertexSet(view);
+    coloring.color(vertices, 1, coloredVertices, vertexColors);
+    return coloring.numColors();
+  }
 
-    public void enableAll() {
-      for(int i = 0; i < softClauses.size(); i++) {
-        softMask.set(i, true);
-        softClauses.get(i).enableAll();
-      }
-      this.numSoftClauses = softClauses.size();
+  /**
+  * Estimate the size of the max clique in view, as estimateCardinality(graph) does for a graph.
+  * The active vertices are not used or changed.
+  * @param view a view whose elements are vertices of the graph this was built for
+  * @return an upper bound on the size of the max clique in view
+  * @throws NoSuchElementException if an element of view is not in the graph this was built for
+  * @since 0.15.0
+  */
+  int estimateCardinality(SubgraphView<Integer> view) {
+    long start = stats.startTimer();
+    toVertexSet(view);
+    encodeColoring(vertices);
+    return failedClauseBound(start);
+  }
 
-      for(int i = 0; i < hardClauses.size(); i++) {
-        hardMask.set(i, true);
-        hardClauses.get(i).enableAll();
-      }
-      this.numHardClauses = hardClauses.size();
+  /**
+  * Estimate the size of the max clique among the active vertices from the color classes of the
+  * last call to colorActive or colorVertices. Vertices of the classes that are not active are left
+  * out of them.
+  * @return an upper bound on the size of the max clique among the active vertices
+  * @since 0.15.0
+  */
+  int estimateColoredCardinality() {
+    long start = stats.startTimer();
+    clearEncoding();
+    ensureLiterals(numVertices);
+    for(int c = 0; c < coloring.numColors(); c++) {
+      long[] colored = coloring.colorClass(c);
+      int first = numLiterals;
+      for(int w = 0; w < numWords; w++) {
+        long word = colored[w] & active[w];
+        vertexSet[w] |= word;
+        while(word != 0) {
+          literals[numLiterals++] = literal((w << 6) + Long.numberOfTrailingZeros(word), false);
+          word &= word - 1;
+        }
+      }
+      if(numLiterals > first) {
+        addClause(first, numLiterals - first, true);
+      }
+    }
+    return failedClauseBound(start);
+  }
 
-      for(int i = 0; i < constraintsMask.size(); i++) {
-        constraintsMask.set(i, true);
-        atMostOneConstraints.get(i).enableAll();
-      }
-      this.numConstraints = constraintsMask.size();
+  /*
+  * A MaxSatUB for a graph with vertices this was not built for, that adds its time to the same
+  * stats.
+  */
+  private MaxSatUB subgraphBound(UndirectedGraph<Integer> graph) {
+    long start = stats.startTimer();
+    MaxSatUB bound = new MaxSatUB(graph);
+    bound.setStats(stats);
+    stats.addMaxSatTime(start);
+    return bound;
+  }
 
-      containsEmptyClause = false;
+  private int idOf(Integer vertex) {
+    Integer id = ids.get(vertex);
+    if(id == null) {
+      throw new NoSuchElementException(String.format("Vertex %s not in MaxSatUB graph", vertex));
     }
+    return id;
+  }
 
-    public String getClausesString(Collection<Clause> clauses) {
-      int i = 0;
-      String str = "{";
-      for(Clause clause : clauses) {
-        if(i == clauses.size() - 1) {
-          str += clause;
-        } else {
-          str += clause + ", ";
-        }
-        i++;
+  /*
+  * Set vertices to the ids of elements. Returns false if any of them is not in the graph this was
+  * built for.
+  */
+  private boolean toVertexSet(List<Integer> elements) {
+    Arrays.fill(vertices, 0L);
+    for(Integer element : elements) {
+      Integer id = ids.get(element);
+      if(id == null) {
+        return false;
       }
-      str += "}";
-      return str;
-    }
-
-    public ArrayList<Boolean> getSoftMask() {
-      return softMask;
-    }
-
-    public List<Clause> getAtMostOneConstraints() {
-      return atMostOneConstraints;
+      BitSetUndirectedGraph.setBit(vertices, id);
     }
+    return true;
+  }
 
-    public int getNumConstraints() {
-      return this.numConstraints;
+  /*
+  * Set vertices to the ids of the elements of view. A view of the graph this was built for has the
+  * same ids, so its elements are not looked up.
+  */
+  private void toVertexSet(SubgraphView<Integer> view) {
+    Arrays.fill(vertices, 0L);
+    boolean sameIds = view.getGraph() == this.graph;
+    for(int v = view.nextId(0); v >= 0; v = view.nextId(v+1)) {
+      BitSetUndirectedGraph.setBit(vertices, sameIds ? v : idOf(view.get(v)));
     }
+  }
 
-    public void addAtMostOneConstraint(ArrayList<Integer> lits) {
-      Clause c;
-      for(int i = 0; i < lits.size(); i++) {
-        for(int j = i+1; j < lits.size(); j++) {
-          c = new Clause(hardClauses.size());
-          c.addLiteral(lits.get(i), true);
-          c.addLiteral(lits.get(j), true);
-          c.setAsRelaxation();
-          addClause(c);
+  /*
+  * Encode a soft clause for each set of the partition, keeping only the vertices in allowed.
+  */
+  private void encodePartition(ArrayList<ArrayList<Node<Integer>>> partition, long[] allowed) {
+    clearEncoding();
+    for(ArrayList<Node<Integer>> set : partition) {
+      ensureLiterals(set.size());
+      int first = numLiterals;
+      for(Node<Integer> node : set) {
+        int v = idOf(node.get());
+        if(BitSetUndirectedGraph.getBit(allowed, v) && !BitSetUndirectedGraph.getBit(vertexSet, v)) {
+          BitSetUndirectedGraph.setBit(vertexSet, v);
+          literals[numLiterals++] = literal(v, false);
         }
       }
-      c = new Clause(atMostOneConstraints.size());
-      for(Integer lit : lits) {
-        c.addLiteral(lit, false);
-      }
-      if(verbose) System.out.printf("Adding atMostOneConstraint %s\n", c);
-      atMostOneConstraints.add(c);
-      constraintsMask.add(true);
-      numConstraints++;
-    }
-
-    public ArrayList<Clause> getNewBinaryClauses() {
-      ArrayList<Clause> clauses = new ArrayList<Clause>();
-      for(Clause clause : getSoftClauses()){
-        if(contains(clause) && clause.getNumLiterals() == 2 && clause.isModified()){
-          clauses.add(clause);
-        }
+      if(numLiterals > first) {
+        addClause(first, numLiterals - first, true);
       }
-      return clauses;
     }
+  }
 
-    public LinkedList<Clause> getUnitClauses() {
-      LinkedList<Clause> queue = new LinkedList<Clause>();
-      for(int i = 0; i < softClauses.size(); i++) {
-        if(softMask.get(i) == true && softClauses.get(i).isUnitClause()) {
-          queue.offer(softClauses.get(i));
-        }
-      }
-      for(int i = 0; i < hardClauses.size(); i++) {
-        if(hardMask.get(i) == true && hardClauses.get(i).isUnitClause()) {
-          queue.offer(hardClauses.get(i));
-        }
+  /*
+  * Greedily color the vertices in allowed, in descending order of their degree within allowed,
+  * and encode a soft clause for each color.
+  */
+  private void encodeColoring(long[] allowed) {
+    clearEncoding();
+    // bucket the vertices by degree
+    Arrays.fill(bucketStart, 0);
+    int n = 0;
+    for(int v = BitSetUndirectedGraph.nextSetBit(allowed, 0); v >= 0;
+        v = BitSetUndirectedGraph.nextSetBit(allowed, v+1)) {
+      int degree = 0;
+      long[] row = adjacency[v];
+      for(int w = 0; w < numWords; w++) {
+        degree += Long.bitCount(row[w] & allowed[w]);
+      }
+      degrees[v] = degree;
+      bucketStart[numVertices - 1 - degree]++;
+      n++;
+    }
+    for(int d = 0, sum = 0; d <= numVertices; d++) {
+      int count = bucketStart[d];
+      bucketStart[d] = sum;
+      sum += count;
+    }
+    for(int v = BitSetUndirectedGraph.nextSetBit(allowed, 0); v >= 0;
+        v = BitSetUndirectedGraph.nextSetBit(allowed, v+1)) {
+      order[bucketStart[numVertices - 1 - degrees[v]]++] = v;
+    }
+    // each vertex goes in the first color set it has no neighbors in
+    int numColors = 0;
+    for(int i = 0; i < n; i++) {
+      int v = order[i];
+      int k = 0;
+      while(k < numColors && intersects(colorSets[k], adjacency[v])) {
+        k++;
       }
-      for(int i = 0; i < atMostOneConstraints.size(); i++) {
-        if(constraintsMask.get(i) == true && atMostOneConstraints.get(i).isUnitClause()) {
-          queue.offer(atMostOneConstraints.get(i));
+      if(k == numColors) {
+        if(numColors == colorSets.length) {
+          colorSets = Arrays.copyOf(colorSets, Math.max(4, 2*numColors));
         }
-      }
-      return queue;
-    }
-
-    // nullable
-    public Clause getMinUntestedSoftClause() {
-      int minSize = Integer.MAX_VALUE;
-      Clause min = null;
-      for(Clause clause : getSoftClauses()) {
-        if(!clause.isTested()) {
-          if(clause.getNumLiterals() < minSize) {
-            minSize = clause.getNumLiterals();
-            min = clause;
-          }
+        if(colorSets[numColors] == null) {
+          colorSets[numColors] = new long[numWords];
         }
+        Arrays.fill(colorSets[numColors], 0L);
+        numColors++;
       }
-      return min;
+      BitSetUndirectedGraph.setBit(colorSets[k], v);
     }
-
-    public void initializeInconsistentClauses() {
-      inconsistentClauses.clear();
-    }
-
-    public void removeInconsistentClauses() {
-      for(Clause clause : inconsistentClauses) {
-        if(verbose) System.out.printf("Removing Clause: %s\n", clause);
-        removeClause(clause);
+    ensureLiterals(n);
+    for(int k = 0; k < numColors; k++) {
+      int first = numLiterals;
+      for(int v = BitSetUndirectedGraph.nextSetBit(colorSets[k], 0); v >= 0;
+          v = BitSetUndirectedGraph.nextSetBit(colorSets[k], v+1)) {
+        literals[numLiterals++] = literal(v, false);
       }
+      addClause(first, numLiterals - first, true);
     }
+    System.arraycopy(allowed, 0, vertexSet, 0, numWords);
+  }
 
-    public List<Clause> getInconsistentClauses() {
-      return this.inconsistentClauses;
-    }
-
-    public void addInconsistentClauses(List<Clause> clauses) {
-      inconsistentClauses.addAll(clauses);
-    }
-
-    public boolean hasSoftClauses() {
-      if(getNumSoftClauses() > 0) {
-        return true;
-      }
-      return false;
-    }
-
-    public int getNumSoftClauses() {
-      return this.numSoftClauses;
-    }
-
-    public int getNumHardClauses() {
-      return this.numHardClauses;
-    }
-
-    public ArrayList<Clause> getSoftClauses() {
-      return softClauses;
-    }
-
-    public ArrayList<Clause> getHardClauses() {
-      return hardClauses;
-    }
-
-    public ArrayList<Clause> getRelaxationClauses() {
-      ArrayList<Clause> clauses = new ArrayList<Clause>();
-      for(Clause hard : getHardClauses()) {
-        if(hard.isRelaxation()) {
-          clauses.add(hard);
-        }
-      }
-      return clauses;
-    }
-
-    public void removeClause(Clause clause) {
-      int index = indexOf(clause);
-      if(index < 0) {
-        return;
-      }
-      if(clause.isSoft()) {
-        this.softMask.set(index, false);
-        this.numSoftClauses--;
-      } else if(clause.isHard() || clause.isRelaxation()) {
-        this.hardMask.set(index, false);
-        this.numHardClauses--;
-      } else {
-        this.constraintsMask.set(index, false);
-        this.numConstraints--;
-      }
-    }
+  /*
+  * Remove every clause and relaxation variable, leaving no vertices encoded. Only the watches of
+  * the vertices encoded last time need to be cleared.
+  */
+  private void clearEncoding() {
+    for(int v = BitSetUndirectedGraph.nextSetBit(vertexSet, 0); v >= 0;
+        v = BitSetUndirectedGraph.nextSetBit(vertexSet, v+1)) {
+      numWatches[2*v] = 0;
+      numWatches[2*v + 1] = 0;
+    }
+    Arrays.fill(vertexSet, 0L);
+    numLiterals = 0;
+    numClauses = 0;
+    numUnitClauses = 0;
+    numSoftClauses = 0;
+    numVariables = numVertices;
+  }
 
-    public void addClause(Clause clause) {
-      if(clause.isSoft()) {
-        softClauses.add(clause);
-        softMask.add(true);
-        this.numSoftClauses++;
-      } else if(clause.isHard() || clause.isRelaxation()) {
-        hardClauses.add(clause);
-        hardMask.add(true);
-        this.numHardClauses++;
-      } else {
-        atMostOneConstraints.add(clause);
-        constraintsMask.add(true);
-        this.numConstraints++;
+  /*
+  * Run failed clause detection on the soft clauses of the encoding, smallest first, and return the
+  * number of soft clauses less the number of disjoint inconsistent sets found. start is the stats
+  * timer of the call that encoded them.
+  */
+  private int failedClauseBound(long start) {
+    int s = 0;
+    Arrays.fill(tested, 0, numSoftClauses, false);
+    int min;
+    while((min = minUntestedSoftClause()) >= 0) {
+      tested[min] = true;
+      int clause = softClauses[min];
+      if(failedClause(clause)) {
+        markInconsistent(clause);
+        relax();
+        s++;
       }
+      clearInconsistent();
     }
+    stats.addMaxSatTime(start);
+    return numSoftClauses - s;
+  }
 
-    public void setContainsEmptyClause() {
-      this.containsEmptyClause = true;
-    }
-
-    public boolean containsEmptyClause() {
-      return this.containsEmptyClause;
-    }
-
-    private int indexOf(Clause clause) {
-      return clause.getIndex();
-    }
-
-    public boolean contains(Clause clause) {
-      int index = indexOf(clause);
-      if(index < 0) {
-        throw new NoSuchElementException(String.format("Clause %s not in Encoding", clause));
-      }
-      if(clause.isSoft()) {
-        return this.softMask.get(index);
-      } else if (clause.isHard() || clause.isRelaxation()) {
-        return this.hardMask.get(index);
-      } else {
-        return this.constraintsMask.get(index);
+  private int minUntestedSoftClause() {
+    int min = -1;
+    int minSize = Integer.MAX_VALUE;
+    for(int i = 0; i < numSoftClauses; i++) {
+      if(!tested[i] && clauseSize[softClauses[i]] < minSize) {
+        minSize = clauseSize[softClauses[i]];
+        min = i;
       }
     }
+    return min;
+  }
 
-    public Clause getSoftClause(Clause other) {
-      int index = indexOf(other);
-      if(index < 0) {
-        throw new NoSuchElementException(String.format("Clause %s not in Encoding", other));
-      }
-      if(this.softMask.get(index) == false) {
-        throw new NoSuchElementException(String.format("Clause %s not in Encoding", other));
+  /*
+  * A clause is failed if setting each of its literals in turn leads to a conflict by unit
+  * propagation. The soft clauses involved in each conflict are marked inconsistent.
+  */
+  private boolean failedClause(int clause) {
+    int size = clauseSize[clause];
+    if(testedLiterals.length < size) {
+      testedLiterals = new int[Math.max(size, 2*testedLiterals.length)];
+    }
+    // propagation reorders the literals of clauses, so test a copy
+    System.arraycopy(literals, clauseStart[clause], testedLiterals, 0, size);
+    for(int i = 0; i < size; i++) {
+      assign(testedLiterals[i], DECISION);
+      int conflict = propagate();
+      if(conflict != NO_CONFLICT) {
+        analyze(conflict);
+      }
+      undo();
+      if(conflict == NO_CONFLICT) {
+        return false;
       }
-      return this.softClauses.get(index);
     }
+    return true;
+  }
 
-    @Override
-    public String toString() {
-      String str = "###\nSoft Clauses:\n {";
-      Clause clause;
-      int counter = 0;
-      for(int i = 0; i < softClauses.size(); i++) {
-        if(softMask.get(i) == true) {
-          String softStr = "";
-          clause = softClauses.get(i);
-          if(clause.isTested()) {
-            softStr = String.format("%s*", clause);
-          } else {
-            softStr = String.format("%s", clause);
-          }
-          if(counter == 0) {
-            str += softStr;
-          } else {
-            str += ", " + softStr;
-          }
-          counter++;
-        }
-      }
-      counter = 0;
-      str += "}\nHard Clauses:\n {";
-      for(int i = 0; i < hardClauses.size(); i++) {
-        if(hardMask.get(i) == true) {
-          clause = hardClauses.get(i);
-          if(counter == 0) {
-            str += clause;
-          } else {
-            str += ", " + clause;
+  /*
+  * Unit propagate the assignments on the trail. Returns the clause that was falsified,
+  * VERTEX_CONFLICT if two non-adjacent vertices were both set, or NO_CONFLICT.
+  */
+  private int propagate() {
+    for(int i = 0; i < numUnitClauses; i++) {
+      int clause = unitClauses[i];
+      int lit = literals[clauseStart[clause]];
+      int value = value(lit);
+      if(value == FALSE) {
+        return clause;
+      } else if(value == UNASSIGNED) {
+        assign(lit, clause);
+      }
+    }
+    while(propagated < trailSize) {
+      int lit = trail[propagated++];
+      int var = lit >>> 1;
+      if(var < numVertices && (lit & 1) == 0) {
+        // the vertex is in the clique, none of its non-neighbors can be
+        long[] row = adjacency[var];
+        for(int w = 0; w < numWords; w++) {
+          long word = vertexSet[w] & ~row[w];
+          while(word != 0) {
+            int u = (w << 6) + Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            if(u == var || values[u] == FALSE) {
+              continue;
+            }
+            if(values[u] == TRUE) {
+              conflictVertex = var;
+              otherConflictVertex = u;
+              return VERTEX_CONFLICT;
+            }
+            assign(literal(u, true), IMPLIED_BY_VERTEX - var);
           }
-          counter++;
         }
       }
-      counter = 0;
-      str += "}\nAt Most One Constraints:\n {";
-      for(int i = 0; i < atMostOneConstraints.size(); i++) {
-        if(constraintsMask.get(i) == true) {
-          clause = atMostOneConstraints.get(i);
-          if(counter == 0) {
-            str += clause;
-          } else {
-            str += ", " + clause;
-          }
-          counter++;
-        }
+      int conflict = propagateWatches(lit ^ 1);
+      if(conflict != NO_CONFLICT) {
+        return conflict;
       }
-      str += "}\n###";
-      return str;
     }
+    return NO_CONFLICT;
   }
 
-  private class Clause implements Comparable<Clause>, Iterable<Integer> {
-    private ArrayList<Integer> literals;
-    private ArrayList<Boolean> negated;
-    private ArrayList<Boolean> mask;
-    private ArrayList<ArrayList<Boolean>> maskStack;
-    private boolean isSoft;
-    private boolean isHard;
-    private boolean isRelaxation;
-    private boolean tested = false;
-    private int numLiterals = 0;
-    // for efficiency, since clauses will never move in their lists, a clause knows its index
-    private int index;
-
-    public Clause(int index) {
-      literals = new ArrayList<Integer>();
-      negated = new ArrayList<Boolean>();
-      mask = new ArrayList<Boolean>();
-      maskStack = new ArrayList<ArrayList<Boolean>>();
-      this.index = index;
-    }
-
-    public Clause(ArrayList<Node<Integer>> vertices, int index) {
-      literals = new ArrayList<Integer>(vertices.size());
-      negated = new ArrayList<Boolean>(vertices.size());
-      mask = new ArrayList<Boolean>(vertices.size());
-      maskStack = new ArrayList<ArrayList<Boolean>>(vertices.size());
-      boolean isNegation = false;
-      for(Node<Integer> vertex : vertices) {
-        literals.add(vertex.get());
-        negated.add(isNegation);
-        if(vertex.get() > maxLiteral) {
-          maxLiteral = vertex.get();
-        }
-        mask.add(true);
-        numLiterals++;
-      }
-      this.index = index;
-    }
-
-    public Clause(Integer a, Integer b, int index) {
-      literals = new ArrayList<Integer>(2);
-      negated = new ArrayList<Boolean>(2);
-      mask = new ArrayList<Boolean>(2);
-      maskStack = new ArrayList<ArrayList<Boolean>>(2);
-      boolean isNegation;
-      if(isSoft) {
-        isNegation = false;
-      } else {
-        isNegation = true;
-      }
-      literals.add(a);
-      negated.add(isNegation);
-      mask.add(true);
-      numLiterals++;
-      literals.add(b);
-      negated.add(isNegation);
-      mask.add(true);
-      numLiterals++;
-      if(a > maxLiteral) {
-        maxLiteral = a;
-      }
-      if(b > maxLiteral) {
-        maxLiteral = b;
-      }
-      this.index = index;
-    }
-
-    public int getIndex() {
-      return this.index;
-    }
-
-    public void setIndex(int i) {
-      this.index = i;
-    }
-
-    public void saveState() {
-      ArrayList<Boolean> copy = new ArrayList<Boolean>(mask.size());
-      for(Boolean val : mask) {
-        copy.add(val.booleanValue());
-      }
-      // push the copy onto the maskStack
-      maskStack.add(copy);
-    }
-
-    public void restore() {
-      int lastIndex = maskStack.size()-1;
-      mask = maskStack.get(lastIndex);
-      maskStack.remove(lastIndex);
-      int count = 0;
-      for(Boolean active : mask) {
-        if(active) {
-          count++;
-        }
-      }
-      this.numLiterals = count;
-    }
-
-    public void enableAll() {
-      for(int i = 0; i < mask.size(); i++) {
-        mask.set(i, true);
+  /*
+  * Visit the clauses watching falseLit, which has just been set false, and move each watch to
+  * another literal that is not false. If there is none, the clause is unit or falsified.
+  */
+  private int propagateWatches(int falseLit) {
+    int[] watching = watches[falseLit];
+    int n = numWatches[falseLit];
+    int kept = 0;
+    for(int i = 0; i < n; i++) {
+      int clause = watching[i];
+      int start = clauseStart[clause];
+      if(literals[start] == falseLit) {
+        literals[start] = literals[start + 1];
+        literals[start + 1] = falseLit;
+      }
+      int other = literals[start];
+      if(value(other) == TRUE) {
+        watching[kept++] = clause;
+        continue;
       }
-      this.numLiterals = mask.size();
-    }
-
-    public int getMaskSize() {
-      return this.mask.size();
-    }
-
-    public void setAsSoft() {
-      this.isSoft = true;
-      this.isHard = false;
-      this.isRelaxation = false;
-    }
-
-    public void setAsHard() {
-      this.isSoft = false;
-      this.isHard = true;
-      this.isRelaxation = false;
-    }
-
-    public void setAsRelaxation() {
-      this.isSoft = false;
-      this.isHard = false;
-      this.isRelaxation = true;
-    }
-
-    public int getNumLiterals() {
-      int i = 0;
-      for(Boolean flag : mask) {
-        if(flag) {
-          i++;
+      boolean moved = false;
+      int end = start + clauseSize[clause];
+      for(int k = start + 2; k < end; k++) {
+        int lit = literals[k];
+        if(value(lit) != FALSE) {
+          literals[start + 1] = lit;
+          literals[k] = falseLit;
+          watch(lit, clause);
+          moved = true;
+          break;
         }
       }
-      return i;
-    }
-
-    public boolean isUnitClause() {
-      //System.out.printf("Testing if Clause %s is Unit\n", toString());
-      //System.out.println("Num literals: " + getNumLiterals());
-      return getNumLiterals() == 1;
-    }
-
-    public boolean isEmpty() {
-      return getNumLiterals() == 0;
-    }
-
-    public boolean isSoft() {
-      return isSoft;
-    }
-
-    public boolean isHard() {
-      return isHard;
-    }
-    public boolean isRelaxation() {
-      return isRelaxation;
-    }
-
-    public boolean isTested() {
-      return tested;
-    }
-
-    public void setAsTested() {
-      this.tested = true;
-    }
-
-    public boolean contains(Integer literal) {
-      int index = literals.indexOf(literal);
-      if(index < 0) {
-        return false;
+      if(moved) {
+        continue;
       }
-      return this.mask.get(index) == true;
-      //return literals.contains(literal);
-    }
-
-    public boolean contains(Integer literal, boolean negated) {
-      int index = literals.indexOf(literal);
-      if(index != -1) {
-        if(this.mask.get(index) == true && negated == this.negated.get(index)) {
-          return true;
+      watching[kept++] = clause;
+      if(value(other) == FALSE) {
+        for(i = i + 1; i < n; i++) {
+          watching[kept++] = watching[i];
         }
+        numWatches[falseLit] = kept;
+        return clause;
       }
-      return false;
-    }
-
-    public void remove(Integer literal) {
-      int index = literals.indexOf(literal);
-      if(index != -1) {
-        //literals.remove(index);
-        //negated.remove(index);
-        mask.set(index, false);
-      }
+      assign(other, clause);
     }
+    numWatches[falseLit] = kept;
+    return NO_CONFLICT;
+  }
 
-    public void addLiteral(Integer literal, boolean isNegated) {
-      literals.add(literal);
-      negated.add(isNegated);
-      mask.add(true);
+  /*
+  * Follow the reasons back from a conflict and mark every soft clause that implied a literal
+  * along the way.
+  */
+  private void analyze(int conflict) {
+    // every variable reached is added to the stack once, it is both the work list and the record
+    // of which variables to clear from seen
+    int top = 0;
+    if(conflict == VERTEX_CONFLICT) {
+      top = push(conflictVertex, top);
+      top = push(otherConflictVertex, top);
+    } else {
+      top = pushClause(conflict, top);
+    }
+    for(int i = 0; i < top; i++) {
+      int reason = reasons[stack[i]];
+      if(reason >= 0) {
+        top = pushClause(reason, top);
+      } else if(reason <= IMPLIED_BY_VERTEX) {
+        top = push(IMPLIED_BY_VERTEX - reason, top);
+      }
+    }
+    for(int i = 0; i < top; i++) {
+      seen[stack[i]] = false;
     }
+  }
 
-    public boolean isModified() {
-      for(Boolean active : mask) {
-        if(!active) {
-          return true;
-        }
-      }
-      return false;
+  private int pushClause(int clause, int top) {
+    markInconsistent(clause);
+    int start = clauseStart[clause];
+    int end = start + clauseSize[clause];
+    for(int k = start; k < end; k++) {
+      top = push(literals[k] >>> 1, top);
     }
+    return top;
+  }
 
-    /**
-    * Only call if this clause is a unit clause. Returns the remaining literal.
-    * @return the remaining literal in a unit clause
-    */
-    public Integer getLiteral() {
-      for(int i = 0; i < mask.size(); i++) {
-        if(mask.get(i) == true) {
-          return literals.get(i);
-        }
-      }
-      throw new NoSuchElementException("No literals in Clause");
+  private int push(int var, int top) {
+    if(!seen[var]) {
+      seen[var] = true;
+      stack[top++] = var;
     }
+    return top;
+  }
 
-    public Integer getLiteral(int i) {
-      return literals.get(i);
+  private void markInconsistent(int clause) {
+    if(clauseSoft[clause] && !inconsistent[clause]) {
+      inconsistent[clause] = true;
+      inconsistentClauses[numInconsistentClauses++] = clause;
     }
+  }
 
-    public Boolean isNegated(int i) {
-      return negated.get(i);
+  private void clearInconsistent() {
+    for(int i = 0; i < numInconsistentClauses; i++) {
+      inconsistent[inconsistentClauses[i]] = false;
     }
+    numInconsistentClauses = 0;
+  }
 
-    public Boolean isNegated(Integer lit) {
-      return negated.get(literals.indexOf(lit));
-    }
+  /*
+  * Add a new relaxation variable to each inconsistent soft clause, and require exactly one of the
+  * new variables to be true.
+  */
+  private void relax() {
+    int k = numInconsistentClauses;
+    if(relaxationLiterals.length < k) {
+      relaxationLiterals = new int[Math.max(k, 2*relaxationLiterals.length)];
+    }
+    for(int i = 0; i < k; i++) {
+      int var = numVariables;
+      ensureVariables(numVariables + 1);
+      relaxationLiterals[i] = literal(var, false);
+      appendLiteral(inconsistentClauses[i], relaxationLiterals[i]);
+    }
+    for(int i = 0; i < k; i++) {
+      for(int j = i + 1; j < k; j++) {
+        ensureLiterals(2);
+        int first = numLiterals;
+        literals[numLiterals++] = relaxationLiterals[i] ^ 1;
+        literals[numLiterals++] = relaxationLiterals[j] ^ 1;
+        addClause(first, 2, false);
+      }
+    }
+    ensureLiterals(k);
+    int first = numLiterals;
+    for(int i = 0; i < k; i++) {
+      literals[numLiterals++] = relaxationLiterals[i];
+    }
+    addClause(first, k, false);
+  }
 
-    public Boolean getMaskValue(int i) {
-      return mask.get(i);
+  /*
+  * Add the clause made of the size literals starting at literals[first].
+  */
+  private void addClause(int first, int size, boolean soft) {
+    if(numClauses == clauseStart.length) {
+      int capacity = Math.max(16, 2*numClauses);
+      clauseStart = Arrays.copyOf(clauseStart, capacity);
+      clauseSize = Arrays.copyOf(clauseSize, capacity);
+      clauseSoft = Arrays.copyOf(clauseSoft, capacity);
+      inconsistent = Arrays.copyOf(inconsistent, capacity);
+      inconsistentClauses = Arrays.copyOf(inconsistentClauses, capacity);
+    }
+    int clause = numClauses++;
+    clauseStart[clause] = first;
+    clauseSize[clause] = size;
+    clauseSoft[clause] = soft;
+    inconsistent[clause] = false;
+    if(size == 1) {
+      if(numUnitClauses == unitClauses.length) {
+        unitClauses = Arrays.copyOf(unitClauses, Math.max(16, 2*numUnitClauses));
+      }
+      unitClauses[numUnitClauses++] = clause;
+    } else if(size > 1) {
+      watch(literals[first], clause);
+      watch(literals[first + 1], clause);
+    }
+    if(soft) {
+      if(numSoftClauses == softClauses.length) {
+        softClauses = Arrays.copyOf(softClauses, Math.max(16, 2*numSoftClauses));
+        tested = Arrays.copyOf(tested, softClauses.length);
+      }
+      softClauses[numSoftClauses++] = clause;
     }
+  }
 
-    @Override
-    public int compareTo(Clause other) {
-      return this.getNumLiterals() - other.getNumLiterals();
+  /*
+  * Add lit to the end of clause. The clause is moved to the end of the literals so that it stays
+  * contiguous, keeping its two watched literals first. Only called when nothing is assigned.
+  */
+  private void appendLiteral(int clause, int lit) {
+    int size = clauseSize[clause];
+    ensureLiterals(size + 1);
+    int first = numLiterals;
+    System.arraycopy(literals, clauseStart[clause], literals, first, size);
+    literals[first + size] = lit;
+    numLiterals += size + 1;
+    clauseStart[clause] = first;
+    clauseSize[clause] = size + 1;
+    if(size == 1) {
+      // no longer a unit clause, watch it instead
+      for(int i = 0; i < numUnitClauses; i++) {
+        if(unitClauses[i] == clause) {
+          unitClauses[i] = unitClauses[--numUnitClauses];
+          break;
+        }
+      }
+      watch(literals[first], clause);
+      watch(lit, clause);
     }
+  }
 
-    public ArrayList<Integer> getLiterals() {
-      return this.literals;
+  private void watch(int lit, int clause) {
+    int n = numWatches[lit];
+    if(watches[lit] == null) {
+      watches[lit] = new int[4];
+    } else if(n == watches[lit].length) {
+      watches[lit] = Arrays.copyOf(watches[lit], 2*n);
     }
+    watches[lit][n] = clause;
+    numWatches[lit] = n + 1;
+  }
 
-    public ArrayList<Boolean> getNegated() {
-      return this.negated;
-    }
+  private void assign(int lit, int reason) {
+    int var = lit >>> 1;
+    values[var] = (lit & 1) == 0 ? TRUE : FALSE;
+    reasons[var] = reason;
+    trail[trailSize++] = lit;
+  }
 
-    public ArrayList<Boolean> getMask() {
-      return this.mask;
+  /*
+  * Unassign everything on the trail.
+  */
+  private void undo() {
+    for(int i = 0; i < trailSize; i++) {
+      values[trail[i] >>> 1] = UNASSIGNED;
     }
+    trailSize = 0;
+    propagated = 0;
+  }
 
-    @Override
-    public Iterator<Integer> iterator() {
-      return literals.iterator();
-    }
+  private int value(int lit) {
+    int value = values[lit >>> 1];
+    return (lit & 1) == 0 ? value : -value;
+  }
 
-    @Override
-    public int hashCode() {
-      return this.literals.hashCode();
-    }
+  private static int literal(int var, boolean negated) {
+    return negated ? 2*var + 1 : 2*var;
+  }
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public boolean equals(Object obj) {
-      if(obj.getClass() == Clause.class) {
-        Clause other = (Clause) obj;
-        if(this.literals.equals(other.getLiterals())
-            && this.negated.equals(other.getNegated())) {
-            //&& this.mask.equals(other.getMask())) {
-          return true;
-        }
+  private static boolean intersects(long[] a, long[] b) {
+    for(int w = 0; w < a.length; w++) {
+      if((a[w] & b[w]) != 0) {
+        return true;
       }
-      return false;
     }
+    return false;
+  }
 
-    @Override
-    public String toString() {
-      String str = "";
-      if(!isEmpty()) {
-        if(this.mask.get(0) == true) {
-          if(isNegated(0)) {
-          } else {
-          }
-        }
-        int counter = 0;
-        for(int i = 0; i < literals.size(); i++) {
-          if(this.mask.get(i) == true) {
-            String litStr = "";
-            if(isNegated(i)) {
-              litStr = String.format("!%s",literals.get(i));
-            } else {
-              litStr = String.format("%s",literals.get(i));
-            }
-            if(counter == 0) {
-              str = litStr;
-            } else {
-              str = String.format("%s + %s", str, litStr);
-            }
-            counter++;
-          }
-        }
-      }
-      str = String.format("(%s)",str);
-      return str;
+  /*
+  * Make room for numVariables variables and clear the watches of any that are new to this
+  * encoding.
+  */
+  private void ensureVariables(int numVariables) {
+    if(values.length < numVariables) {
+      int capacity = Math.max(numVariables, 2*values.length);
+      values = new int[capacity];
+      reasons = new int[capacity];
+      trail = new int[capacity];
+      seen = new boolean[capacity];
+      stack = new int[capacity];
+      watches = Arrays.copyOf(watches, 2*capacity);
+      numWatches = Arrays.copyOf(numWatches, 2*capacity);
+    }
+    for(int var = this.numVariables; var < numVariables; var++) {
+      values[var] = UNASSIGNED;
+      numWatches[2*var] = 0;
+      numWatches[2*var + 1] = 0;
+    }
+    this.numVariables = numVariables;
+  }
+
+  private void ensureLiterals(int extra) {
+    if(numLiterals + extra > literals.length) {
+      literals = Arrays.copyOf(literals, Math.max(numLiterals + extra, 2*literals.length));
     }
   }
 }
@@ -13,7 +13,7 @@ import java.lang.ClassCastException;
 * The Object can be anything, and the generic type allows for graphs to be constructed containing
 * any type of Object, as long as it is comparable.
 * @author Aaron Maus aaron@aaronpmaus.com
-* @version 0.11.0
+* @version 0.15.0
 * @since 0.1.0
 */
 public class Node<T extends Comparable<? super T>> implements Comparable<Node<T>>{
@@ -31,6 +31,17 @@ public class Node<T extends Comparable<? super T>> implements Comparable<Node<T>
     this.edges = new LinkedHashMap<Node<T>,Edge<T>>();
   }
 
+  /**
+  * Constructor for a Node that is prepared to hold the given number of neighbors without resizing.
+  * @param element the element that this node holds
+  * @param numNeighbors the number of neighbors this node is expected to have
+  * @since 0.15.0
+  */
+  public Node(T element, int numNeighbors) {
+    this.element = element;
+    this.edges = new LinkedHashMap<Node<T>,Edge<T>>((int)(numNeighbors/0.75)+1);
+  }
+
   protected Node(Node<T> other) {
     this(other.get());
     for(Node<T> neighbor : other.getNeighbors()) {
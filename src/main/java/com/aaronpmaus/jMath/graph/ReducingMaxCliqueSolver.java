@@ -0,0 +1,69 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+
+/**
+* A MaxCliqueSolver that reduces a graph before passing it to another MaxCliqueSolver.
+* <p>
+* A clique is found with a MaxCliqueHeuristic, which may spend up to the heuristic time limit of
+* this solver on its local search. The graph is then reduced to the connected components of its
+* core that could hold a larger clique, as described in CliqueReduction. Each component is searched
+* by the solver, largest first. As larger cliques are found, the components left are reduced
+* further, and components too small to hold a larger clique are skipped. On large sparse graphs the
+* components are usually far smaller than the graph.
+* <p>
+* A search given SolverOptions passes them on to the search of each component. If it is stopped,
+* the components not yet searched are bounded by a MaxCliqueHeuristic instead.
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class ReducingMaxCliqueSolver<T extends Comparable<? super T>> extends MaxCliqueSolver<T> {
+  private final MaxCliqueSolver<T> solver;
+
+  /**
+  * @param solver the MaxCliqueSolver to search the reduced graph with
+  * @since 0.15.0
+  */
+  public ReducingMaxCliqueSolver(MaxCliqueSolver<T> solver) {
+    this.solver = solver;
+  }
+
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public UndirectedGraph<T> findMaxClique(UndirectedGraph<T> graph) {
+    return findMaxClique(graph, new SolverOptions<T>()).getClique();
+  }
+
+  /**
+  * {@inheritDoc}
+  * @since 0.15.0
+  */
+  @Override
+  public SolverResult<T> findMaxClique(UndirectedGraph<T> graph, SolverOptions<T> options) {
+    options.getStats().start();
+    CliqueReduction<T> reduction = new CliqueReduction<T>(graph, getHeuristicTimeLimit());
+    ArrayList<T> maxClique = reduction.getLowerBoundClique();
+    options.reportClique(maxClique);
+    // every clique outside the components is no larger than the lower bound
+    int upperBound = maxClique.size();
+    for(UndirectedGraph<T> component : reduction.getComponents()) {
+      // a larger clique needs at least maxClique.size() neighbors for each of its vertices
+      CliqueReduction.removeVerticesBelowDegree(component, maxClique.size());
+      if(component.size() <= maxClique.size()) {
+        continue;
+      }
+      if(options.shouldStop()) {
+        upperBound = Math.max(upperBound, new MaxCliqueHeuristic<T>(component).getUpperBound());
+        continue;
+      }
+      SolverResult<T> result = this.solver.findMaxClique(component, options);
+      upperBound = Math.max(upperBound, result.getUpperBound());
+      if(result.size() > maxClique.size()) {
+        maxClique = new ArrayList<T>(result.getClique().getElements());
+      }
+    }
+    return new SolverResult<T>(graph.subset(maxClique), upperBound, options.getStats());
+  }
+}
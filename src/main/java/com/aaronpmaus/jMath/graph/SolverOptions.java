@@ -0,0 +1,159 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* Options for an anytime search with MaxCliqueSolver.findMaxClique(graph, options).
+* <p>
+* A search given a time limit, or cancelled from another thread, stops early and returns the largest
+* clique it has found along with an upper bound on the size of the max clique. A listener can be
+* told about each larger clique as it is found, so the best clique so far is known even if the
+* search is never allowed to finish. The search can also collect SolverStats, which are returned
+* with its SolverResult.
+* <p>
+* Solvers check shouldStop() as they search. A SolverOptions belongs to a single search, and may be
+* passed on to the searches of its subproblems.
+* @see SolverResult
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class SolverOptions<T extends Comparable<? super T>> {
+  private volatile boolean cancelled;
+  private long timeLimit;
+  // the System.nanoTime() at which the time limit runs out
+  private long deadline;
+  private CliqueListener<T> listener;
+  private int largestReported;
+  private SolverStats stats;
+  // the options of the search this one is part of, or null
+  private final SolverOptions<?> parent;
+
+  /**
+  * Builds options for a search with no time limit and no listener.
+  * @since 0.15.0
+  */
+  public SolverOptions() {
+    this.cancelled = false;
+    this.timeLimit = 0;
+    this.listener = null;
+    this.largestReported = 0;
+    this.stats = new SolverStats(false);
+    this.parent = null;
+  }
+
+  /*
+  * Builds options for a search run on the way to the search of parent, such as the searches for
+  * independent sets IncMaxCliqueSolver orders its vertices with. It stops when parent should stop,
+  * but its cliques are not reported to the listener or stats of parent.
+  */
+  SolverOptions(SolverOptions<?> parent) {
+    this.cancelled = false;
+    this.timeLimit = 0;
+    this.listener = null;
+    this.largestReported = 0;
+    this.stats = new SolverStats(false);
+    this.parent = parent;
+  }
+
+  /**
+  * Sets the time limit of the search. The time limit runs from when it is set, so it should be set
+  * just before the search is started.
+  * @param milliseconds the most milliseconds the search may run for. 0 for no time limit.
+  * @throws IllegalArgumentException if milliseconds is negative
+  * @since 0.15.0
+  */
+  public void setTimeLimit(long milliseconds) {
+    if(milliseconds < 0) {
+      throw new IllegalArgumentException("The time limit can not be negative.");
+    }
+    this.timeLimit = milliseconds;
+    this.deadline = System.nanoTime() + milliseconds * 1000000L;
+  }
+
+  /**
+  * @return the time limit in milliseconds, or 0 if there is none
+  * @since 0.15.0
+  */
+  public long getTimeLimit() {
+    return this.timeLimit;
+  }
+
+  /**
+  * @param listener the listener to tell about each larger clique found, or null for none
+  * @since 0.15.0
+  */
+  public void setListener(CliqueListener<T> listener) {
+    this.listener = listener;
+  }
+
+  /**
+  * @return the listener told about each larger clique found, or null if there is none
+  * @since 0.15.0
+  */
+  public CliqueListener<T> getListener() {
+    return this.listener;
+  }
+
+  /**
+  * Sets whether the search collects SolverStats. They are not collected by default. This should be
+  * set before the search is started, it replaces any stats collected so far.
+  * @param collectStats true to collect stats
+  * @since 0.15.0
+  */
+  public void setCollectStats(boolean collectStats) {
+    this.stats = new SolverStats(collectStats);
+  }
+
+  /**
+  * @return the stats of the search. They record nothing unless setCollectStats(true) was called.
+  * @since 0.15.0
+  */
+  public SolverStats getStats() {
+    return this.stats;
+  }
+
+  /**
+  * Asks the search to stop. It may be called from any thread. The search returns the best clique
+  * it has found soon after.
+  * @since 0.15.0
+  */
+  public void cancel() {
+    this.cancelled = true;
+  }
+
+  /**
+  * @return true if cancel() has been called
+  * @since 0.15.0
+  */
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+
+  /**
+  * Whether the search should stop, because it was cancelled or its time limit ran out. Solvers
+  * call this as they search.
+  * @return true if the search should stop
+  * @since 0.15.0
+  */
+  public boolean shouldStop() {
+    return this.cancelled || (this.timeLimit > 0 && System.nanoTime() - this.deadline >= 0)
+        || (this.parent != null && this.parent.shouldStop());
+  }
+
+  /**
+  * Tells the listener about a clique if it is larger than every clique reported before it, and adds
+  * it to the timeline of the stats. Solvers call this with each clique they find that is larger
+  * than their best so far.
+  * @param clique the elements of a clique
+  * @since 0.15.0
+  */
+  public synchronized void reportClique(List<T> clique) {
+    if(clique.size() > this.largestReported) {
+      this.largestReported = clique.size();
+      this.stats.cliqueFound(clique.size());
+      if(this.listener != null) {
+        this.listener.cliqueFound(new ArrayList<T>(clique));
+      }
+    }
+  }
+}
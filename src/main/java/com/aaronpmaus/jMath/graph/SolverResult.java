@@ -0,0 +1,97 @@
+package com.aaronpmaus.jMath.graph;
+
+/**
+* The result of an anytime search with MaxCliqueSolver.findMaxClique(graph, options): the largest
+* clique found, and an upper bound on the size of the max clique.
+* <p>
+* If the search finished, the upper bound is the size of the clique. If it was stopped early, the
+* gap between them shows how far from a max clique the clique could be. The stats of the search
+* are returned with it.
+* @see SolverOptions
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class SolverResult<T extends Comparable<? super T>> {
+  private final UndirectedGraph<T> clique;
+  private final int upperBound;
+  private final SolverStats stats;
+
+  /**
+  * @param clique the largest clique found
+  * @param upperBound an upper bound on the size of the max clique. It is raised to the size of
+  * clique if it is smaller.
+  * @since 0.15.0
+  */
+  public SolverResult(UndirectedGraph<T> clique, int upperBound) {
+    this(clique, upperBound, new SolverStats(false));
+  }
+
+  /**
+  * @param clique the largest clique found
+  * @param upperBound an upper bound on the size of the max clique. It is raised to the size of
+  * clique if it is smaller.
+  * @param stats the stats of the search
+  * @since 0.15.0
+  */
+  public SolverResult(UndirectedGraph<T> clique, int upperBound, SolverStats stats) {
+    this.clique = clique;
+    this.upperBound = Math.max(upperBound, clique.size());
+    this.stats = stats;
+  }
+
+  /**
+  * @return the largest clique found
+  * @since 0.15.0
+  */
+  public UndirectedGraph<T> getClique() {
+    return this.clique;
+  }
+
+  /**
+  * @return the number of vertices in the clique
+  * @since 0.15.0
+  */
+  public int size() {
+    return this.clique.size();
+  }
+
+  /**
+  * @return an upper bound on the size of the max clique of the graph
+  * @since 0.15.0
+  */
+  public int getUpperBound() {
+    return this.upperBound;
+  }
+
+  /**
+  * @return the stats of the search. They are empty if stats were not collected.
+  * @since 0.15.0
+  */
+  public SolverStats getStats() {
+    return this.stats;
+  }
+
+  /**
+  * @return the upper bound minus the size of the clique
+  * @since 0.15.0
+  */
+  public int getGap() {
+    return this.upperBound - this.clique.size();
+  }
+
+  /**
+  * @return true if the clique is proven to be a max clique
+  * @since 0.15.0
+  */
+  public boolean isOptimal() {
+    return getGap() == 0;
+  }
+
+  /**
+  * {@inheritDoc}
+  */
+  @Override
+  public String toString() {
+    return String.format("clique of size %d, upper bound %d", size(), getUpperBound());
+  }
+}
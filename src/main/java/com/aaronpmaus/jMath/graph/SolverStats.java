@@ -0,0 +1,266 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+* Statistics of a single max clique search: the number of nodes of the search tree it explored,
+* how many times each kind of upper bound pruned a branch, the time spent coloring and on MaxSAT
+* reasoning, the deepest node reached, and when each larger clique was found.
+* <p>
+* The stats of a search are those of its SolverOptions, and are only collected if
+* SolverOptions.setCollectStats(true) was called. When they are not, every method that records a
+* statistic returns at once, so a search without stats runs as fast as before. Times are measured
+* with System.nanoTime, only while stats are collected.
+* <p>
+* The recording methods are only called by the solvers of this package. They are not thread safe,
+* so each thread of a parallel search records into its own SolverStats and adds it to the stats of
+* the search when it is done.
+* @see SolverOptions#setCollectStats(boolean)
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class SolverStats {
+  /**
+  * The kinds of upper bound that prune a branch of a search.
+  * @since 0.15.0
+  */
+  public enum Bound {
+    /** The incremental upper bound of IncMaxClique, the max clique of a smaller graph plus one. */
+    INCREMENTAL,
+    /** The number of colors, or independent sets, the candidates can be partitioned into. */
+    COLORING,
+    /** A coloring bound lowered by the inconsistent sets found by MaxSAT reasoning. */
+    MAX_SAT
+  }
+
+  private final boolean enabled;
+  private long startTime;
+  private boolean started;
+  private long numNodes;
+  private int maxDepth;
+  private final long[] numPrunes;
+  private long coloringTime;
+  private long maxSatTime;
+  private final ArrayList<Improvement> timeline;
+
+  /**
+  * @param enabled true to collect stats, false for a SolverStats that records nothing
+  * @since 0.15.0
+  */
+  public SolverStats(boolean enabled) {
+    this.enabled = enabled;
+    this.started = false;
+    this.numNodes = 0;
+    this.maxDepth = 0;
+    this.numPrunes = new long[Bound.values().length];
+    this.coloringTime = 0;
+    this.maxSatTime = 0;
+    this.timeline = new ArrayList<Improvement>();
+  }
+
+  /**
+  * @return true if these stats are collected
+  * @since 0.15.0
+  */
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+  * @return the number of nodes of the search tree explored
+  * @since 0.15.0
+  */
+  public long getNumNodes() {
+    return this.numNodes;
+  }
+
+  /**
+  * @return the depth of the deepest node explored, the size of the clique it extended
+  * @since 0.15.0
+  */
+  public int getMaxDepth() {
+    return this.maxDepth;
+  }
+
+  /**
+  * @param bound a kind of upper bound
+  * @return the number of times bound pruned a branch of the search
+  * @since 0.15.0
+  */
+  public long getNumPrunes(Bound bound) {
+    return this.numPrunes[bound.ordinal()];
+  }
+
+  /**
+  * @return the milliseconds spent coloring candidate sets
+  * @since 0.15.0
+  */
+  public long getColoringTime() {
+    return this.coloringTime / 1000000L;
+  }
+
+  /**
+  * @return the milliseconds spent encoding candidate sets for MaxSAT reasoning and finding
+  * inconsistent sets in them
+  * @since 0.15.0
+  */
+  public long getMaxSatTime() {
+    return this.maxSatTime / 1000000L;
+  }
+
+  /**
+  * @return each larger clique found, in the order they were found
+  * @since 0.15.0
+  */
+  public synchronized List<Improvement> getTimeline() {
+    return Collections.unmodifiableList(new ArrayList<Improvement>(this.timeline));
+  }
+
+  /**
+  * Writes the stats as a JSON object. Times are in milliseconds.
+  * @return the stats as a JSON object
+  * @since 0.15.0
+  */
+  public synchronized String toJson() {
+    StringBuilder json = new StringBuilder();
+    json.append("{\n");
+    json.append("  \"enabled\": ").append(enabled).append(",\n");
+    json.append("  \"nodes\": ").append(numNodes).append(",\n");
+    json.append("  \"maxDepth\": ").append(maxDepth).append(",\n");
+    json.append("  \"prunes\": {");
+    Bound[] bounds = Bound.values();
+    for(int i = 0; i < bounds.length; i++) {
+      json.append(i == 0 ? "" : ", ");
+      json.append('"').append(bounds[i]).append("\": ").append(numPrunes[i]);
+    }
+    json.append("},\n");
+    json.append("  \"coloringTime\": ").append(milliseconds(coloringTime)).append(",\n");
+    json.append("  \"maxSatTime\": ").append(milliseconds(maxSatTime)).append(",\n");
+    json.append("  \"timeline\": [");
+    for(int i = 0; i < timeline.size(); i++) {
+      Improvement improvement = timeline.get(i);
+      json.append(i == 0 ? "\n" : ",\n");
+      json.append("    {\"time\": ").append(milliseconds(improvement.time));
+      json.append(", \"size\": ").append(improvement.size).append("}");
+    }
+    json.append(timeline.isEmpty() ? "]\n" : "\n  ]\n");
+    json.append("}\n");
+    return json.toString();
+  }
+
+  /**
+  * {@inheritDoc}
+  */
+  @Override
+  public String toString() {
+    return String.format("%d nodes, max depth %d, prunes: %d incremental, %d coloring, %d MaxSAT, "
+        + "%d ms coloring, %d ms MaxSAT", numNodes, maxDepth,
+        numPrunes[Bound.INCREMENTAL.ordinal()], numPrunes[Bound.COLORING.ordinal()],
+        numPrunes[Bound.MAX_SAT.ordinal()], getColoringTime(), getMaxSatTime());
+  }
+
+  private static String milliseconds(long nanoseconds) {
+    // the root locale always writes a decimal point, as JSON requires
+    return String.format(Locale.ROOT, "%.3f", nanoseconds / 1000000.0);
+  }
+
+  /*
+  * Starts the clock the timeline is measured from. Only the first call does anything, so the
+  * searches of subproblems that share the stats of a search do not restart it.
+  */
+  synchronized void start() {
+    if(enabled && !started) {
+      started = true;
+      startTime = System.nanoTime();
+    }
+  }
+
+  void node(int depth) {
+    if(enabled) {
+      numNodes++;
+      if(depth > maxDepth) {
+        maxDepth = depth;
+      }
+    }
+  }
+
+  void prune(Bound bound) {
+    if(enabled) {
+      numPrunes[bound.ordinal()]++;
+    }
+  }
+
+  /*
+  * Returns the time to pass to addColoringTime or addMaxSatTime at the end of a timed section, or
+  * 0 if stats are not collected.
+  */
+  long startTimer() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  void addColoringTime(long start) {
+    if(enabled) {
+      coloringTime += System.nanoTime() - start;
+    }
+  }
+
+  void addMaxSatTime(long start) {
+    if(enabled) {
+      maxSatTime += System.nanoTime() - start;
+    }
+  }
+
+  synchronized void cliqueFound(int size) {
+    if(enabled) {
+      start();
+      timeline.add(new Improvement(System.nanoTime() - startTime, size));
+    }
+  }
+
+  /*
+  * Adds the counts and times of other, the stats of one thread of a parallel search, to these.
+  */
+  synchronized void add(SolverStats other) {
+    if(enabled) {
+      numNodes += other.numNodes;
+      maxDepth = Math.max(maxDepth, other.maxDepth);
+      for(int i = 0; i < numPrunes.length; i++) {
+        numPrunes[i] += other.numPrunes[i];
+      }
+      coloringTime += other.coloringTime;
+      maxSatTime += other.maxSatTime;
+    }
+  }
+
+  /**
+  * A larger clique found by a search, and when it was found.
+  * @since 0.15.0
+  */
+  public static class Improvement {
+    private final long time;
+    private final int size;
+
+    private Improvement(long time, int size) {
+      this.time = time;
+      this.size = size;
+    }
+
+    /**
+    * @return the milliseconds from the start of the search to when the clique was found
+    * @since 0.15.0
+    */
+    public long getTime() {
+      return this.time / 1000000L;
+    }
+
+    /**
+    * @return the size of the clique
+    * @since 0.15.0
+    */
+    public int getSize() {
+      return this.size;
+    }
+  }
+}
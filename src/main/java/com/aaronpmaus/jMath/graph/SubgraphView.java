@@ -0,0 +1,427 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+* An induced subgraph of a CsrGraph that is not copied.
+* <p>
+* A SubgraphView is the CsrGraph it was taken from and a mask of bits, one for each vertex id,
+* saying which vertices are in the view. The edges of the view are the edges of the graph between
+* the vertices in the view. Taking the neighbors, neighborhood or a subset of a view only builds a
+* new mask, so unlike subset, getNeighbors and getNeighborhood in Graph, no Nodes or Edges are
+* created. Read operations (iteration, degree, hasEdge, isClique, density) allocate nothing but
+* the iterator. toGraph() builds a Graph of the view when one is needed.
+* <p>
+* Vertices can be removed from a view and added back with removeVertex and addVertex. This only
+* changes the mask of the view. The graph it was taken from, and every other view of it, are left
+* as they are. A view is taken from a Graph with Graph.view(), which builds a CsrGraph of it. The
+* view does not follow later changes to the Graph.
+* <p>
+* Vertices keep the ids they have in the CsrGraph, and the elements of a view are visited in order
+* of their ids.
+* @version 0.15.0
+* @since 0.15.0
+*/
+public final class SubgraphView<T extends Comparable<? super T>> implements Iterable<T> {
+  private final CsrGraph<T> graph;
+  private final long[] mask;
+  private int size;
+
+  /**
+  * Builds a view of every vertex of graph.
+  * @param graph the graph to view
+  * @since 0.15.0
+  */
+  SubgraphView(CsrGraph<T> graph) {
+    this.graph = graph;
+    this.mask = new long[(graph.size() + 63) >>> 6];
+    for(int v = 0; v < graph.size(); v++) {
+      BitSetUndirectedGraph.setBit(mask, v);
+    }
+    this.size = graph.size();
+  }
+
+  /**
+  * A copy constructor. The copy is a view of the same vertices of the same graph, and vertices can
+  * be removed from or added to either one without changing the other.
+  * @param view the view to copy
+  * @since 0.15.0
+  */
+  public SubgraphView(SubgraphView<T> view) {
+    this(view.graph, view.mask.clone(), view.size);
+  }
+
+  private SubgraphView(CsrGraph<T> graph, long[] mask, int size) {
+    this.graph = graph;
+    this.mask = mask;
+    this.size = size;
+  }
+
+  /**
+  * @return the CsrGraph this is a view of
+  * @since 0.15.0
+  */
+  public CsrGraph<T> getGraph() {
+    return this.graph;
+  }
+
+  /**
+  * @return the number of vertices in this view
+  * @since 0.15.0
+  */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+  * @param element the element to look for
+  * @return true if the vertex holding element is in this view
+  * @since 0.15.0
+  */
+  public boolean contains(T element) {
+    return graph.contains(element) && hasId(graph.indexOf(element));
+  }
+
+  /**
+  * @return the elements in this view, in order of their ids
+  * @since 0.15.0
+  */
+  public List<T> getElements() {
+    ArrayList<T> elements = new ArrayList<T>(size);
+    for(int v = nextId(0); v >= 0; v = nextId(v+1)) {
+      elements.add(graph.get(v));
+    }
+    return elements;
+  }
+
+  /**
+  * Returns the number of neighbors element has in this view.
+  * @param element an element in this view
+  * @return the number of neighbors of element that are in this view
+  * @throws NoSuchElementException if element is not in this view
+  * @since 0.15.0
+  */
+  public int numNeighbors(T element) {
+    return degree(idOf(element));
+  }
+
+  /**
+  * @param start the vertex at the start of the edge
+  * @param end the vertex at the end of the edge
+  * @return true if start and end are both in this view and there is an edge from start to end
+  * @since 0.15.0
+  */
+  public boolean hasEdge(T start, T end) {
+    if(!contains(start) || !contains(end)) {
+      return false;
+    }
+    int a = graph.indexOf(start);
+    int b = graph.indexOf(end);
+    for(int i = 0; i < graph.degree(a); i++) {
+      if(graph.neighbor(a, i) == b) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+  * Returns the number of edges between the vertices of this view. Each vertex is visited, so this
+  * takes time proportional to the number of arcs leaving them.
+  * @return the number of edges in this view
+  * @since 0.15.0
+  */
+  public int numEdges() {
+    int numArcs = numArcs();
+    return graph.isDirected() ? numArcs : numArcs / 2;
+  }
+
+  /**
+  * Returns the density of this view, computed as for a Graph.
+  * @return the density of this view
+  * @since 0.15.0
+  */
+  public double density() {
+    return ((double)numArcs())/(size*(size-1));
+  }
+
+  /**
+  * A view is a clique if every vertex in it has an edge to every other vertex in it.
+  * @return true if this view is a clique, false otherwise
+  * @since 0.15.0
+  */
+  public boolean isClique() {
+    for(int v = nextId(0); v >= 0; v = nextId(v+1)) {
+      if(degree(v) != size - 1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+  * Return a view of the neighbors in this view of element. The neighbors of a vertex in a
+  * directed graph are the vertices at the ends of the arcs leaving it.
+  * @param element an element in this view
+  * @return a view of the neighbors of element
+  * @throws NoSuchElementException if element is not in this view
+  * @since 0.15.0
+  */
+  public SubgraphView<T> getNeighbors(T element) {
+    SubgraphView<T> neighbors = new SubgraphView<T>(graph, new long[mask.length], 0);
+    int v = idOf(element);
+    for(int i = 0; i < graph.degree(v); i++) {
+      int u = graph.neighbor(v, i);
+      if(hasId(u)) {
+        neighbors.addId(u);
+      }
+    }
+    return neighbors;
+  }
+
+  /**
+  * Return a view of the neighborhood in this view of element, that is element and its neighbors.
+  * @param element an element in this view
+  * @return a view of element and its neighbors
+  * @throws NoSuchElementException if element is not in this view
+  * @since 0.15.0
+  */
+  public SubgraphView<T> getNeighborhood(T element) {
+    SubgraphView<T> neighborhood = getNeighbors(element);
+    neighborhood.addVertex(element);
+    return neighborhood;
+  }
+
+  /**
+  * Return a view of the vertices of this view holding the elements provided. Elements that are not
+  * in this view are ignored.
+  * @param elements the elements specifying the subset
+  * @return a view of the subset
+  * @since 0.15.0
+  */
+  public SubgraphView<T> subset(List<T> elements) {
+    SubgraphView<T> subset = new SubgraphView<T>(graph, new long[mask.length], 0);
+    for(T element : elements) {
+      if(contains(element)) {
+        subset.addVertex(element);
+      }
+    }
+    return subset;
+  }
+
+  /**
+  * Remove the vertex holding element from this view. If it is not in this view, do nothing.
+  * @param element the element to remove
+  * @since 0.15.0
+  */
+  public void removeVertex(T element) {
+    if(contains(element)) {
+      removeId(graph.indexOf(element));
+    }
+  }
+
+  /**
+  * Add the vertex holding element back to this view, along with its edges to the vertices in this
+  * view. If it is already in this view, do nothing.
+  * @param element an element of the graph this is a view of
+  * @throws NoSuchElementException if element is not in the graph this is a view of
+  * @since 0.15.0
+  */
+  public void addVertex(T element) {
+    int v = graph.indexOf(element);
+    if(!hasId(v)) {
+      addId(v);
+    }
+  }
+
+  /**
+  * @param element an element of the graph this is a view of
+  * @return the id of the vertex holding element
+  * @throws NoSuchElementException if element is not in the graph this is a view of
+  * @since 0.15.0
+  */
+  public int indexOf(T element) {
+    return graph.indexOf(element);
+  }
+
+  /**
+  * @param id the id of a vertex of the graph this is a view of
+  * @return the element held by the vertex with that id
+  * @since 0.15.0
+  */
+  public T get(int id) {
+    return graph.get(id);
+  }
+
+  /**
+  * @param id the id of a vertex of the graph this is a view of
+  * @return true if the vertex with that id is in this view
+  * @since 0.15.0
+  */
+  public boolean hasId(int id) {
+    return BitSetUndirectedGraph.getBit(mask, id);
+  }
+
+  /**
+  * Used to visit the vertices of this view in order of their ids:
+  * {@code for(int v = view.nextId(0); v >= 0; v = view.nextId(v+1))}
+  * @param from the id to start looking from
+  * @return the smallest id of a vertex in this view that is at least from, or -1 if there is none
+  * @since 0.15.0
+  */
+  public int nextId(int from) {
+    return BitSetUndirectedGraph.nextSetBit(mask, from);
+  }
+
+  /**
+  * @param id the id of a vertex of the graph this is a view of
+  * @return the number of arcs leaving the vertex that end at a vertex in this view
+  * @since 0.15.0
+  */
+  public int degree(int id) {
+    int degree = 0;
+    for(int i = 0; i < graph.degree(id); i++) {
+      if(hasId(graph.neighbor(id, i))) {
+        degree++;
+      }
+    }
+    return degree;
+  }
+
+  /**
+  * Calls action with the id of each vertex in this view at the end of an arc leaving the vertex id.
+  * @param id the id of a vertex of the graph this is a view of
+  * @param action the action to perform on the id of each neighbor
+  * @since 0.15.0
+  */
+  public void forEachNeighbor(int id, IntConsumer action) {
+    for(int i = 0; i < graph.degree(id); i++) {
+      int u = graph.neighbor(id, i);
+      if(hasId(u)) {
+        action.accept(u);
+      }
+    }
+  }
+
+  /**
+  * Remove the vertex with this id from this view.
+  * @param id the id of a vertex in this view
+  * @since 0.15.0
+  */
+  void removeId(int id) {
+    BitSetUndirectedGraph.clearBit(mask, id);
+    size--;
+  }
+
+  /**
+  * Add the vertex with this id to this view.
+  * @param id the id of a vertex of the graph that is not in this view
+  * @since 0.15.0
+  */
+  void addId(int id) {
+    BitSetUndirectedGraph.setBit(mask, id);
+    size++;
+  }
+
+  /**
+  * Builds an UndirectedGraph, or a Graph if the graph this is a view of is directed, with the
+  * vertices of this view and the edges between them.
+  * @return a Graph equivalent to this view
+  * @since 0.15.0
+  */
+  public Graph<T> toGraph() {
+    Graph<T> copy = graph.isDirected() ? new Graph<T>(size) : new UndirectedGraph<T>(size);
+    for(int v = nextId(0); v >= 0; v = nextId(v+1)) {
+      copy.addVertex(graph.get(v), degree(v));
+    }
+    for(int v = nextId(0); v >= 0; v = nextId(v+1)) {
+      for(int i = 0; i < graph.degree(v); i++) {
+        int u = graph.neighbor(v, i);
+        if(hasId(u) && (graph.isDirected() || v <= u)) {
+          copy.addEdge(graph.get(v), graph.get(u), graph.weight(v, i));
+        }
+      }
+    }
+    return copy;
+  }
+
+  /**
+  * Builds an UndirectedGraph with the vertices of this view and the edges between them. If the
+  * graph this is a view of is directed, every arc becomes an undirected edge.
+  * @return an UndirectedGraph equivalent to this view
+  * @since 0.15.0
+  */
+  public UndirectedGraph<T> toUndirectedGraph() {
+    Graph<T> copy = toGraph();
+    if(copy instanceof UndirectedGraph) {
+      return (UndirectedGraph<T>)copy;
+    }
+    return new UndirectedGraph<T>(copy);
+  }
+
+  /**
+  * {@inheritDoc}
+  * The elements are returned in order of their ids.
+  */
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      private int next = nextId(0);
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public T next() {
+        if(next < 0) {
+          throw new NoSuchElementException();
+        }
+        T element = graph.get(next);
+        next = nextId(next+1);
+        return element;
+      }
+    };
+  }
+
+  /**
+  * Returns the element of each vertex followed by the elements of its neighbors in this view, one
+  * vertex per line.
+  * @return the string representing this view
+  * @since 0.15.0
+  */
+  @Override
+  public String toString() {
+    StringBuilder str = new StringBuilder();
+    for(int v = nextId(0); v >= 0; v = nextId(v+1)) {
+      str.append(graph.get(v)).append(": ");
+      for(int i = 0; i < graph.degree(v); i++) {
+        int u = graph.neighbor(v, i);
+        if(hasId(u)) {
+          str.append(graph.get(u)).append(" ");
+        }
+      }
+      str.append("\n");
+    }
+    return str.toString();
+  }
+
+  private int numArcs() {
+    int numArcs = 0;
+    for(int v = nextId(0); v >= 0; v = nextId(v+1)) {
+      numArcs += degree(v);
+    }
+    return numArcs;
+  }
+
+  private int idOf(T element) {
+    if(!contains(element)) {
+      throw new NoSuchElementException(String.format("Node %s not in graph.", element));
+    }
+    return graph.indexOf(element);
+  }
+}
@@ -18,7 +18,7 @@ import java.util.NoSuchElementException;
 * An UndirectedGraph is composed of elements which are the vertices and the edges between them. The
 * elements in the graph must be unique.
 * @see com.aaronpmaus.jMath.graph.Graph
-* @version 0.14.0
+* @version 0.15.0
 * @since 0.1.0
 */
 public class UndirectedGraph<T extends Comparable<? super T>> extends Graph<T>{
@@ -228,6 +228,17 @@ public class UndirectedGraph<T extends Comparable<? super T>> extends Graph<T>{
     super.addEdge(end, start, weight);
   }
 
+  /**
+  * {@inheritDoc}
+  * Every edge in an UndirectedGraph is stored in both directions, so these are the neighbors of
+  * node, and removing a vertex takes time proportional to its degree.
+  * @since 0.15.0
+  */
+  @Override
+  protected Collection<Node<T>> getNodesWithEdgesTo(Node<T> node) {
+    return new ArrayList<Node<T>>(node.getNeighbors());
+  }
+
   /**
   * A method to return the degeneracy ordering of a graph.
   * <p>
@@ -235,23 +246,24 @@ public class UndirectedGraph<T extends Comparable<? super T>> extends Graph<T>{
   * Until the graph is empty: <br>
   * add the vertex with the smallest degree to the ordering <br>
   * remove that vertex from the graph<br>
+  * The vertices are kept in buckets by their degree, so the ordering takes O(n + m) time. The
+  * graph itself is neither copied nor modified.
   * @return an ArrayList of elements representing the degeneracy ordering. The smallest vertex is at
   * the 0th index
   * @since 0.14.0
   */
   public ArrayList<T> degeneracyOrdering( ) {
-    ArrayList<T> vertexOrdering = new ArrayList<T>(this.size());
-    // Build the Degeneracy Vertex Ordering
-    UndirectedGraph<T> temp = new UndirectedGraph<T>(this);
-    while(temp.size() > 0) {
-      // get the node with the smallest degree in temp
-      Node<T> theSmallestVertex = Collections.min(temp.getNodes());
-      // add the original node reference to vertexOrdering
-      vertexOrdering.add(theSmallestVertex.get());
-      // remove the node from temp
-      temp.removeVertex(theSmallestVertex.get());
-    }
-    return vertexOrdering;
+    return coreDecomposition().getOrdering();
+  }
+
+  /**
+  * Computes the core number of every vertex of this graph along with its degeneracy ordering.
+  * @return the CoreDecomposition of this graph
+  * @see CoreDecomposition
+  * @since 0.15.0
+  */
+  public CoreDecomposition<T> coreDecomposition() {
+    return new CoreDecomposition<T>(this);
   }
 
   /**
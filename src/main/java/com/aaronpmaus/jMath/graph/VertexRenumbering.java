@@ -0,0 +1,346 @@
+package com.aaronpmaus.jMath.graph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+* A renumbering of the vertices of a graph, which gives each element a new contiguous integer id.
+* <p>
+* The ids of a BitSetUndirectedGraph, a CsrGraph and a SubgraphView follow the order the elements
+* were added in, which for a graph built from an UndirectedGraph is the iteration order of its
+* HashMap. A renumbering puts vertices that are searched together next to each other, so that the
+* rows of bits and neighbor lists a search touches are read in order instead of all over memory.
+* The renumbering is either given as a list of elements or computed from a graph with one of the
+* following orders:
+* <ul>
+* <li>DEGENERACY, the reverse of the degeneracy ordering. The vertices of the densest core of the
+* graph come first, which is the order bitset max clique solvers color and branch in.</li>
+* <li>DEGREE, the vertices from the highest degree to the lowest.</li>
+* <li>REVERSE_CUTHILL_MCKEE, the reverse Cuthill-McKee order (Cuthill and McKee 1969, George 1971).
+* Each connected component is searched breadth first from a vertex of smallest degree, visiting the
+* neighbors of each vertex from the smallest degree up, and the order is reversed. Neighbors end up
+* with nearby ids, which keeps the bits of each row of the adjacency matrix close together.</li>
+* </ul>
+* <p>
+* renumber builds a copy of a graph whose ids follow the renumbering. relabel builds a copy of an
+* UndirectedGraph whose elements are the ids themselves, numbered from 1 as in a DIMACS file, and
+* toOriginal translates the labels of a clique found in it back to the original elements.
+* @version 0.15.0
+* @since 0.15.0
+*/
+public final class VertexRenumbering<T extends Comparable<? super T>> {
+  private final List<T> ordering;
+  private final HashMap<T, Integer> ids;
+
+  /**
+  * The orders a VertexRenumbering can compute from a graph.
+  * @since 0.15.0
+  */
+  public enum Order {
+    /** The reverse of the degeneracy ordering, so the vertices of the densest core come first. */
+    DEGENERACY,
+    /** From the highest degree to the lowest. Vertices of equal degree keep their order. */
+    DEGREE,
+    /** The reverse Cuthill-McKee order, which gives neighbors nearby ids. */
+    REVERSE_CUTHILL_MCKEE
+  }
+
+  /**
+  * Build a renumbering that gives the element at index i of ordering the id i.
+  * @param ordering the elements in order of their new ids
+  * @throws IllegalArgumentException if an element repeats
+  * @since 0.15.0
+  */
+  public VertexRenumbering(List<T> ordering) {
+    this.ordering = Collections.unmodifiableList(new ArrayList<T>(ordering));
+    this.ids = new HashMap<T, Integer>((int)(this.ordering.size()/0.75)+1);
+    for(int i = 0; i < this.ordering.size(); i++) {
+      if(this.ids.put(this.ordering.get(i), i) != null) {
+        throw new IllegalArgumentException("The elements in a renumbering must be unique.");
+      }
+    }
+  }
+
+  /**
+  * Build a renumbering of the vertices of an UndirectedGraph in the order given.
+  * @param graph the graph to renumber
+  * @param order the order to number the vertices in
+  * @since 0.15.0
+  */
+  public VertexRenumbering(UndirectedGraph<T> graph, Order order) {
+    this(new CsrGraph<T>(graph), order);
+  }
+
+  /**
+  * Build a renumbering of the vertices of a BitSetUndirectedGraph in the order given.
+  * @param graph the graph to renumber
+  * @param order the order to number the vertices in
+  * @since 0.15.0
+  */
+  public VertexRenumbering(BitSetUndirectedGraph<T> graph, Order order) {
+    this(new CsrGraph<T>(graph), order);
+  }
+
+  /**
+  * Build a renumbering of the vertices of an undirected CsrGraph in the order given.
+  * @param graph the graph to renumber
+  * @param order the order to number the vertices in
+  * @throws UnsupportedOperationException if graph is directed
+  * @since 0.15.0
+  */
+  public VertexRenumbering(CsrGraph<T> graph, Order order) {
+    this(toElements(graph, order(graph, order)));
+  }
+
+  /**
+  * @return the number of vertices renumbered
+  * @since 0.15.0
+  */
+  public int size() {
+    return this.ordering.size();
+  }
+
+  /**
+  * @return the elements in order of their new ids. The list can not be modified.
+  * @since 0.15.0
+  */
+  public List<T> getOrdering() {
+    return this.ordering;
+  }
+
+  /**
+  * @param element an element that was renumbered
+  * @return the new id of element
+  * @throws NoSuchElementException if element was not renumbered
+  * @since 0.15.0
+  */
+  public int indexOf(T element) {
+    Integer id = this.ids.get(element);
+    if(id == null) {
+      throw new NoSuchElementException(String.format("Node %s not in graph.", element));
+    }
+    return id;
+  }
+
+  /**
+  * @param id a new id, from 0 to size()-1
+  * @return the element given the id
+  * @since 0.15.0
+  */
+  public T get(int id) {
+    return this.ordering.get(id);
+  }
+
+  /**
+  * Build a copy of graph whose ids follow this renumbering. The neighbors of each vertex are stored
+  * in order of their new ids, along with the weights of their arcs.
+  * @param graph a graph with the same elements as this renumbering
+  * @return the renumbered CsrGraph
+  * @throws IllegalArgumentException if graph does not have the same elements as this renumbering
+  * @since 0.15.0
+  */
+  public CsrGraph<T> renumber(CsrGraph<T> graph) {
+    checkElements(graph.getElements());
+    int n = size();
+    int[] newIds = new int[n];
+    int maxDegree = 0;
+    for(int v = 0; v < n; v++) {
+      newIds[v] = indexOf(graph.get(v));
+      maxDegree = Math.max(maxDegree, graph.degree(v));
+    }
+    int[] offsets = new int[n + 1];
+    for(int i = 0; i < n; i++) {
+      offsets[i + 1] = offsets[i] + graph.degree(graph.indexOf(get(i)));
+    }
+    int[] targets = new int[offsets[n]];
+    double[] weights = graph.isWeighted() ? new double[offsets[n]] : null;
+    // each arc is sorted by its new target, with its index among the arcs of the old vertex below
+    long[] arcs = new long[maxDegree];
+    for(int i = 0; i < n; i++) {
+      int v = graph.indexOf(get(i));
+      int degree = graph.degree(v);
+      for(int k = 0; k < degree; k++) {
+        arcs[k] = ((long)newIds[graph.neighbor(v, k)] << 32) | k;
+      }
+      Arrays.sort(arcs, 0, degree);
+      for(int k = 0; k < degree; k++) {
+        targets[offsets[i] + k] = (int)(arcs[k] >>> 32);
+        if(weights != null) {
+          weights[offsets[i] + k] = graph.weight(v, (int)arcs[k]);
+        }
+      }
+    }
+    return new CsrGraph<T>(this.ordering, offsets, targets, weights, graph.isDirected());
+  }
+
+  /**
+  * Build a copy of graph whose ids follow this renumbering.
+  * @param graph a graph with the same elements as this renumbering
+  * @return the renumbered BitSetUndirectedGraph
+  * @throws IllegalArgumentException if graph does not have the same elements as this renumbering
+  * @since 0.15.0
+  */
+  public BitSetUndirectedGraph<T> renumber(BitSetUndirectedGraph<T> graph) {
+    checkElements(graph.getElements());
+    return graph.subset(this.ordering);
+  }
+
+  /**
+  * Build a copy of graph whose elements are the new ids of its vertices plus one, so the vertices
+  * are labeled 1 to size() as in a DIMACS file. Edge weights are kept.
+  * @param graph a graph with the same elements as this renumbering
+  * @return the relabeled UndirectedGraph
+  * @throws IllegalArgumentException if graph does not have the same elements as this renumbering
+  * @see #toOriginal(Collection)
+  * @since 0.15.0
+  */
+  public UndirectedGraph<Integer> relabel(UndirectedGraph<T> graph) {
+    checkElements(graph.getElements());
+    UndirectedGraph<Integer> relabeled = new UndirectedGraph<Integer>(size());
+    for(int i = 0; i < size(); i++) {
+      relabeled.addVertex(i + 1, graph.getNode(get(i)).numNeighbors());
+    }
+    for(int i = 0; i < size(); i++) {
+      for(Edge<T> edge : graph.getNode(get(i)).getEdges()) {
+        int j = indexOf(edge.getEnd().get());
+        if(i < j) {
+          relabeled.addEdge(i + 1, j + 1, edge.getWeight());
+        }
+      }
+    }
+    relabeled.setGraphFileName(graph.getGraphFileName());
+    return relabeled;
+  }
+
+  /**
+  * Translate the labels of vertices in a graph built by relabel back to their original elements.
+  * @param labels labels from 1 to size()
+  * @return the original elements, in the order of labels
+  * @throws IndexOutOfBoundsException if a label is not from 1 to size()
+  * @since 0.15.0
+  */
+  public List<T> toOriginal(Collection<Integer> labels) {
+    ArrayList<T> elements = new ArrayList<T>(labels.size());
+    for(Integer label : labels) {
+      elements.add(get(label - 1));
+    }
+    return elements;
+  }
+
+  /*
+  * Returns the ids of the vertices of graph in order.
+  */
+  static int[] order(CsrGraph<?> graph, Order order) {
+    if(graph.isDirected()) {
+      throw new UnsupportedOperationException("A vertex order needs an undirected graph.");
+    }
+    if(order == Order.DEGENERACY) {
+      int[] ids = graph.degeneracyOrder();
+      reverse(ids);
+      return ids;
+    } else if(order == Order.DEGREE) {
+      return byDegree(graph, true);
+    }
+    return reverseCuthillMcKee(graph);
+  }
+
+  /*
+  * The ids of graph sorted by degree, from the largest down if descending and from the smallest up
+  * otherwise. A counting sort, so vertices of equal degree are in order of their ids.
+  */
+  private static int[] byDegree(CsrGraph<?> graph, boolean descending) {
+    int n = graph.size();
+    int maxDegree = 0;
+    for(int v = 0; v < n; v++) {
+      maxDegree = Math.max(maxDegree, graph.degree(v));
+    }
+    int[] keys = new int[n];
+    int[] bucketStart = new int[maxDegree + 2];
+    for(int v = 0; v < n; v++) {
+      keys[v] = descending ? maxDegree - graph.degree(v) : graph.degree(v);
+      bucketStart[keys[v] + 1]++;
+    }
+    for(int d = 1; d <= maxDegree + 1; d++) {
+      bucketStart[d] += bucketStart[d - 1];
+    }
+    int[] ids = new int[n];
+    for(int v = 0; v < n; v++) {
+      ids[bucketStart[keys[v]]++] = v;
+    }
+    return ids;
+  }
+
+  /*
+  * Breadth first search each component from its vertex of smallest degree, visiting the neighbors
+  * of each vertex from the smallest degree up, then reverse the order the vertices were visited in.
+  */
+  private static int[] reverseCuthillMcKee(CsrGraph<?> graph) {
+    int n = graph.size();
+    int[] starts = byDegree(graph, false);
+    boolean[] visited = new boolean[n];
+    int[] ids = new int[n];
+    int maxDegree = 0;
+    for(int v = 0; v < n; v++) {
+      maxDegree = Math.max(maxDegree, graph.degree(v));
+    }
+    long[] neighbors = new long[maxDegree];
+    int tail = 0;
+    for(int start : starts) {
+      if(visited[start]) {
+        continue;
+      }
+      visited[start] = true;
+      int head = tail;
+      ids[tail++] = start;
+      while(head < tail) {
+        int v = ids[head++];
+        int count = 0;
+        for(int k = 0; k < graph.degree(v); k++) {
+          int u = graph.neighbor(v, k);
+          if(!visited[u]) {
+            visited[u] = true;
+            neighbors[count++] = ((long)graph.degree(u) << 32) | u;
+          }
+        }
+        Arrays.sort(neighbors, 0, count);
+        for(int k = 0; k < count; k++) {
+          ids[tail++] = (int)neighbors[k];
+        }
+      }
+    }
+    reverse(ids);
+    return ids;
+  }
+
+  private static void reverse(int[] ids) {
+    for(int i = 0, j = ids.length - 1; i < j; i++, j--) {
+      int id = ids[i];
+      ids[i] = ids[j];
+      ids[j] = id;
+    }
+  }
+
+  private static <T extends Comparable<? super T>> List<T> toElements(CsrGraph<T> graph,
+      int[] ids) {
+    ArrayList<T> elements = new ArrayList<T>(ids.length);
+    for(int id : ids) {
+      elements.add(graph.get(id));
+    }
+    return elements;
+  }
+
+  private void checkElements(List<T> elements) {
+    if(elements.size() != size()) {
+      throw new IllegalArgumentException("The graph does not have the elements renumbered.");
+    }
+    for(T element : elements) {
+      if(!this.ids.containsKey(element)) {
+        throw new IllegalArgumentException("The graph does not have the elements renumbered.");
+      }
+    }
+  }
+}
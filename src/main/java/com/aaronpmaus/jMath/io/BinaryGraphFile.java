@@ -0,0 +1,387 @@
+package com.aaronpmaus.jMath.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.aaronpmaus.jMath.graph.CsrGraph;
+import com.aaronpmaus.jMath.graph.Node;
+import com.aaronpmaus.jMath.graph.UndirectedGraph;
+
+/**
+* A graph stored in the jMath binary graph format.
+* <p>
+* The format is a compressed sparse row (CSR) adjacency structure that can be memory mapped and
+* read with bulk copies into int arrays, so loading a graph does not parse any text or create an
+* object per edge. All values are big endian. Version 1 of the format is laid out as:
+* <pre>
+* int      magic number, the bytes "JMGB"
+* int      version
+* int      flags, bit 0 is set if the edges have weights
+* int      n, the number of vertices
+* long     the number of undirected edges
+* int[n]   the elements of the vertices, in increasing order
+* int[n+1] offsets: the neighbors of vertex i are neighbors[offsets[i]] to neighbors[offsets[i+1]-1]
+* int[]    neighbors, the indices of the neighboring vertices. Every edge appears once for each
+*          of its ends, and each vertex's neighbors are in increasing order.
+* double[] weights, in the same order as neighbors. Only present if the weight flag is set.
+* </pre>
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class BinaryGraphFile {
+  /**
+  * The first four bytes of every binary graph file, "JMGB".
+  * @since 0.15.0
+  */
+  public static final int MAGIC = 0x4A4D4742;
+
+  /**
+  * The version of the format written by write.
+  * @since 0.15.0
+  */
+  public static final int VERSION = 1;
+
+  private static final int WEIGHTED_FLAG = 1;
+  private static final int HEADER_BYTES = 24;
+  // the largest region of a file that is mapped at once. A multiple of 8 so that no value is split.
+  private static final int MAX_MAPPED_BYTES = 1 << 30;
+
+  private final int[] vertices;
+  private final int[] offsets;
+  private final int[] neighbors;
+  private final double[] weights;
+  private final long numEdges;
+
+  private BinaryGraphFile(int[] vertices, int[] offsets, int[] neighbors, double[] weights,
+      long numEdges) {
+    this.vertices = vertices;
+    this.offsets = offsets;
+    this.neighbors = neighbors;
+    this.weights = weights;
+    this.numEdges = numEdges;
+  }
+
+  /**
+  * Builds the CSR arrays of a graph. The weights of the edges are only kept if one of them is not
+  * 1.0, the weight of an edge added without one.
+  * @param graph the graph to convert
+  * @return a BinaryGraphFile holding the graph, ready to be written
+  * @since 0.15.0
+  */
+  public static BinaryGraphFile fromUndirectedGraph(UndirectedGraph<Integer> graph) {
+    int n = graph.size();
+    List<Integer> elements = graph.getElements();
+    int[] vertices = new int[n];
+    for(int i = 0; i < n; i++) {
+      vertices[i] = elements.get(i);
+    }
+    Arrays.sort(vertices);
+    Node<Integer>[] nodes = sortedNodes(graph, vertices);
+    int[] offsets = new int[n + 1];
+    for(int i = 0; i < n; i++) {
+      offsets[i + 1] = offsets[i] + nodes[i].numNeighbors();
+    }
+    int[] neighbors = new int[offsets[n]];
+    double[] weights = new double[offsets[n]];
+    boolean weighted = false;
+    for(int i = 0; i < n; i++) {
+      List<Node<Integer>> nodeAndNeighbors = nodes[i].getNodeAndNeighbors();
+      int next = offsets[i];
+      // the first node in the list is the node itself
+      for(int k = 1; k < nodeAndNeighbors.size(); k++) {
+        neighbors[next++] = Arrays.binarySearch(vertices, nodeAndNeighbors.get(k).get());
+      }
+      Arrays.sort(neighbors, offsets[i], offsets[i + 1]);
+      for(int k = offsets[i]; k < offsets[i + 1]; k++) {
+        weights[k] = nodes[i].getEdgeWeight(nodes[neighbors[k]]);
+        weighted |= weights[k] != 1.0;
+      }
+    }
+    return new BinaryGraphFile(vertices, offsets, neighbors, weighted ? weights : null,
+        graph.numEdges());
+  }
+
+  /**
+  * Memory maps and reads a binary graph file.
+  * @param fileName the name of the file to read
+  * @return the graph in the file
+  * @throws java.io.FileNotFoundException if the file does not exist
+  * @throws IOException if reading the file fails, it is not a binary graph file, it was written
+  * by a newer version of the format, it is truncated, or its offsets or neighbors are corrupt
+  * @since 0.15.0
+  */
+  public static BinaryGraphFile read(String fileName) throws IOException {
+    try(FileInputStream in = new FileInputStream(fileName); FileChannel channel = in.getChannel()) {
+      long size = channel.size();
+      if(size < HEADER_BYTES) {
+        throw new IOException(fileName + " is too short to be a binary graph file.");
+      }
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+      if(header.getInt() != MAGIC) {
+        throw new IOException(fileName + " is not a binary graph file.");
+      }
+      int version = header.getInt();
+      if(version < 1 || version > VERSION) {
+        throw new IOException(String.format(
+            "%s is version %d of the binary graph format. Only versions up to %d can be read.",
+            fileName, version, VERSION));
+      }
+      boolean weighted = (header.getInt() & WEIGHTED_FLAG) != 0;
+      int n = header.getInt();
+      long numEdges = header.getLong();
+      if(n < 0) {
+        throw new IOException(fileName + " has a negative number of vertices.");
+      }
+      long position = HEADER_BYTES;
+      int[] vertices = new int[n];
+      position = readInts(channel, position, vertices, fileName);
+      int[] offsets = new int[n + 1];
+      position = readInts(channel, position, offsets, fileName);
+      if(offsets[0] != 0) {
+        throw new IOException(String.format("%s has corrupt offsets: offset 0 is %d, not 0.",
+            fileName, offsets[0]));
+      }
+      for(int i = 1; i <= n; i++) {
+        if(offsets[i] < offsets[i - 1]) {
+          throw new IOException(String.format(
+              "%s has corrupt offsets: offset %d is %d, less than offset %d before it.",
+              fileName, i, offsets[i], offsets[i - 1]));
+        }
+      }
+      int[] neighbors = new int[offsets[n]];
+      position = readInts(channel, position, neighbors, fileName);
+      for(int i = 0; i < n; i++) {
+        for(int k = offsets[i]; k < offsets[i + 1]; k++) {
+          if(neighbors[k] < 0 || neighbors[k] >= n) {
+            throw new IOException(String.format(
+                "%s has a corrupt neighbor: neighbor %d of vertex %d is %d, not in [0, %d).",
+                fileName, k - offsets[i], i, neighbors[k], n));
+          }
+        }
+      }
+      double[] weights = null;
+      if(weighted) {
+        weights = new double[offsets[n]];
+        readDoubles(channel, position, weights, fileName);
+      }
+      return new BinaryGraphFile(vertices, offsets, neighbors, weights, numEdges);
+    }
+  }
+
+  /**
+  * Checks whether a file starts with the binary graph format's magic number.
+  * @param fileName the name of the file to check
+  * @return true if the file is a binary graph file, false otherwise
+  * @throws java.io.FileNotFoundException if the file does not exist
+  * @throws IOException if reading the file fails
+  * @since 0.15.0
+  */
+  public static boolean isBinaryGraphFile(String fileName) throws IOException {
+    try(FileInputStream in = new FileInputStream(fileName); FileChannel channel = in.getChannel()) {
+      ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+      int numRead = 0;
+      while(magic.hasRemaining() && numRead != -1) {
+        numRead = channel.read(magic);
+      }
+      return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+    }
+  }
+
+  /**
+  * Writes this graph to a file in the binary graph format.
+  * @param fileName the name of the file to write
+  * @throws IOException if writing the file fails
+  * @since 0.15.0
+  */
+  public void write(String fileName) throws IOException {
+    try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(fileName), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(isWeighted() ? WEIGHTED_FLAG : 0);
+      out.writeInt(numVertices());
+      out.writeLong(this.numEdges);
+      for(int v : this.vertices) {
+        out.writeInt(v);
+      }
+      for(int offset : this.offsets) {
+        out.writeInt(offset);
+      }
+      for(int neighbor : this.neighbors) {
+        out.writeInt(neighbor);
+      }
+      if(isWeighted()) {
+        for(double weight : this.weights) {
+          out.writeDouble(weight);
+        }
+      }
+    }
+  }
+
+  /**
+  * Builds an UndirectedGraph of this graph. Each vertex is sized for its degree before its edges
+  * are added.
+  * @return an UndirectedGraph{@literal <Integer>} of this graph
+  * @since 0.15.0
+  */
+  public UndirectedGraph<Integer> toUndirectedGraph() {
+    int n = numVertices();
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>(n);
+    // box each vertex once rather than once per edge
+    Integer[] elements = new Integer[n];
+    for(int i = 0; i < n; i++) {
+      elements[i] = this.vertices[i];
+      graph.addVertex(elements[i], this.offsets[i + 1] - this.offsets[i]);
+    }
+    for(int i = 0; i < n; i++) {
+      for(int k = this.offsets[i]; k < this.offsets[i + 1]; k++) {
+        int j = this.neighbors[k];
+        // each edge is stored from both of its ends and addEdge adds both directions
+        if(i <= j) {
+          if(this.weights == null) {
+            graph.addEdge(elements[i], elements[j]);
+          } else {
+            graph.addEdge(elements[i], elements[j], this.weights[k]);
+          }
+        }
+      }
+    }
+    return graph;
+  }
+
+  /**
+  * Builds a CsrGraph of this graph. The arrays read from the file are used by the CsrGraph as they
+  * are, so no object is created per edge. The ids of the vertices are in increasing order of their
+  * elements.
+  * @return an undirected CsrGraph{@literal <Integer>} of this graph
+  * @since 0.15.0
+  */
+  public CsrGraph<Integer> toCsrGraph() {
+    ArrayList<Integer> elements = new ArrayList<Integer>(numVertices());
+    for(int v : this.vertices) {
+      elements.add(v);
+    }
+    return new CsrGraph<Integer>(elements, this.offsets, this.neighbors, this.weights, false);
+  }
+
+  /**
+  * @return the number of vertices in the graph
+  * @since 0.15.0
+  */
+  public int numVertices() {
+    return this.vertices.length;
+  }
+
+  /**
+  * @return the number of undirected edges in the graph
+  * @since 0.15.0
+  */
+  public long numEdges() {
+    return this.numEdges;
+  }
+
+  /**
+  * @return true if the edges have weights
+  * @since 0.15.0
+  */
+  public boolean isWeighted() {
+    return this.weights != null;
+  }
+
+  /**
+  * Returns the elements of the vertices in increasing order. Modification of this array is UNSAFE.
+  * @return the elements of the vertices
+  * @since 0.15.0
+  */
+  public int[] getVertices() {
+    return this.vertices;
+  }
+
+  /**
+  * Returns the offsets of each vertex's neighbors. Modification of this array is UNSAFE.
+  * @return an array of numVertices()+1 offsets into getNeighbors()
+  * @since 0.15.0
+  */
+  public int[] getOffsets() {
+    return this.offsets;
+  }
+
+  /**
+  * Returns the indices of the neighbors of every vertex. Modification of this array is UNSAFE.
+  * @return the neighbors of vertex i at getOffsets()[i] up to getOffsets()[i+1]
+  * @since 0.15.0
+  */
+  public int[] getNeighbors() {
+    return this.neighbors;
+  }
+
+  /**
+  * Returns the weights of the edges in the same order as getNeighbors(). Modification of this array
+  * is UNSAFE.
+  * @return the weights, or null if the edges do not have weights
+  * @since 0.15.0
+  */
+  public double[] getWeights() {
+    return this.weights;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Node<Integer>[] sortedNodes(UndirectedGraph<Integer> graph, int[] vertices) {
+    Node<Integer>[] nodes = (Node<Integer>[]) new Node<?>[vertices.length];
+    for(Node<Integer> node : graph) {
+      nodes[Arrays.binarySearch(vertices, node.get())] = node;
+    }
+    return nodes;
+  }
+
+  /*
+  * Fills values with the ints starting at position in the channel and returns the position after
+  * them.
+  */
+  private static long readInts(FileChannel channel, long position, int[] values, String fileName)
+      throws IOException {
+    int copied = 0;
+    while(copied < values.length) {
+      int count = Math.min(values.length - copied, MAX_MAPPED_BYTES / Integer.BYTES);
+      map(channel, position, (long) count * Integer.BYTES, fileName).asIntBuffer()
+          .get(values, copied, count);
+      position += (long) count * Integer.BYTES;
+      copied += count;
+    }
+    return position;
+  }
+
+  /*
+  * Fills values with the doubles starting at position in the channel and returns the position
+  * after them.
+  */
+  private static long readDoubles(FileChannel channel, long position, double[] values,
+      String fileName) throws IOException {
+    int copied = 0;
+    while(copied < values.length) {
+      int count = Math.min(values.length - copied, MAX_MAPPED_BYTES / Double.BYTES);
+      map(channel, position, (long) count * Double.BYTES, fileName).asDoubleBuffer()
+          .get(values, copied, count);
+      position += (long) count * Double.BYTES;
+      copied += count;
+    }
+    return position;
+  }
+
+  private static MappedByteBuffer map(FileChannel channel, long position, long length,
+      String fileName) throws IOException {
+    if(position + length > channel.size()) {
+      throw new IOException(fileName + " is truncated.");
+    }
+    return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+  }
+}
@@ -0,0 +1,482 @@
+package com.aaronpmaus.jMath.io;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.aaronpmaus.jMath.graph.CsrGraph;
+import com.aaronpmaus.jMath.graph.UndirectedGraph;
+
+/**
+* A streaming parser for DIMACS graph files.
+* <p>
+* The bytes of the file are parsed directly. No Strings are created for the lines or tokens and no
+* regular expressions are used, so parsing allocates nothing per edge. Files are memory mapped
+* rather than read through a stream. The edges are stored in int arrays that are sized from the
+* number of edges on the p line.
+* <p>
+* Tokens may be separated by any number of spaces or tabs, and lines may end with \n or \r\n.
+* Comment lines, which start with c, and any other lines that are not p, e or a lines are skipped.
+* The weight of an edge may be given after its end vertex. Edge lines with too few tokens are
+* skipped.
+* <p>
+* A DimacsReader can be fed successive chunks of a file with parse, which is how files too large to
+* map at once are read. Call finish after the last chunk.
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class DimacsReader {
+  // the largest region of a file that is mapped at once
+  private static final int MAX_MAPPED_BYTES = 1 << 30;
+  private static final int STREAM_BUFFER_SIZE = 1 << 16;
+  private static final int DEFAULT_EDGE_CAPACITY = 16;
+
+  // the kinds of line the parser can be in
+  private static final int LINE_START = 0;
+  private static final int SKIPPED_LINE = 1;
+  private static final int PROBLEM_LINE = 2;
+  private static final int EDGE_LINE = 3;
+
+  private int numVertices;
+  private int numEdges;
+  private int maxVertex;
+  private int[] starts;
+  private int[] ends;
+  // null until an edge with a weight is read
+  private double[] weights;
+
+  private int lineType;
+  private int lineNumber;
+  // the index of the token being read in the current line. The keyword is token 0.
+  private int tokenIndex;
+  private boolean inToken;
+  // the integer tokens of the current line after the keyword
+  private final long[] fields;
+  // the characters of the weight of the current edge line
+  private final StringBuilder weight;
+
+  /**
+  * Constructs a DimacsReader that has not parsed anything.
+  * @since 0.15.0
+  */
+  public DimacsReader() {
+    this.starts = new int[DEFAULT_EDGE_CAPACITY];
+    this.ends = new int[DEFAULT_EDGE_CAPACITY];
+    this.fields = new long[3];
+    this.weight = new StringBuilder();
+    this.lineType = LINE_START;
+    this.lineNumber = 1;
+  }
+
+  /**
+  * Memory maps and parses a DIMACS file.
+  * @param fileName the name of the file to read
+  * @return a DimacsReader holding the edges in the file
+  * @throws java.io.FileNotFoundException if the file does not exist
+  * @throws IOException if reading the file fails
+  * @throws NumberFormatException if a vertex or count in the file is not a non-negative int
+  * @since 0.15.0
+  */
+  public static DimacsReader read(String fileName) throws IOException {
+    DimacsReader reader = new DimacsReader();
+    try(FileInputStream in = new FileInputStream(fileName); FileChannel channel = in.getChannel()) {
+      long size = channel.size();
+      for(long position = 0; position < size; position += MAX_MAPPED_BYTES) {
+        long length = Math.min(MAX_MAPPED_BYTES, size - position);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        reader.parse(buffer);
+      }
+    }
+    reader.finish();
+    return reader;
+  }
+
+  /**
+  * Parses a DIMACS file from a stream.
+  * @param in the stream to read from. It is not closed.
+  * @return a DimacsReader holding the edges in the file
+  * @throws IOException if reading from the stream fails
+  * @throws NumberFormatException if a vertex or count in the file is not a non-negative int
+  * @since 0.15.0
+  */
+  public static DimacsReader read(InputStream in) throws IOException {
+    DimacsReader reader = new DimacsReader();
+    byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+    int numRead;
+    while((numRead = in.read(buffer)) != -1) {
+      reader.parse(buffer, 0, numRead);
+    }
+    reader.finish();
+    return reader;
+  }
+
+  /**
+  * Parses the remaining bytes of a buffer. A line may be split across successive calls.
+  * @param buffer the next chunk of the file
+  * @throws NumberFormatException if a vertex or count is not a non-negative int
+  * @since 0.15.0
+  */
+  public void parse(ByteBuffer buffer) {
+    int limit = buffer.limit();
+    int i = buffer.position();
+    while(i < limit) {
+      if(this.lineType == LINE_START) {
+        int next = parseEdgeLine(buffer, i, limit);
+        if(next != i) {
+          i = next;
+          continue;
+        }
+      }
+      parseByte(buffer.get(i));
+      i++;
+    }
+    buffer.position(limit);
+  }
+
+  /**
+  * Parses length bytes from bytes starting at offset. A line may be split across successive calls.
+  * @param bytes the next chunk of the file
+  * @param offset the index of the first byte to parse
+  * @param length the number of bytes to parse
+  * @throws NumberFormatException if a vertex or count is not a non-negative int
+  * @since 0.15.0
+  */
+  public void parse(byte[] bytes, int offset, int length) {
+    parse(ByteBuffer.wrap(bytes, offset, length));
+  }
+
+  /**
+  * Finishes parsing the last line, which may not end with a newline.
+  * @since 0.15.0
+  */
+  public void finish() {
+    endLine();
+  }
+
+  /**
+  * @return the number of vertices given on the p line, or 0 if there was no p line
+  * @since 0.15.0
+  */
+  public int numVertices() {
+    return this.numVertices;
+  }
+
+  /**
+  * @return the number of edge lines that were read
+  * @since 0.15.0
+  */
+  public int numEdges() {
+    return this.numEdges;
+  }
+
+  /**
+  * @return the largest vertex that appears in an edge, or 0 if there are no edges
+  * @since 0.15.0
+  */
+  public int maxVertex() {
+    return this.maxVertex;
+  }
+
+  /**
+  * @param i the index of an edge, in the order it was read
+  * @return the vertex at the start of the edge
+  * @since 0.15.0
+  */
+  public int getStart(int i) {
+    checkEdgeIndex(i);
+    return this.starts[i];
+  }
+
+  /**
+  * @param i the index of an edge, in the order it was read
+  * @return the vertex at the end of the edge
+  * @since 0.15.0
+  */
+  public int getEnd(int i) {
+    checkEdgeIndex(i);
+    return this.ends[i];
+  }
+
+  /**
+  * @return true if any edge was given a weight
+  * @since 0.15.0
+  */
+  public boolean isWeighted() {
+    return this.weights != null;
+  }
+
+  /**
+  * @param i the index of an edge, in the order it was read
+  * @return the weight of the edge, 1.0 if it was not given one
+  * @since 0.15.0
+  */
+  public double getWeight(int i) {
+    checkEdgeIndex(i);
+    return this.weights == null ? 1.0 : this.weights[i];
+  }
+
+  /**
+  * Builds an UndirectedGraph from the edges that were read. Only vertices that are in an edge are
+  * added to the graph. Each vertex is sized for its degree before its edges are added.
+  * @return an UndirectedGraph{@literal <Integer>} of the edges that were read
+  * @since 0.15.0
+  */
+  public UndirectedGraph<Integer> toUndirectedGraph() {
+    int[] degrees = new int[this.maxVertex + 1];
+    for(int i = 0; i < this.numEdges; i++) {
+      degrees[this.starts[i]]++;
+      degrees[this.ends[i]]++;
+    }
+    // box each vertex once rather than once per edge
+    Integer[] vertices = new Integer[this.maxVertex + 1];
+    int numInEdges = 0;
+    for(int v = 0; v <= this.maxVertex; v++) {
+      if(degrees[v] > 0) {
+        vertices[v] = v;
+        numInEdges++;
+      }
+    }
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>(Math.max(this.numVertices, numInEdges));
+    for(int v = 0; v <= this.maxVertex; v++) {
+      if(degrees[v] > 0) {
+        graph.addVertex(vertices[v], degrees[v]);
+      }
+    }
+    for(int i = 0; i < this.numEdges; i++) {
+      if(this.weights == null) {
+        graph.addEdge(vertices[this.starts[i]], vertices[this.ends[i]]);
+      } else {
+        graph.addEdge(vertices[this.starts[i]], vertices[this.ends[i]], this.weights[i]);
+      }
+    }
+    return graph;
+  }
+
+  /**
+  * Builds a CsrGraph from the edges that were read, without creating an object per edge. Only
+  * vertices that are in an edge are added to the graph, and their ids are in increasing order of
+  * their vertex numbers. Repeated edges are only kept once, with the weight they were first given.
+  * @return an undirected CsrGraph{@literal <Integer>} of the edges that were read
+  * @since 0.15.0
+  */
+  public CsrGraph<Integer> toCsrGraph() {
+    int[] ids = new int[this.maxVertex + 1];
+    for(int i = 0; i < this.numEdges; i++) {
+      ids[this.starts[i]]++;
+      ids[this.ends[i]]++;
+    }
+    ArrayList<Integer> elements = new ArrayList<Integer>();
+    int[] degrees = new int[this.maxVertex + 1];
+    for(int v = 0; v <= this.maxVertex; v++) {
+      if(ids[v] > 0) {
+        degrees[elements.size()] = ids[v];
+        ids[v] = elements.size();
+        elements.add(v);
+      } else {
+        ids[v] = -1;
+      }
+    }
+    int n = elements.size();
+    int[] offsets = new int[n + 1];
+    for(int i = 0; i < n; i++) {
+      offsets[i + 1] = offsets[i] + degrees[i];
+    }
+    int[] targets = new int[offsets[n]];
+    double[] arcWeights = this.weights == null ? null : new double[offsets[n]];
+    int[] next = Arrays.copyOf(offsets, n);
+    for(int i = 0; i < this.numEdges; i++) {
+      int start = ids[this.starts[i]];
+      int end = ids[this.ends[i]];
+      if(arcWeights != null) {
+        arcWeights[next[start]] = this.weights[i];
+        arcWeights[next[end]] = this.weights[i];
+      }
+      targets[next[start]++] = end;
+      targets[next[end]++] = start;
+    }
+    // remove repeated arcs, keeping the first, and close up the gaps they leave
+    int[] lastSource = new int[n];
+    Arrays.fill(lastSource, -1);
+    int numKept = 0;
+    for(int v = 0; v < n; v++) {
+      int first = offsets[v];
+      offsets[v] = numKept;
+      for(int k = first; k < offsets[v + 1]; k++) {
+        if(lastSource[targets[k]] != v) {
+          lastSource[targets[k]] = v;
+          targets[numKept] = targets[k];
+          if(arcWeights != null) {
+            arcWeights[numKept] = arcWeights[k];
+          }
+          numKept++;
+        }
+      }
+    }
+    offsets[n] = numKept;
+    if(numKept < targets.length) {
+      targets = Arrays.copyOf(targets, numKept);
+      arcWeights = arcWeights == null ? null : Arrays.copyOf(arcWeights, numKept);
+    }
+    return new CsrGraph<Integer>(elements, offsets, targets, arcWeights, false);
+  }
+
+  /*
+  * Parses an unweighted edge line that starts at i and ends before limit without going through
+  * parseByte, since nearly every line of a large file is one. Returns the index after the line, or
+  * i if the line is anything else, is malformed or is cut off by limit, in which case it is left to
+  * parseByte.
+  */
+  private int parseEdgeLine(ByteBuffer buffer, int i, int limit) {
+    int j = i;
+    byte b = buffer.get(j++);
+    if(b != 'e' && b != 'a' && b != 'E' && b != 'A') {
+      return i;
+    }
+    long start = 0;
+    long end = 0;
+    for(int field = 0; field < 2; field++) {
+      int separatorStart = j;
+      while(j < limit && ((b = buffer.get(j)) == ' ' || b == '\t')) {
+        j++;
+      }
+      int digitStart = j;
+      long value = 0;
+      while(j < limit && (b = buffer.get(j)) >= '0' && b <= '9' && value <= Integer.MAX_VALUE) {
+        value = value * 10 + (b - '0');
+        j++;
+      }
+      if(j == separatorStart || j == digitStart || value > Integer.MAX_VALUE) {
+        return i;
+      }
+      if(field == 0) {
+        start = value;
+      } else {
+        end = value;
+      }
+    }
+    while(j < limit && ((b = buffer.get(j)) == ' ' || b == '\t' || b == '\r')) {
+      j++;
+    }
+    if(j == limit || buffer.get(j) != '\n') {
+      return i;
+    }
+    addEdge((int) start, (int) end);
+    this.lineNumber++;
+    return j + 1;
+  }
+
+  private void parseByte(byte b) {
+    if(b == '\n') {
+      endLine();
+      this.lineNumber++;
+    } else if(b == ' ' || b == '\t' || b == '\r') {
+      endToken();
+    } else if(this.lineType == LINE_START) {
+      startLine(b);
+    } else if(this.lineType != SKIPPED_LINE) {
+      if(!this.inToken) {
+        this.inToken = true;
+        if(this.tokenIndex > 0 && this.tokenIndex <= this.fields.length) {
+          this.fields[this.tokenIndex - 1] = 0;
+        }
+      }
+      if(this.tokenIndex == 0) {
+        // the keyword is longer than one character
+        this.lineType = SKIPPED_LINE;
+      } else if(this.lineType == PROBLEM_LINE) {
+        // the format of the problem, such as col or edge, is ignored
+        if(this.tokenIndex >= 2 && this.tokenIndex <= 3) {
+          appendDigit(b);
+        }
+      } else if(this.tokenIndex <= 2) {
+        appendDigit(b);
+      } else if(this.tokenIndex == 3) {
+        this.weight.append((char) b);
+      }
+    }
+  }
+
+  private void startLine(byte b) {
+    if(b == 'p') {
+      this.lineType = PROBLEM_LINE;
+    } else if(b == 'e' || b == 'a' || b == 'E' || b == 'A') {
+      this.lineType = EDGE_LINE;
+      this.weight.setLength(0);
+    } else {
+      this.lineType = SKIPPED_LINE;
+    }
+    this.tokenIndex = 0;
+    this.inToken = true;
+  }
+
+  private void appendDigit(byte b) {
+    if(b < '0' || b > '9') {
+      throw new NumberFormatException(String.format(
+          "Line %d of the DIMACS file has a number containing '%c'.", this.lineNumber, (char) b));
+    }
+    long value = this.fields[this.tokenIndex - 1] * 10 + (b - '0');
+    if(value > Integer.MAX_VALUE) {
+      throw new NumberFormatException(String.format(
+          "Line %d of the DIMACS file has a number larger than an int.", this.lineNumber));
+    }
+    this.fields[this.tokenIndex - 1] = value;
+  }
+
+  private void endToken() {
+    if(this.inToken) {
+      this.inToken = false;
+      this.tokenIndex++;
+    }
+  }
+
+  private void endLine() {
+    endToken();
+    if(this.lineType == PROBLEM_LINE && this.tokenIndex >= 4) {
+      this.numVertices = (int) this.fields[1];
+      ensureEdgeCapacity((int) this.fields[2]);
+    } else if(this.lineType == EDGE_LINE && (this.tokenIndex == 3 || this.tokenIndex == 4)) {
+      addEdge((int) this.fields[0], (int) this.fields[1]);
+    }
+    this.lineType = LINE_START;
+    this.tokenIndex = 0;
+  }
+
+  private void addEdge(int start, int end) {
+    ensureEdgeCapacity(this.numEdges + 1);
+    this.starts[this.numEdges] = start;
+    this.ends[this.numEdges] = end;
+    if(this.tokenIndex == 4) {
+      if(this.weights == null) {
+        this.weights = new double[this.starts.length];
+        Arrays.fill(this.weights, 0, this.numEdges, 1.0);
+      }
+      this.weights[this.numEdges] = Double.parseDouble(this.weight.toString());
+    } else if(this.weights != null) {
+      this.weights[this.numEdges] = 1.0;
+    }
+    this.maxVertex = Math.max(this.maxVertex, Math.max(start, end));
+    this.numEdges++;
+  }
+
+  private void ensureEdgeCapacity(int capacity) {
+    if(capacity > this.starts.length) {
+      int newCapacity = Math.max(capacity, this.starts.length * 2);
+      this.starts = Arrays.copyOf(this.starts, newCapacity);
+      this.ends = Arrays.copyOf(this.ends, newCapacity);
+      if(this.weights != null) {
+        this.weights = Arrays.copyOf(this.weights, newCapacity);
+      }
+    }
+  }
+
+  private void checkEdgeIndex(int i) {
+    if(i < 0 || i >= this.numEdges) {
+      throw new IndexOutOfBoundsException(String.format("Edge %d of %d.", i, this.numEdges));
+    }
+  }
+}
@@ -1,73 +1,136 @@
 package com.aaronpmaus.jMath.io;
 
-import java.util.Scanner;
 import java.io.FileNotFoundException;
 import java.io.File;
 import java.io.IOException;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.InputStream;
-import java.io.FileInputStream;
+import java.io.UncheckedIOException;
 
+import com.aaronpmaus.jMath.graph.CsrGraph;
 import com.aaronpmaus.jMath.graph.UndirectedGraph;
 import com.aaronpmaus.jMath.graph.Edge;
 
 /**
-* This class provides static methods to read and write graphs to and from DIMACS files.
-* @version 0.10.0
+* This class provides static methods to read and write graphs to and from DIMACS files and binary
+* graph files.
+* @version 0.15.0
 * @since 0.1.0
 */
 public class GraphIO{
 
   /**
   * Read in and build and UndirectedGraph{@literal <Integer>}from a DIMACS file.
+  * <p>
+  * The stream is parsed by a DimacsReader, which tolerates tabs and runs of spaces between tokens.
   * @param inputStream the InputStream to read from
   * @param graphFileName the filename of the graph
   * @return the UndirectedGraph{@literal <Integer>} from that file
+  * @throws UncheckedIOException if reading from the stream fails
+  * @throws NumberFormatException if a vertex or count in the file is not a non-negative int
+  * @see DimacsReader
+  * @version 0.15.0
   * @since 0.10.0
   */
   public static UndirectedGraph<Integer> readFromDimacsFile(InputStream inputStream, String graphFileName) {
-    Scanner fileReader = new Scanner(inputStream);
-    int numNodes = 0;
-    int numEdges = 0;
-    UndirectedGraph<Integer> graph;
-    while(fileReader.hasNextLine()) {
-      String line = fileReader.nextLine();
-      String[] tokens = line.split(" ");
-      if(tokens[0].equals("p")) {
-        numNodes = Integer.parseInt(tokens[2]);
-        numEdges = Integer.parseInt(tokens[3]);
-        break;
-      }
+    try {
+      UndirectedGraph<Integer> graph = DimacsReader.read(inputStream).toUndirectedGraph();
+      graph.setGraphFileName(graphFileName);
+      return graph;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
-    graph = new UndirectedGraph<Integer>(numNodes);
-    graph.setGraphFileName(graphFileName);
-    while(fileReader.hasNextLine()) {
-      String line = fileReader.nextLine();
-      String[] tokens = line.split(" ");
-      tokens[0] = tokens[0].toLowerCase();
-      // e for edge and a for arc. both can be used to indicate an edge in the graph
-      if(tokens[0].equals("e") || tokens[0].equals("a")) {
-        if(tokens.length == 3) {
-          graph.addEdge(new Integer(tokens[1]), new Integer(tokens[2]));
-        } else if (tokens.length == 4) {
-          graph.addEdge(new Integer(tokens[1]), new Integer(tokens[2]), new Double(tokens[3]));
-        }
-      }
-    }
-    return graph;
   }
 
   /**
   * Reads in and build and UndirectedGraph{@literal <Integer>}from a DIMACS file.
+  * <p>
+  * The file is memory mapped and parsed by a DimacsReader.
   * @param filename the name of the file to read from
   * @return the UndirectedGraph{@literal <Integer>} from that file
   * @throws FileNotFoundException if reading in the file fails
+  * @throws UncheckedIOException if reading from the file fails after it is opened
+  * @throws NumberFormatException if a vertex or count in the file is not a non-negative int
+  * @see DimacsReader
+  * @version 0.15.0
   * @since 0.1.0
   */
   public static UndirectedGraph<Integer> readFromDimacsFile(String filename) throws FileNotFoundException{
-    FileInputStream in = new FileInputStream(new File(filename));
-    return readFromDimacsFile(in, filename);
+    try {
+      UndirectedGraph<Integer> graph = DimacsReader.read(filename).toUndirectedGraph();
+      graph.setGraphFileName(filename);
+      return graph;
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+  * Reads in an UndirectedGraph{@literal <Integer>} from either a binary graph file or a DIMACS
+  * file. Binary graph files are recognized by their magic number, anything else is read as DIMACS.
+  * @param filename the name of the file to read from
+  * @return the UndirectedGraph{@literal <Integer>} from that file
+  * @throws FileNotFoundException if the file does not exist
+  * @throws IOException if reading the file fails
+  * @see BinaryGraphFile
+  * @since 0.15.0
+  */
+  public static UndirectedGraph<Integer> readGraphFile(String filename) throws IOException {
+    if(BinaryGraphFile.isBinaryGraphFile(filename)) {
+      return readBinary(filename);
+    }
+    return readFromDimacsFile(filename);
+  }
+
+  /**
+  * Reads in a CsrGraph{@literal <Integer>} from either a binary graph file or a DIMACS file,
+  * without building an UndirectedGraph. Binary graph files are recognized by their magic number,
+  * anything else is read as DIMACS. This is the way to load graphs that are too large for an
+  * UndirectedGraph.
+  * @param filename the name of the file to read from
+  * @return the undirected CsrGraph{@literal <Integer>} from that file
+  * @throws FileNotFoundException if the file does not exist
+  * @throws IOException if reading the file fails
+  * @see CsrGraph
+  * @since 0.15.0
+  */
+  public static CsrGraph<Integer> readCsrGraph(String filename) throws IOException {
+    if(BinaryGraphFile.isBinaryGraphFile(filename)) {
+      return BinaryGraphFile.read(filename).toCsrGraph();
+    }
+    return DimacsReader.read(filename).toCsrGraph();
+  }
+
+  /**
+  * Reads in an UndirectedGraph{@literal <Integer>} from a binary graph file. The file is memory
+  * mapped and its arrays are copied out in bulk.
+  * @param filename the name of the file to read from
+  * @return the UndirectedGraph{@literal <Integer>} from that file
+  * @throws FileNotFoundException if the file does not exist
+  * @throws IOException if reading the file fails or it is not a binary graph file
+  * @see BinaryGraphFile
+  * @since 0.15.0
+  */
+  public static UndirectedGraph<Integer> readBinary(String filename) throws IOException {
+    UndirectedGraph<Integer> graph = BinaryGraphFile.read(filename).toUndirectedGraph();
+    graph.setGraphFileName(filename);
+    return graph;
+  }
+
+  /**
+  * Writes an UndirectedGraph{@literal <Integer>} to a binary graph file. The weights of the edges
+  * are only written if one of them is not 1.0.
+  * @param theGraph the UndirectedGraph{@literal <Integer>} to write
+  * @param fileName the name of the file to write out
+  * @throws IOException if file creation fails
+  * @see BinaryGraphFile
+  * @since 0.15.0
+  */
+  public static void writeBinary(UndirectedGraph<Integer> theGraph, String fileName) throws IOException {
+    BinaryGraphFile.fromUndirectedGraph(theGraph).write(fileName);
   }
 
   /**
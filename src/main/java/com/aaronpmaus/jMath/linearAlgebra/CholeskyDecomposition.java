@@ -0,0 +1,130 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import java.lang.IllegalArgumentException;
+
+/**
+* The Cholesky decomposition of a symmetric positive definite matrix A: A = LL', where L is lower
+* triangular and L' is its transpose. It solves AX = B in about half the work of an
+* LUDecomposition, and is how to tell whether a symmetric matrix is positive definite.
+* <p>
+* L is computed a row at a time. Each of its elements is the dot product of the start of its row
+* with the start of an earlier row, so every value the decomposition reads is next to the one read
+* before it in the row-major array.
+* <p>
+* L is computed from the lower triangle of A. As each value of the lower triangle is read, it is
+* compared with its mirror in the upper triangle, so A must be exactly symmetric. A matrix that is
+* not symmetric or not positive definite can still be decomposed, but isPositiveDefinite is false
+* and solve throws an ArithmeticException.
+* @see LUDecomposition
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class CholeskyDecomposition {
+  private final double[] l;
+  private final int n;
+  private final boolean positiveDefinite;
+
+  /**
+  * Decompose matrix.
+  * @param matrix a square matrix
+  * @throws IllegalArgumentException if matrix is not square
+  * @since 0.15.0
+  */
+  public CholeskyDecomposition(Matrix matrix){
+    if(matrix.getNumRows() != matrix.getNumCols()){
+      throw new IllegalArgumentException("CholeskyDecomposition::CholeskyDecomposition() matrix "
+      + "must be square, is " + matrix.getNumRows() + " by " + matrix.getNumCols());
+    }
+    this.n = matrix.getNumRows();
+    this.l = new double[n * n];
+    double[] a = matrix.values();
+    boolean isPositiveDefinite = true;
+    for(int i = 0; i < n && isPositiveDefinite; i++){
+      int row = i * n;
+      for(int j = 0; j <= i; j++){
+        if(a[row + j] != a[j * n + i]){
+          isPositiveDefinite = false;
+          break;
+        }
+        int otherRow = j * n;
+        double sum = a[row + j];
+        for(int k = 0; k < j; k++){
+          sum -= this.l[row + k] * this.l[otherRow + k];
+        }
+        if(j < i){
+          this.l[row + j] = sum / this.l[otherRow + j];
+        } else if(sum > 0.0){
+          this.l[row + i] = Math.sqrt(sum);
+        } else {
+          isPositiveDefinite = false;
+        }
+      }
+    }
+    this.positiveDefinite = isPositiveDefinite;
+  }
+
+  /**
+  * @return true if the matrix is symmetric and positive definite
+  * @since 0.15.0
+  */
+  public boolean isPositiveDefinite(){
+    return this.positiveDefinite;
+  }
+
+  /**
+  * @return L, the lower triangular factor. Its values are not meaningful if the matrix is not
+  * positive definite.
+  * @since 0.15.0
+  */
+  public Matrix getL(){
+    return new Matrix(this.l.clone(), n, n);
+  }
+
+  /**
+  * Solve AX = B for X.
+  * @param b a matrix with as many rows as A. A column Vector is a matrix with one column.
+  * @return X, a matrix with as many rows as A and as many cols as b
+  * @throws IllegalArgumentException if b does not have as many rows as A
+  * @throws ArithmeticException if A is not symmetric positive definite
+  * @since 0.15.0
+  */
+  public Matrix solve(Matrix b){
+    if(b.getNumRows() != n){
+      throw new IllegalArgumentException("CholeskyDecomposition::solve() b must have " + n
+      + " rows, has " + b.getNumRows());
+    }
+    if(!this.positiveDefinite){
+      throw new ArithmeticException("CholeskyDecomposition::solve() the matrix is not symmetric "
+      + "positive definite");
+    }
+    int numCols = b.getNumCols();
+    double[] x = b.values().clone();
+    // solve LY = B
+    for(int k = 0; k < n; k++){
+      for(int i = 0; i < k; i++){
+        double factor = this.l[k * n + i];
+        if(factor != 0.0){
+          LUDecomposition.axpyRows(x, -factor, i, k, numCols);
+        }
+      }
+      divideRow(x, k, numCols, this.l[k * n + k]);
+    }
+    // solve L'X = Y
+    for(int k = n - 1; k >= 0; k--){
+      divideRow(x, k, numCols, this.l[k * n + k]);
+      for(int i = 0; i < k; i++){
+        double factor = this.l[k * n + i];
+        if(factor != 0.0){
+          LUDecomposition.axpyRows(x, -factor, k, i, numCols);
+        }
+      }
+    }
+    return new Matrix(x, n, numCols);
+  }
+
+  private static void divideRow(double[] x, int row, int numCols, double divisor){
+    for(int j = 0; j < numCols; j++){
+      x[row * numCols + j] /= divisor;
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import java.lang.IllegalArgumentException;
+
+/**
+* The LU decomposition of a square matrix A with partial pivoting: PA = LU, where P is a
+* permutation of the rows, L is lower triangular with ones on its diagonal and U is upper
+* triangular. It gives the determinant of A, its inverse, and solutions of AX = B.
+* <p>
+* L and U are computed in place in a single row-major array, NB columns at a time. Each block of
+* columns is factored with row swaps across the whole matrix, then the rows of U to its right are
+* solved for, and the rest of the matrix is updated with all NB columns in one pass over each of
+* its rows. Updating the trailing matrix once per block instead of once per column is what makes a
+* decomposition of a large matrix limited by arithmetic rather than by memory.
+* <p>
+* A is singular if a pivot is exactly zero. A decomposition of a singular matrix can still be
+* built, and gives a determinant of 0, but solve and inverse throw an ArithmeticException.
+* @see Matrix#solve(Matrix)
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class LUDecomposition {
+  private static final int NB = 32;
+  private final double[] lu;
+  private final int n;
+  private final int[] pivot;
+  private final int pivotSign;
+  private final boolean singular;
+
+  /**
+  * Decompose matrix.
+  * @param matrix a square matrix
+  * @throws IllegalArgumentException if matrix is not square
+  * @since 0.15.0
+  */
+  public LUDecomposition(Matrix matrix){
+    if(matrix.getNumRows() != matrix.getNumCols()){
+      throw new IllegalArgumentException("LUDecomposition::LUDecomposition() matrix must be "
+      + "square, is " + matrix.getNumRows() + " by " + matrix.getNumCols());
+    }
+    this.n = matrix.getNumRows();
+    this.lu = matrix.values().clone();
+    this.pivot = new int[n];
+    for(int i = 0; i < n; i++){
+      this.pivot[i] = i;
+    }
+    int sign = 1;
+    boolean isSingular = false;
+    double[] a = this.lu;
+    for(int blockStart = 0; blockStart < n; blockStart += NB){
+      int blockEnd = Math.min(blockStart + NB, n);
+      // factor the columns of the block, updating only those columns
+      for(int k = blockStart; k < blockEnd; k++){
+        int p = k;
+        for(int i = k + 1; i < n; i++){
+          if(Math.abs(a[i * n + k]) > Math.abs(a[p * n + k])){
+            p = i;
+          }
+        }
+        if(p != k){
+          swapRows(a, p, k);
+          int swap = this.pivot[p];
+          this.pivot[p] = this.pivot[k];
+          this.pivot[k] = swap;
+          sign = -sign;
+        }
+        double diagonal = a[k * n + k];
+        if(diagonal == 0.0){
+          isSingular = true;
+          continue;
+        }
+        for(int i = k + 1; i < n; i++){
+          int row = i * n;
+          double factor = a[row + k] / diagonal;
+          a[row + k] = factor;
+          if(factor != 0.0){
+            for(int j = k + 1; j < blockEnd; j++){
+              a[row + j] -= factor * a[k * n + j];
+            }
+          }
+        }
+      }
+      // solve for the rows of U to the right of the block
+      for(int k = blockStart; k < blockEnd; k++){
+        for(int i = k + 1; i < blockEnd; i++){
+          double factor = a[i * n + k];
+          if(factor != 0.0){
+            axpyRow(a, -factor, k * n, i * n, blockEnd, n);
+          }
+        }
+      }
+      // update the trailing matrix with every column of the block at once
+      for(int i = blockEnd; i < n; i++){
+        int row = i * n;
+        for(int k = blockStart; k < blockEnd; k++){
+          double factor = a[row + k];
+          if(factor != 0.0){
+            axpyRow(a, -factor, k * n, row, blockEnd, n);
+          }
+        }
+      }
+    }
+    this.pivotSign = sign;
+    this.singular = isSingular;
+  }
+
+  /*
+  * values[to + j] += alpha * values[from + j] for j in [start, end)
+  */
+  static void axpyRow(double[] values, double alpha, int from, int to, int start, int end){
+    for(int j = start; j < end; j++){
+      values[to + j] += alpha * values[from + j];
+    }
+  }
+
+  private void swapRows(double[] a, int first, int second){
+    int firstStart = first * n;
+    int secondStart = second * n;
+    for(int j = 0; j < n; j++){
+      double swap = a[firstStart + j];
+      a[firstStart + j] = a[secondStart + j];
+      a[secondStart + j] = swap;
+    }
+  }
+
+  /**
+  * @return true if the matrix is singular, that is a pivot was exactly zero
+  * @since 0.15.0
+  */
+  public boolean isSingular(){
+    return this.singular;
+  }
+
+  /**
+  * @return L, the lower triangular factor with ones on its diagonal
+  * @since 0.15.0
+  */
+  public Matrix getL(){
+    double[] l = new double[n * n];
+    for(int i = 0; i < n; i++){
+      System.arraycopy(this.lu, i * n, l, i * n, i);
+      l[i * n + i] = 1.0;
+    }
+    return new Matrix(l, n, n);
+  }
+
+  /**
+  * @return U, the upper triangular factor
+  * @since 0.15.0
+  */
+  public Matrix getU(){
+    double[] u = new double[n * n];
+    for(int i = 0; i < n; i++){
+      System.arraycopy(this.lu, i * n + i, u, i * n + i, n - i);
+    }
+    return new Matrix(u, n, n);
+  }
+
+  /**
+  * Return the row permutation P. Row i of PA, and of LU, is row getPivot()[i] of the matrix.
+  * @return a copy of the pivot indices
+  * @since 0.15.0
+  */
+  public int[] getPivot(){
+    return this.pivot.clone();
+  }
+
+  /**
+  * @return the determinant of the matrix
+  * @since 0.15.0
+  */
+  public double determinant(){
+    double determinant = this.pivotSign;
+    for(int i = 0; i < n; i++){
+      determinant *= this.lu[i * n + i];
+    }
+    return determinant;
+  }
+
+  /**
+  * Solve AX = B for X.
+  * @param b a matrix with as many rows as A. A column Vector is a matrix with one column.
+  * @return X, a matrix with as many rows as A and as many cols as b
+  * @throws IllegalArgumentException if b does not have as many rows as A
+  * @throws ArithmeticException if A is singular
+  * @since 0.15.0
+  */
+  public Matrix solve(Matrix b){
+    if(b.getNumRows() != n){
+      throw new IllegalArgumentException("LUDecomposition::solve() b must have " + n
+      + " rows, has " + b.getNumRows());
+    }
+    if(this.singular){
+      throw new ArithmeticException("LUDecomposition::solve() the matrix is singular");
+    }
+    int numCols = b.getNumCols();
+    double[] bValues = b.values();
+    double[] x = new double[n * numCols];
+    for(int i = 0; i < n; i++){
+      System.arraycopy(bValues, this.pivot[i] * numCols, x, i * numCols, numCols);
+    }
+    // solve LY = PB
+    for(int k = 0; k < n; k++){
+      for(int i = k + 1; i < n; i++){
+        double factor = this.lu[i * n + k];
+        if(factor != 0.0){
+          axpyRows(x, -factor, k, i, numCols);
+        }
+      }
+    }
+    // solve UX = Y
+    for(int k = n - 1; k >= 0; k--){
+      double diagonal = this.lu[k * n + k];
+      for(int j = 0; j < numCols; j++){
+        x[k * numCols + j] /= diagonal;
+      }
+      for(int i = 0; i < k; i++){
+        double factor = this.lu[i * n + k];
+        if(factor != 0.0){
+          axpyRows(x, -factor, k, i, numCols);
+        }
+      }
+    }
+    return new Matrix(x, n, numCols);
+  }
+
+  /**
+  * @return the inverse of the matrix
+  * @throws ArithmeticException if the matrix is singular
+  * @since 0.15.0
+  */
+  public Matrix inverse(){
+    return solve(new Matrix(n));
+  }
+
+  /*
+  * Row to of x += alpha * row from of x, where x has numCols cols.
+  */
+  static void axpyRows(double[] x, double alpha, int from, int to, int numCols){
+    axpyRow(x, alpha, from * numCols, to * numCols, 0, numCols);
+  }
+}
@@ -5,6 +5,8 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 
 import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
 * A 2-dimensional matrix. From the public perspective (1), Matrices are immutable. All operations
@@ -13,14 +15,23 @@ import java.text.DecimalFormat;
 * <p>
 * (1) Only Matrix and subclasses can directly modify the values. This allows Points and Vectors to
 * be transformed in 3D space directly.
+* <p>
+* The values are stored in a single primitive double array in row-major order, so the element at
+* (row, col) is at index row * getNumCols() + col. get(row, col) reads them without boxing.
+* getElement, toArray, getRowValues and getColValues still return Doubles for existing callers,
+* at the cost of boxing each value they return.
+* <p>
+* Code that would otherwise create a new Matrix on every pass of a loop can write its results into
+* a MutableMatrix it reuses instead.
+* @see MutableMatrix
 * @see com.aaronpmaus.jMath.transformations.Transformation
 * @see com.aaronpmaus.jMath.transformations.Transformable
 * @author Aaron Maus aaron@aaronpmaus.com
-* @version 0.12.0
+* @version 0.15.0
 * @since 0.1.0
 */
 public class Matrix{
-  private Double[][] matrix;
+  private double[] values;
   private int numRows;
   private int numCols;
 
@@ -36,6 +47,64 @@ public class Matrix{
     initializeMatrix(matrix);
   }
 
+  /**
+  * Construct a 2-dimensional Matrix holding the values in the 2D Array passed in.
+  *
+  * @param matrix A 2-dimensional array holding the values for the matrix. It must not
+  * be null.
+  * @throws IllegalArgumentException if the matrix is null, empty or not rectangular
+  * @since 0.15.0
+  */
+  public Matrix(double[][] matrix){
+    if(matrix == null || matrix.length == 0 || matrix[0].length == 0){
+      throw new IllegalArgumentException("Matrix::Matrix() matrix must not be null or empty");
+    }
+    this.numRows = matrix.length;
+    this.numCols = matrix[0].length;
+    this.values = new double[numRows * numCols];
+    for(int i = 0; i < numRows; i++){
+      if(matrix[i].length != numCols){
+        throw new IllegalArgumentException("Matrix::Matrix() matrix must be rectangular.\n"
+        + "matrix[0].length: " + numCols + "\n"
+        + "matrix["+i+"].length: " + matrix[i].length);
+      }
+      System.arraycopy(matrix[i], 0, this.values, i * numCols, numCols);
+    }
+  }
+
+  /**
+  * Construct a numRows by numCols Matrix from values in row-major order. The element at
+  * (row, col) is values[row * numCols + col]. The values are copied.
+  *
+  * @param numRows the number of rows
+  * @param numCols the number of cols
+  * @param values the values of the matrix, row by row
+  * @throws IllegalArgumentException if numRows or numCols is less than 1 or values.length is not
+  * numRows * numCols
+  * @since 0.15.0
+  */
+  public Matrix(int numRows, int numCols, double[] values){
+    this(copyValues(numRows, numCols, values), numRows, numCols);
+  }
+
+  private static double[] copyValues(int numRows, int numCols, double[] values){
+    if(numRows < 1 || numCols < 1 || values.length != numRows * numCols){
+      throw new IllegalArgumentException("Matrix::Matrix() a " + numRows + " by " + numCols
+      + " matrix needs " + (numRows * numCols) + " values, given " + values.length);
+    }
+    return values.clone();
+  }
+
+  /*
+  * Construct a Matrix that stores values, in row-major order, without copying them. Only for
+  * Matrices built inside this package from arrays nothing else holds.
+  */
+  Matrix(double[] values, int numRows, int numCols){
+    this.values = values;
+    this.numRows = numRows;
+    this.numCols = numCols;
+  }
+
   /**
   * Construct a column vector from the values, a matrix with values.length num rows and 1 column.
   * @param values the values to insert
@@ -55,7 +124,7 @@ public class Matrix{
   * @since 0.12.0
   */
   public Matrix(Matrix matrix){
-    this(matrix.toArray());
+    this(matrix.values.clone(), matrix.numRows, matrix.numCols);
   }
 
   private void initializeMatrix(Double[][] matrix){
@@ -63,7 +132,7 @@ public class Matrix{
     this.numRows = matrix.length;
     this.numCols = matrix[0].length;
 
-    this.matrix = new Double[numRows][numCols];
+    this.values = new double[numRows * numCols];
     for(int i = 0; i < numRows; i++){
       for(int j = 0; j < numCols; j++){
         if(matrix[i][j] == null){
@@ -71,7 +140,7 @@ public class Matrix{
           String.format("matrix[%d][%d] is null.",i,j)
           + "The matrix must not contain any null values.");
         }
-        this.matrix[i][j] = matrix[i][j];
+        this.values[i * numCols + j] = matrix[i][j];
       }
     }
   }
@@ -99,10 +168,10 @@ public class Matrix{
         throw new IllegalArgumentException("All Vectors must have the same number of rows.");
       }
     }
-    this.matrix = new Double[this.numRows][this.numCols];
+    this.values = new double[this.numRows * this.numCols];
     for(int row = 0; row < this.numRows; row++){
       for(int col = 0; col < this.numCols; col++){
-        this.matrix[row][col] = colVectors[col].getValue(row);
+        this.values[row * this.numCols + col] = colVectors[col].get(row);
       }
     }
   }
@@ -119,12 +188,8 @@ public class Matrix{
 
     this.numRows = numRows;
     this.numCols = numCols;
-    this.matrix = new Double[numRows][numCols];
-    for(int i = 0; i < numRows; i++){
-      for(int j = 0; j < numCols; j++){
-        this.matrix[i][j] = fillValue;
-      }
-    }
+    this.values = new double[numRows * numCols];
+    Arrays.fill(this.values, fillValue);
   }
 
   /**
@@ -144,15 +209,9 @@ public class Matrix{
   public Matrix(int m){
     this.numRows = m;
     this.numCols = m;
-    this.matrix = new Double[numRows][numCols];
-    for(int i = 0; i < numRows; i++){
-      for(int j = 0; j < numCols; j++){
-        if(i == j){
-          this.matrix[i][j] = 1.0;
-        } else {
-          this.matrix[i][j] = 0.0;
-        }
-      }
+    this.values = new double[numRows * numCols];
+    for(int i = 0; i < m; i++){
+      this.values[i * numCols + i] = 1.0;
     }
   }
 
@@ -166,7 +225,20 @@ public class Matrix{
   * @since 0.1.0
   */
   public Double getElement(int row, int col){
-    return this.matrix[row][col];
+    return get(row, col);
+  }
+
+  /**
+  * Return the element from the matrix specified by row and col, without boxing it.
+  *
+  * @param row the row index, must be in range [0,getNumRows()-1]
+  * @param col the col index, must be in range [0,getNumCols()-1]
+  * @return the element at the given indices
+  * @throws ArrayIndexOutOfBoundsException if row or col is out of range
+  * @since 0.15.0
+  */
+  public double get(int row, int col){
+    return this.values[index(row, col)];
   }
 
   /**
@@ -175,7 +247,27 @@ public class Matrix{
   * @param value the value to set at matrix[row][col]
   */
   protected void setElement(int row, int col, double value){
-    this.matrix[row][col] = value;
+    this.values[index(row, col)] = value;
+  }
+
+  /*
+  * The index of (row, col) in values. A col past the end of its row would otherwise read the next
+  * row, so both indices are checked.
+  */
+  private int index(int row, int col){
+    if(row < 0 || row >= this.numRows || col < 0 || col >= this.numCols){
+      throw new ArrayIndexOutOfBoundsException("(" + row + ", " + col + ") is outside a "
+      + this.numRows + " by " + this.numCols + " matrix");
+    }
+    return row * this.numCols + col;
+  }
+
+  /*
+  * The values of this matrix in row-major order. The array is not copied, so it must not be
+  * modified unless this Matrix is meant to change with it.
+  */
+  double[] values(){
+    return this.values;
   }
 
   private void validateMatrixDimensions(Number[][] matrix){
@@ -198,16 +290,13 @@ public class Matrix{
   * @since 0.11.1
   */
   public Matrix transpose(){
-    Double[][] newMat = new Double[getNumCols()][getNumRows()];
-    for(int i = 0; i < getNumRows(); i++){
-      for(int j = 0; j < getNumCols(); j++){
-        newMat[j][i] = this.getElement(i,j);
+    double[] transposed = new double[this.values.length];
+    for(int i = 0; i < this.numRows; i++){
+      for(int j = 0; j < this.numCols; j++){
+        transposed[j * this.numRows + i] = this.values[i * this.numCols + j];
       }
     }
-    //this.matrix = newMat;
-    //this.numRows = this.matrix.length;
-    //this.numCols = this.matrix[0].length;
-    return new Matrix(newMat);
+    return new Matrix(transposed, this.numCols, this.numRows);
   }
 
   /**
@@ -228,6 +317,10 @@ public class Matrix{
 
   /**
   * Performs matrix multiplication. The multiplication is THIS*OTHER.
+  * <p>
+  * Large products are computed in cache sized tiles and split across the threads of the common
+  * ForkJoinPool. Their elements sum their terms in a different order than small products do, so
+  * they can differ from a textbook triple loop in the last bits.
   * @param other the other Matrix by which to multiply this one. The multiplication is
   *    this * other.
   * @return a Matrix of dimensions this.getNumRows() by other.getNumCols() containing the results
@@ -237,30 +330,47 @@ public class Matrix{
   * @since 0.1.0
   */
   public Matrix multiply(Matrix other) throws IllegalArgumentException{
+    checkMultiplyDimensions(other);
+    return new Matrix(MatrixMultiplication.multiply(this.values, other.values, this.numRows,
+        this.numCols, other.numCols, ForkJoinPool.commonPool()), this.numRows, other.numCols);
+  }
+
+  /**
+  * Performs matrix multiplication, THIS*OTHER, on at most numThreads threads. With more than one
+  * thread, a product large enough to be split is computed on a ForkJoinPool of its own that is
+  * shut down before this returns. The result is the same as multiply(other) whatever numThreads is.
+  * @param other the other Matrix by which to multiply this one
+  * @param numThreads the number of threads to multiply with. 1 multiplies on the calling thread.
+  * @return a Matrix of dimensions this.getNumRows() by other.getNumCols() containing the results
+  *    of the multiplication.
+  * @throws IllegalArgumentException thrown if the Matrices dimensions are incompatible for matrix
+  *    multiplication or numThreads is less than 1
+  * @since 0.15.0
+  */
+  public Matrix multiply(Matrix other, int numThreads) throws IllegalArgumentException{
+    checkMultiplyDimensions(other);
+    if(numThreads < 1){
+      throw new IllegalArgumentException("Matrix::multiply() numThreads must be at least 1");
+    }
+    if(numThreads == 1 || !MatrixMultiplication.isParallel(this.numRows, this.numCols,
+        other.numCols)){
+      return new Matrix(MatrixMultiplication.multiply(this.values, other.values, this.numRows,
+          this.numCols, other.numCols, null), this.numRows, other.numCols);
+    }
+    ForkJoinPool pool = new ForkJoinPool(numThreads);
+    try{
+      return new Matrix(MatrixMultiplication.multiply(this.values, other.values, this.numRows,
+          this.numCols, other.numCols, pool), this.numRows, other.numCols);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private void checkMultiplyDimensions(Matrix other){
     if(getNumCols() != other.getNumRows()){
       throw new IllegalArgumentException("Matrix::multiply() this.getNumCols()"
       + " must equals other.getNumRows()");
     }
-
-    Double[][] newMat = new Double[getNumRows()][other.getNumCols()];
-    for(int i = 0; i < getNumRows(); i++){
-      for(int j = 0; j < other.getNumCols(); j++){
-        double dotProduct = 0.0;
-        for(int k = 0; k < getNumCols(); k++){
-          dotProduct += this.getElement(i,k) * other.getElement(k,j);
-        }
-        newMat[i][j] = dotProduct;
-
-        // It seems more elegant to get the row and col vector and perform the dot product, but
-        // efficiency is key here. Avoid instantiating new objects and creating copies of data
-        // already in memory. So we'll go through the rigamarole above instead of the simplicity
-        // below.
-        //Vector aVec = getRowVector(this, i);
-        //Vector bVec = getColVector(other, j);
-        //newMat[i][j] = aVec.dotProduct(bVec);
-      }
-    }
-    return new Matrix(newMat);
   }
 
   /**
@@ -271,13 +381,11 @@ public class Matrix{
   * @since 0.1.0
   */
   public Matrix multiply(double scalar){
-    Double[][] newMat = new Double[getNumRows()][getNumCols()];
-    for(int rowIndex = 0; rowIndex < getNumRows(); rowIndex++){
-      for(int colIndex = 0; colIndex < getNumCols(); colIndex++){
-        newMat[rowIndex][colIndex] = this.getElement(rowIndex,colIndex) * scalar;
-      }
+    double[] product = new double[this.values.length];
+    for(int i = 0; i < product.length; i++){
+      product[i] = this.values[i] * scalar;
     }
-    return new Matrix(newMat);
+    return new Matrix(product, this.numRows, this.numCols);
   }
 
   /**
@@ -293,14 +401,11 @@ public class Matrix{
       throw new IllegalArgumentException("Matrix::add(Matrix other), "
       + "other must have same dimensions as this");
     }
-    Double[][] newMat = new Double[getNumRows()][getNumCols()];
-    for(int rowIndex = 0; rowIndex < getNumRows(); rowIndex++){
-      for(int colIndex = 0; colIndex < getNumCols(); colIndex++){
-        newMat[rowIndex][colIndex] = this.getElement(rowIndex,colIndex)
-            + other.getElement(rowIndex,colIndex);
-      }
+    double[] sum = new double[this.values.length];
+    for(int i = 0; i < sum.length; i++){
+      sum[i] = this.values[i] + other.values[i];
     }
-    return new Matrix(newMat);
+    return new Matrix(sum, this.numRows, this.numCols);
   }
 
   /**
@@ -313,8 +418,57 @@ public class Matrix{
   * @since 0.5.0
   */
   public Matrix subtract(Matrix other) throws IllegalArgumentException{
-    Matrix negativeOther = other.multiply(-1.0);
-    return add(negativeOther);
+    if(this.getNumRows() != other.getNumRows() || this.getNumCols() != other.getNumCols()){
+      throw new IllegalArgumentException("Matrix::subtract(Matrix other), "
+      + "other must have same dimensions as this");
+    }
+    double[] difference = new double[this.values.length];
+    for(int i = 0; i < difference.length; i++){
+      difference[i] = this.values[i] - other.values[i];
+    }
+    return new Matrix(difference, this.numRows, this.numCols);
+  }
+
+  /**
+  * @return the determinant of this matrix, from its LUDecomposition
+  * @throws IllegalArgumentException if this matrix is not square
+  * @since 0.15.0
+  */
+  public double determinant(){
+    return new LUDecomposition(this).determinant();
+  }
+
+  /**
+  * @return the inverse of this matrix, from its LUDecomposition
+  * @throws IllegalArgumentException if this matrix is not square
+  * @throws ArithmeticException if this matrix is singular
+  * @since 0.15.0
+  */
+  public Matrix inverse(){
+    return new LUDecomposition(this).inverse();
+  }
+
+  /**
+  * Solve THIS*X = B for X. A square matrix is solved with its LUDecomposition. A matrix with more
+  * rows than cols gives the least squares solution, the X that minimizes the norm of THIS*X - B,
+  * from its QRDecomposition.
+  * <p>
+  * To solve for several B with the same matrix, decompose it once and call solve on the
+  * decomposition.
+  * @param b a matrix with as many rows as this one. A column Vector is a matrix with one column.
+  * @return X, a matrix with as many rows as this one has cols and as many cols as b
+  * @throws IllegalArgumentException if this matrix has fewer rows than cols, or b does not have
+  *    as many rows as this matrix
+  * @throws ArithmeticException if this matrix is singular or, when it has more rows than cols,
+  *    does not have full rank
+  * @see CholeskyDecomposition
+  * @since 0.15.0
+  */
+  public Matrix solve(Matrix b){
+    if(this.numRows == this.numCols){
+      return new LUDecomposition(this).solve(b);
+    }
+    return new QRDecomposition(this).solve(b);
   }
 
   /**
@@ -329,12 +483,22 @@ public class Matrix{
     Double[][] ret = new Double[getNumRows()][getNumCols()];
     for(int i = 0; i < getNumRows(); i++){
       for(int j = 0; j < getNumCols(); j++){
-        ret[i][j] = getElement(i,j);
+        ret[i][j] = this.values[i * this.numCols + j];
       }
     }
     return ret;
   }
 
+  /**
+  * Return the values of this matrix in row-major order, the element at (row, col) at index
+  * row * getNumCols() + col. Modifying this array will not change the Matrix.
+  * @return a copy of the values of this matrix
+  * @since 0.15.0
+  */
+  public double[] toRowMajorArray(){
+    return this.values.clone();
+  }
+
   /**
   * Build and returns a Vector holding the values of one of the rows of the matrix.
   *
@@ -355,7 +519,7 @@ public class Matrix{
   public Double[] getRowValues(int rowIndex){
     Double[] row = new Double[getNumCols()];
     for(int colIndex = 0; colIndex < getNumCols(); colIndex++){
-      row[colIndex] = getElement(rowIndex,colIndex);
+      row[colIndex] = get(rowIndex,colIndex);
     }
     return row;
   }
@@ -380,7 +544,7 @@ public class Matrix{
   public Double[] getColValues(int colIndex){
     Double[] col = new Double[getNumRows()];
     for(int rowIndex = 0; rowIndex < getNumRows(); rowIndex++){
-      col[rowIndex] = getElement(rowIndex,colIndex);
+      col[rowIndex] = get(rowIndex,colIndex);
     }
     return col;
   }
@@ -392,10 +556,8 @@ public class Matrix{
   */
   public int hashCode(){
     int hashCode = 1;
-    for(int i = 0; i < getNumRows(); i++){
-      for(int j = 0; j < getNumCols(); j++){
-        hashCode = 31*hashCode + (getElement(i,j)==null ? 0 : getElement(i,j).hashCode());
-      }
+    for(double value : this.values){
+      hashCode = 31*hashCode + Double.hashCode(value);
     }
     return hashCode;
   }
@@ -422,8 +584,8 @@ public class Matrix{
       for(int i = 0; i < getNumRows(); i++){
         for(int j = 0; j < getNumCols(); j++){
           try{
-            BigDecimal num1 = getBigDecimal(this.getElement(i,j)); //new BigDecimal(this.getElement(i,j), MathContext.DECIMAL128).setScale(9,BigDecimal.ROUND_HALF_EVEN);
-            BigDecimal num2 = getBigDecimal(other.getElement(i,j)); //, MathContext.DECIMAL128).setScale(9,BigDecimal.ROUND_HALF_EVEN);
+            BigDecimal num1 = getBigDecimal(this.get(i,j)); //new BigDecimal(this.getElement(i,j), MathContext.DECIMAL128).setScale(9,BigDecimal.ROUND_HALF_EVEN);
+            BigDecimal num2 = getBigDecimal(other.get(i,j)); //, MathContext.DECIMAL128).setScale(9,BigDecimal.ROUND_HALF_EVEN);
             if(! (num1.equals(num2))){
               //System.out.printf("%s\n",
               //    new DecimalFormat("0.0000000000000000000000000000000000000000").format(num1));
@@ -442,7 +604,7 @@ public class Matrix{
     return false;
   }
 
-  private BigDecimal getBigDecimal(Double value){
+  private BigDecimal getBigDecimal(double value){
     String valueStr = String.format("%f", value);
     String[] parts = valueStr.split("\\.");
     // the scale is the number of digits to preserve to the right of the decimal.
@@ -472,7 +634,7 @@ public class Matrix{
       str += "|";
       for(int j = 0; j < getNumCols(); j++){
         //str += String.format("%6.2f",getElement(i,j).doubleValue());
-        str += String.format("%6s", new DecimalFormat("0.00").format(getElement(i,j)));
+        str += String.format("%6s", new DecimalFormat("0.00").format(get(i,j)));
       }
       if(i == getNumRows()-1){
         str += "  |";
@@ -0,0 +1,239 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+* The kernels behind Matrix.multiply(Matrix), working on the row-major arrays of the matrices.
+* <p>
+* Small products use a plain i-k-j loop. Larger ones first transpose the right hand matrix so that
+* every element of the product is the dot product of two contiguous rows, then walk the product in
+* tiles of ROW_BLOCK rows by COL_BLOCK cols, summing INNER_BLOCK terms at a time, so the rows of
+* both matrices a tile reads stay in cache while it is computed. Inside a tile a 2 by 2 block of the
+* product is computed at once: each pair of values loaded is used twice and the four independent
+* sums keep the floating point units busy, which a single running sum does not. The tiles sum the
+* terms of an element in a different order than the plain loop, so a large product can differ from
+* it in the last bits. It is the same whatever the number of threads.
+* <p>
+* Above PARALLEL_THRESHOLD multiply-adds, blocks of ROW_BLOCK rows are split across the threads of
+* a ForkJoinPool. Each element is written by one task, so no locking is needed.
+* @version 0.15.0
+* @since 0.15.0
+*/
+final class MatrixMultiplication {
+  private static final int ROW_BLOCK = 64;
+  private static final int COL_BLOCK = 64;
+  private static final int INNER_BLOCK = 256;
+  // the number of multiply-adds above which the tiled kernel is used
+  private static final long BLOCKED_THRESHOLD = 32L * 32 * 32;
+  // the number of multiply-adds above which the rows are split across threads
+  private static final long PARALLEL_THRESHOLD = 128L * 128 * 128;
+
+  private MatrixMultiplication(){
+  }
+
+  /**
+  * @param numRows the number of rows of the left matrix
+  * @param inner the number of cols of the left matrix and rows of the right matrix
+  * @param numCols the number of cols of the right matrix
+  * @return true if a product of these dimensions would be split across the threads of a pool
+  */
+  static boolean isParallel(int numRows, int inner, int numCols){
+    return (long)numRows * inner * numCols >= PARALLEL_THRESHOLD && numRows > ROW_BLOCK;
+  }
+
+  /**
+  * Multiply the numRows by inner matrix a by the inner by numCols matrix b.
+  * @param a the values of the left matrix in row-major order
+  * @param b the values of the right matrix in row-major order
+  * @param numRows the number of rows of a
+  * @param inner the number of cols of a and rows of b
+  * @param numCols the number of cols of b
+  * @param pool the pool to split a large product across, or null to multiply on this thread
+  * @return the values of the numRows by numCols product in row-major order
+  */
+  static double[] multiply(double[] a, double[] b, int numRows, int inner, int numCols,
+      ForkJoinPool pool){
+    double[] product = new double[numRows * numCols];
+    multiplyInto(a, b, product, numRows, inner, numCols, null, pool);
+    return product;
+  }
+
+  /**
+  * Multiply the numRows by inner matrix a by the inner by numCols matrix b, overwriting product
+  * with the result. product must not be a or b.
+  * @param a the values of the left matrix in row-major order
+  * @param b the values of the right matrix in row-major order
+  * @param product holds the numRows by numCols product in row-major order when this returns
+  * @param numRows the number of rows of a
+  * @param inner the number of cols of a and rows of b
+  * @param numCols the number of cols of b
+  * @param scratch an array to hold the transpose of b if the product is tiled. It is used if it
+  * has at least b.length values, otherwise one is allocated. May be null.
+  * @param pool the pool to split a large product across, or null to multiply on this thread
+  * @return the array the transpose of b was put in, or scratch if the product was not tiled
+  */
+  static double[] multiplyInto(double[] a, double[] b, double[] product, int numRows, int inner,
+      int numCols, double[] scratch, ForkJoinPool pool){
+    Arrays.fill(product, 0, numRows * numCols, 0.0);
+    if((long)numRows * inner * numCols < BLOCKED_THRESHOLD){
+      multiplyRows(a, b, product, numRows, inner, numCols);
+      return scratch;
+    }
+    if(scratch == null || scratch.length < b.length){
+      scratch = new double[b.length];
+    }
+    transpose(b, scratch, inner, numCols);
+    if(pool == null || !isParallel(numRows, inner, numCols)){
+      multiplyBlocked(a, scratch, product, inner, numCols, 0, numRows);
+    } else {
+      pool.invoke(new RowBlockTask(a, scratch, product, inner, numCols, 0, numRows));
+    }
+    return scratch;
+  }
+
+  /*
+  * The i-k-j loop, which walks a row of a, a row of b and a row of the product. Each element sums
+  * its terms in order of k.
+  */
+  private static void multiplyRows(double[] a, double[] b, double[] product, int numRows,
+      int inner, int numCols){
+    for(int i = 0; i < numRows; i++){
+      int rowStart = i * numCols;
+      for(int k = 0; k < inner; k++){
+        double aik = a[i * inner + k];
+        int bRowStart = k * numCols;
+        for(int j = 0; j < numCols; j++){
+          product[rowStart + j] += aik * b[bRowStart + j];
+        }
+      }
+    }
+  }
+
+  private static void transpose(double[] values, double[] transposed, int numRows, int numCols){
+    for(int i = 0; i < numRows; i++){
+      for(int j = 0; j < numCols; j++){
+        transposed[j * numRows + i] = values[i * numCols + j];
+      }
+    }
+  }
+
+  /*
+  * Computes the rows [rowStart, rowEnd) of the product one tile at a time.
+  */
+  private static void multiplyBlocked(double[] a, double[] bTransposed, double[] product,
+      int inner, int numCols, int rowStart, int rowEnd){
+    for(int i0 = rowStart; i0 < rowEnd; i0 += ROW_BLOCK){
+      int i1 = Math.min(i0 + ROW_BLOCK, rowEnd);
+      for(int j0 = 0; j0 < numCols; j0 += COL_BLOCK){
+        int j1 = Math.min(j0 + COL_BLOCK, numCols);
+        for(int k0 = 0; k0 < inner; k0 += INNER_BLOCK){
+          int k1 = Math.min(k0 + INNER_BLOCK, inner);
+          multiplyTile(a, bTransposed, product, inner, numCols, i0, i1, j0, j1, k0, k1);
+        }
+      }
+    }
+  }
+
+  /*
+  * Adds the terms k0 to k1 of the elements in rows [i0, i1) and cols [j0, j1) of the product, two
+  * rows and two cols at a time. An odd last row or col is done on its own.
+  */
+  private static void multiplyTile(double[] a, double[] bT, double[] product, int inner,
+      int numCols, int i0, int i1, int j0, int j1, int k0, int k1){
+    int i = i0;
+    for(; i + 1 < i1; i += 2){
+      int a0 = i * inner;
+      int a1 = a0 + inner;
+      int p0 = i * numCols;
+      int p1 = p0 + numCols;
+      int j = j0;
+      for(; j + 1 < j1; j += 2){
+        int b0 = j * inner;
+        int b1 = b0 + inner;
+        double sum00 = 0.0;
+        double sum01 = 0.0;
+        double sum10 = 0.0;
+        double sum11 = 0.0;
+        for(int k = k0; k < k1; k++){
+          double x0 = a[a0 + k];
+          double x1 = a[a1 + k];
+          double y0 = bT[b0 + k];
+          double y1 = bT[b1 + k];
+          sum00 += x0 * y0;
+          sum01 += x0 * y1;
+          sum10 += x1 * y0;
+          sum11 += x1 * y1;
+        }
+        product[p0 + j] += sum00;
+        product[p0 + j + 1] += sum01;
+        product[p1 + j] += sum10;
+        product[p1 + j + 1] += sum11;
+      }
+      if(j < j1){
+        int b0 = j * inner;
+        double sum0 = 0.0;
+        double sum1 = 0.0;
+        for(int k = k0; k < k1; k++){
+          double y = bT[b0 + k];
+          sum0 += a[a0 + k] * y;
+          sum1 += a[a1 + k] * y;
+        }
+        product[p0 + j] += sum0;
+        product[p1 + j] += sum1;
+      }
+    }
+    if(i < i1){
+      int a0 = i * inner;
+      int p0 = i * numCols;
+      for(int j = j0; j < j1; j++){
+        int b0 = j * inner;
+        double sum = 0.0;
+        for(int k = k0; k < k1; k++){
+          sum += a[a0 + k] * bT[b0 + k];
+        }
+        product[p0 + j] += sum;
+      }
+    }
+  }
+
+  /*
+  * Computes the rows [rowStart, rowEnd) of the product, splitting them in half, on a boundary
+  * between blocks of rows, until a single block is left.
+  */
+  @SuppressWarnings("serial")
+  private static class RowBlockTask extends RecursiveAction {
+    private final double[] a;
+    private final double[] bTransposed;
+    private final double[] product;
+    private final int inner;
+    private final int numCols;
+    private final int rowStart;
+    private final int rowEnd;
+
+    RowBlockTask(double[] a, double[] bTransposed, double[] product, int inner, int numCols,
+        int rowStart, int rowEnd){
+      this.a = a;
+      this.bTransposed = bTransposed;
+      this.product = product;
+      this.inner = inner;
+      this.numCols = numCols;
+      this.rowStart = rowStart;
+      this.rowEnd = rowEnd;
+    }
+
+    @Override
+    protected void compute(){
+      int numRows = rowEnd - rowStart;
+      if(numRows <= ROW_BLOCK){
+        multiplyBlocked(a, bTransposed, product, inner, numCols, rowStart, rowEnd);
+        return;
+      }
+      int numBlocks = (numRows + ROW_BLOCK - 1) / ROW_BLOCK;
+      int middle = rowStart + (numBlocks / 2) * ROW_BLOCK;
+      invokeAll(new RowBlockTask(a, bTransposed, product, inner, numCols, rowStart, middle),
+          new RowBlockTask(a, bTransposed, product, inner, numCols, middle, rowEnd));
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import java.lang.IllegalArgumentException;
+import java.util.Arrays;
+
+/**
+* A Matrix whose values can be changed in place. Where Matrix returns a new Matrix from every
+* operation, a MutableMatrix is a buffer that the results of operations are written into, so a loop
+* that reuses its MutableMatrices does not allocate.
+* <p>
+* The setTo methods overwrite this matrix with the result of an operation on other matrices, which
+* may be immutable Matrices, Vectors or other MutableMatrices. The InPlace methods and axpy update
+* this matrix from its own values. Every method returns this matrix, so calls can be chained:
+* <p>
+* {@code MutableMatrix out = new MutableMatrix(3, 3);}<br>
+* {@code out.setToProduct(a, b).axpy(-1.0, c).scaleInPlace(0.5); // (a*b - c) / 2}<br>
+* <p>
+* The dimensions of a MutableMatrix never change. An operation whose result would have other
+* dimensions throws an IllegalArgumentException. Since equals and hashCode depend on the values, a
+* MutableMatrix must not be changed while it is in a HashSet or is a key of a HashMap.
+* @see Matrix
+* @see MutableVector
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class MutableMatrix extends Matrix{
+  // holds the transpose of the right hand matrix of a product large enough to be tiled
+  private double[] productScratch;
+
+  /**
+  * Construct a numRows by numCols MutableMatrix of zeros.
+  * @param numRows the number of rows
+  * @param numCols the number of cols
+  * @throws IllegalArgumentException if numRows or numCols is less than 1
+  * @since 0.15.0
+  */
+  public MutableMatrix(int numRows, int numCols){
+    super(new double[checkDimensions(numRows, numCols)], numRows, numCols);
+  }
+
+  /**
+  * Construct a MutableMatrix holding a copy of the values of matrix.
+  * @param matrix the matrix to copy
+  * @since 0.15.0
+  */
+  public MutableMatrix(Matrix matrix){
+    super(matrix.values().clone(), matrix.getNumRows(), matrix.getNumCols());
+  }
+
+  private static int checkDimensions(int numRows, int numCols){
+    if(numRows < 1 || numCols < 1){
+      throw new IllegalArgumentException("The matrix must have rows and cols.");
+    }
+    return numRows * numCols;
+  }
+
+  /**
+  * Set the element at row and col.
+  * @param row the row index, must be in range [0,getNumRows()-1]
+  * @param col the col index, must be in range [0,getNumCols()-1]
+  * @param value the new value of the element
+  * @return this matrix
+  * @throws ArrayIndexOutOfBoundsException if row or col is out of range
+  * @since 0.15.0
+  */
+  public MutableMatrix set(int row, int col, double value){
+    setElement(row, col, value);
+    return this;
+  }
+
+  /**
+  * Copy the values of other into this matrix.
+  * @param other a matrix of the same dimensions as this one
+  * @return this matrix
+  * @throws IllegalArgumentException if other does not have the same dimensions as this matrix
+  * @since 0.15.0
+  */
+  public MutableMatrix set(Matrix other){
+    checkSameDimensions(other, "set");
+    System.arraycopy(other.values(), 0, values(), 0, values().length);
+    return this;
+  }
+
+  /**
+  * Set every element of this matrix to value.
+  * @param value the value to fill this matrix with
+  * @return this matrix
+  * @since 0.15.0
+  */
+  public MutableMatrix fill(double value){
+    Arrays.fill(values(), value);
+    return this;
+  }
+
+  /**
+  * Overwrite this matrix with the product a * b. This matrix must be neither a nor b.
+  * <p>
+  * The product is computed as Matrix.multiply(Matrix) computes it, on the calling thread. A
+  * product large enough to be tiled keeps the transpose of b in an array of this matrix that is
+  * reused by later products, so it only allocates the first time.
+  * @param a the left matrix
+  * @param b the right matrix
+  * @return this matrix
+  * @throws IllegalArgumentException if a.getNumCols() is not b.getNumRows(), this matrix is not
+  * a.getNumRows() by b.getNumCols(), or this matrix is a or b
+  * @since 0.15.0
+  */
+  public MutableMatrix setToProduct(Matrix a, Matrix b){
+    if(a.getNumCols() != b.getNumRows()){
+      throw new IllegalArgumentException("MutableMatrix::setToProduct() a.getNumCols()"
+      + " must equals b.getNumRows()");
+    }
+    if(getNumRows() != a.getNumRows() || getNumCols() != b.getNumCols()){
+      throw new IllegalArgumentException("MutableMatrix::setToProduct() this must be "
+      + a.getNumRows() + " by " + b.getNumCols() + " to hold the product");
+    }
+    if(a.values() == values() || b.values() == values()){
+      throw new IllegalArgumentException("MutableMatrix::setToProduct() can not overwrite one of "
+      + "the matrices it is multiplying");
+    }
+    this.productScratch = MatrixMultiplication.multiplyInto(a.values(), b.values(), values(),
+        a.getNumRows(), a.getNumCols(), b.getNumCols(), this.productScratch, null);
+    return this;
+  }
+
+  /**
+  * Overwrite this matrix with the sum a + b. This matrix may be a or b.
+  * @param a a matrix of the same dimensions as this one
+  * @param b a matrix of the same dimensions as this one
+  * @return this matrix
+  * @throws IllegalArgumentException if a or b does not have the same dimensions as this matrix
+  * @since 0.15.0
+  */
+  public MutableMatrix setToSum(Matrix a, Matrix b){
+    checkSameDimensions(a, "setToSum");
+    checkSameDimensions(b, "setToSum");
+    double[] values = values();
+    double[] aValues = a.values();
+    double[] bValues = b.values();
+    for(int i = 0; i < values.length; i++){
+      values[i] = aValues[i] + bValues[i];
+    }
+    return this;
+  }
+
+  /**
+  * Overwrite this matrix with the difference a - b. This matrix may be a or b.
+  * @param a a matrix of the same dimensions as this one
+  * @param b a matrix of the same dimensions as this one
+  * @return this matrix
+  * @throws IllegalArgumentException if a or b does not have the same dimensions as this matrix
+  * @since 0.15.0
+  */
+  public MutableMatrix setToDifference(Matrix a, Matrix b){
+    checkSameDimensions(a, "setToDifference");
+    checkSameDimensions(b, "setToDifference");
+    double[] values = values();
+    double[] aValues = a.values();
+    double[] bValues = b.values();
+    for(int i = 0; i < values.length; i++){
+      values[i] = aValues[i] - bValues[i];
+    }
+    return this;
+  }
+
+  /**
+  * Overwrite this matrix with a * scalar. This matrix may be a.
+  * @param a a matrix of the same dimensions as this one
+  * @param scalar the value to multiply a by
+  * @return this matrix
+  * @throws IllegalArgumentException if a does not have the same dimensions as this matrix
+  * @since 0.15.0
+  */
+  public MutableMatrix setToScaled(Matrix a, double scalar){
+    checkSameDimensions(a, "setToScaled");
+    double[] values = values();
+    double[] aValues = a.values();
+    for(int i = 0; i < values.length; i++){
+      values[i] = aValues[i] * scalar;
+    }
+    return this;
+  }
+
+  /**
+  * Overwrite this matrix with the transpose of a. This matrix must not be a.
+  * @param a a matrix with as many rows as this one has cols, and as many cols as it has rows
+  * @return this matrix
+  * @throws IllegalArgumentException if the dimensions of a are not those of this matrix swapped,
+  * or this matrix is a
+  * @since 0.15.0
+  */
+  public MutableMatrix setToTranspose(Matrix a){
+    if(getNumRows() != a.getNumCols() || getNumCols() != a.getNumRows()){
+      throw new IllegalArgumentException("MutableMatrix::setToTranspose() this must be "
+      + a.getNumCols() + " by " + a.getNumRows() + " to hold the transpose");
+    }
+    if(a.values() == values()){
+      throw new IllegalArgumentException("MutableMatrix::setToTranspose() can not overwrite the "
+      + "matrix it is transposing");
+    }
+    double[] values = values();
+    double[] aValues = a.values();
+    int numRows = a.getNumRows();
+    int numCols = a.getNumCols();
+    for(int i = 0; i < numRows; i++){
+      for(int j = 0; j < numCols; j++){
+        values[j * numRows + i] = aValues[i * numCols + j];
+      }
+    }
+    return this;
+  }
+
+  /**
+  * Add other to this matrix.
+  * @param other a matrix of the same dimensions as this one
+  * @return this matrix
+  * @throws IllegalArgumentException if other does not have the same dimensions as this matrix
+  * @since 0.15.0
+  */
+  public MutableMatrix addInPlace(Matrix other){
+    return setToSum(this, other);
+  }
+
+  /**
+  * Subtract other from this matrix.
+  * @param other a matrix of the same dimensions as this one
+  * @return this matrix
+  * @throws IllegalArgumentException if other does not have the same dimensions as this matrix
+  * @since 0.15.0
+  */
+  public MutableMatrix subtractInPlace(Matrix other){
+    return setToDifference(this, other);
+  }
+
+  /**
+  * Multiply every element of this matrix by scalar.
+  * @param scalar the value to multiply this matrix by
+  * @return this matrix
+  * @since 0.15.0
+  */
+  public MutableMatrix scaleInPlace(double scalar){
+    return setToScaled(this, scalar);
+  }
+
+  /**
+  * Add alpha * x to this matrix, the BLAS axpy operation with this matrix as y.
+  * @param alpha the value to multiply x by
+  * @param x a matrix of the same dimensions as this one
+  * @return this matrix
+  * @throws IllegalArgumentException if x does not have the same dimensions as this matrix
+  * @since 0.15.0
+  */
+  public MutableMatrix axpy(double alpha, Matrix x){
+    checkSameDimensions(x, "axpy");
+    double[] values = values();
+    double[] xValues = x.values();
+    for(int i = 0; i < values.length; i++){
+      values[i] += alpha * xValues[i];
+    }
+    return this;
+  }
+
+  private void checkSameDimensions(Matrix other, String method){
+    if(getNumRows() != other.getNumRows() || getNumCols() != other.getNumCols()){
+      throw new IllegalArgumentException("MutableMatrix::" + method + "(), "
+      + "other must have same dimensions as this");
+    }
+  }
+}
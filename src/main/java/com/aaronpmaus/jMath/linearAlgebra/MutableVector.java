@@ -0,0 +1,246 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import java.lang.IllegalArgumentException;
+import java.util.Arrays;
+
+/**
+* A Vector whose values can be changed in place, the Vector counterpart of MutableMatrix. A loop
+* that writes its results into MutableVectors it reuses does not allocate.
+* <p>
+* The setTo methods overwrite this vector with the result of an operation on other vectors. The
+* InPlace methods, axpy and normalize update this vector from its own values. Every method returns
+* this vector, so calls can be chained. Vectors of the same number of dimensions can be combined
+* whether they are row or column vectors, as with Vector.add. Since equals and hashCode depend on
+* the values, a MutableVector must not be changed while it is in a HashSet or is a key of a
+* HashMap.
+* @see Vector
+* @see MutableMatrix
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class MutableVector extends Vector{
+
+  /**
+  * Construct a column MutableVector of zeros.
+  * @param numDimensions the number of dimensions
+  * @throws IllegalArgumentException if numDimensions is less than 1
+  * @since 0.15.0
+  */
+  public MutableVector(int numDimensions){
+    super(new double[checkNumDimensions(numDimensions)], true);
+  }
+
+  /**
+  * Construct a MutableVector holding a copy of the values of vector. It is a column vector if
+  * vector is.
+  * @param vector the vector to copy
+  * @since 0.15.0
+  */
+  public MutableVector(Vector vector){
+    super(vector.values().clone(), vector.isColVector());
+  }
+
+  private static int checkNumDimensions(int numDimensions){
+    if(numDimensions < 1){
+      throw new IllegalArgumentException("Vector must have atleast one dimension.");
+    }
+    return numDimensions;
+  }
+
+  /**
+  * Set the value of this vector at the given dimension.
+  * @param dimension the dimension to set. The first value is at the 0th dimension.
+  * @param value the new value
+  * @return this vector
+  * @throws IllegalArgumentException if dimension is {@code >= getNumDimensions()}
+  * @since 0.15.0
+  */
+  public MutableVector set(int dimension, double value){
+    setValue(dimension, value);
+    return this;
+  }
+
+  /**
+  * Copy the values of other into this vector.
+  * @param other a vector with the same number of dimensions as this one
+  * @return this vector
+  * @throws IllegalArgumentException if other does not have the same number of dimensions
+  * @since 0.15.0
+  */
+  public MutableVector set(Vector other){
+    checkSameDimensions(other, "set");
+    System.arraycopy(other.values(), 0, values(), 0, values().length);
+    return this;
+  }
+
+  /**
+  * Set every value of this vector to value.
+  * @param value the value to fill this vector with
+  * @return this vector
+  * @since 0.15.0
+  */
+  public MutableVector fill(double value){
+    Arrays.fill(values(), value);
+    return this;
+  }
+
+  /**
+  * Overwrite this vector with the sum a + b. This vector may be a or b.
+  * @param a a vector with the same number of dimensions as this one
+  * @param b a vector with the same number of dimensions as this one
+  * @return this vector
+  * @throws IllegalArgumentException if a or b does not have the same number of dimensions
+  * @since 0.15.0
+  */
+  public MutableVector setToSum(Vector a, Vector b){
+    checkSameDimensions(a, "setToSum");
+    checkSameDimensions(b, "setToSum");
+    double[] values = values();
+    double[] aValues = a.values();
+    double[] bValues = b.values();
+    for(int i = 0; i < values.length; i++){
+      values[i] = aValues[i] + bValues[i];
+    }
+    return this;
+  }
+
+  /**
+  * Overwrite this vector with the difference a - b. This vector may be a or b.
+  * @param a a vector with the same number of dimensions as this one
+  * @param b a vector with the same number of dimensions as this one
+  * @return this vector
+  * @throws IllegalArgumentException if a or b does not have the same number of dimensions
+  * @since 0.15.0
+  */
+  public MutableVector setToDifference(Vector a, Vector b){
+    checkSameDimensions(a, "setToDifference");
+    checkSameDimensions(b, "setToDifference");
+    double[] values = values();
+    double[] aValues = a.values();
+    double[] bValues = b.values();
+    for(int i = 0; i < values.length; i++){
+      values[i] = aValues[i] - bValues[i];
+    }
+    return this;
+  }
+
+  /**
+  * Overwrite this vector with a * scalar. This vector may be a.
+  * @param a a vector with the same number of dimensions as this one
+  * @param scalar the value to multiply a by
+  * @return this vector
+  * @throws IllegalArgumentException if a does not have the same number of dimensions
+  * @since 0.15.0
+  */
+  public MutableVector setToScaled(Vector a, double scalar){
+    checkSameDimensions(a, "setToScaled");
+    double[] values = values();
+    double[] aValues = a.values();
+    for(int i = 0; i < values.length; i++){
+      values[i] = aValues[i] * scalar;
+    }
+    return this;
+  }
+
+  /**
+  * Overwrite this vector with the product matrix * vector, treating vector as a column vector.
+  * This vector must not be vector.
+  * @param matrix a matrix with getNumDimensions() rows and vector.getNumDimensions() cols
+  * @param vector the vector to multiply
+  * @return this vector
+  * @throws IllegalArgumentException if the dimensions do not match or this vector is vector
+  * @since 0.15.0
+  */
+  public MutableVector setToProduct(Matrix matrix, Vector vector){
+    int numRows = matrix.getNumRows();
+    int numCols = matrix.getNumCols();
+    if(numCols != vector.getNumDimensions() || numRows != getNumDimensions()){
+      throw new IllegalArgumentException("MutableVector::setToProduct() a " + numRows + " by "
+      + numCols + " matrix can not multiply a vector of " + vector.getNumDimensions()
+      + " dimensions into one of " + getNumDimensions());
+    }
+    if(vector.values() == values() || matrix.values() == values()){
+      throw new IllegalArgumentException("MutableVector::setToProduct() can not overwrite the "
+      + "vector or matrix it is multiplying");
+    }
+    double[] values = values();
+    double[] matrixValues = matrix.values();
+    double[] vectorValues = vector.values();
+    for(int i = 0; i < numRows; i++){
+      int rowStart = i * numCols;
+      double sum = 0.0;
+      for(int k = 0; k < numCols; k++){
+        sum += matrixValues[rowStart + k] * vectorValues[k];
+      }
+      values[i] = sum;
+    }
+    return this;
+  }
+
+  /**
+  * Add other to this vector.
+  * @param other a vector with the same number of dimensions as this one
+  * @return this vector
+  * @throws IllegalArgumentException if other does not have the same number of dimensions
+  * @since 0.15.0
+  */
+  public MutableVector addInPlace(Vector other){
+    return setToSum(this, other);
+  }
+
+  /**
+  * Subtract other from this vector.
+  * @param other a vector with the same number of dimensions as this one
+  * @return this vector
+  * @throws IllegalArgumentException if other does not have the same number of dimensions
+  * @since 0.15.0
+  */
+  public MutableVector subtractInPlace(Vector other){
+    return setToDifference(this, other);
+  }
+
+  /**
+  * Multiply every value of this vector by scalar.
+  * @param scalar the value to multiply this vector by
+  * @return this vector
+  * @since 0.15.0
+  */
+  public MutableVector scaleInPlace(double scalar){
+    return setToScaled(this, scalar);
+  }
+
+  /**
+  * Add alpha * x to this vector, the BLAS axpy operation with this vector as y.
+  * @param alpha the value to multiply x by
+  * @param x a vector with the same number of dimensions as this one
+  * @return this vector
+  * @throws IllegalArgumentException if x does not have the same number of dimensions
+  * @since 0.15.0
+  */
+  public MutableVector axpy(double alpha, Vector x){
+    checkSameDimensions(x, "axpy");
+    double[] values = values();
+    double[] xValues = x.values();
+    for(int i = 0; i < values.length; i++){
+      values[i] += alpha * xValues[i];
+    }
+    return this;
+  }
+
+  /**
+  * Scale this vector to a unit vector pointing in the same direction, as toUnitVector does
+  * without creating a new vector.
+  * @return this vector
+  * @since 0.15.0
+  */
+  public MutableVector normalize(){
+    return scaleInPlace(1.0/magnitude());
+  }
+
+  private void checkSameDimensions(Vector other, String method){
+    if(getNumDimensions() != other.getNumDimensions()){
+      throw new IllegalArgumentException("MutableVector::" + method + "() "
+          + buildIllegalArgumentExceptionString(other.getValues()));
+    }
+  }
+}
@@ -0,0 +1,336 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import com.aaronpmaus.jMath.transformations.Transformable;
+import com.aaronpmaus.jMath.transformations.Transformation;
+
+import java.lang.IllegalArgumentException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+* A set of points in 3D space stored as a structure of arrays, one array each of the x, y and z
+* coordinates. It is the bulk counterpart of Vector3D for molecules and other systems of many
+* points that are transformed together.
+* <p>
+* Applying a Transformation to a PointCloud3D reads the rotation and translation out of its matrix
+* once, then streams over the three arrays without allocating, where transforming a Vector3D at a
+* time reads the matrix for every point. A cloud of at least PARALLEL_THRESHOLD points is split into
+* chunks of CHUNK_SIZE points that are transformed on the common ForkJoinPool.
+* <p>
+* {@code PointCloud3D atoms = new PointCloud3D(xs, ys, zs);}<br>
+* {@code atoms.applyTransformation(t);}<br>
+* {@code double x = atoms.getX(0);}<br>
+* @see Vector3D
+* @see com.aaronpmaus.jMath.transformations.Transformable
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class PointCloud3D implements Transformable {
+  /**
+  * The number of points in a chunk transformed by one task.
+  */
+  public static final int CHUNK_SIZE = 1 << 14;
+  /**
+  * The smallest number of points that applyTransformation splits across threads.
+  */
+  public static final int PARALLEL_THRESHOLD = 1 << 16;
+  private final double[] xs;
+  private final double[] ys;
+  private final double[] zs;
+
+  /**
+  * Construct a PointCloud3D of numPoints points at the origin.
+  * @param numPoints the number of points
+  * @throws IllegalArgumentException if numPoints is negative
+  * @since 0.15.0
+  */
+  public PointCloud3D(int numPoints){
+    if(numPoints < 0){
+      throw new IllegalArgumentException("PointCloud3D::PointCloud3D() numPoints can not be "
+      + "negative, is " + numPoints);
+    }
+    this.xs = new double[numPoints];
+    this.ys = new double[numPoints];
+    this.zs = new double[numPoints];
+  }
+
+  /**
+  * Construct a PointCloud3D from copies of the coordinates of its points.
+  * @param xs the x coordinates
+  * @param ys the y coordinates
+  * @param zs the z coordinates
+  * @throws IllegalArgumentException if xs, ys and zs do not have the same length
+  * @since 0.15.0
+  */
+  public PointCloud3D(double[] xs, double[] ys, double[] zs){
+    if(xs.length != ys.length || xs.length != zs.length){
+      throw new IllegalArgumentException("PointCloud3D::PointCloud3D() xs, ys and zs must have "
+      + "the same length, have " + xs.length + ", " + ys.length + " and " + zs.length);
+    }
+    this.xs = xs.clone();
+    this.ys = ys.clone();
+    this.zs = zs.clone();
+  }
+
+  /**
+  * Construct a PointCloud3D of the given points, in the order they are iterated over.
+  * @param points the points
+  * @since 0.15.0
+  */
+  public PointCloud3D(Collection<Vector3D> points){
+    this(points.size());
+    int i = 0;
+    for(Vector3D point : points){
+      setPoint(i++, point);
+    }
+  }
+
+  /**
+  * Construct a copy of a PointCloud3D.
+  * @param cloud the PointCloud3D to copy
+  * @since 0.15.0
+  */
+  public PointCloud3D(PointCloud3D cloud){
+    this(cloud.xs, cloud.ys, cloud.zs);
+  }
+
+  /**
+  * @return the number of points
+  * @since 0.15.0
+  */
+  public int size(){
+    return this.xs.length;
+  }
+
+  /**
+  * @param index the index of a point, in the range [0, size() - 1]
+  * @return the x coordinate of the point
+  * @throws ArrayIndexOutOfBoundsException if index is out of range
+  * @since 0.15.0
+  */
+  public double getX(int index){
+    return this.xs[index];
+  }
+
+  /**
+  * @param index the index of a point, in the range [0, size() - 1]
+  * @return the y coordinate of the point
+  * @throws ArrayIndexOutOfBoundsException if index is out of range
+  * @since 0.15.0
+  */
+  public double getY(int index){
+    return this.ys[index];
+  }
+
+  /**
+  * @param index the index of a point, in the range [0, size() - 1]
+  * @return the z coordinate of the point
+  * @throws ArrayIndexOutOfBoundsException if index is out of range
+  * @since 0.15.0
+  */
+  public double getZ(int index){
+    return this.zs[index];
+  }
+
+  /**
+  * @param index the index of a point, in the range [0, size() - 1]
+  * @return a new Vector3D holding the coordinates of the point
+  * @throws ArrayIndexOutOfBoundsException if index is out of range
+  * @since 0.15.0
+  */
+  public Vector3D getPoint(int index){
+    return new Vector3D(this.xs[index], this.ys[index], this.zs[index]);
+  }
+
+  /**
+  * Set the coordinates of a point.
+  * @param index the index of a point, in the range [0, size() - 1]
+  * @param x the new x coordinate
+  * @param y the new y coordinate
+  * @param z the new z coordinate
+  * @throws ArrayIndexOutOfBoundsException if index is out of range
+  * @since 0.15.0
+  */
+  public void setPoint(int index, double x, double y, double z){
+    this.xs[index] = x;
+    this.ys[index] = y;
+    this.zs[index] = z;
+  }
+
+  /**
+  * Set the coordinates of a point to those of a Vector3D.
+  * @param index the index of a point, in the range [0, size() - 1]
+  * @param point the new coordinates
+  * @throws ArrayIndexOutOfBoundsException if index is out of range
+  * @since 0.15.0
+  */
+  public void setPoint(int index, Vector3D point){
+    setPoint(index, point.get(0), point.get(1), point.get(2));
+  }
+
+  /**
+  * @return a copy of the x coordinates
+  * @since 0.15.0
+  */
+  public double[] getXs(){
+    return this.xs.clone();
+  }
+
+  /**
+  * @return a copy of the y coordinates
+  * @since 0.15.0
+  */
+  public double[] getYs(){
+    return this.ys.clone();
+  }
+
+  /**
+  * @return a copy of the z coordinates
+  * @since 0.15.0
+  */
+  public double[] getZs(){
+    return this.zs.clone();
+  }
+
+  /**
+  * @return the centroid of the points, the mean of their coordinates
+  * @throws ArithmeticException if there are no points
+  * @since 0.15.0
+  */
+  public Vector3D centroid(){
+    int numPoints = size();
+    if(numPoints == 0){
+      throw new ArithmeticException("PointCloud3D::centroid() there are no points");
+    }
+    double sumX = 0.0;
+    double sumY = 0.0;
+    double sumZ = 0.0;
+    for(int i = 0; i < numPoints; i++){
+      sumX += this.xs[i];
+      sumY += this.ys[i];
+      sumZ += this.zs[i];
+    }
+    return new Vector3D(sumX / numPoints, sumY / numPoints, sumZ / numPoints);
+  }
+
+  /**
+  * Apply a Transformation to every point. A cloud of at least PARALLEL_THRESHOLD points is
+  * transformed in chunks on the common ForkJoinPool.
+  * @param t the Transformation to apply
+  * @since 0.15.0
+  */
+  @Override
+  public void applyTransformation(Transformation t){
+    if(size() < PARALLEL_THRESHOLD){
+      transform(t.getMatrix(), 0, size());
+    } else {
+      ForkJoinPool.commonPool().invoke(new TransformTask(this, t.getMatrix(), 0, size()));
+    }
+  }
+
+  /**
+  * Apply a Transformation to every point, with the given number of threads. A cloud of fewer than
+  * PARALLEL_THRESHOLD points is transformed on the calling thread.
+  * @param t the Transformation to apply
+  * @param numThreads the number of threads to transform the points with
+  * @throws IllegalArgumentException if numThreads is less than 1
+  * @since 0.15.0
+  */
+  public void applyTransformation(Transformation t, int numThreads){
+    if(numThreads < 1){
+      throw new IllegalArgumentException("PointCloud3D::applyTransformation() numThreads must be "
+      + "at least 1");
+    }
+    if(numThreads == 1 || size() < PARALLEL_THRESHOLD){
+      transform(t.getMatrix(), 0, size());
+      return;
+    }
+    ForkJoinPool pool = new ForkJoinPool(numThreads);
+    try{
+      pool.invoke(new TransformTask(this, t.getMatrix(), 0, size()));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /*
+  * Multiply the homogeneous coordinates (x, y, z, 1) of the points in [start, end) by the 4 by 4
+  * matrix m. Only its top three rows are read, once.
+  */
+  private void transform(Matrix m, int start, int end){
+    double m00 = m.get(0, 0);
+    double m01 = m.get(0, 1);
+    double m02 = m.get(0, 2);
+    double m03 = m.get(0, 3);
+    double m10 = m.get(1, 0);
+    double m11 = m.get(1, 1);
+    double m12 = m.get(1, 2);
+    double m13 = m.get(1, 3);
+    double m20 = m.get(2, 0);
+    double m21 = m.get(2, 1);
+    double m22 = m.get(2, 2);
+    double m23 = m.get(2, 3);
+    double[] xs = this.xs;
+    double[] ys = this.ys;
+    double[] zs = this.zs;
+    for(int i = start; i < end; i++){
+      double x = xs[i];
+      double y = ys[i];
+      double z = zs[i];
+      xs[i] = m00 * x + m01 * y + m02 * z + m03;
+      ys[i] = m10 * x + m11 * y + m12 * z + m13;
+      zs[i] = m20 * x + m21 * y + m22 * z + m23;
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj){
+    if(obj instanceof PointCloud3D){
+      PointCloud3D other = (PointCloud3D)obj;
+      return Arrays.equals(this.xs, other.xs) && Arrays.equals(this.ys, other.ys)
+          && Arrays.equals(this.zs, other.zs);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode(){
+    int hash = Arrays.hashCode(this.xs);
+    hash = 31 * hash + Arrays.hashCode(this.ys);
+    return 31 * hash + Arrays.hashCode(this.zs);
+  }
+
+  /*
+  * Transforms the points in [start, end), splitting them in half until a range is at most
+  * CHUNK_SIZE points. Each point is written by one task, so no locking is needed.
+  */
+  @SuppressWarnings("serial")
+  private static final class TransformTask extends RecursiveAction {
+    private final PointCloud3D cloud;
+    private final Matrix m;
+    private final int start;
+    private final int end;
+
+    TransformTask(PointCloud3D cloud, Matrix m, int start, int end){
+      this.cloud = cloud;
+      this.m = m;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute(){
+      int numPoints = end - start;
+      if(numPoints <= CHUNK_SIZE){
+        cloud.transform(m, start, end);
+        return;
+      }
+      int numChunks = (numPoints + CHUNK_SIZE - 1) / CHUNK_SIZE;
+      int middle = start + (numChunks / 2) * CHUNK_SIZE;
+      invokeAll(new TransformTask(cloud, m, start, middle),
+          new TransformTask(cloud, m, middle, end));
+    }
+  }
+}
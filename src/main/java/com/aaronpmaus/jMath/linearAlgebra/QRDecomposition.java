@@ -0,0 +1,196 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import java.lang.IllegalArgumentException;
+
+/**
+* The QR decomposition of an m by n matrix A with m &#62;= n, computed with Householder
+* reflections: A = QR, where Q is m by n with orthonormal columns and R is n by n upper triangular.
+* It gives the least squares solution of AX = B, the X that minimizes the norm of AX - B, which is
+* the exact solution when A is square and nonsingular.
+* <p>
+* The reflections are stored in place of A in a row-major array. A reflection is applied to the
+* columns to its right in two passes down the rows: the first sums the dot products of the
+* reflection with every column at once, the second updates each row. Both read the rows in order
+* rather than striding down one column at a time.
+* @see Matrix#solve(Matrix)
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class QRDecomposition {
+  private final double[] qr;
+  private final int m;
+  private final int n;
+  private final double[] rDiagonal;
+
+  /**
+  * Decompose matrix.
+  * @param matrix a matrix with at least as many rows as cols
+  * @throws IllegalArgumentException if matrix has fewer rows than cols
+  * @since 0.15.0
+  */
+  public QRDecomposition(Matrix matrix){
+    this.m = matrix.getNumRows();
+    this.n = matrix.getNumCols();
+    if(m < n){
+      throw new IllegalArgumentException("QRDecomposition::QRDecomposition() matrix must have "
+      + "at least as many rows as cols, is " + m + " by " + n);
+    }
+    this.qr = matrix.values().clone();
+    this.rDiagonal = new double[n];
+    double[] a = this.qr;
+    double[] sums = new double[n];
+    for(int k = 0; k < n; k++){
+      double norm = columnNorm(k);
+      if(norm != 0.0){
+        if(a[k * n + k] < 0){
+          norm = -norm;
+        }
+        for(int i = k; i < m; i++){
+          a[i * n + k] /= norm;
+        }
+        a[k * n + k] += 1.0;
+        reflect(k, k + 1, n, sums, a, n);
+      }
+      this.rDiagonal[k] = -norm;
+    }
+  }
+
+  /*
+  * The norm of column k from row k down, scaled by its largest value so squaring does not
+  * overflow.
+  */
+  private double columnNorm(int k){
+    double scale = 0.0;
+    for(int i = k; i < m; i++){
+      scale = Math.max(scale, Math.abs(this.qr[i * n + k]));
+    }
+    if(scale == 0.0){
+      return 0.0;
+    }
+    double sum = 0.0;
+    for(int i = k; i < m; i++){
+      double scaled = this.qr[i * n + k] / scale;
+      sum += scaled * scaled;
+    }
+    return scale * Math.sqrt(sum);
+  }
+
+  /*
+  * Apply the reflection stored in column k of this.qr, rows k to m, to the cols [start, end) of
+  * target, a row-major array with targetCols cols. sums is scratch space of at least end values.
+  */
+  private void reflect(int k, int start, int end, double[] sums, double[] target,
+      int targetCols){
+    for(int j = start; j < end; j++){
+      sums[j] = 0.0;
+    }
+    for(int i = k; i < m; i++){
+      double vi = this.qr[i * n + k];
+      int row = i * targetCols;
+      for(int j = start; j < end; j++){
+        sums[j] += vi * target[row + j];
+      }
+    }
+    double vk = this.qr[k * n + k];
+    for(int j = start; j < end; j++){
+      sums[j] = -sums[j] / vk;
+    }
+    for(int i = k; i < m; i++){
+      double vi = this.qr[i * n + k];
+      int row = i * targetCols;
+      for(int j = start; j < end; j++){
+        target[row + j] += sums[j] * vi;
+      }
+    }
+  }
+
+  /**
+  * Return whether A has full rank. Rounding seldom leaves a dependent column with an exactly zero
+  * diagonal in R, so a diagonal value counts as zero if it is at most max(m, n) units in the last
+  * place of 1.0, the machine epsilon, times the largest one, as numpy's matrix_rank does.
+  * @return true if R, and so A, has full rank
+  * @since 0.15.0
+  */
+  public boolean isFullRank(){
+    double largest = 0.0;
+    for(double diagonal : this.rDiagonal){
+      largest = Math.max(largest, Math.abs(diagonal));
+    }
+    double tolerance = Math.max(m, n) * Math.ulp(1.0) * largest;
+    for(double diagonal : this.rDiagonal){
+      if(Math.abs(diagonal) <= tolerance){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+  * @return R, the n by n upper triangular factor
+  * @since 0.15.0
+  */
+  public Matrix getR(){
+    double[] r = new double[n * n];
+    for(int i = 0; i < n; i++){
+      r[i * n + i] = this.rDiagonal[i];
+      System.arraycopy(this.qr, i * n + i + 1, r, i * n + i + 1, n - i - 1);
+    }
+    return new Matrix(r, n, n);
+  }
+
+  /**
+  * @return Q, the m by n factor with orthonormal columns
+  * @since 0.15.0
+  */
+  public Matrix getQ(){
+    double[] q = new double[m * n];
+    double[] sums = new double[n];
+    for(int k = n - 1; k >= 0; k--){
+      q[k * n + k] = 1.0;
+      if(this.qr[k * n + k] != 0.0){
+        reflect(k, k, n, sums, q, n);
+      }
+    }
+    return new Matrix(q, m, n);
+  }
+
+  /**
+  * Find the least squares solution of AX = B, the X that minimizes the norm of AX - B.
+  * @param b a matrix with as many rows as A. A column Vector is a matrix with one column.
+  * @return X, a matrix with as many rows as A has cols and as many cols as b
+  * @throws IllegalArgumentException if b does not have as many rows as A
+  * @throws ArithmeticException if A does not have full rank
+  * @since 0.15.0
+  */
+  public Matrix solve(Matrix b){
+    if(b.getNumRows() != m){
+      throw new IllegalArgumentException("QRDecomposition::solve() b must have " + m
+      + " rows, has " + b.getNumRows());
+    }
+    if(!isFullRank()){
+      throw new ArithmeticException("QRDecomposition::solve() the matrix is rank deficient");
+    }
+    int numCols = b.getNumCols();
+    double[] x = b.values().clone();
+    double[] sums = new double[numCols];
+    // compute the transpose of Q times B
+    for(int k = 0; k < n; k++){
+      reflect(k, 0, numCols, sums, x, numCols);
+    }
+    // solve RX = the transpose of Q times B
+    for(int k = n - 1; k >= 0; k--){
+      for(int j = 0; j < numCols; j++){
+        x[k * numCols + j] /= this.rDiagonal[k];
+      }
+      for(int i = 0; i < k; i++){
+        double factor = this.qr[i * n + k];
+        if(factor != 0.0){
+          LUDecomposition.axpyRows(x, -factor, k, i, numCols);
+        }
+      }
+    }
+    double[] solution = new double[n * numCols];
+    System.arraycopy(x, 0, solution, 0, solution.length);
+    return new Matrix(solution, n, numCols);
+  }
+}
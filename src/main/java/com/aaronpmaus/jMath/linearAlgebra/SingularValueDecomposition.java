@@ -0,0 +1,353 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import java.lang.IllegalArgumentException;
+
+/**
+* The singular value decomposition of an m by n matrix A: A = USV', where, with k the smaller of m
+* and n, U is m by k and V is n by k with orthonormal columns, and S is the k by k diagonal matrix
+* of the singular values of A in descending order.
+* <p>
+* The decomposition is computed with one-sided Jacobi rotations, which make the columns of A
+* orthogonal to each other. The singular values are then the norms of the columns, and U is the
+* columns scaled to unit length. Small singular values are computed to high relative accuracy. The
+* columns are kept as rows of an array while they are rotated, so every rotation reads contiguous
+* values. When A has fewer rows than cols, its transpose is decomposed instead.
+* <p>
+* decompose3 computes the decomposition of a 3 by 3 matrix, such as the covariance of two sets of
+* points that are superposed, into MutableMatrices and a MutableVector without allocating.
+* @see SymmetricEigenDecomposition
+* @see com.aaronpmaus.jMath.transformations.Superposition
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class SingularValueDecomposition {
+  private static final int MAX_SWEEPS = 64;
+  private final double[] u;
+  private final double[] singularValues;
+  private final double[] v;
+  private final int m;
+  private final int n;
+  private final int k;
+
+  /**
+  * Decompose matrix.
+  * @param matrix an m by n matrix
+  * @throws ArithmeticException if the decomposition does not converge
+  * @since 0.15.0
+  */
+  public SingularValueDecomposition(Matrix matrix){
+    this.m = matrix.getNumRows();
+    this.n = matrix.getNumCols();
+    this.k = Math.min(m, n);
+    double[] values = matrix.values();
+    boolean transposed = m < n;
+    int rows = transposed ? n : m;
+    // the cols of the matrix to decompose, stored as the rows of w
+    double[] w;
+    if(transposed){
+      w = values.clone();
+    } else {
+      w = new double[m * n];
+      for(int i = 0; i < m; i++){
+        for(int j = 0; j < n; j++){
+          w[j * m + i] = values[i * n + j];
+        }
+      }
+    }
+    double[] vt = new double[k * k];
+    this.singularValues = new double[k];
+    decompose(w, rows, k, this.singularValues, vt);
+    // w holds the transpose of the left factor and vt the transpose of the right factor
+    double[] left = transpose(w, k, rows);
+    double[] right = transpose(vt, k, k);
+    this.u = transposed ? right : left;
+    this.v = transposed ? left : right;
+  }
+
+  private static double[] transpose(double[] values, int numRows, int numCols){
+    double[] transpose = new double[numRows * numCols];
+    for(int i = 0; i < numRows; i++){
+      for(int j = 0; j < numCols; j++){
+        transpose[j * numRows + i] = values[i * numCols + j];
+      }
+    }
+    return transpose;
+  }
+
+  /*
+  * Decompose the matrix whose cols are the n rows of length m of w, with m >= n. On return the
+  * rows of w are the left singular vectors, the rows of vt are the right singular vectors and s
+  * holds the singular values in descending order. Nothing is allocated.
+  */
+  static void decompose(double[] w, int m, int n, double[] s, double[] vt){
+    for(int i = 0; i < n * n; i++){
+      vt[i] = i % (n + 1) == 0 ? 1.0 : 0.0;
+    }
+    double eps = Math.ulp(1.0);
+    boolean rotated = true;
+    for(int sweep = 0; rotated; sweep++){
+      if(sweep == MAX_SWEEPS){
+        throw new ArithmeticException("SingularValueDecomposition::decompose() did not converge");
+      }
+      rotated = false;
+      // a col of the matrix that is not full rank converges to zero, where rounding keeps it from
+      // becoming orthogonal to the others. A pair with a col that small is not rotated.
+      double largest = 0.0;
+      for(int j = 0; j < n; j++){
+        double sum = 0.0;
+        for(int i = 0; i < m; i++){
+          sum += w[j * m + i] * w[j * m + i];
+        }
+        largest = Math.max(largest, sum);
+      }
+      double negligible = eps * eps * largest;
+      for(int p = 0; p < n - 1; p++){
+        for(int q = p + 1; q < n; q++){
+          double alpha = 0.0;
+          double beta = 0.0;
+          double gamma = 0.0;
+          for(int i = 0; i < m; i++){
+            double wp = w[p * m + i];
+            double wq = w[q * m + i];
+            alpha += wp * wp;
+            beta += wq * wq;
+            gamma += wp * wq;
+          }
+          if(gamma == 0.0 || alpha <= negligible || beta <= negligible
+              || Math.abs(gamma) <= eps * Math.sqrt(alpha * beta)){
+            continue;
+          }
+          rotated = true;
+          double zeta = (beta - alpha) / (2.0 * gamma);
+          double t = 1.0 / (Math.abs(zeta) + Math.sqrt(zeta * zeta + 1.0));
+          if(zeta < 0.0){
+            t = -t;
+          }
+          double c = 1.0 / Math.sqrt(t * t + 1.0);
+          rotateRows(w, m, p, q, c, t * c);
+          rotateRows(vt, n, p, q, c, t * c);
+        }
+      }
+    }
+    double largest = 0.0;
+    for(int j = 0; j < n; j++){
+      double sum = 0.0;
+      for(int i = 0; i < m; i++){
+        sum += w[j * m + i] * w[j * m + i];
+      }
+      s[j] = Math.sqrt(sum);
+      largest = Math.max(largest, s[j]);
+    }
+    sort(w, m, n, s, vt);
+    // a col that is zero, or rounding away from it, has no direction. Replace it with a unit vector
+    // orthogonal to the others.
+    double tolerance = m * eps * largest;
+    for(int j = 0; j < n; j++){
+      if(s[j] > tolerance && s[j] > 0.0){
+        scaleRow(w, m, j, 1.0 / s[j]);
+      } else {
+        completeRow(w, m, j);
+      }
+    }
+  }
+
+  private static void rotateRows(double[] x, int numCols, int p, int q, double c, double s){
+    int rowP = p * numCols;
+    int rowQ = q * numCols;
+    for(int i = 0; i < numCols; i++){
+      double xp = x[rowP + i];
+      double xq = x[rowQ + i];
+      x[rowP + i] = c * xp - s * xq;
+      x[rowQ + i] = s * xp + c * xq;
+    }
+  }
+
+  private static void scaleRow(double[] x, int numCols, int row, double scalar){
+    for(int i = 0; i < numCols; i++){
+      x[row * numCols + i] *= scalar;
+    }
+  }
+
+  /*
+  * Sort s into descending order, swapping the rows of w and vt with it.
+  */
+  private static void sort(double[] w, int m, int n, double[] s, double[] vt){
+    for(int i = 0; i < n - 1; i++){
+      int largest = i;
+      for(int j = i + 1; j < n; j++){
+        if(s[j] > s[largest]){
+          largest = j;
+        }
+      }
+      if(largest != i){
+        double swap = s[i];
+        s[i] = s[largest];
+        s[largest] = swap;
+        swapRows(w, m, i, largest);
+        swapRows(vt, n, i, largest);
+      }
+    }
+  }
+
+  private static void swapRows(double[] x, int numCols, int first, int second){
+    for(int i = 0; i < numCols; i++){
+      double swap = x[first * numCols + i];
+      x[first * numCols + i] = x[second * numCols + i];
+      x[second * numCols + i] = swap;
+    }
+  }
+
+  /*
+  * Set row j of w to a unit vector orthogonal to its rows before j, which are orthonormal. The
+  * standard basis vector least in their span is projected out of it, twice to keep the result
+  * orthogonal.
+  */
+  private static void completeRow(double[] w, int m, int j){
+    int best = 0;
+    double bestInSpan = Double.MAX_VALUE;
+    for(int col = 0; col < m; col++){
+      double inSpan = 0.0;
+      for(int row = 0; row < j; row++){
+        inSpan += w[row * m + col] * w[row * m + col];
+      }
+      if(inSpan < bestInSpan){
+        bestInSpan = inSpan;
+        best = col;
+      }
+    }
+    for(int i = 0; i < m; i++){
+      w[j * m + i] = i == best ? 1.0 : 0.0;
+    }
+    for(int pass = 0; pass < 2; pass++){
+      for(int row = 0; row < j; row++){
+        double dot = 0.0;
+        for(int i = 0; i < m; i++){
+          dot += w[row * m + i] * w[j * m + i];
+        }
+        for(int i = 0; i < m; i++){
+          w[j * m + i] -= dot * w[row * m + i];
+        }
+      }
+      double sum = 0.0;
+      for(int i = 0; i < m; i++){
+        sum += w[j * m + i] * w[j * m + i];
+      }
+      scaleRow(w, m, j, 1.0 / Math.sqrt(sum));
+    }
+  }
+
+  /**
+  * Compute the singular value decomposition of a 3 by 3 matrix without allocating, so it can be
+  * called for every pair of frames that are superposed with the same u, singularValues and v.
+  * @param matrix a 3 by 3 matrix
+  * @param u a 3 by 3 matrix that U is written to. It may be matrix.
+  * @param singularValues a vector of 3 dimensions that the singular values are written to in
+  * descending order
+  * @param v a 3 by 3 matrix that V is written to
+  * @throws IllegalArgumentException if any of the dimensions are not 3, or v is matrix or u
+  * @throws ArithmeticException if the decomposition does not converge
+  * @since 0.15.0
+  */
+  public static void decompose3(Matrix matrix, MutableMatrix u, MutableVector singularValues,
+      MutableMatrix v){
+    if(matrix.getNumRows() != 3 || matrix.getNumCols() != 3 || u.getNumRows() != 3
+        || u.getNumCols() != 3 || v.getNumRows() != 3 || v.getNumCols() != 3
+        || singularValues.getNumDimensions() != 3){
+      throw new IllegalArgumentException("SingularValueDecomposition::decompose3() matrix, u and v "
+      + "must be 3 by 3 and singularValues must have 3 dimensions");
+    }
+    if(v.values() == matrix.values() || v.values() == u.values()){
+      throw new IllegalArgumentException("SingularValueDecomposition::decompose3() v can not be "
+      + "matrix or u");
+    }
+    double[] w = u.values();
+    if(w != matrix.values()){
+      System.arraycopy(matrix.values(), 0, w, 0, 9);
+    }
+    // decompose works on the cols of the matrix as rows, and returns the factors transposed
+    transpose3(w);
+    decompose(w, 3, 3, singularValues.values(), v.values());
+    transpose3(w);
+    transpose3(v.values());
+  }
+
+  private static void transpose3(double[] x){
+    for(int i = 0; i < 3; i++){
+      for(int j = i + 1; j < 3; j++){
+        double swap = x[i * 3 + j];
+        x[i * 3 + j] = x[j * 3 + i];
+        x[j * 3 + i] = swap;
+      }
+    }
+  }
+
+  /**
+  * @return U, the m by k matrix of the left singular vectors
+  * @since 0.15.0
+  */
+  public Matrix getU(){
+    return new Matrix(this.u.clone(), m, k);
+  }
+
+  /**
+  * @return S, the k by k diagonal matrix of the singular values
+  * @since 0.15.0
+  */
+  public Matrix getS(){
+    double[] s = new double[k * k];
+    for(int i = 0; i < k; i++){
+      s[i * k + i] = this.singularValues[i];
+    }
+    return new Matrix(s, k, k);
+  }
+
+  /**
+  * @return V, the n by k matrix of the right singular vectors
+  * @since 0.15.0
+  */
+  public Matrix getV(){
+    return new Matrix(this.v.clone(), n, k);
+  }
+
+  /**
+  * @return a copy of the singular values, in descending order
+  * @since 0.15.0
+  */
+  public double[] getSingularValues(){
+    return this.singularValues.clone();
+  }
+
+  /**
+  * @return the 2-norm of the matrix, its largest singular value
+  * @since 0.15.0
+  */
+  public double norm2(){
+    return this.singularValues[0];
+  }
+
+  /**
+  * @return the condition number of the matrix, the ratio of its largest singular value to its
+  * smallest. It is infinite if the smallest singular value is zero.
+  * @since 0.15.0
+  */
+  public double conditionNumber(){
+    return this.singularValues[0] / this.singularValues[k - 1];
+  }
+
+  /**
+  * Return the rank of the matrix, the number of singular values above max(m, n) units in the last
+  * place of 1.0 times the largest, as QRDecomposition.isFullRank counts them.
+  * @return the numerical rank of the matrix
+  * @since 0.15.0
+  */
+  public int rank(){
+    double tolerance = Math.max(m, n) * Math.ulp(1.0) * this.singularValues[0];
+    int rank = 0;
+    for(double singularValue : this.singularValues){
+      if(singularValue > tolerance){
+        rank++;
+      }
+    }
+    return rank;
+  }
+}
@@ -0,0 +1,494 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import java.lang.IllegalArgumentException;
+
+/**
+* The eigendecomposition of a symmetric matrix A: A = VDV', where the columns of V are orthonormal
+* eigenvectors of A and D is the diagonal matrix of its eigenvalues. The eigenvalues are real and
+* are returned in ascending order, so the principal components of a covariance matrix are the last
+* columns of V.
+* <p>
+* A matrix of at most JACOBI_MAX_SIZE rows is diagonalized with cyclic Jacobi rotations, which are
+* accurate and quick at small sizes. A larger matrix is reduced to tridiagonal form with Householder
+* reflections, and the tridiagonal matrix is diagonalized with the implicit QL algorithm, as
+* EISPACK's tred2 and tql2 do. decompose3 computes the eigendecomposition of a 3 by 3 matrix into a
+* MutableVector and a MutableMatrix without allocating.
+* <p>
+* Only the lower triangle of A is read. The upper triangle is taken to mirror it.
+* @see SingularValueDecomposition
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class SymmetricEigenDecomposition {
+  /**
+  * The size of the largest matrix diagonalized with Jacobi rotations.
+  */
+  public static final int JACOBI_MAX_SIZE = 8;
+  private static final int MAX_SWEEPS = 64;
+  private final double[] eigenvalues;
+  private final double[] v;
+  private final int n;
+
+  /**
+  * Decompose matrix.
+  * @param matrix a square matrix whose lower triangle is that of a symmetric matrix
+  * @throws IllegalArgumentException if matrix is not square
+  * @throws ArithmeticException if the decomposition does not converge
+  * @since 0.15.0
+  */
+  public SymmetricEigenDecomposition(Matrix matrix){
+    if(matrix.getNumRows() != matrix.getNumCols()){
+      throw new IllegalArgumentException("SymmetricEigenDecomposition::SymmetricEigenDecomposition()"
+      + " matrix must be square, is " + matrix.getNumRows() + " by " + matrix.getNumCols());
+    }
+    this.n = matrix.getNumRows();
+    this.eigenvalues = new double[n];
+    double[] values = matrix.values();
+    if(n <= JACOBI_MAX_SIZE){
+      double[] a = new double[n * n];
+      for(int i = 0; i < n; i++){
+        for(int j = 0; j <= i; j++){
+          a[i * n + j] = values[i * n + j];
+          a[j * n + i] = values[i * n + j];
+        }
+      }
+      this.v = new double[n * n];
+      jacobi(a, n, this.eigenvalues, this.v);
+    } else {
+      this.v = new double[n * n];
+      for(int i = 0; i < n; i++){
+        System.arraycopy(values, i * n, this.v, i * n, i + 1);
+      }
+      double[] offDiagonal = new double[n];
+      tridiagonalize(this.v, n, this.eigenvalues, offDiagonal);
+      diagonalize(this.v, n, this.eigenvalues, offDiagonal);
+    }
+    sort(this.eigenvalues, this.v, n);
+  }
+
+  /*
+  * Diagonalize the symmetric matrix a, a full row-major n by n array, with cyclic Jacobi rotations.
+  * a is overwritten. The eigenvalues are written to d and the eigenvectors to the cols of v.
+  */
+  private static void jacobi(double[] a, int n, double[] d, double[] v){
+    for(int i = 0; i < n; i++){
+      v[i * n + i] = 1.0;
+    }
+    for(int sweep = 0; sweep < MAX_SWEEPS; sweep++){
+      double offDiagonal = 0.0;
+      double diagonal = 0.0;
+      for(int p = 0; p < n; p++){
+        diagonal += a[p * n + p] * a[p * n + p];
+        for(int q = p + 1; q < n; q++){
+          offDiagonal += a[p * n + q] * a[p * n + q];
+        }
+      }
+      if(offDiagonal <= Math.ulp(1.0) * Math.ulp(1.0) * diagonal){
+        for(int i = 0; i < n; i++){
+          d[i] = a[i * n + i];
+        }
+        return;
+      }
+      for(int p = 0; p < n - 1; p++){
+        for(int q = p + 1; q < n; q++){
+          double apq = a[p * n + q];
+          if(apq == 0.0){
+            continue;
+          }
+          double t = rotationTangent(a[p * n + p], a[q * n + q], apq);
+          double c = 1.0 / Math.sqrt(t * t + 1.0);
+          double s = t * c;
+          a[p * n + p] -= t * apq;
+          a[q * n + q] += t * apq;
+          a[p * n + q] = 0.0;
+          a[q * n + p] = 0.0;
+          for(int r = 0; r < n; r++){
+            if(r != p && r != q){
+              double arp = a[r * n + p];
+              double arq = a[r * n + q];
+              a[r * n + p] = c * arp - s * arq;
+              a[p * n + r] = a[r * n + p];
+              a[r * n + q] = s * arp + c * arq;
+              a[q * n + r] = a[r * n + q];
+            }
+          }
+          rotateCols(v, n, p, q, c, s);
+        }
+      }
+    }
+    throw new ArithmeticException("SymmetricEigenDecomposition::jacobi() did not converge");
+  }
+
+  /*
+  * The tangent of the Jacobi rotation that zeroes apq, the smaller of the two that do.
+  */
+  private static double rotationTangent(double app, double aqq, double apq){
+    double theta = (aqq - app) / (2.0 * apq);
+    double t = 1.0 / (Math.abs(theta) + Math.sqrt(theta * theta + 1.0));
+    return theta < 0.0 ? -t : t;
+  }
+
+  /*
+  * Rotate cols p and q of the row-major n by n array v by the Jacobi rotation with cosine c and
+  * sine s.
+  */
+  private static void rotateCols(double[] v, int n, int p, int q, double c, double s){
+    for(int r = 0; r < n; r++){
+      double vrp = v[r * n + p];
+      double vrq = v[r * n + q];
+      v[r * n + p] = c * vrp - s * vrq;
+      v[r * n + q] = s * vrp + c * vrq;
+    }
+  }
+
+  /*
+  * Reduce the symmetric matrix in the lower triangle of v to a tridiagonal matrix with Householder
+  * reflections, leaving its diagonal in d, its subdiagonal in e[1..n-1] and the product of the
+  * reflections in v. This is tred2 from EISPACK, as it is in JAMA.
+  */
+  private static void tridiagonalize(double[] v, int n, double[] d, double[] e){
+    for(int j = 0; j < n; j++){
+      d[j] = v[(n - 1) * n + j];
+    }
+    for(int i = n - 1; i > 0; i--){
+      // scale to avoid under or overflow
+      double scale = 0.0;
+      double h = 0.0;
+      for(int k = 0; k < i; k++){
+        scale += Math.abs(d[k]);
+      }
+      if(scale == 0.0){
+        e[i] = d[i - 1];
+        for(int j = 0; j < i; j++){
+          d[j] = v[(i - 1) * n + j];
+          v[i * n + j] = 0.0;
+          v[j * n + i] = 0.0;
+        }
+      } else {
+        // generate the Householder vector
+        for(int k = 0; k < i; k++){
+          d[k] /= scale;
+          h += d[k] * d[k];
+        }
+        double f = d[i - 1];
+        double g = Math.sqrt(h);
+        if(f > 0){
+          g = -g;
+        }
+        e[i] = scale * g;
+        h = h - f * g;
+        d[i - 1] = f - g;
+        for(int j = 0; j < i; j++){
+          e[j] = 0.0;
+        }
+        // apply the similarity transformation to the remaining cols
+        for(int j = 0; j < i; j++){
+          f = d[j];
+          v[j * n + i] = f;
+          g = e[j] + v[j * n + j] * f;
+          for(int k = j + 1; k <= i - 1; k++){
+            g += v[k * n + j] * d[k];
+            e[k] += v[k * n + j] * f;
+          }
+          e[j] = g;
+        }
+        f = 0.0;
+        for(int j = 0; j < i; j++){
+          e[j] /= h;
+          f += e[j] * d[j];
+        }
+        double hh = f / (h + h);
+        for(int j = 0; j < i; j++){
+          e[j] -= hh * d[j];
+        }
+        for(int j = 0; j < i; j++){
+          f = d[j];
+          g = e[j];
+          for(int k = j; k <= i - 1; k++){
+            v[k * n + j] -= (f * e[k] + g * d[k]);
+          }
+          d[j] = v[(i - 1) * n + j];
+          v[i * n + j] = 0.0;
+        }
+      }
+      d[i] = h;
+    }
+    // accumulate the transformations
+    for(int i = 0; i < n - 1; i++){
+      v[(n - 1) * n + i] = v[i * n + i];
+      v[i * n + i] = 1.0;
+      double h = d[i + 1];
+      if(h != 0.0){
+        for(int k = 0; k <= i; k++){
+          d[k] = v[k * n + i + 1] / h;
+        }
+        for(int j = 0; j <= i; j++){
+          double g = 0.0;
+          for(int k = 0; k <= i; k++){
+            g += v[k * n + i + 1] * v[k * n + j];
+          }
+          for(int k = 0; k <= i; k++){
+            v[k * n + j] -= g * d[k];
+          }
+        }
+      }
+      for(int k = 0; k <= i; k++){
+        v[k * n + i + 1] = 0.0;
+      }
+    }
+    for(int j = 0; j < n; j++){
+      d[j] = v[(n - 1) * n + j];
+      v[(n - 1) * n + j] = 0.0;
+    }
+    v[(n - 1) * n + n - 1] = 1.0;
+    e[0] = 0.0;
+  }
+
+  /*
+  * Diagonalize the symmetric tridiagonal matrix with diagonal d and subdiagonal e[1..n-1] with the
+  * implicit QL algorithm, accumulating the rotations into v. This is tql2 from EISPACK, as it is in
+  * JAMA.
+  */
+  private static void diagonalize(double[] v, int n, double[] d, double[] e){
+    for(int i = 1; i < n; i++){
+      e[i - 1] = e[i];
+    }
+    e[n - 1] = 0.0;
+    double f = 0.0;
+    double tst1 = 0.0;
+    double eps = Math.ulp(1.0);
+    for(int l = 0; l < n; l++){
+      // find a small subdiagonal element
+      tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+      int m = l;
+      while(m < n){
+        if(Math.abs(e[m]) <= eps * tst1){
+          break;
+        }
+        m++;
+      }
+      // if m == l, d[l] is already an eigenvalue, otherwise iterate
+      if(m > l){
+        int iterations = 0;
+        do {
+          if(++iterations > 30 * n){
+            throw new ArithmeticException("SymmetricEigenDecomposition::diagonalize() did not "
+            + "converge");
+          }
+          // compute the implicit shift
+          double g = d[l];
+          double p = (d[l + 1] - g) / (2.0 * e[l]);
+          double r = Math.hypot(p, 1.0);
+          if(p < 0){
+            r = -r;
+          }
+          d[l] = e[l] / (p + r);
+          d[l + 1] = e[l] * (p + r);
+          double dl1 = d[l + 1];
+          double h = g - d[l];
+          for(int i = l + 2; i < n; i++){
+            d[i] -= h;
+          }
+          f += h;
+          // implicit QL transformation
+          p = d[m];
+          double c = 1.0;
+          double c2 = c;
+          double c3 = c;
+          double el1 = e[l + 1];
+          double s = 0.0;
+          double s2 = 0.0;
+          for(int i = m - 1; i >= l; i--){
+            c3 = c2;
+            c2 = c;
+            s2 = s;
+            g = c * e[i];
+            h = c * p;
+            r = Math.hypot(p, e[i]);
+            e[i + 1] = s * r;
+            s = e[i] / r;
+            c = p / r;
+            p = c * d[i] - s * g;
+            d[i + 1] = h + s * (c * g + s * d[i]);
+            // accumulate the transformation
+            for(int k = 0; k < n; k++){
+              h = v[k * n + i + 1];
+              v[k * n + i + 1] = s * v[k * n + i] + c * h;
+              v[k * n + i] = c * v[k * n + i] - s * h;
+            }
+          }
+          p = -s * s2 * c3 * el1 * e[l] / dl1;
+          e[l] = s * p;
+          d[l] = c * p;
+        } while(Math.abs(e[l]) > eps * tst1);
+      }
+      d[l] = d[l] + f;
+      e[l] = 0.0;
+    }
+  }
+
+  /*
+  * Sort the eigenvalues in d into ascending order, and the cols of v with them.
+  */
+  private static void sort(double[] d, double[] v, int n){
+    for(int i = 0; i < n - 1; i++){
+      int smallest = i;
+      for(int j = i + 1; j < n; j++){
+        if(d[j] < d[smallest]){
+          smallest = j;
+        }
+      }
+      if(smallest != i){
+        double swap = d[i];
+        d[i] = d[smallest];
+        d[smallest] = swap;
+        for(int k = 0; k < n; k++){
+          swap = v[k * n + i];
+          v[k * n + i] = v[k * n + smallest];
+          v[k * n + smallest] = swap;
+        }
+      }
+    }
+  }
+
+  /**
+  * Compute the eigendecomposition of a symmetric 3 by 3 matrix without allocating. The matrix is
+  * diagonalized with Jacobi rotations held in local variables, so decompose3 can be called for
+  * every frame of a trajectory with the same eigenvalues and eigenvectors.
+  * @param matrix a 3 by 3 matrix whose lower triangle is that of a symmetric matrix
+  * @param eigenvalues a vector of 3 dimensions that the eigenvalues are written to in ascending
+  * order
+  * @param eigenvectors a 3 by 3 matrix whose cols are set to the eigenvectors, in the order of the
+  * eigenvalues. It may be matrix.
+  * @throws IllegalArgumentException if any of the dimensions are not 3
+  * @throws ArithmeticException if the decomposition does not converge
+  * @since 0.15.0
+  */
+  public static void decompose3(Matrix matrix, MutableVector eigenvalues,
+      MutableMatrix eigenvectors){
+    if(matrix.getNumRows() != 3 || matrix.getNumCols() != 3 || eigenvalues.getNumDimensions() != 3
+        || eigenvectors.getNumRows() != 3 || eigenvectors.getNumCols() != 3){
+      throw new IllegalArgumentException("SymmetricEigenDecomposition::decompose3() matrix and "
+      + "eigenvectors must be 3 by 3 and eigenvalues must have 3 dimensions");
+    }
+    double[] a = matrix.values();
+    double a01 = a[3];
+    double a02 = a[6];
+    double a12 = a[7];
+    double[] d = eigenvalues.values();
+    d[0] = a[0];
+    d[1] = a[4];
+    d[2] = a[8];
+    double[] v = eigenvectors.values();
+    for(int i = 0; i < 9; i++){
+      v[i] = i % 4 == 0 ? 1.0 : 0.0;
+    }
+    for(int sweep = 0; ; sweep++){
+      double offDiagonal = a01 * a01 + a02 * a02 + a12 * a12;
+      double diagonal = d[0] * d[0] + d[1] * d[1] + d[2] * d[2];
+      if(offDiagonal <= Math.ulp(1.0) * Math.ulp(1.0) * diagonal){
+        break;
+      }
+      if(sweep == MAX_SWEEPS){
+        throw new ArithmeticException("SymmetricEigenDecomposition::decompose3() did not "
+        + "converge");
+      }
+      // each rotation zeroes one off diagonal value and mixes the other two
+      if(a01 != 0.0){
+        double t = rotate3(d, v, 0, 1, a01);
+        double c = 1.0 / Math.sqrt(t * t + 1.0);
+        double s = t * c;
+        double a02Rotated = c * a02 - s * a12;
+        a12 = s * a02 + c * a12;
+        a02 = a02Rotated;
+        a01 = 0.0;
+      }
+      if(a02 != 0.0){
+        double t = rotate3(d, v, 0, 2, a02);
+        double c = 1.0 / Math.sqrt(t * t + 1.0);
+        double s = t * c;
+        double a01Rotated = c * a01 - s * a12;
+        a12 = s * a01 + c * a12;
+        a01 = a01Rotated;
+        a02 = 0.0;
+      }
+      if(a12 != 0.0){
+        double t = rotate3(d, v, 1, 2, a12);
+        double c = 1.0 / Math.sqrt(t * t + 1.0);
+        double s = t * c;
+        double a01Rotated = c * a01 - s * a02;
+        a02 = s * a01 + c * a02;
+        a01 = a01Rotated;
+        a12 = 0.0;
+      }
+    }
+    sort(d, v, 3);
+  }
+
+  /*
+  * Apply the Jacobi rotation that zeroes apq to the diagonal d and the eigenvectors v of a 3 by 3
+  * matrix, returning its tangent.
+  */
+  private static double rotate3(double[] d, double[] v, int p, int q, double apq){
+    double t = rotationTangent(d[p], d[q], apq);
+    double c = 1.0 / Math.sqrt(t * t + 1.0);
+    d[p] -= t * apq;
+    d[q] += t * apq;
+    rotateCols(v, 3, p, q, c, t * c);
+    return t;
+  }
+
+  /**
+  * @return the number of rows of the matrix
+  * @since 0.15.0
+  */
+  public int getSize(){
+    return this.n;
+  }
+
+  /**
+  * @return a copy of the eigenvalues, in ascending order
+  * @since 0.15.0
+  */
+  public double[] getEigenvalues(){
+    return this.eigenvalues.clone();
+  }
+
+  /**
+  * @return V, the matrix whose cols are the eigenvectors, in the order of the eigenvalues
+  * @since 0.15.0
+  */
+  public Matrix getV(){
+    return new Matrix(this.v.clone(), n, n);
+  }
+
+  /**
+  * @return D, the diagonal matrix of the eigenvalues
+  * @since 0.15.0
+  */
+  public Matrix getD(){
+    double[] d = new double[n * n];
+    for(int i = 0; i < n; i++){
+      d[i * n + i] = this.eigenvalues[i];
+    }
+    return new Matrix(d, n, n);
+  }
+
+  /**
+  * @param index the index of an eigenvalue
+  * @return the unit eigenvector of the eigenvalue at index, a column Vector
+  * @throws ArrayIndexOutOfBoundsException if index is not in [0, getSize() - 1]
+  * @since 0.15.0
+  */
+  public Vector getEigenvector(int index){
+    if(index < 0 || index >= n){
+      throw new ArrayIndexOutOfBoundsException("SymmetricEigenDecomposition::getEigenvector() "
+      + "index " + index + " is out of range for " + n + " eigenvectors");
+    }
+    double[] vector = new double[n];
+    for(int i = 0; i < n; i++){
+      vector[i] = this.v[i * n + index];
+    }
+    return new Vector(vector, true);
+  }
+}
@@ -9,8 +9,11 @@ import java.text.DecimalFormat;
 /**
  * A Vector can have any number of dimensions and supports addition, subtraction, multiplication
  * by a scalar, and dot product.
+ * <p>
+ * A Vector is a Matrix with a single row or column, so its values are stored in order in the
+ * Matrix's primitive array whichever way it points. get(dimension) reads a value without boxing.
  * @author Aaron Maus aaron@aaronpmaus.com
- * @version 0.12.0
+ * @version 0.15.0
  * @since 0.1.0
  */
 public class Vector extends Matrix{
@@ -35,20 +38,31 @@ public class Vector extends Matrix{
     this(0.0,0.0,0.0);
   }
 
-  private Vector(Double[][] vals){
-    super(vals);
-    int numRows = vals.length;
-    int numCols = vals[0].length;
-    // Determine if this vector is a row or column vector based on the dimensions of vals.
-    // Note that by default, a Vector of a single value is a column vector.
-    if(numCols == 1) { // a single col, therefore a col vector
-      this.isColVector = true;
-    } else if(numRows == 1){ // a single row, therefore a row vector
-      this.isColVector = false;
-    } else { // if neither have a dimension of 1, then throw an IllegalArgumentException
-      throw new IllegalArgumentException("Vector must be initialized with either "
-          + "a single row or column");
+  /**
+   * Construct a column Vector containing the values passed in. The values are copied.
+   *
+   * @param vals the values to be added to this vector
+   * @throws IllegalArgumentException if vals is empty
+   * @since 0.15.0
+  */
+  public Vector(double[] vals){
+    this(copyValues(vals), true);
+  }
+
+  /*
+  * Construct a Vector that stores vals without copying them. Only for Vectors built inside this
+  * package from arrays nothing else holds.
+  */
+  Vector(double[] vals, boolean isColVector){
+    super(vals, isColVector ? vals.length : 1, isColVector ? 1 : vals.length);
+    this.isColVector = isColVector;
+  }
+
+  private static double[] copyValues(double[] vals){
+    if(vals.length == 0){
+      throw new IllegalArgumentException("Vector must have atleast one dimension.");
     }
+    return vals.clone();
   }
 
   /**
@@ -64,25 +78,8 @@ public class Vector extends Matrix{
   * @since 0.12.0
   */
   public Vector transpose(){
-    if(isColVector){
-      // construct and return a row vector
-      return new Vector(buildRowMatrix(getValues()));
-    } else {
-      // construct and return a column vector
-      return new Vector(getValues());
-    }
-  }
-
-  /*
-  * Helper method for initializing a column Vector. From an array of values, build a 2D array where
-  * those values go down the first column.
-  */
-  private Double[][] buildRowMatrix(Double[] vals){
-    Double[][] matrix = new Double[1][vals.length];
-    for(int i = 0; i < vals.length; i++){
-      matrix[0][i] = vals[i];
-    }
-    return matrix;
+    // a row and a column vector store their values in the same order
+    return new Vector(values().clone(), !isColVector);
   }
 
   /**
@@ -94,19 +91,7 @@ public class Vector extends Matrix{
    * @since 0.10.0
   */
   protected void setValue(int dimension, double value){
-    if(dimension >= 0 && dimension < getNumDimensions()){
-      if(isColVector){
-        setElement(dimension,0,value);
-      } else {
-        setElement(0,dimension,value);
-      }
-    } else {
-      throw new IllegalArgumentException("dimension must be less than the Num Dimensions\n"
-          + "of this point. The first coordinate is at the 0th\n"
-          + "dimension.\n"
-          + "Num Dimensions: " + getNumDimensions() + "\n"
-          + "Given Dimension: " + dimension);
-    }
+    values()[checkDimension(dimension)] = value;
   }
 
 
@@ -119,19 +104,30 @@ public class Vector extends Matrix{
    * @since 0.10.0
   */
   public Double getValue(int dimension){
-    if(dimension >= 0 && dimension < getNumDimensions()){
-      if(isColVector){
-        return getElement(dimension,0);
-      } else {
-        return getElement(0,dimension);
-      }
-    } else {
+    return get(dimension);
+  }
+
+  /**
+   * Return the value of the vector at the given dimension, without boxing it.
+   * @param dimension The dimension of the coorinate to be returned. The first
+   *        value is at the 0th dimension.
+   * @return The value of the vector at the given dimension.
+   * @throws IllegalArgumentException Thrown if dimension is {@code >= getNumDimensions()}.
+   * @since 0.15.0
+  */
+  public double get(int dimension){
+    return values()[checkDimension(dimension)];
+  }
+
+  private int checkDimension(int dimension){
+    if(dimension < 0 || dimension >= getNumDimensions()){
       throw new IllegalArgumentException("dimension must be less than the Num Dimensions\n"
           + "of this point. The first coordinate is at the 0th\n"
           + "dimension.\n"
           + "Num Dimensions: " + getNumDimensions() + "\n"
           + "Given Dimension: " + dimension);
     }
+    return dimension;
   }
 
   /**
@@ -143,11 +139,12 @@ public class Vector extends Matrix{
    * @since 0.10.0
   */
   public Double[] getValues(){
-    if(isColVector){
-      return getColValues(0);
-    } else {
-      return getRowValues(0);
+    double[] values = values();
+    Double[] copy = new Double[values.length];
+    for(int i = 0; i < values.length; i++){
+      copy[i] = values[i];
     }
+    return copy;
   }
 
   /**
@@ -177,9 +174,11 @@ public class Vector extends Matrix{
           + buildIllegalArgumentExceptionString(other.getValues()));
     }
 
+    double[] values = values();
+    double[] otherValues = other.values();
     double product = 0.0;
-    for(int i = 0; i < getNumDimensions(); i++){
-      product += getValue(i) * other.getValue(i);
+    for(int i = 0; i < values.length; i++){
+      product += values[i] * otherValues[i];
     }
     return product;
   }
@@ -246,13 +245,13 @@ public class Vector extends Matrix{
   */
   public Vector add(Vector other){
     if(other.getNumDimensions() == getNumDimensions()){
-      Vector ans = null;
-      Double[] vals = new Double[this.getNumDimensions()];
-      for(int i = 0; i < this.getNumDimensions(); i++){
-        vals[i] = this.getValue(i) + other.getValue(i);
+      double[] values = values();
+      double[] otherValues = other.values();
+      double[] vals = new double[values.length];
+      for(int i = 0; i < vals.length; i++){
+        vals[i] = values[i] + otherValues[i];
       }
-      ans = new Vector(vals);
-      return ans;
+      return new Vector(vals, true);
     } else {
       String exceptionString = "Vector::add - "
           + buildIllegalArgumentExceptionString(this.getValues());
@@ -270,13 +269,13 @@ public class Vector extends Matrix{
   */
   public Vector subtract(Vector other){
     if(other.getNumDimensions() == getNumDimensions()){
-      Vector ans = null;
-      Double[] vals = new Double[this.getNumDimensions()];
-      for(int i = 0; i < this.getNumDimensions(); i++){
-        vals[i] = this.getValue(i) - other.getValue(i);
+      double[] values = values();
+      double[] otherValues = other.values();
+      double[] vals = new double[values.length];
+      for(int i = 0; i < vals.length; i++){
+        vals[i] = values[i] - otherValues[i];
       }
-      ans = new Vector(vals);
-      return ans;
+      return new Vector(vals, true);
     } else {
       String exceptionString = "Vector::subtract - "
           + buildIllegalArgumentExceptionString(this.getValues());
@@ -293,11 +292,12 @@ public class Vector extends Matrix{
    * @since 0.10.0
   */
   public Vector multiply(double scalar){
-    Double[] vals = new Double[this.getNumDimensions()];
-    for(int i = 0; i < this.getNumDimensions(); i++){
-      vals[i] = this.getValue(i) * scalar;
+    double[] values = values();
+    double[] vals = new double[values.length];
+    for(int i = 0; i < vals.length; i++){
+      vals[i] = values[i] * scalar;
     }
-    return new Vector(vals);
+    return new Vector(vals, true);
   }
 
   /**
@@ -333,8 +333,11 @@ public class Vector extends Matrix{
   public double distance(Vector otherVector){
     double distance = 0.0;
     if(otherVector.getNumDimensions() == getNumDimensions()){
-      for(int i = 0; i < getNumDimensions(); i++){
-        distance += Math.pow(getValue(i) - otherVector.getValue(i), 2);
+      double[] values = values();
+      double[] otherValues = otherVector.values();
+      for(int i = 0; i < values.length; i++){
+        double difference = values[i] - otherValues[i];
+        distance += difference * difference;
       }
       distance = Math.sqrt(distance);
     } else {
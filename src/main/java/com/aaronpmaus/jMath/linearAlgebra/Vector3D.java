@@ -24,7 +24,7 @@ import java.lang.IllegalArgumentException;
  * {@code vector.applyTransformation(inverse)}<br>
  * {@code System.out.println(vector); // (0.00, 1.00, 0.00)} <br>
  * @author  Aaron Maus aaron@aaronpmaus.com
- * @version 0.12.2
+ * @version 0.15.0
  * @since 0.12.2
  */
  public class Vector3D extends Vector implements Transformable{
@@ -43,14 +43,22 @@ import java.lang.IllegalArgumentException;
    * @param vec the vector to create a copy of
    */
    public Vector3D(Vector3D vec){
-     super(vec.getX(), vec.getY(), vec.getZ());
+     this(vec.get(0), vec.get(1), vec.get(2));
+   }
+
+   /*
+   * Builds a Vector3D from primitive coordinates. Private so that callers passing a mix of double
+   * and Double coordinates are not left with two equally good constructors.
+   */
+   private Vector3D(double x, double y, double z){
+     super(new double[]{x, y, z}, true);
    }
 
    /**
    * The default constructor creates a Vector of 3 dimensions at (0,0,0).
    */
    public Vector3D(){
-     super(0.0, 0.0, 0.0);
+     super(new double[3], true);
    }
 
    /**
@@ -88,15 +96,15 @@ import java.lang.IllegalArgumentException;
    * @return a three dimensional vector that is the cross product of this and other
    */
    public Vector3D crossProduct(Vector3D other){
-     Double u1 = getX();
-     Double u2 = getY();
-     Double u3 = getZ();
-     Double v1 = other.getX();
-     Double v2 = other.getY();
-     Double v3 = other.getZ();
-     Double x = (u2 * v3) - (u3 * v2);
-     Double y = (u3 * v1) - (u1 * v3);
-     Double z = (u1 * v2) - (u2 * v1);
+     double u1 = get(0);
+     double u2 = get(1);
+     double u3 = get(2);
+     double v1 = other.get(0);
+     double v2 = other.get(1);
+     double v3 = other.get(2);
+     double x = (u2 * v3) - (u3 * v2);
+     double y = (u3 * v1) - (u1 * v3);
+     double z = (u1 * v2) - (u2 * v1);
      return new Vector3D(x,y,z);
    }
 
@@ -107,9 +115,9 @@ import java.lang.IllegalArgumentException;
     * @return a new Vector containg the result of the addition
    */
    public Vector3D add(Vector3D other){
-     Double x = this.getX() + other.getX();
-     Double y = this.getY() + other.getY();
-     Double z = this.getZ() + other.getZ();
+     double x = this.get(0) + other.get(0);
+     double y = this.get(1) + other.get(1);
+     double z = this.get(2) + other.get(2);
      return new Vector3D(x,y,z);
    }
 
@@ -120,9 +128,9 @@ import java.lang.IllegalArgumentException;
     * @return a new Vector containg the result of the subtraction
    */
    public Vector3D subtract(Vector3D other){
-     Double x = this.getX() - other.getX();
-     Double y = this.getY() - other.getY();
-     Double z = this.getZ() - other.getZ();
+     double x = this.get(0) - other.get(0);
+     double y = this.get(1) - other.get(1);
+     double z = this.get(2) - other.get(2);
      return new Vector3D(x,y,z);
    }
 
@@ -134,9 +142,9 @@ import java.lang.IllegalArgumentException;
     * @return a new Vector3D containg the result of the multiplication
    */
    public Vector3D multiply(double scalar){
-     Double x = this.getX() * scalar;
-     Double y = this.getY() * scalar;
-     Double z = this.getZ() * scalar;
+     double x = this.get(0) * scalar;
+     double y = this.get(1) * scalar;
+     double z = this.get(2) * scalar;
      return new Vector3D(x,y,z);
    }
 
@@ -192,10 +200,14 @@ import java.lang.IllegalArgumentException;
 
    @Override
    public void applyTransformation(Transformation t){
-     Vector3D vec = t.applyTransformationTo(this);
-     this.setValue(0, vec.getValue(0));
-     this.setValue(1, vec.getValue(1));
-     this.setValue(2, vec.getValue(2));
+     // multiply the homogeneous coordinates (x, y, z, 1) by the transformation in place
+     Matrix m = t.getMatrix();
+     double x = get(0);
+     double y = get(1);
+     double z = get(2);
+     setValue(0, m.get(0,0)*x + m.get(0,1)*y + m.get(0,2)*z + m.get(0,3));
+     setValue(1, m.get(1,0)*x + m.get(1,1)*y + m.get(1,2)*z + m.get(1,3));
+     setValue(2, m.get(2,0)*x + m.get(2,1)*y + m.get(2,2)*z + m.get(2,3));
    }
 
  }// end of class Vector3D
@@ -0,0 +1,299 @@
+package com.aaronpmaus.jMath.transformations;
+
+import com.aaronpmaus.jMath.linearAlgebra.Matrix;
+import com.aaronpmaus.jMath.linearAlgebra.MutableMatrix;
+import com.aaronpmaus.jMath.linearAlgebra.MutableVector;
+import com.aaronpmaus.jMath.linearAlgebra.PointCloud3D;
+import com.aaronpmaus.jMath.linearAlgebra.SingularValueDecomposition;
+import com.aaronpmaus.jMath.linearAlgebra.Vector3D;
+
+import java.lang.IllegalArgumentException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+* The optimal superposition of a mobile set of points onto a reference set, the rotation and
+* translation of the mobile points that minimizes their root mean square deviation (RMSD) from the
+* reference points they are paired with. It is found with the Kabsch algorithm: both sets are
+* centered on their centroids, and the rotation is computed from the singular value decomposition
+* of their 3 by 3 covariance matrix. A reflection is never returned.
+* <p>
+* A Superposition keeps the buffers it decomposes the covariance in, so fitting one to each pair
+* of frames of a trajectory does not allocate. Points are given as Lists of Vector3Ds, as
+* PointCloud3Ds, or as arrays of coordinates, x, y and z for each point in turn.
+* <p>
+* {@code Superposition superposition = new Superposition();}<br>
+* {@code for(double[] frame : frames)}<br>
+* {@code   rmsds.add(superposition.fit(reference, frame));}<br>
+* <p>
+* {@code Transformation t = superposition.getTransformation(); // moves the last frame onto reference}
+* @see Transformation#superposition(List, List)
+* @see SingularValueDecomposition
+* @version 0.15.0
+* @since 0.15.0
+*/
+public class Superposition {
+  // the covariance of the centered points, summed row-major before it is copied to covariance
+  private final double[] sums = new double[9];
+  private final MutableMatrix covariance = new MutableMatrix(3, 3);
+  private final MutableMatrix u = new MutableMatrix(3, 3);
+  private final MutableVector singularValues = new MutableVector(3);
+  private final MutableMatrix v = new MutableMatrix(3, 3);
+  private final MutableMatrix rotation = new MutableMatrix(3, 3);
+  private final double[] referenceCentroid = new double[3];
+  private final double[] mobileCentroid = new double[3];
+  private double rmsd;
+  private boolean fitted;
+
+  /**
+  * Construct a Superposition. fit must be called before its rotation or transformation is read.
+  * @since 0.15.0
+  */
+  public Superposition(){
+    this.fitted = false;
+  }
+
+  /**
+  * Find the superposition of mobile onto reference.
+  * @param reference the reference points, x, y and z for each point in turn
+  * @param mobile the mobile points, x, y and z for each point in turn, paired with the reference
+  * points at the same indices
+  * @return the RMSD of the superposed mobile points from the reference points
+  * @throws IllegalArgumentException if reference and mobile have different lengths, or their
+  * length is not a positive multiple of 3
+  * @since 0.15.0
+  */
+  public double fit(double[] reference, double[] mobile){
+    if(reference.length != mobile.length || reference.length == 0 || reference.length % 3 != 0){
+      throw new IllegalArgumentException("Superposition::fit() reference and mobile must hold the "
+      + "same number of points, and 3 coordinates for each, have " + reference.length + " and "
+      + mobile.length + " coordinates");
+    }
+    int numPoints = reference.length / 3;
+    for(int axis = 0; axis < 3; axis++){
+      double referenceSum = 0.0;
+      double mobileSum = 0.0;
+      for(int i = axis; i < reference.length; i += 3){
+        referenceSum += reference[i];
+        mobileSum += mobile[i];
+      }
+      this.referenceCentroid[axis] = referenceSum / numPoints;
+      this.mobileCentroid[axis] = mobileSum / numPoints;
+    }
+    Arrays.fill(this.sums, 0.0);
+    double sumOfSquares = 0.0;
+    for(int i = 0; i < reference.length; i += 3){
+      sumOfSquares += accumulate(mobile[i], mobile[i + 1], mobile[i + 2], reference[i],
+          reference[i + 1], reference[i + 2]);
+    }
+    return solve(sumOfSquares, numPoints);
+  }
+
+  /**
+  * Find the superposition of mobile onto reference.
+  * @param reference the reference points
+  * @param mobile the mobile points, paired with the reference points at the same indices
+  * @return the RMSD of the superposed mobile points from the reference points
+  * @throws IllegalArgumentException if reference and mobile have different sizes or are empty
+  * @since 0.15.0
+  */
+  public double fit(List<Vector3D> reference, List<Vector3D> mobile){
+    if(reference.size() != mobile.size() || reference.isEmpty()){
+      throw new IllegalArgumentException("Superposition::fit() reference and mobile must hold the "
+      + "same number of points, have " + reference.size() + " and " + mobile.size());
+    }
+    int numPoints = reference.size();
+    for(int axis = 0; axis < 3; axis++){
+      this.referenceCentroid[axis] = 0.0;
+      this.mobileCentroid[axis] = 0.0;
+    }
+    for(int i = 0; i < numPoints; i++){
+      for(int axis = 0; axis < 3; axis++){
+        this.referenceCentroid[axis] += reference.get(i).get(axis);
+        this.mobileCentroid[axis] += mobile.get(i).get(axis);
+      }
+    }
+    for(int axis = 0; axis < 3; axis++){
+      this.referenceCentroid[axis] /= numPoints;
+      this.mobileCentroid[axis] /= numPoints;
+    }
+    Arrays.fill(this.sums, 0.0);
+    double sumOfSquares = 0.0;
+    for(int i = 0; i < numPoints; i++){
+      Vector3D referencePoint = reference.get(i);
+      Vector3D mobilePoint = mobile.get(i);
+      sumOfSquares += accumulate(mobilePoint.get(0), mobilePoint.get(1), mobilePoint.get(2),
+          referencePoint.get(0), referencePoint.get(1), referencePoint.get(2));
+    }
+    return solve(sumOfSquares, numPoints);
+  }
+
+  /**
+  * Find the superposition of mobile onto reference.
+  * @param reference the reference points
+  * @param mobile the mobile points, paired with the reference points at the same indices
+  * @return the RMSD of the superposed mobile points from the reference points
+  * @throws IllegalArgumentException if reference and mobile have different sizes or are empty
+  * @since 0.15.0
+  */
+  public double fit(PointCloud3D reference, PointCloud3D mobile){
+    if(reference.size() != mobile.size() || reference.size() == 0){
+      throw new IllegalArgumentException("Superposition::fit() reference and mobile must hold the "
+      + "same number of points, have " + reference.size() + " and " + mobile.size());
+    }
+    int numPoints = reference.size();
+    double referenceX = 0.0;
+    double referenceY = 0.0;
+    double referenceZ = 0.0;
+    double mobileX = 0.0;
+    double mobileY = 0.0;
+    double mobileZ = 0.0;
+    for(int i = 0; i < numPoints; i++){
+      referenceX += reference.getX(i);
+      referenceY += reference.getY(i);
+      referenceZ += reference.getZ(i);
+      mobileX += mobile.getX(i);
+      mobileY += mobile.getY(i);
+      mobileZ += mobile.getZ(i);
+    }
+    this.referenceCentroid[0] = referenceX / numPoints;
+    this.referenceCentroid[1] = referenceY / numPoints;
+    this.referenceCentroid[2] = referenceZ / numPoints;
+    this.mobileCentroid[0] = mobileX / numPoints;
+    this.mobileCentroid[1] = mobileY / numPoints;
+    this.mobileCentroid[2] = mobileZ / numPoints;
+    Arrays.fill(this.sums, 0.0);
+    double sumOfSquares = 0.0;
+    for(int i = 0; i < numPoints; i++){
+      sumOfSquares += accumulate(mobile.getX(i), mobile.getY(i), mobile.getZ(i),
+          reference.getX(i), reference.getY(i), reference.getZ(i));
+    }
+    return solve(sumOfSquares, numPoints);
+  }
+
+  /*
+  * Center a pair of points on the centroids and add their product to the covariance sums.
+  * Returns the sum of their squared distances from the centroids.
+  */
+  private double accumulate(double mobileX, double mobileY, double mobileZ, double referenceX,
+      double referenceY, double referenceZ){
+    double mx = mobileX - this.mobileCentroid[0];
+    double my = mobileY - this.mobileCentroid[1];
+    double mz = mobileZ - this.mobileCentroid[2];
+    double rx = referenceX - this.referenceCentroid[0];
+    double ry = referenceY - this.referenceCentroid[1];
+    double rz = referenceZ - this.referenceCentroid[2];
+    double[] h = this.sums;
+    h[0] += mx * rx;
+    h[1] += mx * ry;
+    h[2] += mx * rz;
+    h[3] += my * rx;
+    h[4] += my * ry;
+    h[5] += my * rz;
+    h[6] += mz * rx;
+    h[7] += mz * ry;
+    h[8] += mz * rz;
+    return mx * mx + my * my + mz * mz + rx * rx + ry * ry + rz * rz;
+  }
+
+  /*
+  * Compute the rotation from the covariance H = USV', as R = V diag(1, 1, d) U' where d is the sign
+  * of the determinant of VU', and return the RMSD.
+  */
+  private double solve(double sumOfSquares, int numPoints){
+    for(int i = 0; i < 3; i++){
+      for(int j = 0; j < 3; j++){
+        this.covariance.set(i, j, this.sums[i * 3 + j]);
+      }
+    }
+    SingularValueDecomposition.decompose3(this.covariance, this.u, this.singularValues, this.v);
+    double d = Math.signum(determinant(this.v) * determinant(this.u));
+    if(d == 0.0){
+      d = 1.0;
+    }
+    for(int i = 0; i < 3; i++){
+      for(int j = 0; j < 3; j++){
+        this.rotation.set(i, j, this.v.get(i, 0) * this.u.get(j, 0)
+            + this.v.get(i, 1) * this.u.get(j, 1)
+            + d * this.v.get(i, 2) * this.u.get(j, 2));
+      }
+    }
+    double s = this.singularValues.get(0) + this.singularValues.get(1)
+        + d * this.singularValues.get(2);
+    this.rmsd = Math.sqrt(Math.max(0.0, (sumOfSquares - 2.0 * s) / numPoints));
+    this.fitted = true;
+    return this.rmsd;
+  }
+
+  private static double determinant(Matrix m){
+    return m.get(0, 0) * (m.get(1, 1) * m.get(2, 2) - m.get(1, 2) * m.get(2, 1))
+        - m.get(0, 1) * (m.get(1, 0) * m.get(2, 2) - m.get(1, 2) * m.get(2, 0))
+        + m.get(0, 2) * (m.get(1, 0) * m.get(2, 1) - m.get(1, 1) * m.get(2, 0));
+  }
+
+  private void checkFitted(String method){
+    if(!this.fitted){
+      throw new IllegalStateException("Superposition::" + method + "() fit has not been called");
+    }
+  }
+
+  /**
+  * @return the RMSD of the superposed mobile points from the reference points of the last fit
+  * @throws IllegalStateException if fit has not been called
+  * @since 0.15.0
+  */
+  public double getRmsd(){
+    checkFitted("getRmsd");
+    return this.rmsd;
+  }
+
+  /**
+  * Return the rotation of the last fit. It rotates the mobile points, centered on their centroid,
+  * onto the reference points centered on theirs.
+  * @return a new 3 by 3 rotation matrix
+  * @throws IllegalStateException if fit has not been called
+  * @since 0.15.0
+  */
+  public Matrix getRotation(){
+    checkFitted("getRotation");
+    return new Matrix(this.rotation);
+  }
+
+  /**
+  * @return the centroid of the reference points of the last fit
+  * @throws IllegalStateException if fit has not been called
+  * @since 0.15.0
+  */
+  public Vector3D getReferenceCentroid(){
+    checkFitted("getReferenceCentroid");
+    return new Vector3D(this.referenceCentroid[0], this.referenceCentroid[1],
+        this.referenceCentroid[2]);
+  }
+
+  /**
+  * @return the centroid of the mobile points of the last fit
+  * @throws IllegalStateException if fit has not been called
+  * @since 0.15.0
+  */
+  public Vector3D getMobileCentroid(){
+    checkFitted("getMobileCentroid");
+    return new Vector3D(this.mobileCentroid[0], this.mobileCentroid[1], this.mobileCentroid[2]);
+  }
+
+  /**
+  * Return the Transformation of the last fit, which moves the mobile points onto the reference
+  * points. It is composed of a translation of the mobile centroid to the origin, the rotation, and
+  * a translation from the origin to the reference centroid, so its inverse is exact.
+  * @return a new Transformation superposing the mobile points onto the reference points
+  * @throws IllegalStateException if fit has not been called
+  * @since 0.15.0
+  */
+  public Transformation getTransformation(){
+    checkFitted("getTransformation");
+    Transformation t = new Transformation();
+    t.addTranslation(getMobileCentroid().multiply(-1.0));
+    t.addRotation(this.rotation);
+    t.addTranslation(getReferenceCentroid());
+    return t;
+  }
+}
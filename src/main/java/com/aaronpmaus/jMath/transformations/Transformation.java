@@ -9,6 +9,7 @@ import java.math.MathContext;
 import java.util.LinkedList;
 import java.util.Iterator;
 import java.util.Collection;
+import java.util.List;
 
 /**
 * A Transformation is a Matrix that can be applied to a 3D Vector to get a new Vector that has been
@@ -251,6 +252,42 @@ public final class Transformation extends TransformationMatrix {
     addTransformation(new Rotation(new Matrix(mat)));
   }
 
+  /**
+  * Include in this Transformation a rotation given as a 3 by 3 rotation matrix, a proper
+  * orthogonal matrix, so that its inverse is its transpose.
+  * @param rotation a 3 by 3 rotation matrix
+  */
+  void addRotation(Matrix rotation){
+    double[][] mat = new double[4][4];
+    for(int i = 0; i < 3; i++){
+      for(int j = 0; j < 3; j++){
+        mat[i][j] = rotation.get(i, j);
+      }
+    }
+    mat[3][3] = 1.0;
+    addTransformation(new Rotation(new Matrix(mat)));
+  }
+
+  /**
+  * Build the Transformation that optimally superposes the mobile points onto the reference
+  * points, the rotation and translation of the mobile points that minimizes their root mean square
+  * deviation from the reference points they are paired with.
+  * <p>
+  * Where addRotationOntoVector aligns a single pair of vectors, this aligns whole sets of points.
+  * Use a {@link com.aaronpmaus.jMath.transformations.Superposition Superposition} to also get the
+  * RMSD, or to superpose many pairs of point sets without allocating.
+  * @param reference the reference points
+  * @param mobile the mobile points, paired with the reference points at the same indices
+  * @return a new Transformation that moves the mobile points onto the reference points
+  * @throws IllegalArgumentException if reference and mobile have different sizes or are empty
+  * @since 0.15.0
+  */
+  public static Transformation superposition(List<Vector3D> reference, List<Vector3D> mobile){
+    Superposition superposition = new Superposition();
+    superposition.fit(reference, mobile);
+    return superposition.getTransformation();
+  }
+
   /**
   * Include in this Transformation a translation specified by the given Vector.
   * @param vec a 3D vector, the amount to translate, (deltaX, deltaY, deltaZ)
@@ -1,7 +1,6 @@
 package com.aaronpmaus.jMath.transformations;
 
 import com.aaronpmaus.jMath.linearAlgebra.Matrix;
-import com.aaronpmaus.jMath.linearAlgebra.Vector;
 import com.aaronpmaus.jMath.linearAlgebra.Vector3D;
 
 import java.math.BigDecimal;
@@ -56,15 +55,14 @@ public abstract class TransformationMatrix {
   * @return a new Vector, vec transformed. This Vector is returned as a column vector.
   */
   public Vector3D applyTransformationTo(Vector3D vec){
-    Vector homogeneous = new Vector(vec.getX(), vec.getY(), vec.getZ(), 1.0);
-    Vector transformed;
-    if(homogeneous.isColVector()){
-      transformed = getMatrix().multiply(homogeneous).getColVector(0);
-    } else {
-      homogeneous = homogeneous.transpose();
-      transformed = getMatrix().multiply(homogeneous).getColVector(0);
-    }
-    return new Vector3D(transformed.getValue(0), transformed.getValue(1), transformed.getValue(2));
+    // multiply the homogeneous coordinates (x, y, z, 1) by this matrix without building them
+    Matrix m = getMatrix();
+    double x = vec.get(0);
+    double y = vec.get(1);
+    double z = vec.get(2);
+    return new Vector3D(m.get(0,0)*x + m.get(0,1)*y + m.get(0,2)*z + m.get(0,3),
+        m.get(1,0)*x + m.get(1,1)*y + m.get(1,2)*z + m.get(1,3),
+        m.get(2,0)*x + m.get(2,1)*y + m.get(2,2)*z + m.get(2,3));
   }
 
   /**
@@ -0,0 +1,102 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.io.InputStream;
+
+public class TestBitSetColoring {
+  private BitSetUndirectedGraph<Integer> brock;
+  private long[][] adjacency;
+  private long[] all;
+
+  @Before
+  public void setUp() {
+    String fileName = "brock200_2.dimacs"; // max clique of 12
+    InputStream stream = TestBitSetColoring.class.getResourceAsStream(fileName);
+    brock = new BitSetUndirectedGraph<Integer>(GraphIO.readFromDimacsFile(stream, fileName));
+    adjacency = new long[brock.size()][];
+    for(int v = 0; v < brock.size(); v++) {
+      adjacency[v] = brock.getRow(v);
+    }
+    all = new long[brock.numWords()];
+    for(int v = 0; v < brock.size(); v++) {
+      BitSetUndirectedGraph.setBit(all, v);
+    }
+  }
+
+  @Test
+  public void testColorClassesAreIndependentSets() {
+    checkColoring(new BitSetColoring(adjacency, brock.numWords(), false), 1);
+    checkColoring(new BitSetColoring(adjacency, brock.numWords(), true), 1);
+    checkColoring(new BitSetColoring(adjacency, brock.numWords(), true), 10);
+  }
+
+  @Test
+  public void testRecordedVertices() {
+    BitSetColoring coloring = new BitSetColoring(adjacency, brock.numWords(), false);
+    int[] vertices = new int[brock.size()];
+    int[] colors = new int[brock.size()];
+    // every vertex is recorded when kMin is 1
+    assertEquals(brock.size(), coloring.color(all, 1, vertices, colors));
+    int kMin = 10;
+    int count = coloring.color(all, kMin, vertices, colors);
+    assertTrue(count > 0);
+    for(int i = 0; i < count; i++) {
+      assertTrue(colors[i] >= kMin);
+      assertTrue(BitSetUndirectedGraph.getBit(coloring.colorClass(colors[i] - 1), vertices[i]));
+      if(i > 0) {
+        assertTrue(colors[i] >= colors[i-1]);
+      }
+    }
+  }
+
+  @Test
+  public void testRecoloringLeavesFewerBranches() {
+    int[] vertices = new int[brock.size()];
+    int[] colors = new int[brock.size()];
+    BitSetColoring plain = new BitSetColoring(adjacency, brock.numWords(), false);
+    BitSetColoring recolor = new BitSetColoring(adjacency, brock.numWords(), true);
+    plain.color(all, 1, vertices, colors);
+    for(int kMin = 1; kMin <= plain.numColors() + 1; kMin++) {
+      int numPlain = plain.color(all, kMin, vertices, colors);
+      int numRecolored = recolor.color(all, kMin, vertices, colors);
+      assertTrue(numRecolored <= numPlain);
+      assertTrue(recolor.numColors() <= plain.numColors());
+    }
+  }
+
+  @Test
+  public void testCandidatesNotModified() {
+    BitSetColoring coloring = new BitSetColoring(adjacency, brock.numWords(), true);
+    long[] candidates = adjacency[0].clone();
+    coloring.color(candidates, 5, new int[brock.size()], new int[brock.size()]);
+    assertArrayEquals(adjacency[0], candidates);
+  }
+
+  /*
+  * Color every vertex and check that each is in exactly one class, that no class holds two
+  * neighbors, and that the number of colors bounds the max clique.
+  */
+  private void checkColoring(BitSetColoring coloring, int kMin) {
+    coloring.color(all, kMin, new int[brock.size()], new int[brock.size()]);
+    assertTrue(coloring.numColors() >= 12);
+    for(int v = 0; v < brock.size(); v++) {
+      int numClasses = 0;
+      for(int c = 0; c < coloring.numColors(); c++) {
+        long[] colorClass = coloring.colorClass(c);
+        if(BitSetUndirectedGraph.getBit(colorClass, v)) {
+          numClasses++;
+          for(int w = 0; w < brock.numWords(); w++) {
+            assertEquals(0L, colorClass[w] & adjacency[v][w]);
+          }
+        }
+      }
+      assertEquals(1, numClasses);
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.io.InputStream;
+
+public class TestBitSetUndirectedGraph {
+  private BitSetUndirectedGraph<Integer> graph;
+  private BitSetUndirectedGraph<Integer> example;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    graph = new BitSetUndirectedGraph<Integer>();
+    String fileName = "example.dimacs"; // clique: 4 5 6 7
+    InputStream stream = TestBitSetUndirectedGraph.class.getResourceAsStream(fileName);
+    example = new BitSetUndirectedGraph<Integer>(GraphIO.readFromDimacsFile(stream, fileName));
+  }
+
+  @Test
+  public void testGraphConstruction() {
+    assertEquals(7, example.size());
+    assertEquals(15, example.numEdges());
+
+    assertEquals(4, example.numNeighbors(1));
+    assertEquals(4, example.numNeighbors(2));
+    assertEquals(4, example.numNeighbors(3));
+    assertEquals(5, example.numNeighbors(4));
+    assertEquals(5, example.numNeighbors(5));
+    assertEquals(4, example.numNeighbors(6));
+    assertEquals(4, example.numNeighbors(7));
+
+    assertTrue(example.hasEdge(1, 2));
+    assertTrue(example.hasEdge(2, 1));
+    assertTrue(example.hasEdge(4, 7));
+    assertFalse(example.hasEdge(1, 5));
+    assertFalse(example.hasEdge(5, 1));
+    assertFalse(example.hasEdge(1, 8));
+  }
+
+  @Test
+  public void testAddAndRemoveEdges() {
+    graph.addEdge(1, 2);
+    graph.addEdge(2, 1);
+    graph.addEdge(2, 3);
+    assertEquals(3, graph.size());
+    assertEquals(2, graph.numEdges());
+    assertTrue(graph.hasEdge(3, 2));
+
+    graph.removeEdge(3, 2);
+    graph.removeEdge(3, 2);
+    assertEquals(1, graph.numEdges());
+    assertFalse(graph.hasEdge(2, 3));
+    assertEquals(1, graph.numNeighbors(2));
+    assertEquals(0, graph.numNeighbors(3));
+  }
+
+  @Test
+  public void testGrowBeyondInitialCapacity() {
+    BitSetUndirectedGraph<Integer> big = new BitSetUndirectedGraph<Integer>(2);
+    for(int i = 0; i < 200; i++) {
+      big.addEdge(i, (i+1) % 200);
+    }
+    assertEquals(200, big.size());
+    assertEquals(200, big.numEdges());
+    assertTrue(big.hasEdge(199, 0));
+    assertTrue(big.hasEdge(63, 64));
+    assertFalse(big.hasEdge(63, 65));
+  }
+
+  @Test
+  public void testRemoveVertex() {
+    example.removeVertex(2);
+    example.removeVertex(2);
+
+    assertEquals(6, example.size());
+    assertEquals(11, example.numEdges());
+    assertFalse(example.contains(2));
+    assertFalse(example.hasEdge(1, 2));
+
+    assertEquals(3, example.numNeighbors(1));
+    assertEquals(3, example.numNeighbors(3));
+    assertEquals(5, example.numNeighbors(4));
+    assertEquals(4, example.numNeighbors(5));
+    assertEquals(3, example.numNeighbors(7));
+    assertTrue(example.hasEdge(4, 7));
+    assertTrue(example.hasEdge(7, 6));
+    assertTrue(example.hasEdge(5, 7));
+    assertTrue(example.hasEdge(1, 6));
+  }
+
+  @Test
+  public void testGetNeighborhood() {
+    BitSetUndirectedGraph<Integer> neighborhood = example.getNeighborhood(1);
+    assertEquals(5, neighborhood.size());
+    assertEquals(7, neighborhood.numEdges());
+    assertEquals(Integer.valueOf(1), neighborhood.getElements().get(0));
+    assertFalse(neighborhood.contains(5));
+    assertFalse(neighborhood.contains(7));
+    assertTrue(neighborhood.hasEdge(4, 6));
+
+    BitSetUndirectedGraph<Integer> neighbors = example.getNeighbors(1);
+    assertEquals(4, neighbors.size());
+    assertEquals(3, neighbors.numEdges());
+    assertFalse(neighbors.contains(1));
+
+    List<Integer> elements = new ArrayList<Integer>();
+    elements.add(1);
+    elements.add(5);
+    neighborhood = example.getNeighborhood(elements);
+    assertEquals(7, neighborhood.size());
+    assertEquals(15, neighborhood.numEdges());
+  }
+
+  @Test
+  public void testGetNeighborhoodException() {
+    exception.expect(NoSuchElementException.class);
+    example.getNeighborhood(8);
+  }
+
+  @Test
+  public void testGetComplement() {
+    BitSetUndirectedGraph<Integer> complement = example.getComplement();
+    assertEquals(7, complement.size());
+    assertEquals(6, complement.numEdges());
+    assertTrue(complement.hasEdge(1, 5));
+    assertTrue(complement.hasEdge(1, 7));
+    assertTrue(complement.hasEdge(2, 4));
+    assertTrue(complement.hasEdge(2, 6));
+    assertTrue(complement.hasEdge(3, 6));
+    assertTrue(complement.hasEdge(3, 7));
+    assertFalse(complement.hasEdge(4, 5));
+    assertFalse(complement.hasEdge(4, 4));
+    assertEquals(example, complement.getComplement());
+  }
+
+  @Test
+  public void testSubset() {
+    LinkedList<Integer> list = new LinkedList<Integer>();
+    list.add(3);
+    list.add(4);
+    list.add(5);
+    list.add(6);
+    list.add(6);
+    list.add(9);
+    BitSetUndirectedGraph<Integer> subset = example.subset(list);
+    assertEquals(4, subset.size());
+    assertEquals(5, subset.numEdges());
+    assertTrue(subset.hasEdge(3,4));
+    assertTrue(subset.hasEdge(4,6));
+    assertFalse(subset.hasEdge(3,6));
+    assertFalse(subset.contains(7));
+  }
+
+  @Test
+  public void testIsClique() {
+    List<Integer> list = new ArrayList<Integer>();
+    list.add(4);
+    list.add(5);
+    list.add(6);
+    list.add(7);
+    assertTrue(example.checkIfClique(list));
+    assertTrue(example.subset(list).isClique());
+    list.add(1);
+    assertFalse(example.checkIfClique(list));
+    assertFalse(example.isClique());
+  }
+
+  @Test
+  public void testDegeneracyOrdering() {
+    ArrayList<Integer> ordering = example.degeneracyOrdering();
+    assertEquals(7, ordering.size());
+    // 1, 2 and 3 are not in the 4-clique and are all removed before it
+    assertFalse(ordering.subList(3, 7).contains(1));
+    assertFalse(ordering.subList(3, 7).contains(2));
+    assertFalse(ordering.subList(3, 7).contains(3));
+  }
+
+  @Test
+  public void testToUndirectedGraph() {
+    String fileName = "example.dimacs";
+    InputStream stream = TestBitSetUndirectedGraph.class.getResourceAsStream(fileName);
+    UndirectedGraph<Integer> original = GraphIO.readFromDimacsFile(stream, fileName);
+    assertEquals(original, example.toUndirectedGraph());
+    assertEquals(example, new BitSetUndirectedGraph<Integer>(example));
+  }
+}
@@ -1,6 +1,7 @@
 package com.aaronpmaus.jMath.graph;
 
 import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 import org.junit.Test;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -12,8 +13,10 @@ import org.junit.rules.ExpectedException;
 import com.aaronpmaus.jMath.graph.*;
 import com.aaronpmaus.jMath.io.GraphIO;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Random;
 
 // @Test flags a method as a test method.
 // @Before indicates that a method will be run before every
@@ -26,6 +29,9 @@ import java.util.ArrayList;
 //  all the other methods in the test suite finish..
 
 public class TestCliqueAlgorithms {
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
   private UndirectedGraph<Integer> example;
   private UndirectedGraph<Integer> maxSatGraph;
   private UndirectedGraph<Integer> clique;
@@ -45,6 +51,24 @@ public class TestCliqueAlgorithms {
     verifyClique(clique);
   }
 
+  @Test
+  public void testIncMaxCliqueAdapterNativeBinary() {
+    // the IncMaxClique executable is not bundled, skip this test unless it is on the PATH
+    assumeTrue(isNativeBinaryOnPath());
+    cliqueTool = new IncMaxCliqueAdapter(true);
+    UndirectedGraph<Integer> clique = cliqueTool.findMaxClique(example);
+    verifyClique(clique);
+  }
+
+  @Test
+  public void testIncMaxCliqueAdapterOnDimacsGraphs() {
+    cliqueTool = new IncMaxCliqueAdapter();
+    assertEquals(12, findMaxCliqueSize("brock200_2.dimacs"));
+    assertEquals(8, findMaxCliqueSize("p_hat300_1.dimacs"));
+    assertEquals(34, findMaxCliqueSize("c125.9.dimacs"));
+    assertEquals(4, cliqueTool.findMaxClique(new BitSetUndirectedGraph<Integer>(example)).size());
+  }
+
   @Test
   public void testIncMaxCliqueSolver() {
     cliqueTool = new IncMaxCliqueSolver();
@@ -52,6 +76,43 @@ public class TestCliqueAlgorithms {
     verifyClique(clique);
   }
 
+  @Test
+  public void testIncMaxCliqueSolverOnDimacsGraphs() {
+    cliqueTool = new IncMaxCliqueSolver();
+    assertEquals(12, findMaxCliqueSize("brock200_2.dimacs"));
+    assertEquals(8, findMaxCliqueSize("p_hat300_1.dimacs"));
+  }
+
+  @Test
+  public void testIncMaxCliqueSolverSeededSearch() {
+    // random graphs whose max clique was missed by the search started from a heuristic clique,
+    // when the incremental bound of a vertex was taken from its first neighbor after it alone
+    cliqueTool = new IncMaxCliqueSolver();
+    for(long seed : new long[]{1033, 1379, 1783, 1976, 2188, 2202, 2494, 2537, 2683}) {
+      UndirectedGraph<Integer> graph = randomGraph(seed);
+      UndirectedGraph<Integer> clique = cliqueTool.findMaxClique(graph);
+      assertTrue(graph.checkIfClique(clique.getElements()));
+      assertEquals(bruteForceMaxCliqueSize(graph), clique.size());
+    }
+  }
+
+  @Test
+  public void testIncMaxCliqueSolverOnRandomGraphs() {
+    // the search narrows SubgraphViews of the graph renumbered in its vertex ordering, check it
+    // against an exhaustive search on graphs of every density
+    for(long seed = 0; seed < 2000; seed++) {
+      UndirectedGraph<Integer> graph = randomGraph(seed);
+      int maxCliqueSize = bruteForceMaxCliqueSize(graph);
+      UndirectedGraph<Integer> clique = new IncMaxCliqueSolver().findMaxClique(graph);
+      assertTrue(graph.checkIfClique(clique.getElements()));
+      assertEquals(maxCliqueSize, clique.size());
+      SolverResult<Integer> result =
+          new IncMaxCliqueSolver().findMaxClique(graph, new SolverOptions<Integer>());
+      assertEquals(maxCliqueSize, result.size());
+      assertTrue(result.isOptimal());
+    }
+  }
+
   @Test
   public void testMausMaxCliqueSolver() {
     cliqueTool = new MausMaxCliqueSolver();
@@ -59,6 +120,65 @@ public class TestCliqueAlgorithms {
     verifyClique(clique);
   }
 
+  @Test
+  public void testBitSetMaxCliqueSolver() {
+    cliqueTool = new BitSetMaxCliqueSolver();
+    UndirectedGraph<Integer> clique = cliqueTool.findMaxClique(example);
+    verifyClique(clique);
+    clique = cliqueTool.findMaxClique(new BitSetUndirectedGraph<Integer>(example));
+    verifyClique(clique);
+  }
+
+  @Test
+  public void testBitSetMaxCliqueSolverOnDimacsGraphs() {
+    cliqueTool = new BitSetMaxCliqueSolver();
+    assertEquals(12, findMaxCliqueSize("brock200_2.dimacs"));
+    assertEquals(8, findMaxCliqueSize("p_hat300_1.dimacs"));
+    assertEquals(34, findMaxCliqueSize("c125.9.dimacs"));
+  }
+
+  @Test
+  public void testVertexOrders() {
+    for(VertexRenumbering.Order order : VertexRenumbering.Order.values()) {
+      cliqueTool = new BitSetMaxCliqueSolver();
+      cliqueTool.setVertexOrder(order);
+      assertEquals(12, findMaxCliqueSize("brock200_2.dimacs"));
+      cliqueTool = new IncMaxCliqueAdapter();
+      cliqueTool.setVertexOrder(order);
+      assertEquals(8, findMaxCliqueSize("p_hat300_1.dimacs"));
+      cliqueTool = new MausMaxCliqueSolver();
+      cliqueTool.setVertexOrder(order);
+      verifyClique(cliqueTool.findMaxClique(example));
+    }
+  }
+
+  @Test
+  public void testParallelBitSetMaxCliqueSolver() {
+    cliqueTool = new BitSetMaxCliqueSolver(4);
+    verifyClique(cliqueTool.findMaxClique(example));
+    assertEquals(12, findMaxCliqueSize("brock200_2.dimacs"));
+    assertEquals(8, findMaxCliqueSize("p_hat300_1.dimacs"));
+    assertEquals(34, findMaxCliqueSize("c125.9.dimacs"));
+  }
+
+  @Test
+  public void testBitSetMaxCliqueSolverOnSmallGraphs() {
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+    cliqueTool = new BitSetMaxCliqueSolver();
+    assertEquals(0, cliqueTool.findMaxClique(graph).size());
+    graph.addVertex(1);
+    assertEquals(1, cliqueTool.findMaxClique(graph).size());
+    graph.addVertex(2);
+    assertEquals(1, cliqueTool.findMaxClique(graph).size());
+    graph.addEdge(1, 2);
+    assertEquals(2, cliqueTool.findMaxClique(graph).size());
+    cliqueTool = new BitSetMaxCliqueSolver(2);
+    assertEquals(2, cliqueTool.findMaxClique(graph).size());
+    graph = new UndirectedGraph<Integer>();
+    graph.addVertex(1);
+    assertEquals(1, cliqueTool.findMaxClique(graph).size());
+  }
+
   @Test
   public void testIncMaxCliqueAdapterOnGraphOfSizeOne() {
     UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
@@ -99,6 +219,146 @@ public class TestCliqueAlgorithms {
 
   }
 
+  @Test
+  public void testMaxSatUBOnOddCycle() {
+    // a 5-cycle needs 3 colors but its max clique is an edge
+    UndirectedGraph<Integer> cycle = new UndirectedGraph<Integer>();
+    for(int i = 1; i <= 5; i++) {
+      cycle.addEdge(i, i % 5 + 1);
+    }
+    ArrayList<ArrayList<Node<Integer>>> colorSets = new ArrayList<ArrayList<Node<Integer>>>();
+    ArrayList<Node<Integer>> set = new ArrayList<Node<Integer>>();
+    set.add(cycle.getNode(1));
+    set.add(cycle.getNode(3));
+    colorSets.add(set);
+    set = new ArrayList<Node<Integer>>();
+    set.add(cycle.getNode(2));
+    set.add(cycle.getNode(4));
+    colorSets.add(set);
+    set = new ArrayList<Node<Integer>>();
+    set.add(cycle.getNode(5));
+    colorSets.add(set);
+    MaxSatUB maxSatUB = new MaxSatUB(cycle);
+    assertEquals(2, maxSatUB.estimateCardinality(cycle, colorSets));
+    assertEquals(2, maxSatUB.estimateCardinality(cycle));
+  }
+
+  @Test
+  public void testMaxSatUBIsUpperBound() {
+    MaxSatUB maxSatUB = new MaxSatUB(example);
+    int bound = maxSatUB.estimateCardinality(example);
+    assertTrue(bound >= 4);
+    assertTrue(bound <= 5);
+    String fileName = "brock200_2.dimacs";
+    InputStream stream = TestCliqueAlgorithms.class.getResourceAsStream(fileName);
+    UndirectedGraph<Integer> graph = GraphIO.readFromDimacsFile(stream, fileName);
+    assertTrue(new MaxSatUB(graph).estimateCardinality(graph) >= 12);
+  }
+
+  @Test
+  public void testMaxSatUBActiveVertices() {
+    MaxSatUB maxSatUB = new MaxSatUB(example);
+    assertTrue(maxSatUB.estimateCardinality() >= 4);
+
+    // without 4 and 5 the largest clique is 1 2 3
+    maxSatUB.deactivate(4);
+    maxSatUB.deactivate(5);
+    assertFalse(maxSatUB.isActive(4));
+    int bound = maxSatUB.estimateCardinality();
+    assertTrue(bound >= 3);
+    assertTrue(bound < 5);
+    maxSatUB.activate(4);
+    maxSatUB.activate(5);
+
+    // the neighbors of 7 are 2 4 5 6, the largest clique among them is 4 5 6
+    maxSatUB.retainNeighbors(7);
+    assertFalse(maxSatUB.isActive(7));
+    assertFalse(maxSatUB.isActive(1));
+    assertEquals(3, maxSatUB.estimateCardinality());
+    ArrayList<ArrayList<Node<Integer>>> colorSets = new ArrayList<ArrayList<Node<Integer>>>();
+    for(int i = 1; i <= 7; i++) {
+      ArrayList<Node<Integer>> set = new ArrayList<Node<Integer>>();
+      set.add(example.getNode(i));
+      colorSets.add(set);
+    }
+    // vertices that are not active are left out of the partition
+    assertEquals(3, maxSatUB.estimateCardinality(colorSets));
+    maxSatUB.restoreActive();
+    assertTrue(maxSatUB.isActive(7));
+    assertTrue(maxSatUB.isActive(1));
+  }
+
+  @Test
+  public void testMaxSatUBRestoreActiveException() {
+    exception.expect(IllegalStateException.class);
+    new MaxSatUB(example).restoreActive();
+  }
+
+  /*
+  * Find the max clique in the graph from the test resource fileName with cliqueTool. Checks that
+  * the result is a clique and returns its size.
+  */
+  private int findMaxCliqueSize(String fileName) {
+    InputStream stream = TestCliqueAlgorithms.class.getResourceAsStream(fileName);
+    UndirectedGraph<Integer> graph = GraphIO.readFromDimacsFile(stream, fileName);
+    UndirectedGraph<Integer> clique = cliqueTool.findMaxClique(graph);
+    assertTrue(graph.checkIfClique(clique.getElements()));
+    return clique.size();
+  }
+
+  /*
+  * A graph of 1 to 45 vertices, numbered from 0, with each edge present with a probability drawn
+  * from seed.
+  */
+  private static UndirectedGraph<Integer> randomGraph(long seed) {
+    Random gen = new Random(seed);
+    int numVertices = 1 + gen.nextInt(45);
+    double[] densities = {0.1, 0.3, 0.5, 0.7, 0.8, 0.9, 0.95};
+    double density = densities[gen.nextInt(densities.length)];
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+    for(int i = 0; i < numVertices; i++) {
+      graph.addVertex(i);
+    }
+    for(int i = 0; i < numVertices; i++) {
+      for(int j = i + 1; j < numVertices; j++) {
+        if(gen.nextDouble() < density) {
+          graph.addEdge(i, j);
+        }
+      }
+    }
+    return graph;
+  }
+
+  /*
+  * The size of the max clique of a graph of at most 64 vertices numbered from 0, found by trying
+  * every clique that could be larger than the largest found so far.
+  */
+  private static int bruteForceMaxCliqueSize(UndirectedGraph<Integer> graph) {
+    int numVertices = graph.size();
+    long[] neighbors = new long[numVertices];
+    for(int i = 0; i < numVertices; i++) {
+      for(int j = 0; j < numVertices; j++) {
+        if(i != j && graph.hasEdge(i, j)) {
+          neighbors[i] |= 1L << j;
+        }
+      }
+    }
+    long all = numVertices == 64 ? -1L : (1L << numVertices) - 1;
+    return largestClique(neighbors, all, 0, 0);
+  }
+
+  private static int largestClique(long[] neighbors, long candidates, int size, int largest) {
+    if(size > largest) {
+      largest = size;
+    }
+    while(candidates != 0 && size + Long.bitCount(candidates) > largest) {
+      int v = Long.numberOfTrailingZeros(candidates);
+      candidates &= candidates - 1;
+      largest = largestClique(neighbors, candidates & neighbors[v], size + 1, largest);
+    }
+    return largest;
+  }
+
   private void verifyClique(UndirectedGraph<Integer> clique) {
     assertTrue(clique.contains(4));
     assertTrue(clique.contains(5));
@@ -108,4 +368,26 @@ public class TestCliqueAlgorithms {
     assertFalse(clique.contains(2));
     assertFalse(clique.contains(3));
   }
+
+  private static boolean isNativeBinaryOnPath() {
+    String os = System.getProperty("os.name").trim().toLowerCase();
+    String executable;
+    if(os.equals("mac os x")) {
+      executable = "IncMaxCliqueMac";
+    } else if(os.equals("linux")) {
+      executable = "IncMaxCliqueLinux";
+    } else {
+      return false;
+    }
+    String path = System.getenv("PATH");
+    if(path == null) {
+      return false;
+    }
+    for(String dir : path.split(File.pathSeparator)) {
+      if(new File(dir, executable).canExecute()) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -0,0 +1,128 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.io.InputStream;
+
+public class TestCliqueReduction {
+  private UndirectedGraph<Integer> example;
+  private UndirectedGraph<Integer> twoCliques;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    String fileName = "example.dimacs"; // clique: 4 5 6 7
+    InputStream stream = TestCliqueReduction.class.getResourceAsStream(fileName);
+    example = GraphIO.readFromDimacsFile(stream, fileName);
+
+    // a 4-clique on 1 through 4 and a 3-clique on 5 through 7, joined by a path 4 - 8 - 5
+    twoCliques = new UndirectedGraph<Integer>();
+    for(int i = 1; i <= 4; i++) {
+      for(int j = 1; j < i; j++) {
+        twoCliques.addEdge(i, j);
+      }
+    }
+    twoCliques.addEdge(5, 6);
+    twoCliques.addEdge(5, 7);
+    twoCliques.addEdge(6, 7);
+    twoCliques.addEdge(4, 8);
+    twoCliques.addEdge(8, 5);
+  }
+
+  @Test
+  public void testRemoveVerticesBelowDegree() {
+    assertEquals(4, CliqueReduction.removeVerticesBelowDegree(twoCliques, 3));
+    assertEquals(4, twoCliques.size());
+    assertEquals(6, twoCliques.numEdges());
+    assertEquals(twoCliques.getNumEdges(), 2 * twoCliques.numEdges());
+    assertTrue(twoCliques.isClique());
+    assertEquals(4, CliqueReduction.removeVerticesBelowDegree(twoCliques, 4));
+    assertEquals(0, twoCliques.size());
+  }
+
+  @Test
+  public void testRemoveVerticesBelowDegreeInView() {
+    SubgraphView<Integer> view = twoCliques.view();
+    assertEquals(4, CliqueReduction.removeVerticesBelowDegree(view, 3));
+    assertEquals(4, view.size());
+    assertTrue(view.isClique());
+    // the graph the view was taken of is left alone
+    assertEquals(8, twoCliques.size());
+    assertEquals(4, CliqueReduction.removeVerticesBelowDegree(view, 4));
+    assertEquals(0, view.size());
+  }
+
+  @Test
+  public void testGreedyClique() {
+    CliqueReduction<Integer> reduction = new CliqueReduction<Integer>(example);
+    assertTrue(example.checkIfClique(reduction.getLowerBoundClique()));
+    assertEquals(4, reduction.getLowerBound());
+    // every vertex has at least 4 neighbors, so no vertex is removed
+    assertEquals(1, reduction.getComponents().size());
+    assertEquals(7, reduction.getComponents().get(0).size());
+  }
+
+  @Test
+  public void testComponents() {
+    CliqueReduction<Integer> reduction =
+        new CliqueReduction<Integer>(twoCliques, Arrays.asList(5, 6, 7));
+    assertEquals(3, reduction.getLowerBound());
+    ArrayList<UndirectedGraph<Integer>> components = reduction.getComponents();
+    assertEquals(1, components.size());
+    assertEquals(new HashSet<Integer>(Arrays.asList(1, 2, 3, 4)),
+        new HashSet<Integer>(components.get(0).getElements()));
+
+    reduction = new CliqueReduction<Integer>(twoCliques, Arrays.asList(4, 8));
+    components = reduction.getComponents();
+    // the 2-core is both cliques and the path between them
+    assertEquals(1, components.size());
+    assertEquals(8, components.get(0).size());
+
+    reduction = new CliqueReduction<Integer>(twoCliques, Arrays.asList(1, 2, 3, 4));
+    assertTrue(reduction.getComponents().isEmpty());
+  }
+
+  @Test
+  public void testNotAClique() {
+    exception.expect(IllegalArgumentException.class);
+    new CliqueReduction<Integer>(twoCliques, Arrays.asList(1, 5));
+  }
+
+  @Test
+  public void testReducingSolver() {
+    MaxCliqueSolver<Integer> solver =
+        new ReducingMaxCliqueSolver<Integer>(new BitSetMaxCliqueSolver());
+    UndirectedGraph<Integer> clique = solver.findMaxClique(twoCliques);
+    assertTrue(clique.isClique());
+    assertEquals(4, clique.size());
+    for(int seed = 0; seed < 10; seed++) {
+      Random random = new Random(seed);
+      UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+      for(int i = 1; i <= 60; i++) {
+        graph.addVertex(i);
+        for(int j = 1; j < i; j++) {
+          if(random.nextDouble() < 0.15) {
+            graph.addEdge(i, j);
+          }
+        }
+      }
+      UndirectedGraph<Integer> expected = new BitSetMaxCliqueSolver().findMaxClique(graph);
+      clique = solver.findMaxClique(graph);
+      assertTrue(graph.checkIfClique(clique.getElements()));
+      assertEquals(expected.size(), clique.size());
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.io.InputStream;
+
+public class TestCoreDecomposition {
+  private UndirectedGraph<Integer> example;
+  private UndirectedGraph<Integer> cliqueWithTail;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    String fileName = "example.dimacs"; // clique: 4 5 6 7
+    InputStream stream = TestCoreDecomposition.class.getResourceAsStream(fileName);
+    example = GraphIO.readFromDimacsFile(stream, fileName);
+
+    // a 5-clique on 1 through 5, a path 5 - 6 - 7, and 8 on its own
+    cliqueWithTail = new UndirectedGraph<Integer>();
+    for(int i = 1; i <= 5; i++) {
+      for(int j = 1; j < i; j++) {
+        cliqueWithTail.addEdge(i, j);
+      }
+    }
+    cliqueWithTail.addEdge(5, 6);
+    cliqueWithTail.addEdge(6, 7);
+    cliqueWithTail.addVertex(8);
+  }
+
+  @Test
+  public void testExample() {
+    // every vertex has at least 4 neighbors, and only 4 and 5 have more
+    CoreDecomposition<Integer> cores = example.coreDecomposition();
+    assertEquals(4, cores.getDegeneracy());
+    for(int i = 1; i <= 7; i++) {
+      assertEquals(4, cores.getCoreNumber(i));
+    }
+    assertEquals(7, cores.getCore(4).size());
+    assertTrue(cores.getCore(5).isEmpty());
+  }
+
+  @Test
+  public void testCoreNumbers() {
+    checkCliqueWithTail(cliqueWithTail.coreDecomposition());
+    checkCliqueWithTail(new BitSetUndirectedGraph<Integer>(cliqueWithTail).coreDecomposition());
+    checkCliqueWithTail(new CsrGraph<Integer>(cliqueWithTail).coreDecomposition());
+  }
+
+  private void checkCliqueWithTail(CoreDecomposition<Integer> cores) {
+    assertEquals(4, cores.getDegeneracy());
+    for(int i = 1; i <= 5; i++) {
+      assertEquals(4, cores.getCoreNumber(i));
+    }
+    assertEquals(1, cores.getCoreNumber(6));
+    assertEquals(1, cores.getCoreNumber(7));
+    assertEquals(0, cores.getCoreNumber(8));
+    assertEquals(new HashSet<Integer>(cores.getCore(2)), new HashSet<Integer>(cores.getCore(4)));
+    assertEquals(5, cores.getCore(4).size());
+    assertEquals(7, cores.getCore(1).size());
+    assertEquals(8, cores.getOrdering().size());
+    // the 5-clique is removed last
+    assertEquals(new HashSet<Integer>(cores.getCore(4)),
+        new HashSet<Integer>(cores.getOrdering().subList(3, 8)));
+  }
+
+  @Test
+  public void testGraphNotModified() {
+    UndirectedGraph<Integer> copy = new UndirectedGraph<Integer>(example);
+    example.degeneracyOrdering();
+    assertEquals(copy, example);
+  }
+
+  @Test
+  public void testEmptyGraph() {
+    CoreDecomposition<Integer> cores = new UndirectedGraph<Integer>().coreDecomposition();
+    assertEquals(0, cores.getDegeneracy());
+    assertTrue(cores.getOrdering().isEmpty());
+  }
+
+  @Test
+  public void testMatchesPeeling() {
+    for(int seed = 0; seed < 20; seed++) {
+      Random random = new Random(seed);
+      UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+      for(int i = 1; i <= 40; i++) {
+        graph.addVertex(i);
+        for(int j = 1; j < i; j++) {
+          if(random.nextDouble() < 0.2) {
+            graph.addEdge(i, j);
+          }
+        }
+      }
+      CoreDecomposition<Integer> cores = graph.coreDecomposition();
+      BitSetUndirectedGraph<Integer> bits = new BitSetUndirectedGraph<Integer>(graph);
+      assertEquals(cores.getDegeneracy(), bits.coreDecomposition().getDegeneracy());
+      for(int k = 0; k <= cores.getDegeneracy() + 1; k++) {
+        // the k-core is what is left after repeatedly removing vertices with fewer than k neighbors
+        UndirectedGraph<Integer> core = new UndirectedGraph<Integer>(graph);
+        boolean removed = true;
+        while(removed) {
+          removed = false;
+          for(Integer element : new ArrayList<Integer>(core.getElements())) {
+            if(core.getNode(element).numNeighbors() < k) {
+              core.removeVertex(element);
+              removed = true;
+            }
+          }
+        }
+        assertEquals(new HashSet<Integer>(core.getElements()),
+            new HashSet<Integer>(cores.getCore(k)));
+      }
+    }
+  }
+
+  @Test
+  public void testElementNotInGraph() {
+    exception.expect(NoSuchElementException.class);
+    example.coreDecomposition().getCoreNumber(42);
+  }
+}
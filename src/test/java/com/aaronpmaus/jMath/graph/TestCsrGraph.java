@@ -0,0 +1,193 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.DimacsReader;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class TestCsrGraph {
+  private UndirectedGraph<Integer> original;
+  private CsrGraph<Integer> example;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    String fileName = "example.dimacs"; // clique: 4 5 6 7
+    InputStream stream = TestCsrGraph.class.getResourceAsStream(fileName);
+    original = GraphIO.readFromDimacsFile(stream, fileName);
+    example = new CsrGraph<Integer>(original);
+  }
+
+  @Test
+  public void testGraphConstruction() {
+    assertEquals(7, example.size());
+    assertEquals(30, example.numArcs());
+    assertEquals(15, example.numEdges());
+    assertFalse(example.isDirected());
+    assertFalse(example.isWeighted());
+    for(int v = 0; v < example.size(); v++) {
+      assertEquals(original.getNode(example.get(v)).numNeighbors(), example.degree(v));
+      for(int i = 0; i < example.degree(v); i++) {
+        assertTrue(original.hasEdge(example.get(v), example.get(example.neighbor(v, i))));
+      }
+    }
+    assertEquals(original, example.toGraph());
+  }
+
+  @Test
+  public void testForEachNeighbor() {
+    final int[] sum = new int[1];
+    example.forEachNeighbor(example.indexOf(4), u -> sum[0] += example.get(u));
+    // the neighbors of 4 are 1 3 5 6 7
+    assertEquals(22, sum[0]);
+  }
+
+  @Test
+  public void testShortestPath() {
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+    graph.addEdge(1,2);
+    graph.addEdge(2,3);
+    graph.addEdge(3,7);
+    graph.addEdge(1,4);
+    graph.addEdge(4,5);
+    graph.addEdge(5,6);
+    graph.addEdge(6,7);
+    graph.addEdge(8,9);
+    CsrGraph<Integer> csr = new CsrGraph<Integer>(graph);
+    assertEquals(Arrays.asList(1, 2), csr.shortestPath(1, 2));
+    assertEquals(Arrays.asList(1, 2, 3, 7), csr.shortestPath(1, 7));
+    assertEquals(0, csr.shortestPath(1, 8).size());
+    assertEquals(0, csr.shortestPath(1, 1).size());
+
+    // the long way round is shorter once the short way is heavy
+    graph.removeEdge(2, 3);
+    graph.removeEdge(3, 2);
+    graph.addEdge(2, 3, 10.0);
+    csr = new CsrGraph<Integer>(graph);
+    assertTrue(csr.isWeighted());
+    assertEquals(graph.shortestPath(1, 7), csr.shortestPath(1, 7));
+    assertEquals(Arrays.asList(1, 4, 5, 6, 7), csr.shortestPath(1, 7));
+  }
+
+  @Test
+  public void testDirectedShortestPath() {
+    Graph<Integer> graph = new Graph<Integer>();
+    graph.addEdge(1, 2);
+    graph.addEdge(2, 3);
+    CsrGraph<Integer> csr = new CsrGraph<Integer>(graph);
+    assertTrue(csr.isDirected());
+    assertEquals(2, csr.numEdges());
+    assertEquals(Arrays.asList(1, 2, 3), csr.shortestPath(1, 3));
+    assertEquals(0, csr.shortestPath(3, 1).size());
+  }
+
+  @Test
+  public void testDepthFirstSearch() {
+    UndirectedGraph<String> graph = new UndirectedGraph<String>();
+    graph.addEdge("A","B");
+    graph.addEdge("A","C");
+    graph.addEdge("A","E");
+    graph.addEdge("B","D");
+    graph.addEdge("B","F");
+    graph.addEdge("C","G");
+    graph.addEdge("F","E");
+    // the neighbors of each vertex are in the same order as in graph, so the traversals match
+    assertEquals(graph.depthFirstSearch("A"), new CsrGraph<String>(graph).depthFirstSearch("A"));
+  }
+
+  @Test
+  public void testDepthFirstSearchException() {
+    exception.expect(NoSuchElementException.class);
+    example.depthFirstSearch(8);
+  }
+
+  @Test
+  public void testDegeneracyOrdering() {
+    ArrayList<Integer> ordering = example.degeneracyOrdering();
+    assertEquals(7, ordering.size());
+    // 1, 2 and 3 are not in the 4-clique and are all removed before it
+    assertFalse(ordering.subList(3, 7).contains(1));
+    assertFalse(ordering.subList(3, 7).contains(2));
+    assertFalse(ordering.subList(3, 7).contains(3));
+  }
+
+  @Test
+  public void testDegeneracyOrderingRemovesSmallestDegree() {
+    for(int seed = 0; seed < 20; seed++) {
+      Random random = new Random(seed);
+      UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+      for(int i = 1; i <= 40; i++) {
+        graph.addVertex(i);
+        for(int j = 1; j < i; j++) {
+          if(random.nextDouble() < 0.2) {
+            graph.addEdge(i, j);
+          }
+        }
+      }
+      CsrGraph<Integer> csr = new CsrGraph<Integer>(graph);
+      int[] order = csr.degeneracyOrder();
+      boolean[] removed = new boolean[csr.size()];
+      for(int v : order) {
+        // no remaining vertex has a smaller degree than the one removed
+        int degree = remainingDegree(csr, v, removed);
+        for(int u = 0; u < csr.size(); u++) {
+          if(!removed[u]) {
+            assertTrue(remainingDegree(csr, u, removed) >= degree);
+          }
+        }
+        removed[v] = true;
+      }
+    }
+  }
+
+  @Test
+  public void testDegeneracyOrderingDirectedException() {
+    Graph<Integer> graph = new Graph<Integer>();
+    graph.addEdge(1, 2);
+    exception.expect(UnsupportedOperationException.class);
+    new CsrGraph<Integer>(graph).degeneracyOrdering();
+  }
+
+  @Test
+  public void testFromDimacsReader() throws IOException {
+    String fileName = "brock200_2.dimacs";
+    UndirectedGraph<Integer> graph =
+        GraphIO.readFromDimacsFile(TestCsrGraph.class.getResourceAsStream(fileName), fileName);
+    CsrGraph<Integer> csr = DimacsReader.read(TestCsrGraph.class.getResourceAsStream(fileName))
+        .toCsrGraph();
+    assertEquals(graph.size(), csr.size());
+    assertEquals(graph.numEdges(), csr.numEdges());
+    assertEquals(graph, csr.toGraph());
+  }
+
+  @Test
+  public void testInvalidArrays() {
+    exception.expect(IllegalArgumentException.class);
+    new CsrGraph<Integer>(Arrays.asList(1, 2), new int[]{0, 1, 2}, new int[]{1, 2}, null, false);
+  }
+
+  private int remainingDegree(CsrGraph<Integer> csr, int v, boolean[] removed) {
+    int degree = 0;
+    for(int i = 0; i < csr.degree(v); i++) {
+      if(!removed[csr.neighbor(v, i)]) {
+        degree++;
+      }
+    }
+    return degree;
+  }
+}
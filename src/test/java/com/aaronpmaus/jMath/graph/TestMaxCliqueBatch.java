@@ -0,0 +1,221 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class TestMaxCliqueBatch {
+  private String example;
+  private String brock;
+  private String pHat;
+  private Supplier<MaxCliqueSolver<Integer>> bitSetSolvers;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    example = resourcePath("example.dimacs"); // max clique of size 4
+    brock = resourcePath("brock200_2.dimacs"); // max clique of size 12
+    pHat = resourcePath("p_hat300_1.dimacs"); // max clique of size 8
+    bitSetSolvers = new Supplier<MaxCliqueSolver<Integer>>() {
+      @Override
+      public MaxCliqueSolver<Integer> get() {
+        return new BitSetMaxCliqueSolver(1);
+      }
+    };
+  }
+
+  @Test
+  public void testRun() throws InterruptedException {
+    MaxCliqueBatch batch = new MaxCliqueBatch(bitSetSolvers, 2);
+    final ArrayList<BatchResult> heard = new ArrayList<BatchResult>();
+    List<BatchResult> results = batch.run(Arrays.asList(example, brock, pHat), new BatchListener() {
+      @Override
+      public void graphSolved(BatchResult result) {
+        heard.add(result);
+      }
+    });
+    assertEquals(3, results.size());
+    assertEquals(results, heard);
+    HashMap<String, BatchResult> byGraph = new HashMap<String, BatchResult>();
+    for(BatchResult result : results) {
+      assertFalse(result.failed());
+      assertTrue(result.isOptimal());
+      byGraph.put(result.getGraphFileName(), result);
+    }
+    assertEquals(4, byGraph.get(example).size());
+    assertEquals(Arrays.asList(4, 5, 6, 7), byGraph.get(example).getClique());
+    assertEquals(12, byGraph.get(brock).size());
+    assertEquals(8, byGraph.get(pHat).size());
+  }
+
+  @Test
+  public void testRunWithOtherSolvers() throws InterruptedException {
+    MaxCliqueBatch batch = new MaxCliqueBatch(new Supplier<MaxCliqueSolver<Integer>>() {
+      @Override
+      public MaxCliqueSolver<Integer> get() {
+        return new ReducingMaxCliqueSolver<Integer>(new MausMaxCliqueSolver());
+      }
+    }, 3);
+    batch.setCollectStats(true);
+    List<BatchResult> results = batch.run(Arrays.asList(example, brock), null);
+    assertEquals(2, results.size());
+    for(BatchResult result : results) {
+      assertEquals(result.getGraphFileName().equals(example) ? 4 : 12, result.size());
+      assertTrue(result.getStats().isEnabled());
+      assertTrue(result.toJson().contains("\"stats\": {"));
+    }
+  }
+
+  @Test
+  public void testMissingGraphFails() throws InterruptedException {
+    MaxCliqueBatch batch = new MaxCliqueBatch(bitSetSolvers, 2);
+    List<BatchResult> results = batch.run(Arrays.asList("no such graph.dimacs", example), null);
+    assertEquals(2, results.size());
+    for(BatchResult result : results) {
+      if(result.getGraphFileName().equals(example)) {
+        assertFalse(result.failed());
+        assertEquals(4, result.size());
+      } else {
+        assertTrue(result.failed());
+        assertNotNull(result.getError());
+        assertEquals(0, result.size());
+        assertFalse(result.isOptimal());
+      }
+    }
+  }
+
+  @Test
+  public void testTimeLimit() throws InterruptedException {
+    MaxCliqueBatch batch = new MaxCliqueBatch(bitSetSolvers, 1);
+    batch.setTimeLimit(1);
+    assertEquals(1, batch.getTimeLimit());
+    BatchResult result = batch.run(Arrays.asList(resourcePath("c250.9.dimacs")), null).get(0);
+    assertFalse(result.failed());
+    assertTrue(result.size() <= 44);
+    assertTrue(result.getUpperBound() >= 44);
+  }
+
+  @Test
+  public void testInterruptCancelsSearches() throws InterruptedException {
+    // a solver that only stops when its options say to, as a search with no time limit does
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch cancelled = new CountDownLatch(1);
+    final MaxCliqueBatch batch = new MaxCliqueBatch(new Supplier<MaxCliqueSolver<Integer>>() {
+      @Override
+      public MaxCliqueSolver<Integer> get() {
+        return new MaxCliqueSolver<Integer>() {
+          @Override
+          public UndirectedGraph<Integer> findMaxClique(UndirectedGraph<Integer> graph) {
+            throw new UnsupportedOperationException();
+          }
+
+          @Override
+          public SolverResult<Integer> findMaxClique(UndirectedGraph<Integer> graph,
+              SolverOptions<Integer> options) {
+            started.countDown();
+            long giveUp = System.currentTimeMillis() + 10000;
+            while(!options.shouldStop() && System.currentTimeMillis() < giveUp) {
+              Thread.yield();
+            }
+            if(options.isCancelled()) {
+              cancelled.countDown();
+            }
+            UndirectedGraph<Integer> clique = graph.subset(new ArrayList<Integer>());
+            return new SolverResult<Integer>(clique, graph.size(), options.getStats());
+          }
+        };
+      }
+    }, 1);
+    Thread runner = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          batch.run(Arrays.asList(example), null);
+        } catch (InterruptedException e) {
+          // expected
+        }
+      }
+    });
+    runner.start();
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    runner.interrupt();
+    assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+    runner.join();
+  }
+
+  @Test
+  public void testCsvRoundTrip() throws InterruptedException {
+    MaxCliqueBatch batch = new MaxCliqueBatch(bitSetSolvers, 1);
+    BatchResult result = batch.run(Arrays.asList(example), null).get(0);
+    String csv = result.toCsv();
+    assertTrue(csv.startsWith(example + ",4,4,true,"));
+    assertTrue(csv.endsWith(",4 5 6 7,"));
+    assertEquals(example, BatchResult.graphFileNameOf(csv));
+    assertFalse(BatchResult.isFailure(csv));
+    assertNull(BatchResult.graphFileNameOf(BatchResult.csvHeader()));
+    assertFalse(BatchResult.isFailure(BatchResult.csvHeader()));
+    assertNull(BatchResult.graphFileNameOf(csv.substring(0, csv.length() - 5)));
+
+    BatchResult failed = new BatchResult("a, \"quoted\" graph", "java.io.IOException: no, really", 3);
+    assertEquals("\"a, \"\"quoted\"\" graph\",0,,false,3,,\"java.io.IOException: no, really\"",
+        failed.toCsv());
+    assertEquals("a, \"quoted\" graph", BatchResult.graphFileNameOf(failed.toCsv()));
+    assertTrue(BatchResult.isFailure(failed.toCsv()));
+    assertNull(BatchResult.graphFileNameOf("\"a, \"\"quoted"));
+  }
+
+  @Test
+  public void testJsonRoundTrip() throws InterruptedException {
+    MaxCliqueBatch batch = new MaxCliqueBatch(bitSetSolvers, 1);
+    BatchResult result = batch.run(Arrays.asList(example), null).get(0);
+    String json = result.toJson();
+    assertFalse(json.contains("\n"));
+    assertFalse(json.contains("stats"));
+    assertTrue(json.contains("\"clique\": [4, 5, 6, 7]"));
+    assertEquals(example, BatchResult.graphFileNameOf(json));
+    assertFalse(BatchResult.isFailure(json));
+    assertNull(BatchResult.graphFileNameOf(json.substring(0, json.length() - 1)));
+
+    BatchResult failed = new BatchResult("dir\\\"odd\".dimacs", "failed", 0);
+    assertEquals("{\"graph\": \"dir\\\\\\\"odd\\\".dimacs\", \"size\": 0, \"error\": \"failed\", "
+        + "\"milliseconds\": 0, \"clique\": []}", failed.toJson());
+    assertEquals("dir\\\"odd\".dimacs", BatchResult.graphFileNameOf(failed.toJson()));
+    assertTrue(BatchResult.isFailure(failed.toJson()));
+    // a graph named like an error that did not fail is not a failure
+    BatchResult named = new BatchResult("\", \"size\": 0, \"error\": x", new SolverResult<Integer>(
+        new UndirectedGraph<Integer>(), 0), 0);
+    assertFalse(BatchResult.isFailure(named.toJson()));
+    assertFalse(BatchResult.isFailure(named.toCsv()));
+  }
+
+  @Test
+  public void testInvalidNumThreads() {
+    exception.expect(IllegalArgumentException.class);
+    new MaxCliqueBatch(bitSetSolvers, 0);
+  }
+
+  @Test
+  public void testNegativeTimeLimit() {
+    MaxCliqueBatch batch = new MaxCliqueBatch(bitSetSolvers, 1);
+    exception.expect(IllegalArgumentException.class);
+    batch.setTimeLimit(-1);
+  }
+
+  private String resourcePath(String fileName) {
+    return TestMaxCliqueBatch.class.getResource(fileName).getPath();
+  }
+}
@@ -0,0 +1,128 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.io.InputStream;
+
+public class TestMaxCliqueHeuristic {
+  private UndirectedGraph<Integer> example;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    String fileName = "example.dimacs"; // clique: 4 5 6 7
+    InputStream stream = TestMaxCliqueHeuristic.class.getResourceAsStream(fileName);
+    example = GraphIO.readFromDimacsFile(stream, fileName);
+  }
+
+  @Test
+  public void testGreedyClique() {
+    MaxCliqueHeuristic<Integer> heuristic = new MaxCliqueHeuristic<Integer>(example);
+    List<Integer> clique = heuristic.findClique(0);
+    assertEquals(4, clique.size());
+    assertTrue(example.checkIfClique(clique));
+    // the coloring bound is as tight as it can be here
+    assertEquals(4, heuristic.getUpperBound());
+    clique = new MaxCliqueHeuristic<Integer>(new BitSetUndirectedGraph<Integer>(example))
+        .findClique(0);
+    assertEquals(4, clique.size());
+    assertTrue(example.checkIfClique(clique));
+  }
+
+  @Test
+  public void testEmptyGraph() {
+    MaxCliqueHeuristic<Integer> heuristic =
+        new MaxCliqueHeuristic<Integer>(new UndirectedGraph<Integer>());
+    assertTrue(heuristic.findClique(10).isEmpty());
+    assertEquals(0, heuristic.getUpperBound());
+  }
+
+  @Test
+  public void testLocalSearchFindsPlantedClique() {
+    // a 15-clique hidden in a sparse random graph
+    Random random = new Random(7);
+    UndirectedGraph<Integer> graph = randomGraph(300, 0.05, random);
+    ArrayList<Integer> planted = new ArrayList<Integer>();
+    while(planted.size() < 15) {
+      int v = 1 + random.nextInt(300);
+      if(!planted.contains(v)) {
+        planted.add(v);
+      }
+    }
+    for(int i = 0; i < planted.size(); i++) {
+      for(int j = 0; j < i; j++) {
+        if(!graph.hasEdge(planted.get(i), planted.get(j))) {
+          graph.addEdge(planted.get(i), planted.get(j));
+        }
+      }
+    }
+    MaxCliqueHeuristic<Integer> heuristic = new MaxCliqueHeuristic<Integer>(graph);
+    List<Integer> greedy = heuristic.findClique(0);
+    List<Integer> clique = heuristic.findClique(200);
+    assertTrue(graph.checkIfClique(clique));
+    assertTrue(clique.size() >= greedy.size());
+    assertEquals(15, clique.size());
+  }
+
+  @Test
+  public void testCliquesAreValid() {
+    for(int seed = 0; seed < 10; seed++) {
+      UndirectedGraph<Integer> graph = randomGraph(50, 0.3, new Random(seed));
+      int maxCliqueSize = new BitSetMaxCliqueSolver().findMaxClique(graph).size();
+      List<Integer> clique = new MaxCliqueHeuristic<Integer>(graph).findClique(5);
+      assertTrue(graph.checkIfClique(clique));
+      assertTrue(clique.size() <= maxCliqueSize);
+    }
+  }
+
+  @Test
+  public void testSeededSolvers() {
+    ArrayList<MaxCliqueSolver<Integer>> solvers = new ArrayList<MaxCliqueSolver<Integer>>();
+    solvers.add(new BitSetMaxCliqueSolver());
+    solvers.add(new IncMaxCliqueAdapter());
+    solvers.add(new MausMaxCliqueSolver());
+    for(MaxCliqueSolver<Integer> solver : solvers) {
+      solver.setHeuristicTimeLimit(5);
+    }
+    for(int seed = 0; seed < 5; seed++) {
+      UndirectedGraph<Integer> graph = randomGraph(40, 0.4, new Random(seed));
+      int expected = new BitSetMaxCliqueSolver().findMaxClique(graph).size();
+      for(MaxCliqueSolver<Integer> solver : solvers) {
+        UndirectedGraph<Integer> clique = solver.findMaxClique(graph);
+        assertTrue(graph.checkIfClique(clique.getElements()));
+        assertEquals(expected, clique.size());
+      }
+    }
+  }
+
+  @Test
+  public void testNegativeTimeLimit() {
+    exception.expect(IllegalArgumentException.class);
+    new BitSetMaxCliqueSolver().setHeuristicTimeLimit(-1);
+  }
+
+  private UndirectedGraph<Integer> randomGraph(int n, double p, Random random) {
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+    for(int i = 1; i <= n; i++) {
+      graph.addVertex(i);
+      for(int j = 1; j < i; j++) {
+        if(random.nextDouble() < p) {
+          graph.addEdge(i, j);
+        }
+      }
+    }
+    return graph;
+  }
+}
@@ -0,0 +1,145 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.io.InputStream;
+
+public class TestSolverOptions {
+  private UndirectedGraph<Integer> example;
+  private UndirectedGraph<Integer> c250;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    example = readGraph("example.dimacs"); // clique: 4 5 6 7
+    c250 = readGraph("c250.9.dimacs"); // max clique of size 44
+  }
+
+  @Test
+  public void testCompleteSearch() {
+    for(MaxCliqueSolver<Integer> solver : solvers()) {
+      SolverResult<Integer> result = solver.findMaxClique(example, new SolverOptions<Integer>());
+      assertEquals(4, result.size());
+      assertEquals(4, result.getUpperBound());
+      assertTrue(result.isOptimal());
+      assertTrue(example.checkIfClique(result.getClique().getElements()));
+    }
+  }
+
+  @Test
+  public void testTimeLimit() {
+    ArrayList<MaxCliqueSolver<Integer>> solvers = new ArrayList<MaxCliqueSolver<Integer>>();
+    solvers.add(new BitSetMaxCliqueSolver());
+    solvers.add(new BitSetMaxCliqueSolver(2));
+    solvers.add(new IncMaxCliqueAdapter());
+    solvers.add(new IncMaxCliqueSolver());
+    solvers.add(new ReducingMaxCliqueSolver<Integer>(new BitSetMaxCliqueSolver()));
+    for(MaxCliqueSolver<Integer> solver : solvers) {
+      SolverOptions<Integer> options = new SolverOptions<Integer>();
+      options.setTimeLimit(100);
+      long start = System.currentTimeMillis();
+      SolverResult<Integer> result = solver.findMaxClique(c250, options);
+      // generous, the searches only check the time every few thousand nodes
+      assertTrue(System.currentTimeMillis() - start < 5000);
+      assertTrue(c250.checkIfClique(result.getClique().getElements()));
+      assertTrue(result.size() <= 44);
+      assertTrue(result.getUpperBound() >= 44);
+      assertFalse(result.isOptimal());
+      assertEquals(result.getUpperBound() - result.size(), result.getGap());
+    }
+  }
+
+  @Test
+  public void testCancelBeforeSearch() {
+    for(MaxCliqueSolver<Integer> solver : solvers()) {
+      SolverOptions<Integer> options = new SolverOptions<Integer>();
+      options.cancel();
+      assertTrue(options.isCancelled());
+      assertTrue(options.shouldStop());
+      SolverResult<Integer> result = solver.findMaxClique(c250, options);
+      assertTrue(c250.checkIfClique(result.getClique().getElements()));
+      assertTrue(result.getUpperBound() >= 44);
+    }
+  }
+
+  @Test
+  public void testListener() {
+    final ArrayList<Integer> sizes = new ArrayList<Integer>();
+    SolverOptions<Integer> options = new SolverOptions<Integer>();
+    options.setListener(new CliqueListener<Integer>() {
+      @Override
+      public void cliqueFound(List<Integer> clique) {
+        assertTrue(c250.checkIfClique(clique));
+        sizes.add(clique.size());
+      }
+    });
+    options.setTimeLimit(200);
+    SolverResult<Integer> result = new BitSetMaxCliqueSolver().findMaxClique(c250, options);
+    assertFalse(sizes.isEmpty());
+    for(int i = 1; i < sizes.size(); i++) {
+      assertTrue(sizes.get(i) > sizes.get(i-1));
+    }
+    assertEquals(result.size(), (int) sizes.get(sizes.size() - 1));
+  }
+
+  @Test
+  public void testReportOnlyLarger() {
+    final ArrayList<Integer> sizes = new ArrayList<Integer>();
+    SolverOptions<Integer> options = new SolverOptions<Integer>();
+    options.setListener(new CliqueListener<Integer>() {
+      @Override
+      public void cliqueFound(List<Integer> clique) {
+        sizes.add(clique.size());
+      }
+    });
+    ArrayList<Integer> clique = new ArrayList<Integer>();
+    clique.add(4);
+    clique.add(5);
+    options.reportClique(clique);
+    options.reportClique(clique);
+    clique.remove(0);
+    options.reportClique(clique);
+    assertEquals(1, sizes.size());
+  }
+
+  @Test
+  public void testNoTimeLimit() {
+    SolverOptions<Integer> options = new SolverOptions<Integer>();
+    assertEquals(0, options.getTimeLimit());
+    assertFalse(options.shouldStop());
+    assertNull(options.getListener());
+  }
+
+  @Test
+  public void testNegativeTimeLimit() {
+    exception.expect(IllegalArgumentException.class);
+    new SolverOptions<Integer>().setTimeLimit(-1);
+  }
+
+  private ArrayList<MaxCliqueSolver<Integer>> solvers() {
+    ArrayList<MaxCliqueSolver<Integer>> solvers = new ArrayList<MaxCliqueSolver<Integer>>();
+    solvers.add(new BitSetMaxCliqueSolver());
+    solvers.add(new BitSetMaxCliqueSolver(2));
+    solvers.add(new IncMaxCliqueAdapter());
+    solvers.add(new IncMaxCliqueSolver());
+    solvers.add(new MausMaxCliqueSolver());
+    solvers.add(new ReducingMaxCliqueSolver<Integer>(new BitSetMaxCliqueSolver()));
+    return solvers;
+  }
+
+  private UndirectedGraph<Integer> readGraph(String fileName) {
+    InputStream stream = TestSolverOptions.class.getResourceAsStream(fileName);
+    return GraphIO.readFromDimacsFile(stream, fileName);
+  }
+}
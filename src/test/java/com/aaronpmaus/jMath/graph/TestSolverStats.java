@@ -0,0 +1,120 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.io.InputStream;
+
+public class TestSolverStats {
+  private UndirectedGraph<Integer> example;
+  private UndirectedGraph<Integer> brock;
+
+  @Before
+  public void setUp() {
+    example = readGraph("example.dimacs"); // clique: 4 5 6 7
+    brock = readGraph("brock200_2.dimacs"); // max clique of size 12
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    SolverResult<Integer> result =
+        new BitSetMaxCliqueSolver().findMaxClique(brock, new SolverOptions<Integer>());
+    SolverStats stats = result.getStats();
+    assertFalse(stats.isEnabled());
+    assertEquals(0, stats.getNumNodes());
+    assertEquals(0, stats.getNumPrunes(SolverStats.Bound.COLORING));
+    assertTrue(stats.getTimeline().isEmpty());
+  }
+
+  @Test
+  public void testBitSetStats() {
+    for(int numThreads = 1; numThreads <= 2; numThreads++) {
+      SolverStats stats = search(new BitSetMaxCliqueSolver(numThreads), brock, 12);
+      assertTrue(stats.getNumNodes() > 0);
+      assertTrue(stats.getNumPrunes(SolverStats.Bound.COLORING) > 0);
+      assertEquals(0, stats.getNumPrunes(SolverStats.Bound.MAX_SAT));
+      assertTrue(stats.getMaxDepth() >= 12);
+    }
+  }
+
+  @Test
+  public void testIncMaxCliqueStats() {
+    SolverStats stats = search(new IncMaxCliqueAdapter(), brock, 12);
+    assertTrue(stats.getNumNodes() > 0);
+    long numPrunes = 0;
+    for(SolverStats.Bound bound : SolverStats.Bound.values()) {
+      numPrunes += stats.getNumPrunes(bound);
+    }
+    assertTrue(numPrunes > 0);
+    assertTrue(stats.getMaxDepth() >= 12);
+  }
+
+  @Test
+  public void testOtherSolverStats() {
+    assertTrue(search(new IncMaxCliqueSolver(), example, 4).getNumNodes() > 0);
+    // the greedy clique of example is a max clique, so Maus has no larger cliques to look for
+    UndirectedGraph<Integer> graph = randomGraph(60, 0.5, new Random(3));
+    int maxCliqueSize = new BitSetMaxCliqueSolver().findMaxClique(graph).size();
+    assertTrue(search(new MausMaxCliqueSolver(), graph, maxCliqueSize).getNumNodes() > 0);
+    assertTrue(search(new ReducingMaxCliqueSolver<Integer>(new BitSetMaxCliqueSolver()), brock, 12)
+        .getNumNodes() > 0);
+  }
+
+  @Test
+  public void testJson() {
+    SolverStats stats = search(new BitSetMaxCliqueSolver(), brock, 12);
+    String json = stats.toJson();
+    assertTrue(json.startsWith("{"));
+    assertTrue(json.trim().endsWith("}"));
+    assertTrue(json.contains("\"nodes\": " + stats.getNumNodes()));
+    assertTrue(json.contains("\"COLORING\": " + stats.getNumPrunes(SolverStats.Bound.COLORING)));
+    assertTrue(json.contains("\"timeline\": ["));
+    assertTrue(json.contains("\"size\": 12}"));
+  }
+
+  /*
+  * Searches graph with stats collected and checks the clique and the timeline of the stats.
+  */
+  private SolverStats search(MaxCliqueSolver<Integer> solver, UndirectedGraph<Integer> graph,
+      int maxCliqueSize) {
+    SolverOptions<Integer> options = new SolverOptions<Integer>();
+    options.setCollectStats(true);
+    SolverResult<Integer> result = solver.findMaxClique(graph, options);
+    assertEquals(maxCliqueSize, result.size());
+    SolverStats stats = result.getStats();
+    assertTrue(stats.isEnabled());
+    List<SolverStats.Improvement> timeline = stats.getTimeline();
+    assertFalse(timeline.isEmpty());
+    for(int i = 1; i < timeline.size(); i++) {
+      assertTrue(timeline.get(i).getSize() > timeline.get(i-1).getSize());
+      assertTrue(timeline.get(i).getTime() >= timeline.get(i-1).getTime());
+    }
+    assertEquals(maxCliqueSize, timeline.get(timeline.size() - 1).getSize());
+    return stats;
+  }
+
+  private UndirectedGraph<Integer> randomGraph(int n, double p, Random random) {
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+    for(int i = 1; i <= n; i++) {
+      graph.addVertex(i);
+      for(int j = 1; j < i; j++) {
+        if(random.nextDouble() < p) {
+          graph.addEdge(i, j);
+        }
+      }
+    }
+    return graph;
+  }
+
+  private UndirectedGraph<Integer> readGraph(String fileName) {
+    InputStream stream = TestSolverStats.class.getResourceAsStream(fileName);
+    return GraphIO.readFromDimacsFile(stream, fileName);
+  }
+}
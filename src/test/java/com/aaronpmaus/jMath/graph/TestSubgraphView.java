@@ -0,0 +1,125 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.io.InputStream;
+
+public class TestSubgraphView {
+  private UndirectedGraph<Integer> example;
+  private SubgraphView<Integer> view;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    String fileName = "example.dimacs"; // clique: 4 5 6 7
+    InputStream stream = TestSubgraphView.class.getResourceAsStream(fileName);
+    example = GraphIO.readFromDimacsFile(stream, fileName);
+    view = example.view();
+  }
+
+  @Test
+  public void testWholeGraphView() {
+    assertEquals(7, view.size());
+    assertEquals(15, view.numEdges());
+    assertEquals(example.density(), view.density(), 1e-12);
+    assertFalse(view.isClique());
+    for(Integer element : example.getElements()) {
+      assertTrue(view.contains(element));
+      assertEquals(example.getNode(element).numNeighbors(), view.numNeighbors(element));
+    }
+    assertTrue(view.hasEdge(4, 7));
+    assertFalse(view.hasEdge(1, 5));
+    assertEquals(example, view.toGraph());
+  }
+
+  @Test
+  public void testNeighbors() {
+    // the neighbors of 4 are 1 3 5 6 7
+    SubgraphView<Integer> neighbors = view.getNeighbors(4);
+    assertEquals(Arrays.asList(1, 3, 5, 6, 7), neighbors.getElements());
+    assertFalse(neighbors.contains(4));
+    // 1 - 3, 1 - 6, 3 - 5, 5 - 6, 5 - 7, 6 - 7
+    assertEquals(6, neighbors.numEdges());
+    SubgraphView<Integer> neighborhood = view.getNeighborhood(4);
+    assertEquals(6, neighborhood.size());
+    assertTrue(neighborhood.contains(4));
+    assertEquals(5, neighborhood.numNeighbors(4));
+  }
+
+  @Test
+  public void testRemoveAndAddVertex() {
+    SubgraphView<Integer> copy = new SubgraphView<Integer>(view);
+    copy.removeVertex(1);
+    copy.removeVertex(1);
+    assertEquals(6, copy.size());
+    assertFalse(copy.contains(1));
+    assertEquals(4, copy.numNeighbors(4));
+    assertFalse(copy.hasEdge(1, 4));
+    // the view copied is left alone
+    assertEquals(7, view.size());
+    assertEquals(4, view.numNeighbors(1));
+    copy.addVertex(1);
+    copy.addVertex(1);
+    assertEquals(7, copy.size());
+    assertEquals(5, copy.numNeighbors(4));
+    assertTrue(copy.hasEdge(1, 4));
+  }
+
+  @Test
+  public void testIsClique() {
+    SubgraphView<Integer> clique = view.subset(Arrays.asList(4, 5, 6, 7, 42));
+    assertEquals(4, clique.size());
+    assertTrue(clique.isClique());
+    assertEquals(6, clique.numEdges());
+    assertEquals(1.0, clique.density(), 1e-12);
+    clique.addVertex(1);
+    assertFalse(clique.isClique());
+    UndirectedGraph<Integer> graph = view.subset(Arrays.asList(4, 5, 6, 7)).toUndirectedGraph();
+    assertEquals(4, graph.size());
+    assertTrue(graph.isClique());
+  }
+
+  @Test
+  public void testIds() {
+    SubgraphView<Integer> neighbors = view.getNeighbors(4);
+    int count = 0;
+    for(int v = neighbors.nextId(0); v >= 0; v = neighbors.nextId(v+1)) {
+      assertTrue(neighbors.hasId(v));
+      assertEquals(v, neighbors.indexOf(neighbors.get(v)));
+      final int[] degree = new int[1];
+      neighbors.forEachNeighbor(v, u -> degree[0]++);
+      assertEquals(neighbors.degree(v), degree[0]);
+      count++;
+    }
+    assertEquals(neighbors.size(), count);
+    assertFalse(neighbors.hasId(neighbors.indexOf(2)));
+  }
+
+  @Test
+  public void testIterator() {
+    int count = 0;
+    for(Integer element : view.getNeighbors(2)) {
+      assertTrue(example.hasEdge(2, element));
+      count++;
+    }
+    assertEquals(4, count);
+  }
+
+  @Test
+  public void testNeighborsOfMissingElement() {
+    SubgraphView<Integer> neighbors = view.getNeighbors(4);
+    exception.expect(NoSuchElementException.class);
+    neighbors.getNeighbors(2);
+  }
+}
@@ -0,0 +1,192 @@
+package com.aaronpmaus.jMath.graph;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.*;
+import com.aaronpmaus.jMath.io.GraphIO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.io.InputStream;
+
+public class TestVertexRenumbering {
+  private UndirectedGraph<Integer> example;
+  private UndirectedGraph<Integer> brock;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    String fileName = "example.dimacs"; // clique: 4 5 6 7
+    InputStream stream = TestVertexRenumbering.class.getResourceAsStream(fileName);
+    example = GraphIO.readFromDimacsFile(stream, fileName);
+    fileName = "brock200_2.dimacs";
+    stream = TestVertexRenumbering.class.getResourceAsStream(fileName);
+    brock = GraphIO.readFromDimacsFile(stream, fileName);
+  }
+
+  @Test
+  public void testOrdersArePermutations() {
+    for(VertexRenumbering.Order order : VertexRenumbering.Order.values()) {
+      VertexRenumbering<Integer> renumbering = new VertexRenumbering<Integer>(brock, order);
+      assertEquals(brock.size(), renumbering.size());
+      assertEquals(new HashSet<Integer>(brock.getElements()),
+          new HashSet<Integer>(renumbering.getOrdering()));
+      for(int id = 0; id < renumbering.size(); id++) {
+        assertEquals(id, renumbering.indexOf(renumbering.get(id)));
+      }
+    }
+  }
+
+  @Test
+  public void testDegeneracyOrder() {
+    VertexRenumbering<Integer> renumbering =
+        new VertexRenumbering<Integer>(example, VertexRenumbering.Order.DEGENERACY);
+    ArrayList<Integer> ordering = new CsrGraph<Integer>(example).degeneracyOrdering();
+    Collections.reverse(ordering);
+    assertEquals(ordering, renumbering.getOrdering());
+  }
+
+  @Test
+  public void testDegreeOrder() {
+    VertexRenumbering<Integer> renumbering =
+        new VertexRenumbering<Integer>(brock, VertexRenumbering.Order.DEGREE);
+    for(int id = 1; id < renumbering.size(); id++) {
+      int previous = brock.getNode(renumbering.get(id - 1)).numNeighbors();
+      assertTrue(previous >= brock.getNode(renumbering.get(id)).numNeighbors());
+    }
+  }
+
+  @Test
+  public void testReverseCuthillMcKeeOnPath() {
+    // a path 1 - 2 - ... - 20 whose elements are shuffled has bandwidth 1 in RCM order
+    List<Integer> elements = new ArrayList<Integer>();
+    for(int i = 1; i <= 20; i++) {
+      elements.add(i);
+    }
+    Collections.shuffle(elements, new java.util.Random(7));
+    UndirectedGraph<Integer> path = new UndirectedGraph<Integer>();
+    for(int i = 1; i < elements.size(); i++) {
+      path.addEdge(elements.get(i - 1), elements.get(i));
+    }
+    VertexRenumbering<Integer> renumbering =
+        new VertexRenumbering<Integer>(path, VertexRenumbering.Order.REVERSE_CUTHILL_MCKEE);
+    for(int i = 1; i < elements.size(); i++) {
+      int distance = renumbering.indexOf(elements.get(i - 1)) - renumbering.indexOf(elements.get(i));
+      assertEquals(1, Math.abs(distance));
+    }
+  }
+
+  @Test
+  public void testReverseCuthillMcKeeComponents() {
+    // two triangles, each component gets a contiguous block of ids
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+    graph.addEdge(1, 3);
+    graph.addEdge(3, 5);
+    graph.addEdge(5, 1);
+    graph.addEdge(2, 4);
+    graph.addEdge(4, 6);
+    graph.addEdge(6, 2);
+    VertexRenumbering<Integer> renumbering =
+        new VertexRenumbering<Integer>(graph, VertexRenumbering.Order.REVERSE_CUTHILL_MCKEE);
+    int parity = renumbering.get(0) % 2;
+    assertEquals(parity, renumbering.get(1) % 2);
+    assertEquals(parity, renumbering.get(2) % 2);
+  }
+
+  @Test
+  public void testRenumberCsrGraph() {
+    CsrGraph<Integer> csr = new CsrGraph<Integer>(brock);
+    VertexRenumbering<Integer> renumbering =
+        new VertexRenumbering<Integer>(csr, VertexRenumbering.Order.REVERSE_CUTHILL_MCKEE);
+    CsrGraph<Integer> renumbered = renumbering.renumber(csr);
+    assertEquals(csr.numArcs(), renumbered.numArcs());
+    for(int v = 0; v < renumbered.size(); v++) {
+      assertEquals(renumbering.get(v), renumbered.get(v));
+      Integer element = renumbered.get(v);
+      assertEquals(brock.getNode(element).numNeighbors(), renumbered.degree(v));
+      for(int i = 0; i < renumbered.degree(v); i++) {
+        assertTrue(brock.hasEdge(element, renumbered.get(renumbered.neighbor(v, i))));
+        if(i > 0) {
+          assertTrue(renumbered.neighbor(v, i - 1) < renumbered.neighbor(v, i));
+        }
+      }
+    }
+    assertEquals(brock, renumbered.toGraph());
+  }
+
+  @Test
+  public void testRenumberWeightedCsrGraph() {
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+    graph.addEdge(1, 2, 0.5);
+    graph.addEdge(2, 3, 2.0);
+    graph.addEdge(1, 3, 4.0);
+    CsrGraph<Integer> csr = new CsrGraph<Integer>(graph);
+    CsrGraph<Integer> renumbered = new VertexRenumbering<Integer>(Arrays.asList(3, 1, 2))
+        .renumber(csr);
+    assertEquals(Arrays.asList(1, 2, 3), renumbered.shortestPath(1, 3));
+    assertEquals(Arrays.asList(3, 1, 2), renumbered.getElements());
+    // the neighbors of 3 are 1 then 2, with the weights of their edges
+    assertEquals(4.0, renumbered.weight(0, 0), 0.0);
+    assertEquals(2.0, renumbered.weight(0, 1), 0.0);
+  }
+
+  @Test
+  public void testRenumberBitSetGraph() {
+    BitSetUndirectedGraph<Integer> bits = new BitSetUndirectedGraph<Integer>(example);
+    VertexRenumbering<Integer> renumbering =
+        new VertexRenumbering<Integer>(bits, VertexRenumbering.Order.DEGREE);
+    BitSetUndirectedGraph<Integer> renumbered = renumbering.renumber(bits);
+    assertEquals(renumbering.getOrdering(), renumbered.getElements());
+    assertEquals(bits.numEdges(), renumbered.numEdges());
+    for(int id = 0; id < renumbered.size(); id++) {
+      assertEquals(id, renumbered.indexOf(renumbering.get(id)));
+    }
+  }
+
+  @Test
+  public void testRelabel() {
+    VertexRenumbering<Integer> renumbering =
+        new VertexRenumbering<Integer>(example, VertexRenumbering.Order.DEGENERACY);
+    UndirectedGraph<Integer> relabeled = renumbering.relabel(example);
+    assertEquals(example.size(), relabeled.size());
+    assertEquals(example.numEdges(), relabeled.numEdges());
+    for(int label = 1; label <= relabeled.size(); label++) {
+      assertTrue(relabeled.contains(label));
+    }
+    // the densest core, the clique 4 5 6 7, comes first
+    List<Integer> clique = renumbering.toOriginal(Arrays.asList(1, 2, 3, 4));
+    assertEquals(new HashSet<Integer>(Arrays.asList(4, 5, 6, 7)), new HashSet<Integer>(clique));
+    assertTrue(relabeled.checkIfClique(Arrays.asList(1, 2, 3, 4)));
+  }
+
+  @Test
+  public void testRepeatedElementException() {
+    exception.expect(IllegalArgumentException.class);
+    new VertexRenumbering<Integer>(Arrays.asList(1, 2, 1));
+  }
+
+  @Test
+  public void testOtherGraphException() {
+    VertexRenumbering<Integer> renumbering = new VertexRenumbering<Integer>(Arrays.asList(1, 2, 3));
+    exception.expect(IllegalArgumentException.class);
+    renumbering.renumber(new CsrGraph<Integer>(example));
+  }
+
+  @Test
+  public void testDirectedGraphException() {
+    Graph<Integer> directed = new Graph<Integer>();
+    directed.addEdge(1, 2);
+    exception.expect(UnsupportedOperationException.class);
+    new VertexRenumbering<Integer>(new CsrGraph<Integer>(directed),
+        VertexRenumbering.Order.DEGREE);
+  }
+}
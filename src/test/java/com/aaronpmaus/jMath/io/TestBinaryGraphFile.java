@@ -0,0 +1,135 @@
+package com.aaronpmaus.jMath.io;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.UndirectedGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+
+public class TestBinaryGraphFile {
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  private UndirectedGraph<Integer> example;
+
+  @Before
+  public void setUp() {
+    String fileName = "example.dimacs";
+    InputStream stream = TestBinaryGraphFile.class.getResourceAsStream("../graph/" + fileName);
+    example = GraphIO.readFromDimacsFile(stream, fileName);
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    String fileName = tempFileName();
+    GraphIO.writeBinary(example, fileName);
+    BinaryGraphFile file = BinaryGraphFile.read(fileName);
+    assertEquals(example.size(), file.numVertices());
+    assertEquals(example.numEdges(), file.numEdges());
+    assertEquals(2 * example.numEdges(), file.getNeighbors().length);
+    assertFalse(file.isWeighted());
+    UndirectedGraph<Integer> graph = GraphIO.readBinary(fileName);
+    assertEquals(example, graph);
+    assertEquals(example.numEdges(), graph.numEdges());
+    assertEquals(fileName, graph.getGraphFileName());
+  }
+
+  @Test
+  public void testWeightedRoundTrip() throws IOException {
+    UndirectedGraph<Integer> graph = new UndirectedGraph<Integer>();
+    graph.addEdge(1, 2, 0.5);
+    graph.addEdge(2, 3);
+    graph.addVertex(10);
+    String fileName = tempFileName();
+    GraphIO.writeBinary(graph, fileName);
+    BinaryGraphFile file = BinaryGraphFile.read(fileName);
+    assertTrue(file.isWeighted());
+    assertArrayEquals(new int[]{1, 2, 3, 10}, file.getVertices());
+    assertArrayEquals(new int[]{0, 1, 3, 4, 4}, file.getOffsets());
+    assertArrayEquals(new double[]{0.5, 0.5, 1.0, 1.0}, file.getWeights(), 0.0);
+    UndirectedGraph<Integer> copy = GraphIO.readBinary(fileName);
+    assertEquals(4, copy.size());
+    assertTrue(copy.contains(10));
+    assertTrue(copy.hasEdge(2, 1));
+    assertEquals(2, copy.numEdges());
+  }
+
+  @Test
+  public void testReadGraphFileDetectsFormat() throws IOException {
+    String binaryFileName = tempFileName();
+    GraphIO.writeBinary(example, binaryFileName);
+    assertTrue(BinaryGraphFile.isBinaryGraphFile(binaryFileName));
+    assertEquals(example, GraphIO.readGraphFile(binaryFileName));
+
+    String dimacsFileName = tempFileName();
+    GraphIO.writeDimacsFile(example, dimacsFileName);
+    assertFalse(BinaryGraphFile.isBinaryGraphFile(dimacsFileName));
+    assertEquals(example, GraphIO.readGraphFile(dimacsFileName));
+  }
+
+  @Test
+  public void testReadNewerVersion() throws IOException {
+    String fileName = tempFileName();
+    GraphIO.writeBinary(example, fileName);
+    try(RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
+      file.seek(4);
+      file.writeInt(BinaryGraphFile.VERSION + 1);
+    }
+    exception.expect(IOException.class);
+    BinaryGraphFile.read(fileName);
+  }
+
+  @Test
+  public void testReadTruncatedFile() throws IOException {
+    String fileName = tempFileName();
+    GraphIO.writeBinary(example, fileName);
+    try(RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
+      file.setLength(file.length() - 4);
+    }
+    exception.expect(IOException.class);
+    BinaryGraphFile.read(fileName);
+  }
+
+  @Test
+  public void testReadCorruptOffsets() throws IOException {
+    String fileName = tempFileName();
+    GraphIO.writeBinary(example, fileName);
+    try(RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
+      // the offset of the third vertex, after the header and the elements of the vertices, is
+      // made larger than the offset after it
+      file.seek(24 + 4 * example.size() + 4 * 2);
+      file.writeInt(2 * (int) example.numEdges());
+    }
+    exception.expect(IOException.class);
+    exception.expectMessage("offset 3");
+    BinaryGraphFile.read(fileName);
+  }
+
+  @Test
+  public void testReadCorruptNeighbor() throws IOException {
+    String fileName = tempFileName();
+    GraphIO.writeBinary(example, fileName);
+    try(RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
+      // the first neighbor of the first vertex, after the header, the elements of the vertices
+      // and the offsets, is made an index past the last vertex
+      file.seek(24 + 4 * example.size() + 4 * (example.size() + 1));
+      file.writeInt(example.size());
+    }
+    exception.expect(IOException.class);
+    exception.expectMessage("neighbor 0 of vertex 0");
+    BinaryGraphFile.read(fileName);
+  }
+
+  private String tempFileName() throws IOException {
+    File file = File.createTempFile("jMath", ".graph");
+    file.deleteOnExit();
+    return file.getPath();
+  }
+}
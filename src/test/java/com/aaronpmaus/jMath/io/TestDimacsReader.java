@@ -0,0 +1,97 @@
+package com.aaronpmaus.jMath.io;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import com.aaronpmaus.jMath.graph.UndirectedGraph;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class TestDimacsReader {
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  private static final String DIMACS =
+      "c a comment\n"
+      + "c\n"
+      + "p col 5 4\n"
+      + "e 1 2\n"
+      + "e\t2   3\r\n"
+      + "  e 3 4\n"
+      + "n 1 7\n"
+      + "\n"
+      + "a 4 5";
+
+  @Test
+  public void testRead() throws IOException {
+    DimacsReader reader = read(DIMACS);
+    assertEquals(5, reader.numVertices());
+    assertEquals(4, reader.numEdges());
+    assertEquals(5, reader.maxVertex());
+    assertFalse(reader.isWeighted());
+    assertEquals(2, reader.getStart(1));
+    assertEquals(3, reader.getEnd(1));
+    assertEquals(3, reader.getStart(2));
+    assertEquals(4, reader.getStart(3));
+    assertEquals(5, reader.getEnd(3));
+    assertEquals(1.0, reader.getWeight(0), 0.0);
+  }
+
+  @Test
+  public void testParseInChunks() {
+    // every line is split across the chunks at some point
+    byte[] bytes = DIMACS.getBytes(StandardCharsets.US_ASCII);
+    DimacsReader reader = new DimacsReader();
+    for(int i = 0; i < bytes.length; i += 3) {
+      reader.parse(ByteBuffer.wrap(bytes, i, Math.min(3, bytes.length - i)));
+    }
+    reader.finish();
+    assertEquals(4, reader.numEdges());
+    assertEquals(4, reader.getStart(3));
+    assertEquals(5, reader.getEnd(3));
+  }
+
+  @Test
+  public void testToUndirectedGraph() throws IOException {
+    UndirectedGraph<Integer> graph = read(DIMACS).toUndirectedGraph();
+    assertEquals(5, graph.size());
+    assertEquals(4, graph.numEdges());
+    assertTrue(graph.hasEdge(2, 3));
+    assertTrue(graph.hasEdge(3, 2));
+    assertFalse(graph.hasEdge(1, 3));
+  }
+
+  @Test
+  public void testWeightedEdges() throws IOException {
+    DimacsReader reader = read("p edge 3 2\ne 1 2\ne 2 3 2.5\n");
+    assertTrue(reader.isWeighted());
+    assertEquals(1.0, reader.getWeight(0), 0.0);
+    assertEquals(2.5, reader.getWeight(1), 0.0);
+  }
+
+  @Test
+  public void testReadFromDimacsFile() {
+    String fileName = "brock200_2.dimacs";
+    InputStream stream = TestDimacsReader.class.getResourceAsStream("../graph/" + fileName);
+    UndirectedGraph<Integer> graph = GraphIO.readFromDimacsFile(stream, fileName);
+    assertEquals(200, graph.size());
+    assertEquals(9876, graph.numEdges());
+    assertEquals(fileName, graph.getGraphFileName());
+  }
+
+  @Test
+  public void testMalformedNumber() throws IOException {
+    exception.expect(NumberFormatException.class);
+    read("p col 2 1\ne 1 x\n");
+  }
+
+  private DimacsReader read(String dimacs) throws IOException {
+    return DimacsReader.read(new ByteArrayInputStream(dimacs.getBytes(StandardCharsets.US_ASCII)));
+  }
+}
@@ -0,0 +1,57 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import com.aaronpmaus.jMath.linearAlgebra.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+public class TestCholeskyDecomposition{
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void testFactor(){
+    Matrix a = new Matrix(new double[][]{{4.0, 12.0, -16.0},
+                                         {12.0, 37.0, -43.0},
+                                         {-16.0, -43.0, 98.0}});
+    CholeskyDecomposition cholesky = new CholeskyDecomposition(a);
+    assertTrue(cholesky.isPositiveDefinite());
+    Matrix expected = new Matrix(new double[][]{{2.0, 0.0, 0.0},
+                                                {6.0, 1.0, 0.0},
+                                                {-8.0, 5.0, 3.0}});
+    assertEquals(expected, cholesky.getL());
+  }
+
+  @Test
+  public void testSolve(){
+    // the product of a matrix of full rank with its transpose is positive definite
+    Matrix m = TestLUDecomposition.generateMatrix(80, 50, 6);
+    Matrix a = m.transpose().multiply(m);
+    CholeskyDecomposition cholesky = new CholeskyDecomposition(a);
+    assertTrue(cholesky.isPositiveDefinite());
+    Matrix l = cholesky.getL();
+    TestLUDecomposition.assertMaxDifference(a, l.multiply(l.transpose()), 1e-12);
+    Matrix b = TestLUDecomposition.generateMatrix(50, 4, 7);
+    TestLUDecomposition.assertMaxDifference(new LUDecomposition(a).solve(b), cholesky.solve(b),
+        1e-8);
+  }
+
+  @Test
+  public void testNotPositiveDefinite(){
+    Matrix a = new Matrix(new double[][]{{1.0, 2.0}, {2.0, 1.0}});
+    CholeskyDecomposition cholesky = new CholeskyDecomposition(a);
+    assertFalse(cholesky.isPositiveDefinite());
+    Matrix negative = new Matrix(new double[][]{{1.0, 0.0}, {0.0, -1.0}});
+    assertFalse(new CholeskyDecomposition(negative).isPositiveDefinite());
+    exception.expect(ArithmeticException.class);
+    cholesky.solve(new Vector(1.0, 1.0));
+  }
+
+  @Test
+  public void testNotSymmetric(){
+    Matrix a = new Matrix(new double[][]{{2.0, 1.0}, {0.0, 2.0}});
+    assertFalse(new CholeskyDecomposition(a).isPositiveDefinite());
+  }
+}
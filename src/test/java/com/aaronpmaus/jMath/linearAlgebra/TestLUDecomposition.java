@@ -0,0 +1,113 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import com.aaronpmaus.jMath.linearAlgebra.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
+public class TestLUDecomposition{
+  Matrix small;
+  Matrix singular;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setup(){
+    // the first pivot is in the last row
+    small = new Matrix(new double[][]{{1.0, 2.0, 3.0},
+                                      {2.0, 5.0, 3.0},
+                                      {4.0, 0.0, 8.0}});
+    singular = new Matrix(new double[][]{{1.0, 2.0},
+                                         {2.0, 4.0}});
+  }
+
+  @Test
+  public void testFactors(){
+    LUDecomposition lu = new LUDecomposition(small);
+    assertArrayEquals(new int[]{2, 1, 0}, lu.getPivot());
+    Matrix l = lu.getL();
+    Matrix u = lu.getU();
+    for(int i = 0; i < 3; i++){
+      assertEquals(1.0, l.get(i, i), 0.0);
+      for(int j = i + 1; j < 3; j++){
+        assertEquals(0.0, l.get(i, j), 0.0);
+        assertEquals(0.0, u.get(j, i), 0.0);
+      }
+    }
+    assertEquals(permuteRows(small, lu.getPivot()), l.multiply(u));
+    assertEquals(-28.0, lu.determinant(), 1e-12);
+    assertEquals(-28.0, small.determinant(), 1e-12);
+  }
+
+  @Test
+  public void testLargeAcrossBlocks(){
+    // 100 rows is three full blocks of columns and a partial one
+    Matrix a = generateMatrix(100, 100, 1);
+    LUDecomposition lu = new LUDecomposition(a);
+    assertFalse(lu.isSingular());
+    assertMaxDifference(permuteRows(a, lu.getPivot()), lu.getL().multiply(lu.getU()), 1e-12);
+
+    Matrix b = generateMatrix(100, 3, 2);
+    Matrix x = lu.solve(b);
+    assertMaxDifference(b, a.multiply(x), 1e-10);
+    assertMaxDifference(new Matrix(100), a.multiply(a.inverse()), 1e-10);
+  }
+
+  @Test
+  public void testSolveVector(){
+    Vector b = new Vector(14.0, 21.0, 28.0);
+    Matrix x = small.solve(b);
+    assertEquals(1, x.getNumCols());
+    assertMaxDifference(b, small.multiply(x), 1e-12);
+  }
+
+  @Test
+  public void testSingular(){
+    LUDecomposition lu = new LUDecomposition(singular);
+    assertTrue(lu.isSingular());
+    assertEquals(0.0, lu.determinant(), 0.0);
+    exception.expect(ArithmeticException.class);
+    singular.inverse();
+  }
+
+  @Test
+  public void testNotSquare(){
+    exception.expect(IllegalArgumentException.class);
+    new LUDecomposition(new Matrix(2, 3, 1.0));
+  }
+
+  @Test
+  public void testSolveWrongRows(){
+    exception.expect(IllegalArgumentException.class);
+    new LUDecomposition(small).solve(new Vector(1.0, 2.0));
+  }
+
+  static Matrix permuteRows(Matrix a, int[] pivot){
+    double[][] rows = new double[a.getNumRows()][];
+    for(int i = 0; i < rows.length; i++){
+      rows[i] = new double[a.getNumCols()];
+      for(int j = 0; j < a.getNumCols(); j++){
+        rows[i][j] = a.get(pivot[i], j);
+      }
+    }
+    return new Matrix(rows);
+  }
+
+  static void assertMaxDifference(Matrix expected, Matrix actual, double tolerance){
+    assertArrayEquals(expected.toRowMajorArray(), actual.toRowMajorArray(), tolerance);
+  }
+
+  static Matrix generateMatrix(int numRows, int numCols, int seed){
+    Random gen = new Random(seed);
+    double[] values = new double[numRows * numCols];
+    for(int i = 0; i < values.length; i++){
+      values[i] = gen.nextDouble() - 0.5;
+    }
+    return new Matrix(numRows, numCols, values);
+  }
+}
@@ -117,6 +117,34 @@ public class TestMatrix{
     assertTrue(leftHandSide.equals(rightHandSide));
   }
 
+  @Test
+  public void testMultiplyLarge(){
+    // odd dimensions leave partial tiles and a row and col outside the 2 by 2 blocks
+    Matrix a = generateMatrix(203, 301, 5);
+    Matrix b = generateMatrix(301, 97, 6);
+    Matrix product = a.multiply(b);
+    assertEquals(203, product.getNumRows());
+    assertEquals(97, product.getNumCols());
+    for(int i = 0; i < a.getNumRows(); i++){
+      for(int j = 0; j < b.getNumCols(); j++){
+        double expected = 0.0;
+        for(int k = 0; k < a.getNumCols(); k++){
+          expected += a.get(i, k) * b.get(k, j);
+        }
+        assertEquals(expected, product.get(i, j), 1e-10);
+      }
+    }
+    // the result does not depend on the number of threads
+    assertArrayEquals(product.toRowMajorArray(), a.multiply(b, 1).toRowMajorArray(), 0.0);
+    assertArrayEquals(product.toRowMajorArray(), a.multiply(b, 3).toRowMajorArray(), 0.0);
+  }
+
+  @Test
+  public void testMultiplyNoThreads(){
+    exception.expect(IllegalArgumentException.class);
+    ones.multiply(ones, 0);
+  }
+
   @Test
   public void testTranspose(){
     Double[][] mat = {{1.0, 2.0},
@@ -130,6 +158,45 @@ public class TestMatrix{
     assertEquals(matrix, expected);
   }
 
+  @Test
+  public void testPrimitiveStorage(){
+    double[][] values = {{1.0, 2.0, 3.0},
+                         {4.0, 5.0, 6.0}};
+    Matrix matrix = new Matrix(values);
+    Matrix rowMajor = new Matrix(2, 3, new double[]{1.0, 2.0, 3.0, 4.0, 5.0, 6.0});
+    assertEquals(matrix, rowMajor);
+    assertEquals(matrix.hashCode(), rowMajor.hashCode());
+    assertEquals(6.0, matrix.get(1, 2), 0.0);
+    assertEquals(Double.valueOf(2.0), matrix.getElement(0, 1));
+
+    // neither the array passed in nor the one returned share the matrix's storage
+    values[0][0] = 42.0;
+    double[] copy = matrix.toRowMajorArray();
+    copy[1] = 42.0;
+    assertEquals(1.0, matrix.get(0, 0), 0.0);
+    assertEquals(2.0, matrix.get(0, 1), 0.0);
+    assertArrayEquals(new double[]{1.0, 4.0, 2.0, 5.0, 3.0, 6.0},
+        matrix.transpose().toRowMajorArray(), 0.0);
+
+    Matrix square = generateMatrix(5, 5, 4);
+    assertEquals(square, new Matrix(square.toArray()));
+    assertEquals(square, new Matrix(5, 5, square.toRowMajorArray()));
+    assertEquals(square, square.multiply(new Matrix(5)));
+  }
+
+  @Test
+  public void testGetOutsideRow(){
+    // (0, 3) would be (1, 0) if only the index into the values were checked
+    exception.expect(ArrayIndexOutOfBoundsException.class);
+    new Matrix(2, 3, 1.0).get(0, 3);
+  }
+
+  @Test
+  public void testRowMajorWrongLength(){
+    exception.expect(IllegalArgumentException.class);
+    new Matrix(2, 3, new double[5]);
+  }
+
   private Matrix generateMatrix(int numRows, int numCols, int seed){
     Random gen = new Random(seed);
     Double[][] values = new Double[numRows][numCols];
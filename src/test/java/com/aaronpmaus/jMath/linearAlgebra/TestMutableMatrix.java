@@ -0,0 +1,110 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import com.aaronpmaus.jMath.linearAlgebra.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
+public class TestMutableMatrix{
+  Matrix a;
+  Matrix b;
+  Matrix ones;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setup(){
+    a = generateMatrix(3, 4, 1);
+    b = generateMatrix(4, 2, 2);
+    ones = new Matrix(3, 4, 1.0);
+  }
+
+  @Test
+  public void testConstructors(){
+    MutableMatrix zeros = new MutableMatrix(3, 4);
+    assertEquals(new Matrix(3, 4, 0.0), zeros);
+    MutableMatrix copy = new MutableMatrix(a);
+    assertEquals(a, copy);
+    // the copy does not share values with a
+    copy.set(0, 0, 42.0);
+    assertEquals(42.0, copy.get(0, 0), 0.0);
+    assertFalse(a.equals(copy));
+  }
+
+  @Test
+  public void testSetToMatchesMatrix(){
+    MutableMatrix out = new MutableMatrix(3, 4);
+    assertEquals(a.add(ones), out.setToSum(a, ones));
+    assertEquals(a.subtract(ones), out.setToDifference(a, ones));
+    assertEquals(a.multiply(2.5), out.setToScaled(a, 2.5));
+    assertEquals(a.transpose(), new MutableMatrix(4, 3).setToTranspose(a));
+
+    MutableMatrix product = new MutableMatrix(3, 2);
+    assertSame(product, product.setToProduct(a, b));
+    assertEquals(a.multiply(b), product);
+  }
+
+  @Test
+  public void testSetToProductLarge(){
+    Matrix left = generateMatrix(70, 90, 3);
+    Matrix right = generateMatrix(90, 65, 4);
+    MutableMatrix product = new MutableMatrix(70, 65);
+    product.fill(7.0);
+    // the product overwrites the old values rather than adding to them
+    product.setToProduct(left, right);
+    assertArrayEquals(left.multiply(right).toRowMajorArray(), product.toRowMajorArray(), 0.0);
+    product.setToProduct(left, right);
+    assertArrayEquals(left.multiply(right).toRowMajorArray(), product.toRowMajorArray(), 0.0);
+  }
+
+  @Test
+  public void testInPlace(){
+    MutableMatrix m = new MutableMatrix(a);
+    m.addInPlace(ones).subtractInPlace(ones).scaleInPlace(2.0);
+    assertArrayEquals(a.multiply(2.0).toRowMajorArray(), m.toRowMajorArray(), 1e-15);
+    m.set(a).axpy(-1.0, a);
+    assertEquals(new Matrix(3, 4, 0.0), m);
+    m.set(ones).axpy(0.5, ones);
+    assertEquals(new Matrix(3, 4, 1.5), m);
+  }
+
+  @Test
+  public void testSetToSumAliased(){
+    MutableMatrix m = new MutableMatrix(ones);
+    m.setToSum(m, m);
+    assertEquals(new Matrix(3, 4, 2.0), m);
+  }
+
+  @Test
+  public void testSetToProductAliased(){
+    MutableMatrix m = new MutableMatrix(new Matrix(3));
+    exception.expect(IllegalArgumentException.class);
+    m.setToProduct(m, new Matrix(3));
+  }
+
+  @Test
+  public void testSetToProductWrongDimensions(){
+    exception.expect(IllegalArgumentException.class);
+    new MutableMatrix(3, 3).setToProduct(a, b);
+  }
+
+  @Test
+  public void testAddWrongDimensions(){
+    exception.expect(IllegalArgumentException.class);
+    new MutableMatrix(4, 3).addInPlace(ones);
+  }
+
+  private Matrix generateMatrix(int numRows, int numCols, int seed){
+    Random gen = new Random(seed);
+    double[] values = new double[numRows * numCols];
+    for(int i = 0; i < values.length; i++){
+      values[i] = gen.nextDouble();
+    }
+    return new Matrix(numRows, numCols, values);
+  }
+}
@@ -0,0 +1,78 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import com.aaronpmaus.jMath.linearAlgebra.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+public class TestMutableVector{
+  Vector ones;
+  Vector four;
+  Vector counting;
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Before
+  public void setup(){
+    ones = new Vector(1.0,1.0,1.0);
+    four = new Vector(3.0,4.0);
+    counting = new Vector(1.0,2.0,3.0);
+  }
+
+  @Test
+  public void testConstructors(){
+    MutableVector zeros = new MutableVector(3);
+    assertTrue(zeros.isColVector());
+    assertEquals(new Vector(0.0,0.0,0.0), zeros);
+    MutableVector row = new MutableVector(counting.transpose());
+    assertFalse(row.isColVector());
+    row.set(0, 5.0);
+    assertEquals(5.0, row.get(0), 0.0);
+    assertEquals(1.0, counting.get(0), 0.0);
+  }
+
+  @Test
+  public void testSetToMatchesVector(){
+    MutableVector out = new MutableVector(3);
+    assertEquals(counting.add(ones), out.setToSum(counting, ones));
+    assertEquals(counting.subtract(ones), out.setToDifference(counting, ones));
+    assertEquals(counting.multiply(3.0), out.setToScaled(counting, 3.0));
+    // a row vector can be combined with a column vector
+    assertEquals(counting.add(ones), out.setToSum(counting.transpose(), ones));
+  }
+
+  @Test
+  public void testSetToProduct(){
+    Matrix m = new Matrix(new Vector(1.0, 0.0), new Vector(2.0, 1.0), new Vector(0.0, 3.0));
+    MutableVector out = new MutableVector(2);
+    out.setToProduct(m, counting);
+    assertEquals(m.multiply(counting), out);
+    assertEquals(new Vector(5.0, 11.0), out);
+  }
+
+  @Test
+  public void testInPlace(){
+    MutableVector v = new MutableVector(counting);
+    v.addInPlace(ones).subtractInPlace(ones).scaleInPlace(2.0).axpy(-1.0, counting);
+    assertEquals(counting, v);
+    MutableVector unit = new MutableVector(four).normalize();
+    assertEquals(four.toUnitVector(), unit);
+    assertEquals(1.0, unit.magnitude(), 1e-15);
+  }
+
+  @Test
+  public void testSetToProductAliased(){
+    MutableVector v = new MutableVector(counting);
+    exception.expect(IllegalArgumentException.class);
+    v.setToProduct(new Matrix(3), v);
+  }
+
+  @Test
+  public void testWrongDimensions(){
+    exception.expect(IllegalArgumentException.class);
+    new MutableVector(counting).axpy(1.0, four);
+  }
+}
@@ -0,0 +1,125 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import com.aaronpmaus.jMath.linearAlgebra.*;
+import com.aaronpmaus.jMath.transformations.Superposition;
+import com.aaronpmaus.jMath.transformations.Transformation;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestPointCloud3D{
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void testMatchesVector3D(){
+    PointCloud3D cloud = generateCloud(100, 1);
+    Transformation t = generateTransformation();
+    List<Vector3D> points = new ArrayList<Vector3D>();
+    for(int i = 0; i < cloud.size(); i++){
+      points.add(cloud.getPoint(i));
+    }
+    cloud.applyTransformation(t);
+    for(int i = 0; i < cloud.size(); i++){
+      Vector3D point = points.get(i);
+      point.applyTransformation(t);
+      assertEquals(point.get(0), cloud.getX(i), 0.0);
+      assertEquals(point.get(1), cloud.getY(i), 0.0);
+      assertEquals(point.get(2), cloud.getZ(i), 0.0);
+    }
+  }
+
+  @Test
+  public void testParallelMatchesSequential(){
+    int numPoints = PointCloud3D.PARALLEL_THRESHOLD + PointCloud3D.CHUNK_SIZE / 2 + 3;
+    PointCloud3D parallel = generateCloud(numPoints, 2);
+    PointCloud3D sequential = new PointCloud3D(parallel);
+    PointCloud3D threads = new PointCloud3D(parallel);
+    Transformation t = generateTransformation();
+    parallel.applyTransformation(t);
+    sequential.applyTransformation(t, 1);
+    threads.applyTransformation(t, 3);
+    assertEquals(sequential, parallel);
+    assertEquals(sequential, threads);
+  }
+
+  @Test
+  public void testInverse(){
+    PointCloud3D cloud = generateCloud(50, 3);
+    PointCloud3D original = new PointCloud3D(cloud);
+    Transformation t = generateTransformation();
+    cloud.applyTransformation(t);
+    cloud.applyTransformation(t.inverse());
+    assertArrayEquals(original.getXs(), cloud.getXs(), 1e-12);
+    assertArrayEquals(original.getYs(), cloud.getYs(), 1e-12);
+    assertArrayEquals(original.getZs(), cloud.getZs(), 1e-12);
+  }
+
+  @Test
+  public void testConstructors(){
+    List<Vector3D> points = new ArrayList<Vector3D>();
+    points.add(new Vector3D(1.0, 2.0, 3.0));
+    points.add(new Vector3D(-1.0, 0.0, 6.0));
+    PointCloud3D cloud = new PointCloud3D(points);
+    assertEquals(2, cloud.size());
+    assertEquals(new Vector3D(-1.0, 0.0, 6.0), cloud.getPoint(1));
+    assertEquals(new Vector3D(0.0, 1.0, 4.5), cloud.centroid());
+    assertEquals(cloud, new PointCloud3D(new double[]{1.0, -1.0}, new double[]{2.0, 0.0},
+        new double[]{3.0, 6.0}));
+    // the arrays are copied in and out
+    double[] xs = cloud.getXs();
+    xs[0] = 10.0;
+    assertEquals(1.0, cloud.getX(0), 0.0);
+    PointCloud3D copy = new PointCloud3D(cloud);
+    copy.setPoint(0, 7.0, 8.0, 9.0);
+    assertEquals(1.0, cloud.getX(0), 0.0);
+    assertEquals(new Vector3D(7.0, 8.0, 9.0), copy.getPoint(0));
+  }
+
+  @Test
+  public void testSuperposition(){
+    PointCloud3D reference = generateCloud(40, 4);
+    PointCloud3D mobile = new PointCloud3D(reference);
+    mobile.applyTransformation(generateTransformation());
+    Superposition superposition = new Superposition();
+    assertEquals(0.0, superposition.fit(reference, mobile), 1e-6);
+    mobile.applyTransformation(superposition.getTransformation());
+    assertArrayEquals(reference.getXs(), mobile.getXs(), 1e-12);
+    assertArrayEquals(reference.getZs(), mobile.getZs(), 1e-12);
+  }
+
+  @Test
+  public void testDifferentLengths(){
+    exception.expect(IllegalArgumentException.class);
+    new PointCloud3D(new double[2], new double[2], new double[3]);
+  }
+
+  @Test
+  public void testNoThreads(){
+    exception.expect(IllegalArgumentException.class);
+    new PointCloud3D(1).applyTransformation(new Transformation(), 0);
+  }
+
+  private static PointCloud3D generateCloud(int numPoints, int seed){
+    Random gen = new Random(seed);
+    PointCloud3D cloud = new PointCloud3D(numPoints);
+    for(int i = 0; i < numPoints; i++){
+      cloud.setPoint(i, 20.0 * gen.nextDouble(), 20.0 * gen.nextDouble(),
+          20.0 * gen.nextDouble());
+    }
+    return cloud;
+  }
+
+  private static Transformation generateTransformation(){
+    Transformation t = new Transformation();
+    t.addRotationAboutAxis(new Vector3D(0.3, -1.0, 2.0), 47.0);
+    t.addTranslation(new Vector3D(-5.0, 2.5, 11.0));
+    return t;
+  }
+}
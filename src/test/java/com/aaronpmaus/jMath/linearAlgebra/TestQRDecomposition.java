@@ -0,0 +1,69 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import com.aaronpmaus.jMath.linearAlgebra.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+public class TestQRDecomposition{
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void testFactors(){
+    Matrix a = TestLUDecomposition.generateMatrix(60, 25, 3);
+    QRDecomposition qr = new QRDecomposition(a);
+    assertTrue(qr.isFullRank());
+    Matrix q = qr.getQ();
+    Matrix r = qr.getR();
+    assertEquals(60, q.getNumRows());
+    assertEquals(25, q.getNumCols());
+    for(int i = 0; i < 25; i++){
+      for(int j = 0; j < i; j++){
+        assertEquals(0.0, r.get(i, j), 0.0);
+      }
+    }
+    TestLUDecomposition.assertMaxDifference(new Matrix(25), q.transpose().multiply(q), 1e-12);
+    TestLUDecomposition.assertMaxDifference(a, q.multiply(r), 1e-12);
+  }
+
+  @Test
+  public void testLeastSquaresLine(){
+    // fit y = c0 + c1 * x, the line through (1.5, 4) with slope 9/5
+    Matrix a = new Matrix(new double[][]{{1.0, 0.0}, {1.0, 1.0}, {1.0, 2.0}, {1.0, 3.0}});
+    Vector y = new Vector(1.5, 2.5, 5.5, 6.5);
+    Matrix coefficients = a.solve(y);
+    assertEquals(1.3, coefficients.get(0, 0), 1e-12);
+    assertEquals(1.8, coefficients.get(1, 0), 1e-12);
+    // the residual of the least squares solution is orthogonal to the columns of a
+    Matrix residual = y.subtract(a.multiply(coefficients));
+    TestLUDecomposition.assertMaxDifference(new Matrix(2, 1, 0.0),
+        a.transpose().multiply(residual), 1e-12);
+  }
+
+  @Test
+  public void testSquareMatchesLU(){
+    Matrix a = TestLUDecomposition.generateMatrix(40, 40, 4);
+    Matrix b = TestLUDecomposition.generateMatrix(40, 2, 5);
+    TestLUDecomposition.assertMaxDifference(new LUDecomposition(a).solve(b),
+        new QRDecomposition(a).solve(b), 1e-9);
+  }
+
+  @Test
+  public void testRankDeficient(){
+    // the second column is twice the first, which rounding leaves just short of an exact zero
+    Matrix a = new Matrix(new double[][]{{1.0, 2.0}, {2.0, 4.0}, {3.0, 6.0}});
+    QRDecomposition qr = new QRDecomposition(a);
+    assertFalse(qr.isFullRank());
+    exception.expect(ArithmeticException.class);
+    qr.solve(new Vector(1.0, 2.0, 3.0));
+  }
+
+  @Test
+  public void testMoreColsThanRows(){
+    exception.expect(IllegalArgumentException.class);
+    new Matrix(2, 3, 1.0).solve(new Vector(1.0, 2.0));
+  }
+}
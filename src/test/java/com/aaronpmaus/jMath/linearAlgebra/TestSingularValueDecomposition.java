@@ -0,0 +1,144 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import com.aaronpmaus.jMath.linearAlgebra.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+public class TestSingularValueDecomposition{
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void testTall(){
+    Matrix a = TestLUDecomposition.generateMatrix(30, 12, 11);
+    SingularValueDecomposition svd = new SingularValueDecomposition(a);
+    assertEquals(30, svd.getU().getNumRows());
+    assertEquals(12, svd.getU().getNumCols());
+    assertEquals(12, svd.getV().getNumRows());
+    assertFactors(a, svd, 1e-13);
+    assertEquals(12, svd.rank());
+  }
+
+  @Test
+  public void testWide(){
+    Matrix a = TestLUDecomposition.generateMatrix(5, 17, 12);
+    SingularValueDecomposition svd = new SingularValueDecomposition(a);
+    assertEquals(5, svd.getU().getNumRows());
+    assertEquals(5, svd.getU().getNumCols());
+    assertEquals(17, svd.getV().getNumRows());
+    assertEquals(5, svd.getV().getNumCols());
+    assertFactors(a, svd, 1e-13);
+  }
+
+  @Test
+  public void testKnownValues(){
+    Matrix a = new Matrix(new double[][]{{3.0, 0.0}, {4.0, 5.0}});
+    SingularValueDecomposition svd = new SingularValueDecomposition(a);
+    assertArrayEquals(new double[]{3.0 * Math.sqrt(5.0), Math.sqrt(5.0)},
+        svd.getSingularValues(), 1e-14);
+    assertEquals(3.0 * Math.sqrt(5.0), svd.norm2(), 1e-14);
+    assertEquals(3.0, svd.conditionNumber(), 1e-14);
+  }
+
+  @Test
+  public void testMatchesEigenvalues(){
+    // the squares of the singular values of a are the eigenvalues of a'a
+    Matrix a = TestLUDecomposition.generateMatrix(20, 6, 13);
+    double[] singularValues = new SingularValueDecomposition(a).getSingularValues();
+    double[] eigenvalues = new SymmetricEigenDecomposition(a.transpose().multiply(a))
+        .getEigenvalues();
+    for(int i = 0; i < 6; i++){
+      assertEquals(eigenvalues[5 - i], singularValues[i] * singularValues[i], 1e-12);
+    }
+  }
+
+  @Test
+  public void testRankDeficient(){
+    // the third column is the sum of the first two, so a zero column is left to complete
+    Matrix a = new Matrix(new double[][]{{1.0, 0.0, 1.0}, {0.0, 1.0, 1.0}, {1.0, 1.0, 2.0},
+        {2.0, 0.0, 2.0}});
+    SingularValueDecomposition svd = new SingularValueDecomposition(a);
+    assertEquals(2, svd.rank());
+    assertEquals(0.0, svd.getSingularValues()[2], 1e-14);
+    assertFactors(a, svd, 1e-14);
+  }
+
+  @Test
+  public void testZero(){
+    Matrix a = new Matrix(3, 2, 0.0);
+    SingularValueDecomposition svd = new SingularValueDecomposition(a);
+    assertEquals(0, svd.rank());
+    assertFactors(a, svd, 0.0);
+  }
+
+  @Test
+  public void testZeroRow(){
+    // the col of a square matrix with a zero row that converges to zero is never exactly orthogonal
+    // to the others
+    Matrix a = new Matrix(new double[][]{{1.0, 2.0, 3.0}, {0.0, 0.0, 0.0}, {4.0, 5.0, 6.0}});
+    SingularValueDecomposition svd = new SingularValueDecomposition(a);
+    assertEquals(2, svd.rank());
+    assertFactors(a, svd, 1e-13);
+    MutableMatrix u = new MutableMatrix(3, 3);
+    MutableVector singularValues = new MutableVector(3);
+    MutableMatrix v = new MutableMatrix(3, 3);
+    SingularValueDecomposition.decompose3(a, u, singularValues, v);
+    assertArrayEquals(svd.getSingularValues(), singularValues.toRowMajorArray(), 1e-14);
+    TestLUDecomposition.assertMaxDifference(a,
+        u.multiply(svd.getS()).multiply(v.transpose()), 1e-13);
+  }
+
+  @Test
+  public void testDecompose3(){
+    Matrix a = TestLUDecomposition.generateMatrix(3, 3, 14);
+    MutableMatrix u = new MutableMatrix(3, 3);
+    MutableVector singularValues = new MutableVector(3);
+    MutableMatrix v = new MutableMatrix(3, 3);
+    SingularValueDecomposition.decompose3(a, u, singularValues, v);
+    SingularValueDecomposition svd = new SingularValueDecomposition(a);
+    TestLUDecomposition.assertMaxDifference(svd.getU(), u, 1e-14);
+    TestLUDecomposition.assertMaxDifference(svd.getV(), v, 1e-14);
+    assertArrayEquals(svd.getSingularValues(), singularValues.toRowMajorArray(), 1e-14);
+    // u may be the matrix that is decomposed
+    MutableMatrix inPlace = new MutableMatrix(a);
+    SingularValueDecomposition.decompose3(inPlace, inPlace, singularValues, v);
+    TestLUDecomposition.assertMaxDifference(u, inPlace, 0.0);
+  }
+
+  @Test
+  public void testDecompose3Planar(){
+    // a matrix of rank 2, as the covariance of two sets of points in a plane is
+    Matrix a = new Matrix(new double[][]{{2.0, 1.0, 0.0}, {1.0, 3.0, 0.0}, {0.0, 0.0, 0.0}});
+    MutableMatrix u = new MutableMatrix(3, 3);
+    MutableVector singularValues = new MutableVector(3);
+    MutableMatrix v = new MutableMatrix(3, 3);
+    SingularValueDecomposition.decompose3(a, u, singularValues, v);
+    assertEquals(0.0, singularValues.get(2), 0.0);
+    TestLUDecomposition.assertMaxDifference(new Matrix(3), u.transpose().multiply(u), 1e-14);
+    TestLUDecomposition.assertMaxDifference(new Matrix(3), v.transpose().multiply(v), 1e-14);
+  }
+
+  @Test
+  public void testDecompose3Aliased(){
+    MutableMatrix u = new MutableMatrix(3, 3);
+    exception.expect(IllegalArgumentException.class);
+    SingularValueDecomposition.decompose3(new Matrix(3), u, new MutableVector(3), u);
+  }
+
+  private static void assertFactors(Matrix a, SingularValueDecomposition svd, double tolerance){
+    Matrix u = svd.getU();
+    Matrix v = svd.getV();
+    int k = u.getNumCols();
+    TestLUDecomposition.assertMaxDifference(new Matrix(k), u.transpose().multiply(u), 1e-13);
+    TestLUDecomposition.assertMaxDifference(new Matrix(k), v.transpose().multiply(v), 1e-13);
+    TestLUDecomposition.assertMaxDifference(a, u.multiply(svd.getS()).multiply(v.transpose()),
+        tolerance);
+    double[] singularValues = svd.getSingularValues();
+    for(int i = 1; i < k; i++){
+      assertTrue(singularValues[i - 1] >= singularValues[i]);
+    }
+  }
+}
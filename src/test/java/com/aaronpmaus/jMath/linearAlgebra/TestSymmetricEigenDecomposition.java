@@ -0,0 +1,148 @@
+package com.aaronpmaus.jMath.linearAlgebra;
+
+import com.aaronpmaus.jMath.linearAlgebra.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+
+public class TestSymmetricEigenDecomposition{
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void testSmallJacobi(){
+    Matrix a = new Matrix(new double[][]{{2.0, 1.0}, {1.0, 2.0}});
+    SymmetricEigenDecomposition eigen = new SymmetricEigenDecomposition(a);
+    assertArrayEquals(new double[]{1.0, 3.0}, eigen.getEigenvalues(), 1e-14);
+    Vector largest = eigen.getEigenvector(1);
+    assertEquals(1.0, Math.abs(largest.get(0) + largest.get(1)) / Math.sqrt(2.0), 1e-14);
+    assertReconstructs(a, eigen, 1e-14);
+  }
+
+  @Test
+  public void testJacobiSizes(){
+    for(int n = 1; n <= SymmetricEigenDecomposition.JACOBI_MAX_SIZE; n++){
+      Matrix a = generateSymmetric(n, n);
+      assertReconstructs(a, new SymmetricEigenDecomposition(a), 1e-12);
+    }
+  }
+
+  @Test
+  public void testTridiagonalQL(){
+    Matrix a = generateSymmetric(60, 7);
+    SymmetricEigenDecomposition eigen = new SymmetricEigenDecomposition(a);
+    assertReconstructs(a, eigen, 1e-12);
+    double[] eigenvalues = eigen.getEigenvalues();
+    for(int i = 1; i < eigenvalues.length; i++){
+      assertTrue(eigenvalues[i - 1] <= eigenvalues[i]);
+    }
+    // the trace is the sum of the eigenvalues
+    double trace = 0.0;
+    double sum = 0.0;
+    for(int i = 0; i < 60; i++){
+      trace += a.get(i, i);
+      sum += eigenvalues[i];
+    }
+    assertEquals(trace, sum, 1e-12);
+  }
+
+  @Test
+  public void testJacobiMatchesQL(){
+    // a block diagonal matrix of a block small enough for Jacobi and a 1 by 1 block of 5.0
+    int n = SymmetricEigenDecomposition.JACOBI_MAX_SIZE;
+    Matrix block = generateSymmetric(n, 8);
+    double[] values = new double[(n + 1) * (n + 1)];
+    for(int i = 0; i < n; i++){
+      for(int j = 0; j < n; j++){
+        values[i * (n + 1) + j] = block.get(i, j);
+      }
+    }
+    values[values.length - 1] = 5.0;
+    double[] expected = Arrays.copyOf(new SymmetricEigenDecomposition(block).getEigenvalues(),
+        n + 1);
+    expected[n] = 5.0;
+    Arrays.sort(expected);
+    assertArrayEquals(expected,
+        new SymmetricEigenDecomposition(new Matrix(n + 1, n + 1, values)).getEigenvalues(), 1e-12);
+  }
+
+  @Test
+  public void testRepeatedEigenvalues(){
+    Matrix identity = new Matrix(12);
+    SymmetricEigenDecomposition eigen = new SymmetricEigenDecomposition(identity);
+    for(double eigenvalue : eigen.getEigenvalues()){
+      assertEquals(1.0, eigenvalue, 1e-15);
+    }
+    assertReconstructs(identity, eigen, 1e-14);
+  }
+
+  @Test
+  public void testLowerTriangleOnly(){
+    Matrix a = new Matrix(new double[][]{{2.0, 100.0}, {1.0, 2.0}});
+    assertArrayEquals(new double[]{1.0, 3.0}, new SymmetricEigenDecomposition(a).getEigenvalues(),
+        1e-14);
+  }
+
+  @Test
+  public void testDecompose3(){
+    Matrix a = generateSymmetric(3, 9);
+    MutableVector eigenvalues = new MutableVector(3);
+    MutableMatrix eigenvectors = new MutableMatrix(3, 3);
+    SymmetricEigenDecomposition.decompose3(a, eigenvalues, eigenvectors);
+    SymmetricEigenDecomposition eigen = new SymmetricEigenDecomposition(a);
+    double[] expected = eigen.getEigenvalues();
+    for(int i = 0; i < 3; i++){
+      assertEquals(expected[i], eigenvalues.get(i), 1e-13);
+    }
+    Matrix d = new Matrix(new double[][]{{eigenvalues.get(0), 0.0, 0.0},
+        {0.0, eigenvalues.get(1), 0.0}, {0.0, 0.0, eigenvalues.get(2)}});
+    TestLUDecomposition.assertMaxDifference(a,
+        eigenvectors.multiply(d).multiply(eigenvectors.transpose()), 1e-13);
+    // the matrix may be overwritten with its own eigenvectors
+    MutableMatrix inPlace = new MutableMatrix(a);
+    SymmetricEigenDecomposition.decompose3(inPlace, eigenvalues, inPlace);
+    TestLUDecomposition.assertMaxDifference(eigenvectors, inPlace, 0.0);
+  }
+
+  @Test
+  public void testDecompose3Diagonal(){
+    Matrix a = new Matrix(new double[][]{{3.0, 0.0, 0.0}, {0.0, -1.0, 0.0}, {0.0, 0.0, 2.0}});
+    MutableVector eigenvalues = new MutableVector(3);
+    MutableMatrix eigenvectors = new MutableMatrix(3, 3);
+    SymmetricEigenDecomposition.decompose3(a, eigenvalues, eigenvectors);
+    assertEquals(new Vector(-1.0, 2.0, 3.0), eigenvalues);
+    assertEquals(new Matrix(new double[][]{{0.0, 0.0, 1.0}, {1.0, 0.0, 0.0}, {0.0, 1.0, 0.0}}),
+        eigenvectors);
+  }
+
+  @Test
+  public void testDecompose3WrongSize(){
+    exception.expect(IllegalArgumentException.class);
+    SymmetricEigenDecomposition.decompose3(new Matrix(4), new MutableVector(3),
+        new MutableMatrix(3, 3));
+  }
+
+  @Test
+  public void testNotSquare(){
+    exception.expect(IllegalArgumentException.class);
+    new SymmetricEigenDecomposition(new Matrix(2, 3, 1.0));
+  }
+
+  static Matrix generateSymmetric(int n, int seed){
+    Matrix a = TestLUDecomposition.generateMatrix(n, n, seed);
+    return a.add(a.transpose());
+  }
+
+  private static void assertReconstructs(Matrix a, SymmetricEigenDecomposition eigen,
+      double tolerance){
+    Matrix v = eigen.getV();
+    int n = a.getNumRows();
+    TestLUDecomposition.assertMaxDifference(new Matrix(n), v.transpose().multiply(v), tolerance);
+    TestLUDecomposition.assertMaxDifference(a, v.multiply(eigen.getD()).multiply(v.transpose()),
+        tolerance);
+  }
+}
@@ -120,6 +120,20 @@ public class TestVector{
     assertTrue(piScalar.equals(pi.getValue(2)));
   }
 
+  @Test
+  public void testGet(){
+    assertEquals(3.14, pi.get(0), 0.0);
+    assertEquals(4.0, four.get(1), 0.0);
+    Vector row = four.transpose();
+    assertFalse(row.isColVector());
+    assertEquals(4.0, row.get(1), 0.0);
+    assertEquals(four, row.transpose());
+    assertEquals(four, new Vector(new double[]{3.0, 4.0}));
+
+    exception.expect(IllegalArgumentException.class);
+    four.get(2);
+  }
+
   @Test
   public void testDotProduct(){
     double product = ones.dotProduct(pi);
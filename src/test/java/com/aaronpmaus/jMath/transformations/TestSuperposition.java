@@ -0,0 +1,186 @@
+package com.aaronpmaus.jMath.transformations;
+
+import com.aaronpmaus.jMath.linearAlgebra.Matrix;
+import com.aaronpmaus.jMath.linearAlgebra.Vector3D;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestSuperposition {
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  @Test
+  public void testRecoversTransformation(){
+    List<Vector3D> reference = generatePoints(50, 1);
+    Transformation t = new Transformation();
+    t.addRotationAboutAxis(new Vector3D(1.0, 2.0, -0.5), 73.0);
+    t.addTranslation(new Vector3D(4.0, -3.0, 10.0));
+    List<Vector3D> mobile = transform(reference, t);
+
+    Superposition superposition = new Superposition();
+    assertEquals(0.0, superposition.fit(reference, mobile), 1e-6);
+    assertMatrixEquals(t.inverse().getMatrix(), superposition.getTransformation().getMatrix(),
+        1e-12);
+    assertEquals(1.0, determinant(superposition.getRotation()), 1e-12);
+  }
+
+  @Test
+  public void testArraysMatchLists(){
+    List<Vector3D> reference = generatePoints(20, 2);
+    List<Vector3D> mobile = generatePoints(20, 3);
+    Superposition superposition = new Superposition();
+    double rmsd = superposition.fit(reference, mobile);
+    Matrix rotation = superposition.getRotation();
+    assertEquals(rmsd, superposition.fit(toArray(reference), toArray(mobile)), 1e-12);
+    assertMatrixEquals(rotation, superposition.getRotation(), 1e-12);
+    assertEquals(rmsd, superposition.getRmsd(), 1e-12);
+  }
+
+  @Test
+  public void testRmsdOfSuperposedPoints(){
+    List<Vector3D> reference = generatePoints(30, 4);
+    List<Vector3D> mobile = generatePoints(30, 5);
+    Superposition superposition = new Superposition();
+    double rmsd = superposition.fit(reference, mobile);
+    List<Vector3D> superposed = transform(mobile, superposition.getTransformation());
+    double sum = 0.0;
+    for(int i = 0; i < reference.size(); i++){
+      Vector3D difference = reference.get(i).subtract(superposed.get(i));
+      sum += difference.dotProduct(difference);
+    }
+    assertEquals(Math.sqrt(sum / reference.size()), rmsd, 1e-10);
+    // no other rotation brings the points closer
+    Transformation perturbed = superposition.getTransformation();
+    perturbed.addRotationAboutAxis(superposition.getReferenceCentroid(),
+        new Vector3D(0.0, 0.0, 1.0), 1.0);
+    superposed = transform(mobile, perturbed);
+    double perturbedSum = 0.0;
+    for(int i = 0; i < reference.size(); i++){
+      Vector3D difference = reference.get(i).subtract(superposed.get(i));
+      perturbedSum += difference.dotProduct(difference);
+    }
+    assertTrue(perturbedSum > sum);
+  }
+
+  @Test
+  public void testNoReflection(){
+    // the mirror image of a set of points can only be superposed by a reflection, which is not
+    // returned
+    List<Vector3D> reference = generatePoints(10, 6);
+    List<Vector3D> mirror = new ArrayList<Vector3D>();
+    for(Vector3D point : reference){
+      mirror.add(new Vector3D(-point.get(0), point.get(1), point.get(2)));
+    }
+    Superposition superposition = new Superposition();
+    assertTrue(superposition.fit(reference, mirror) > 0.1);
+    assertEquals(1.0, determinant(superposition.getRotation()), 1e-12);
+  }
+
+  @Test
+  public void testPlanarPoints(){
+    List<Vector3D> reference = new ArrayList<Vector3D>();
+    reference.add(new Vector3D(0.0, 0.0, 0.0));
+    reference.add(new Vector3D(1.0, 0.0, 0.0));
+    reference.add(new Vector3D(0.0, 2.0, 0.0));
+    reference.add(new Vector3D(3.0, 1.0, 0.0));
+    Transformation t = new Transformation();
+    t.addRotationAboutX(90.0);
+    t.addRotationAboutZ(30.0);
+    List<Vector3D> mobile = transform(reference, t);
+    Superposition superposition = new Superposition();
+    assertEquals(0.0, superposition.fit(reference, mobile), 1e-6);
+    List<Vector3D> superposed = transform(mobile, superposition.getTransformation());
+    for(int i = 0; i < reference.size(); i++){
+      assertEquals(0.0, reference.get(i).subtract(superposed.get(i)).magnitude(), 1e-12);
+    }
+  }
+
+  @Test
+  public void testPlanarMobile(){
+    // the covariance of points in the plane z = 0 with any others has a zero row
+    List<Vector3D> reference = generatePoints(15, 8);
+    List<Vector3D> mobile = new ArrayList<Vector3D>();
+    for(Vector3D point : generatePoints(15, 9)){
+      mobile.add(new Vector3D(point.get(0), point.get(1), 0.0));
+    }
+    Superposition superposition = new Superposition();
+    double rmsd = superposition.fit(reference, mobile);
+    assertEquals(1.0, determinant(superposition.getRotation()), 1e-12);
+    List<Vector3D> superposed = transform(mobile, superposition.getTransformation());
+    double sum = 0.0;
+    for(int i = 0; i < reference.size(); i++){
+      Vector3D difference = reference.get(i).subtract(superposed.get(i));
+      sum += difference.dotProduct(difference);
+    }
+    assertEquals(Math.sqrt(sum / reference.size()), rmsd, 1e-10);
+  }
+
+  @Test
+  public void testTransformationFactory(){
+    List<Vector3D> reference = generatePoints(12, 7);
+    Transformation t = new Transformation();
+    t.addRotationAboutY(-120.0);
+    t.addTranslation(new Vector3D(1.0, 1.0, 1.0));
+    Transformation superposition = Transformation.superposition(reference, transform(reference, t));
+    assertMatrixEquals(t.inverse().getMatrix(), superposition.getMatrix(), 1e-12);
+    assertMatrixEquals(t.getMatrix(), superposition.inverse().getMatrix(), 1e-12);
+  }
+
+  @Test
+  public void testDifferentSizes(){
+    exception.expect(IllegalArgumentException.class);
+    new Superposition().fit(new double[6], new double[9]);
+  }
+
+  @Test
+  public void testNotFitted(){
+    exception.expect(IllegalStateException.class);
+    new Superposition().getTransformation();
+  }
+
+  private static List<Vector3D> generatePoints(int numPoints, int seed){
+    Random gen = new Random(seed);
+    List<Vector3D> points = new ArrayList<Vector3D>();
+    for(int i = 0; i < numPoints; i++){
+      points.add(new Vector3D(10.0 * gen.nextDouble(), 10.0 * gen.nextDouble(),
+          10.0 * gen.nextDouble()));
+    }
+    return points;
+  }
+
+  private static List<Vector3D> transform(List<Vector3D> points, Transformation t){
+    List<Vector3D> transformed = new ArrayList<Vector3D>();
+    for(Vector3D point : points){
+      transformed.add(t.applyTransformationTo(point));
+    }
+    return transformed;
+  }
+
+  private static double[] toArray(List<Vector3D> points){
+    double[] coordinates = new double[3 * points.size()];
+    for(int i = 0; i < points.size(); i++){
+      for(int axis = 0; axis < 3; axis++){
+        coordinates[3 * i + axis] = points.get(i).get(axis);
+      }
+    }
+    return coordinates;
+  }
+
+  private static double determinant(Matrix m){
+    return m.get(0, 0) * (m.get(1, 1) * m.get(2, 2) - m.get(1, 2) * m.get(2, 1))
+        - m.get(0, 1) * (m.get(1, 0) * m.get(2, 2) - m.get(1, 2) * m.get(2, 0))
+        + m.get(0, 2) * (m.get(1, 0) * m.get(2, 1) - m.get(1, 1) * m.get(2, 0));
+  }
+
+  private static void assertMatrixEquals(Matrix expected, Matrix actual, double tolerance){
+    assertArrayEquals(expected.toRowMajorArray(), actual.toRowMajorArray(), tolerance);
+  }
+}